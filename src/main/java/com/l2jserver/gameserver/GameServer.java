@@ -44,6 +44,7 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.commons.util.IPv4Filter;
 import com.l2jserver.commons.util.Util;
 import com.l2jserver.gameserver.bbs.service.ForumsBBSManager;
+import com.l2jserver.gameserver.cache.DatapackCache;
 import com.l2jserver.gameserver.cache.HtmCache;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
 import com.l2jserver.gameserver.data.json.ExperienceData;
@@ -95,7 +96,13 @@ import com.l2jserver.gameserver.datatables.EventDroplist;
 import com.l2jserver.gameserver.datatables.ItemTable;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.datatables.SpawnTable;
+import com.l2jserver.gameserver.handler.AdminCommandHandler;
+import com.l2jserver.gameserver.handler.DatapackCacheHandler;
 import com.l2jserver.gameserver.handler.EffectHandler;
+import com.l2jserver.gameserver.handler.HtmlCacheHandler;
+import com.l2jserver.gameserver.handler.QuestTimerHandler;
+import com.l2jserver.gameserver.handler.TelnetHandler;
+import com.l2jserver.gameserver.handler.ThreadPoolStatsHandler;
 import com.l2jserver.gameserver.idfactory.IdFactory;
 import com.l2jserver.gameserver.instancemanager.AirShipManager;
 import com.l2jserver.gameserver.instancemanager.AntiFeedManager;
@@ -160,6 +167,8 @@ public final class GameServer {
 	
 	private static final String GEODATA = "-gd";
 	
+	private static final String DATAPACK_CACHE = "-cache";
+	
 	private final SelectorThread<L2GameClient> _selectorThread;
 	
 	private final L2GamePacketHandler _gamePacketHandler;
@@ -193,186 +202,143 @@ public final class GameServer {
 		EventDispatcher.getInstance();
 		ScriptEngineManager.getInstance();
 		
-		final var worldStart = startTimedSection("World");
-		GameTimeController.init();
-		InstanceManager.getInstance();
-		L2World.getInstance();
-		MapRegionManager.getInstance();
-		AnnouncementsTable.getInstance();
-		GlobalVariablesManager.getInstance();
-		endTimedSection("World", worldStart);
-		
-		final var dataStart = startTimedSection("Data");
-		CategoryData.getInstance();
-		SecondaryAuthData.getInstance();
-		endTimedSection("Data", dataStart);
-		
-		final var effectsStart = startTimedSection("Effects");
-		EffectHandler.getInstance().executeScript();
-		endTimedSection("Effects", effectsStart);
-		
-		final var esgStart = startTimedSection("Enchant Skill Groups");
-		EnchantSkillGroupsData.getInstance();
-		endTimedSection("Enchant Skill Groups", esgStart);
-		
-		final var skillTreesStart = startTimedSection("Skill Trees");
-		SkillTreesData.getInstance();
-		endTimedSection("Skill Trees", skillTreesStart);
-		
-		final var skillsStart = startTimedSection("Skills");
-		SkillData.getInstance();
-		SummonSkillsTable.getInstance();
-		endTimedSection("Skills", skillsStart);
-		
-		final var itemsStart = startTimedSection("Items");
-		ItemTable.getInstance();
-		EnchantItemGroupsData.getInstance();
-		EnchantItemData.getInstance();
-		EnchantItemOptionsData.getInstance();
-		OptionData.getInstance();
-		EnchantItemHPBonusData.getInstance();
-		MultisellData.getInstance();
-		RecipeData.getInstance();
-		ArmorSetsData.getInstance();
-		FishData.getInstance();
-		FishingMonstersData.getInstance();
-		FishingRodsData.getInstance();
-		HennaData.getInstance();
-		endTimedSection("Items", itemsStart);
-		
-		final var charactersStart = startTimedSection("Characters");
-		ClassListData.getInstance();
-		InitialEquipmentData.getInstance();
-		InitialShortcutData.getInstance();
-		ExperienceData.getInstance();
-		PlayerXpPercentLostData.getInstance();
-		KarmaData.getInstance();
-		HitConditionBonusData.getInstance();
-		PlayerTemplateData.getInstance();
-		PlayerCreationPointData.getInstance();
-		CharNameTable.getInstance();
-		AdminData.getInstance();
-		RaidBossPointsManager.getInstance();
-		PetDataTable.getInstance();
-		CharSummonTable.getInstance().init();
-		endTimedSection("Characters", charactersStart);
-		
-		final var bbsStart = startTimedSection("BBS");
-		if (general().enableCommunityBoard()) {
-			ForumsBBSManager.getInstance().load();
-		}
-		endTimedSection("BBS", bbsStart);
-		
-		final var clansStart = startTimedSection("Clans");
-		ClanTable.getInstance();
-		ClanHallSiegeManager.getInstance();
-		ClanHallManager.getInstance();
-		AuctionManager.getInstance();
-		endTimedSection("Clans", clansStart);
-		
-		final var geodataStart = startTimedSection("Geodata");
-		GeoData.getInstance();
-		if (geodata().getPathFinding() > 0) {
-			PathFinding.getInstance();
-		}
-		endTimedSection("Geodata", geodataStart);
-		
-		final var npcsStart = startTimedSection("NPCs");
-		SkillLearnData.getInstance();
-		NpcData.getInstance();
-		WalkingManager.getInstance();
-		StaticObjectData.getInstance();
-		ZoneManager.getInstance();
-		DoorData.getInstance();
-		CastleManager.getInstance().loadInstances();
-		NpcBufferTable.getInstance();
-		GrandBossManager.getInstance().initZones();
-		EventDroplist.getInstance();
-		endTimedSection("NPCs", npcsStart);
-		
-		final var auctionStart = startTimedSection("Auction Manager");
-		ItemAuctionManager.getInstance();
-		endTimedSection("Auction Manager", auctionStart);
-		
-		final var olympiadStart = startTimedSection("Olympiad");
-		Olympiad.getInstance();
-		Hero.getInstance();
-		endTimedSection("Olympiad", olympiadStart);
-		
-		final var sevenSignsStart = startTimedSection("Seven Signs");
-		SevenSigns.getInstance();
-		endTimedSection("Seven Signs", sevenSignsStart);
-		
-		// Call to load caches
-		final var cacheStart = startTimedSection("Cache");
-		HtmCache.getInstance();
-		CrestTable.getInstance();
-		UIData.getInstance();
-		PartyMatchWaitingList.getInstance();
-		PartyMatchRoomList.getInstance();
-		PetitionManager.getInstance();
-		AugmentationData.getInstance();
-		CursedWeaponsManager.getInstance();
-		TransformData.getInstance();
-		BotReportTable.getInstance();
-		QuestManager.getInstance();
-		BoatManager.getInstance();
-		AirShipManager.getInstance();
-		GraciaSeedsManager.getInstance();
-		endTimedSection("Cache", cacheStart);
-		
-		final var handlersStart = startTimedSection("Handlers");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/handlers/MasterHandler.java");
-		endTimedSection("Handlers", handlersStart);
-		
-		final var aiStart = startTimedSection("AI");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/ai/AILoader.java");
-		endTimedSection("AI", aiStart);
-		
-		final var instancesStart = startTimedSection("Instances");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/instances/InstanceLoader.java");
-		endTimedSection("Instances", instancesStart);
-		
-		final var graciaStart = startTimedSection("Gracia");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/gracia/GraciaLoader.java");
-		endTimedSection("Gracia", graciaStart);
-		
-		final var hellboundStart = startTimedSection("Hellbound");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/hellbound/HellboundLoader.java");
-		endTimedSection("Hellbound", hellboundStart);
-		
-		final var questsStart = startTimedSection("Quests");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/quests/QuestLoader.java");
-		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/quests/TerritoryWarScripts/TerritoryWarSuperClass.java");
-		endTimedSection("Quests", questsStart);
-		
-		final var scriptsStart = startTimedSection("Scripts");
-		ScriptEngineManager.getInstance().executeScriptList(new File(server().getDatapackRoot(), "data/scripts.cfg"));
-		endTimedSection("Scripts", scriptsStart);
-		
-		final var buyListStart = startTimedSection("BuyLists");
-		BuyListData.getInstance().load();
-		endTimedSection("BuyLists", buyListStart);
-		
-		final var spawnsStart = startTimedSection("Spawns");
-		SpawnTable.getInstance().load();
-		DayNightSpawnManager.getInstance().trim().notifyChangeMode();
-		FourSepulchersManager.getInstance().init();
-		DimensionalRiftManager.getInstance();
-		RaidBossSpawnManager.getInstance();
-		endTimedSection("Spawns", spawnsStart);
-		
-		final var siegeStart = startTimedSection("Siege");
-		SiegeManager.getInstance().getSieges();
-		CastleManager.getInstance().activateInstances();
-		FortManager.getInstance().loadInstances();
-		FortManager.getInstance().activateInstances();
-		FortSiegeManager.getInstance();
-		SiegeScheduleData.getInstance();
-		TerritoryWarManager.getInstance();
-		CastleManorManager.getInstance();
-		MercTicketManager.getInstance();
-		endTimedSection("Siege", siegeStart);
+		// Stages are declared in load order, a stage only waits for the stages it depends on.
+		new StartupGraph() //
+			.add("World", () -> {
+				GameTimeController.init();
+				InstanceManager.getInstance();
+				L2World.getInstance();
+				MapRegionManager.getInstance();
+				AnnouncementsTable.getInstance();
+				GlobalVariablesManager.getInstance();
+			}) //
+			.add("Data", () -> {
+				CategoryData.getInstance();
+				SecondaryAuthData.getInstance();
+			}) //
+			.add("Effects", () -> EffectHandler.getInstance().executeScript()) //
+			.add("Enchant Skill Groups", EnchantSkillGroupsData::getInstance) //
+			.add("Skill Trees", SkillTreesData::getInstance, "Enchant Skill Groups") //
+			.add("Skills", () -> {
+				SkillData.getInstance();
+				SummonSkillsTable.getInstance();
+			}, "Effects", "Skill Trees") //
+			.add("Items", () -> {
+				ItemTable.getInstance();
+				EnchantItemGroupsData.getInstance();
+				EnchantItemData.getInstance();
+				EnchantItemOptionsData.getInstance();
+				OptionData.getInstance();
+				EnchantItemHPBonusData.getInstance();
+				MultisellData.getInstance();
+				RecipeData.getInstance();
+				ArmorSetsData.getInstance();
+				FishData.getInstance();
+				FishingMonstersData.getInstance();
+				FishingRodsData.getInstance();
+				HennaData.getInstance();
+			}, "World", "Skills") //
+			.add("Characters", () -> {
+				ClassListData.getInstance();
+				InitialEquipmentData.getInstance();
+				InitialShortcutData.getInstance();
+				ExperienceData.getInstance();
+				PlayerXpPercentLostData.getInstance();
+				KarmaData.getInstance();
+				HitConditionBonusData.getInstance();
+				PlayerTemplateData.getInstance();
+				PlayerCreationPointData.getInstance();
+				CharNameTable.getInstance();
+				AdminData.getInstance();
+				RaidBossPointsManager.getInstance();
+				PetDataTable.getInstance();
+				CharSummonTable.getInstance().init();
+			}, "Data", "Items") //
+			.add("BBS", () -> {
+				if (general().enableCommunityBoard()) {
+					ForumsBBSManager.getInstance().load();
+				}
+			}, "Characters") //
+			.add("Clans", () -> {
+				ClanTable.getInstance();
+				ClanHallSiegeManager.getInstance();
+				ClanHallManager.getInstance();
+				AuctionManager.getInstance();
+			}, "Characters") //
+			.add("Geodata", () -> {
+				GeoData.getInstance();
+				if (geodata().getPathFinding() > 0) {
+					PathFinding.getInstance();
+				}
+			}, "World") //
+			.add("NPCs", () -> {
+				SkillLearnData.getInstance();
+				NpcData.getInstance();
+				WalkingManager.getInstance();
+				StaticObjectData.getInstance();
+				ZoneManager.getInstance();
+				DoorData.getInstance();
+				CastleManager.getInstance().loadInstances();
+				NpcBufferTable.getInstance();
+				GrandBossManager.getInstance().initZones();
+				EventDroplist.getInstance();
+			}, "Items", "Clans", "Geodata") //
+			.add("Auction Manager", ItemAuctionManager::getInstance, "NPCs") //
+			.add("Olympiad", () -> {
+				Olympiad.getInstance();
+				Hero.getInstance();
+			}, "NPCs") //
+			.add("Seven Signs", SevenSigns::getInstance, "NPCs") //
+			.add("Html Cache", () -> {
+				HtmCache.getInstance();
+				UIData.getInstance();
+			}) //
+			.add("Cache", () -> {
+				CrestTable.getInstance();
+				PartyMatchWaitingList.getInstance();
+				PartyMatchRoomList.getInstance();
+				PetitionManager.getInstance();
+				AugmentationData.getInstance();
+				CursedWeaponsManager.getInstance();
+				TransformData.getInstance();
+				BotReportTable.getInstance();
+				QuestManager.getInstance();
+				BoatManager.getInstance();
+				AirShipManager.getInstance();
+				GraciaSeedsManager.getInstance();
+			}, "Auction Manager", "Olympiad", "Seven Signs") //
+			// Scripts are loaded one after another, once all the data they use is loaded.
+			.add("Handlers", () -> ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/handlers/MasterHandler.java"), "BBS", "Html Cache", "Cache") //
+			.add("AI", () -> ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/ai/AILoader.java"), "Handlers") //
+			.add("Instances", () -> ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/instances/InstanceLoader.java"), "AI") //
+			.add("Gracia", () -> ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/gracia/GraciaLoader.java"), "Instances") //
+			.add("Hellbound", () -> ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/hellbound/HellboundLoader.java"), "Gracia") //
+			.add("Quests", () -> {
+				ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/quests/QuestLoader.java");
+				ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/quests/TerritoryWarScripts/TerritoryWarSuperClass.java");
+			}, "Hellbound") //
+			.add("Scripts", () -> ScriptEngineManager.getInstance().executeScriptList(new File(server().getDatapackRoot(), "data/scripts.cfg")), "Quests") //
+			.add("BuyLists", () -> BuyListData.getInstance().load(), "NPCs") //
+			// Spawned NPCs are seen by the listeners of the scripts.
+			.add("Spawns", () -> {
+				SpawnTable.getInstance().load();
+				DayNightSpawnManager.getInstance().trim().notifyChangeMode();
+				FourSepulchersManager.getInstance().init();
+				DimensionalRiftManager.getInstance();
+				RaidBossSpawnManager.getInstance();
+			}, "Scripts", "BuyLists") //
+			.add("Siege", () -> {
+				SiegeManager.getInstance().getSieges();
+				CastleManager.getInstance().activateInstances();
+				FortManager.getInstance().loadInstances();
+				FortManager.getInstance().activateInstances();
+				FortSiegeManager.getInstance();
+				SiegeScheduleData.getInstance();
+				TerritoryWarManager.getInstance();
+				CastleManorManager.getInstance();
+				MercTicketManager.getInstance();
+			}, "Spawns") //
+			.load((general().getStartupThreads() > 0) ? general().getStartupThreads() : Runtime.getRuntime().availableProcessors());
 		
 		final var otherStart = startTimedSection("Other");
 		if (general().saveDroppedItem()) {
@@ -395,6 +361,22 @@ public final class GameServer {
 		
 		TaskManager.getInstance();
 		
+		final ThreadPoolStatsHandler threadPoolStatsHandler = new ThreadPoolStatsHandler();
+		AdminCommandHandler.getInstance().registerHandler(threadPoolStatsHandler);
+		TelnetHandler.getInstance().registerHandler(threadPoolStatsHandler);
+		
+		final DatapackCacheHandler datapackCacheHandler = new DatapackCacheHandler();
+		AdminCommandHandler.getInstance().registerHandler(datapackCacheHandler);
+		TelnetHandler.getInstance().registerHandler(datapackCacheHandler);
+		
+		final HtmlCacheHandler htmlCacheHandler = new HtmlCacheHandler();
+		AdminCommandHandler.getInstance().registerHandler(htmlCacheHandler);
+		TelnetHandler.getInstance().registerHandler(htmlCacheHandler);
+		
+		final QuestTimerHandler questTimerHandler = new QuestTimerHandler();
+		AdminCommandHandler.getInstance().registerHandler(questTimerHandler);
+		TelnetHandler.getInstance().registerHandler(questTimerHandler);
+		
 		AntiFeedManager.getInstance().registerEvent(AntiFeedManager.GAME_ID);
 		
 		if (general().allowMail()) {
@@ -490,6 +472,22 @@ public final class GameServer {
 			geodata().setProperty("GeoDataPath", geodata);
 		}
 		
+		// Builds or verifies the datapack cache, without starting the server.
+		final String datapackCache = Util.parseArg(args, DATAPACK_CACHE, true);
+		if (datapackCache != null) {
+			final String[] report = switch (datapackCache.toLowerCase()) {
+				case "build" -> DatapackCache.getInstance().build();
+				case "verify" -> DatapackCache.getInstance().verify();
+				default -> new String[] {
+					"Usage: " + DATAPACK_CACHE + " build|verify"
+				};
+			};
+			for (String line : report) {
+				LOG.info(line);
+			}
+			return;
+		}
+		
 		gameServer = new GameServer();
 	}
 	
@@ -519,7 +517,7 @@ public final class GameServer {
 		return System.currentTimeMillis();
 	}
 	
-	private static void endTimedSection(String sectionName, long startTime) {
+	static void endTimedSection(String sectionName, long startTime) {
 		LOG.info("[ {} loaded in {}ms ]", sectionName, System.currentTimeMillis() - startTime);
 	}
 }
@@ -18,14 +18,26 @@
  */
 package com.l2jserver.gameserver;
 
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.gameserver.instancemanager.DayNightSpawnManager;
+import com.l2jserver.gameserver.model.L2WorldRegion;
 import com.l2jserver.gameserver.model.actor.L2Character;
 
 /**
@@ -46,24 +58,69 @@ public final class GameTimeController extends Thread {
 	public static final int TICKS_PER_IG_MINUTE = TICKS_PER_IG_HOUR / 60;
 	public static final int TICKS_SUN_STATE_CHANGE = TICKS_PER_IG_DAY / 4;
 	
+	/** Upper bounds in milliseconds of the tick duration histogram buckets, the last bucket holds everything above. */
+	private static final long[] TICK_DURATION_BUCKETS = {
+		5,
+		10,
+		25,
+		50,
+		100,
+		250
+	};
+	
+	/** Maximum amount of world region partitions updated by a single fork join task. */
+	private static final int PARTITIONS_PER_TASK = 4;
+	
+	/**
+	 * Distance in world regions between the regions updated at the same time.<br>
+	 * A mover touches its region, the region it enters and the surrounding regions of that one, two regions away at most, so regions five apart never touch the same region.
+	 */
+	private static final int WAVE_SPACING = 5;
+	
 	private static GameTimeController _instance;
 	
 	private final Set<L2Character> _movingObjects = ConcurrentHashMap.newKeySet();
 	private final long _referenceTime;
 	
+	private final ForkJoinPool _movementPool;
+	
+	private final AtomicLongArray _tickDurations = new AtomicLongArray(TICK_DURATION_BUCKETS.length + 1);
+	private volatile long _ticks;
+	private volatile long _parallelTicks;
+	private volatile long _waves;
+	private volatile long _skippedTicks;
+	private volatile long _totalMovers;
+	private volatile int _lastMovers;
+	private volatile int _maxMovers;
+	private volatile long _maxTickDuration;
+	
 	private GameTimeController() {
+		this((general().getMovementThreadPoolSize() > 0) ? general().getMovementThreadPoolSize() : Runtime.getRuntime().availableProcessors());
+		super.start();
+	}
+	
+	/**
+	 * Creates a game time controller without starting its thread.
+	 * @param parallelism the amount of threads moving characters
+	 */
+	GameTimeController(int parallelism) {
 		super("GameTimeController");
 		super.setDaemon(true);
 		super.setPriority(MAX_PRIORITY);
 		
+		_movementPool = new ForkJoinPool(parallelism, pool -> {
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("MovementPool-" + thread.getPoolIndex());
+			thread.setDaemon(true);
+			return thread;
+		}, null, false);
+		
 		final Calendar c = Calendar.getInstance();
 		c.set(Calendar.HOUR_OF_DAY, 0);
 		c.set(Calendar.MINUTE, 0);
 		c.set(Calendar.SECOND, 0);
 		c.set(Calendar.MILLISECOND, 0);
 		_referenceTime = c.getTimeInMillis();
-		
-		super.start();
 	}
 	
 	public static void init() {
@@ -117,12 +174,141 @@ public final class GameTimeController extends Thread {
 	 * <li>Create a task to update the _knownObject and _knowPlayers of each L2Character that finished its movement and of their already known L2Object then notify AI with EVT_ARRIVED</li>
 	 * </ul>
 	 */
-	private void moveObjects() {
-		_movingObjects.removeIf(L2Character::updatePosition);
+	void moveObjects() {
+		final int movers = _movingObjects.size();
+		_lastMovers = movers;
+		if (movers > _maxMovers) {
+			_maxMovers = movers;
+		}
+		_totalMovers += movers;
+		
+		if (movers < general().getMovementParallelThreshold()) {
+			_movingObjects.removeIf(L2Character::updatePosition);
+			return;
+		}
+		
+		// Characters in the same world region touch the same known lists and zones, keep them on the same thread.
+		final Map<L2WorldRegion, List<L2Character>> partitions = new HashMap<>();
+		for (L2Character character : _movingObjects) {
+			partitions.computeIfAbsent(character.getWorldRegion(), k -> new ArrayList<>()).add(character);
+		}
+		
+		// Regions close enough to touch the same regions are updated in different waves, one wave after another.
+		final List<List<List<L2Character>>> waves = new ArrayList<>(WAVE_SPACING * WAVE_SPACING);
+		for (int i = 0; i < (WAVE_SPACING * WAVE_SPACING); i++) {
+			waves.add(new ArrayList<>());
+		}
+		List<L2Character> outOfWorld = null;
+		for (Map.Entry<L2WorldRegion, List<L2Character>> partition : partitions.entrySet()) {
+			final L2WorldRegion region = partition.getKey();
+			if (region == null) {
+				outOfWorld = partition.getValue();
+				continue;
+			}
+			waves.get((Math.floorMod(region.getTileX(), WAVE_SPACING) * WAVE_SPACING) + Math.floorMod(region.getTileY(), WAVE_SPACING)).add(partition.getValue());
+		}
+		
+		for (List<List<L2Character>> wave : waves) {
+			if (!wave.isEmpty()) {
+				_movementPool.invoke(new MoveTask(wave, 0, wave.size()));
+				_waves++;
+			}
+		}
+		
+		if (outOfWorld != null) {
+			new MoveTask(List.of(outOfWorld), 0, 1).compute();
+		}
+		_parallelTicks++;
+	}
+	
+	/**
+	 * Updates the position of the characters of a range of world region partitions, splitting the range until it is small enough.
+	 */
+	private final class MoveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<List<L2Character>> _partitions;
+		private final int _from;
+		private final int _to;
+		
+		MoveTask(List<List<L2Character>> partitions, int from, int to) {
+			_partitions = partitions;
+			_from = from;
+			_to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if ((_to - _from) > PARTITIONS_PER_TASK) {
+				final int middle = (_from + _to) >>> 1;
+				invokeAll(new MoveTask(_partitions, _from, middle), new MoveTask(_partitions, middle, _to));
+				return;
+			}
+			
+			for (int i = _from; i < _to; i++) {
+				for (L2Character character : _partitions.get(i)) {
+					try {
+						if (character.updatePosition()) {
+							_movingObjects.remove(character);
+						}
+					} catch (Exception e) {
+						LOG.warn("Unable to move {}!", character, e);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Records the duration of a movement tick.
+	 * @param durationMillis the duration of the tick in milliseconds
+	 */
+	void recordTick(long durationMillis) {
+		_ticks++;
+		if (durationMillis > _maxTickDuration) {
+			_maxTickDuration = durationMillis;
+		}
+		
+		if (durationMillis > MILLIS_IN_TICK) {
+			_skippedTicks += (durationMillis - 1) / MILLIS_IN_TICK;
+		}
+		
+		int bucket = 0;
+		while ((bucket < TICK_DURATION_BUCKETS.length) && (durationMillis > TICK_DURATION_BUCKETS[bucket])) {
+			bucket++;
+		}
+		_tickDurations.incrementAndGet(bucket);
+	}
+	
+	/**
+	 * Gets the movement tick statistics.
+	 * @return the movement tick statistics
+	 */
+	public String[] getStats() {
+		final long ticks = _ticks;
+		final List<String> stats = new ArrayList<>();
+		stats.add("Movement:");
+		stats.add(" |- Parallelism:     " + _movementPool.getParallelism());
+		stats.add(" |- Ticks:           " + ticks);
+		stats.add(" |- ParallelTicks:   " + _parallelTicks);
+		stats.add(" |- Waves:           " + _waves);
+		stats.add(" |- SkippedTicks:    " + _skippedTicks);
+		stats.add(" |- MoversLastTick:  " + _lastMovers);
+		stats.add(" |- MoversMax:       " + _maxMovers);
+		stats.add(" |- MoversAverage:   " + ((ticks > 0) ? _totalMovers / ticks : 0));
+		stats.add(" |- MaxTickDuration: " + _maxTickDuration + "ms");
+		stats.add(" + Tick Durations:");
+		for (int i = 0; i <= TICK_DURATION_BUCKETS.length; i++) {
+			final String bucket = (i < TICK_DURATION_BUCKETS.length) ? "<= " + TICK_DURATION_BUCKETS[i] + "ms" : "> " + TICK_DURATION_BUCKETS[i - 1] + "ms";
+			stats.add(" |- " + String.format("%-16s", bucket + ":") + " " + _tickDurations.get(i));
+		}
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
 	}
 	
 	public void stopTimer() {
 		super.interrupt();
+		_movementPool.shutdown();
 		LOG.info("Stopping {}", getClass().getSimpleName());
 	}
 	
@@ -138,6 +324,7 @@ public final class GameTimeController extends Thread {
 		}
 		
 		while (true) {
+			final long tickStart = System.nanoTime();
 			nextTickTime = System.currentTimeMillis() + MILLIS_IN_TICK;
 			
 			try {
@@ -146,6 +333,8 @@ public final class GameTimeController extends Thread {
 				LOG.warn("Unable to move objects!", e);
 			}
 			
+			recordTick(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tickStart));
+			
 			sleepTime = nextTickTime - System.currentTimeMillis();
 			if (sleepTime > 0) {
 				try {
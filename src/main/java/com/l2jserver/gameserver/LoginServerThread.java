@@ -25,14 +25,16 @@ import static com.l2jserver.gameserver.config.Configuration.server;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigInteger;
-import java.net.Socket;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
 import java.nio.file.Files;
 import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
@@ -43,8 +45,13 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +91,12 @@ import com.l2jserver.gameserver.network.serverpackets.CharSelectionInfo;
 import com.l2jserver.gameserver.network.serverpackets.LoginFail;
 import com.l2jserver.gameserver.network.serverpackets.SystemMessage;
 
+/**
+ * Login server link.<br>
+ * The link is a non-blocking socket channel served by this thread: incoming packets are framed out of a read buffer, and outgoing packets are put in a lock-free queue the thread writes out, so no sender waits on the socket.<br>
+ * Player authentications are pipelined, a request is sent as soon as the player asks for it and the waiting player is found by account when the login server answers.<br>
+ * Waiting players the login server does not answer in time are disconnected, the deadlines are checked in request order, so a check only looks at the expired requests.
+ */
 public class LoginServerThread extends Thread {
 	
 	protected static final Logger LOG = LoggerFactory.getLogger(LoginServerThread.class);
@@ -94,11 +107,26 @@ public class LoginServerThread extends Thread {
 	
 	private static final int ADULT = 18;
 	
+	/** Biggest packet of the link, its length is sent in two bytes. */
+	private static final int MAX_PACKET_SIZE = 0xFFFF;
+	
+	/** Longest wait of the thread for the socket, the expired authentications are checked at least this often. */
+	private static final long SELECT_MILLIS = 1000;
+	
+	private static final long RECONNECT_MILLIS = 5000;
+	
 	private final String _hostname;
 	private final int _port;
 	private final int _gamePort;
-	private Socket _loginSocket;
-	private OutputStream _out;
+	private final long _authTimeout;
+	private volatile SocketChannel _channel;
+	private volatile Selector _selector;
+	private final ByteBuffer _readBuffer = ByteBuffer.allocate(MAX_PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	private final ByteBuffer _writeBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+	/** Framed and encrypted packets waiting to be written. */
+	private final Queue<byte[]> _sendQueue = new ConcurrentLinkedQueue<>();
+	/** Whether the thread has been woken up for packets it has not written yet. */
+	private final AtomicBoolean _writeWakeup = new AtomicBoolean();
 	
 	/**
 	 * The BlowFish engine used to encrypt packets<br>
@@ -109,24 +137,41 @@ public class LoginServerThread extends Thread {
 	 * login server during the handshake. This new key is stored<br>
 	 * in blowfishKey
 	 */
-	private NewCrypt _blowfish;
+	private volatile NewCrypt _blowfish;
 	private final byte[] _hexID;
 	private final boolean _acceptAlternate;
 	private final int _requestID;
 	private final boolean _reserveHost;
 	private int _maxPlayer;
-	private final List<WaitingClient> _waitingClients;
+	/** Players waiting for the login server, by account, a single client of an account gets this far. */
+	private final Map<String, WaitingClient> _waitingClients = new ConcurrentHashMap<>();
+	/** Players waiting for the login server in request order, so by deadline, answered ones are skipped. */
+	private final Queue<WaitingClient> _authDeadlines = new ConcurrentLinkedQueue<>();
 	private final Map<String, L2GameClient> _accountsInGameServer = new ConcurrentHashMap<>();
 	private int _status;
 	private String _serverName;
 	private final List<String> _subnets;
 	private final List<String> _hosts;
 	
+	private final LongAdder _authRequests = new LongAdder();
+	private final LongAdder _authReplies = new LongAdder();
+	private final LongAdder _authTimeouts = new LongAdder();
+	private final LongAdder _authLatency = new LongAdder();
+	private final LongAccumulator _maxAuthLatency = new LongAccumulator(Math::max, 0);
+	private final LongAdder _packetsSent = new LongAdder();
+	private final LongAdder _packetsReceived = new LongAdder();
+	private final LongAdder _partialWrites = new LongAdder();
+	
 	protected LoginServerThread() {
+		this(server().getLoginHost(), server().getLoginPort(), server().getPlayerAuthTimeout());
+	}
+	
+	LoginServerThread(String hostname, int port, long authTimeout) {
 		super("LoginServerThread");
-		_port = server().getLoginPort();
+		_port = port;
 		_gamePort = server().getPort();
-		_hostname = server().getLoginHost();
+		_hostname = hostname;
+		_authTimeout = TimeUnit.MILLISECONDS.toNanos(authTimeout);
 		if (hexId().getHexID() == null) {
 			_hexID = Util.generateHex(16);
 			_requestID = server().getRequestServerId();
@@ -139,23 +184,16 @@ public class LoginServerThread extends Thread {
 		_reserveHost = server().reserveHostOnLogin();
 		_subnets = ip().getSubnets();
 		_hosts = ip().getHosts();
-		_waitingClients = new CopyOnWriteArrayList<>();
 		_maxPlayer = server().getMaxOnlineUsers();
 	}
 	
 	@Override
 	public void run() {
 		while (!isInterrupted()) {
-			int lengthHi;
-			int lengthLo;
-			int length;
-			boolean checksumOk;
 			try {
 				// Connection
 				LOG.info("Connecting to login server on {}:{}", _hostname, _port);
-				_loginSocket = new Socket(_hostname, _port);
-				InputStream in = _loginSocket.getInputStream();
-				_out = new BufferedOutputStream(_loginSocket.getOutputStream());
+				connect();
 				
 				// init Blowfish
 				byte[] blowfishKey = Util.generateHex(40);
@@ -164,164 +202,277 @@ public class LoginServerThread extends Thread {
 					blowfishKey[0] = (byte) Rnd.get(32, 64);
 				}
 				_blowfish = new NewCrypt("_;v.]05-31!|+-%xT!^[$\00");
+				final SelectionKey key = _channel.register(_selector, SelectionKey.OP_READ);
 				while (!isInterrupted()) {
-					lengthLo = in.read();
-					lengthHi = in.read();
-					length = (lengthHi * 256) + lengthLo;
-					
-					if (lengthHi < 0) {
-						LOG.info("LoginServerThread: Login terminated the connection.");
+					_selector.select(SELECT_MILLIS);
+					_selector.selectedKeys().clear();
+					// Packets queued from now on wake the thread up again.
+					_writeWakeup.set(false);
+					if (!readPackets(blowfishKey)) {
 						break;
 					}
-					
-					byte[] incoming = new byte[length - 2];
-					
-					int receivedBytes = 0;
-					int newBytes = 0;
-					int left = length - 2;
-					while ((newBytes != -1) && (receivedBytes < (length - 2))) {
-						newBytes = in.read(incoming, receivedBytes, left);
-						receivedBytes = receivedBytes + newBytes;
-						left -= newBytes;
-					}
-					
-					if (receivedBytes != (length - 2)) {
-						LOG.warn("Incomplete Packet is sent to the server, closing connection.(LS)");
-						break;
-					}
-					
-					// decrypt if we have a key
-					_blowfish.decrypt(incoming, 0, incoming.length);
-					checksumOk = NewCrypt.verifyChecksum(incoming);
-					
-					if (!checksumOk) {
-						LOG.warn("Incorrect packet checksum, ignoring packet (LS)");
-						break;
-					}
-					
-					int packetType = incoming[0] & 0xff;
-					// send the blowfish key through the rsa encryption
-					// now, only accept packet with the new encryption
-					// login will close the connection here
-					switch (packetType) {
-						case 0x00 -> {
-							InitLS init = new InitLS(incoming);
-							RSAPublicKey publicKey;
-							try {
-								KeyFactory kfac = KeyFactory.getInstance("RSA");
-								BigInteger modulus = new BigInteger(init.getRSAKey());
-								RSAPublicKeySpec kspec1 = new RSAPublicKeySpec(modulus, RSAKeyGenParameterSpec.F4);
-								publicKey = (RSAPublicKey) kfac.generatePublic(kspec1);
-							} catch (GeneralSecurityException e) {
-								LOG.warn("Trouble while init the public key send by login");
-								break;
-							}
-							sendPacket(new BlowFishKey(blowfishKey, publicKey));
-							_blowfish = new NewCrypt(blowfishKey);
-							sendPacket(new AuthRequest(_requestID, _acceptAlternate, _hexID, _gamePort, _reserveHost, _maxPlayer, _subnets, _hosts));
-						}
-						case 0x01 -> {
-							LoginServerFail lsf = new LoginServerFail(incoming);
-							LOG.info("Damn! Registration Failed: {}", lsf.getReasonString());
-						}
-						case 0x02 -> {
-							AuthResponse aresp = new AuthResponse(incoming);
-							int serverID = aresp.getServerId();
-							_serverName = aresp.getServerName();
-							saveHexid(serverID, hexToString(_hexID));
-							LOG.info("Registered on login as Server {}: {}", serverID, _serverName);
-							ServerStatus st = new ServerStatus();
-							if (general().getServerListBrackets()) {
-								st.addAttribute(ServerStatus.SERVER_LIST_SQUARE_BRACKET, ServerStatus.ON);
-							} else {
-								st.addAttribute(ServerStatus.SERVER_LIST_SQUARE_BRACKET, ServerStatus.OFF);
-							}
-							st.addAttribute(ServerStatus.SERVER_TYPE, general().getServerListType());
-							if (general().serverGMOnly()) {
-								st.addAttribute(ServerStatus.SERVER_LIST_STATUS, ServerStatus.STATUS_GM_ONLY);
-							} else {
-								st.addAttribute(ServerStatus.SERVER_LIST_STATUS, ServerStatus.STATUS_AUTO);
-							}
-							if (general().getServerListAge() == TEENAGER) {
-								st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_15);
-							} else if (general().getServerListAge() == ADULT) {
-								st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_18);
-							} else {
-								st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_ALL);
-							}
-							sendPacket(st);
-							if (L2World.getInstance().getAllPlayersCount() > 0) {
-								final List<String> playerList = new ArrayList<>();
-								for (L2PcInstance player : L2World.getInstance().getPlayers()) {
-									playerList.add(player.getAccountName());
-								}
-								sendPacket(new PlayerInGame(playerList));
-							}
-						}
-						case 0x03 -> {
-							PlayerAuthResponse par = new PlayerAuthResponse(incoming);
-							String account = par.getAccount();
-							WaitingClient wcToRemove = null;
-							synchronized (_waitingClients) {
-								for (WaitingClient wc : _waitingClients) {
-									if (wc.account.equals(account)) {
-										wcToRemove = wc;
-									}
-								}
-							}
-							if (wcToRemove != null) {
-								if (par.isAuthed()) {
-									PlayerInGame pig = new PlayerInGame(par.getAccount());
-									sendPacket(pig);
-									wcToRemove.gameClient.setState(GameClientState.AUTHED);
-									wcToRemove.gameClient.setSessionId(wcToRemove.session);
-									CharSelectionInfo cl = new CharSelectionInfo(wcToRemove.account, wcToRemove.gameClient.getSessionId().playOkID1);
-									wcToRemove.gameClient.getConnection().sendPacket(cl);
-									wcToRemove.gameClient.setCharSelection(cl.getCharInfo());
-								} else {
-									LOG.warn("Session key is not correct. Closing connection for account {}.", wcToRemove.account);
-									// wcToRemove.gameClient.getConnection().sendPacket(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
-									wcToRemove.gameClient.close(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
-									_accountsInGameServer.remove(wcToRemove.account);
-								}
-								_waitingClients.remove(wcToRemove);
-							}
-						}
-						case 0x04 -> {
-							KickPlayer kp = new KickPlayer(incoming);
-							doKickPlayer(kp.getAccount());
-						}
-						case 0x05 -> {
-							RequestCharacters rc = new RequestCharacters(incoming);
-							getCharsOnServer(rc.getAccount());
-						}
-						case 0x06 -> new ChangePasswordResponse(incoming);
-					}
+					writePackets(key);
+					expireWaitingClients();
 				}
-			} catch (UnknownHostException e) {
+			} catch (UnresolvedAddressException e) {
 				LOG.warn("Unknown host!", e);
 			} catch (SocketException e) {
 				LOG.warn("LoginServer not avaible, trying to reconnect...");
 			} catch (IOException e) {
 				LOG.warn("Disconnected from Login, Trying to reconnect!", e);
 			} finally {
+				disconnect();
+			}
+			
+			if (isInterrupted()) {
+				return;
+			}
+			
+			try {
+				Thread.sleep(RECONNECT_MILLIS); // 5 seconds tempo.
+			} catch (InterruptedException e) {
+				return; // never swallow an interrupt!
+			}
+		}
+	}
+	
+	private void connect() throws IOException {
+		_sendQueue.clear();
+		_readBuffer.clear();
+		_writeBuffer.clear().flip();
+		_selector = Selector.open();
+		final SocketChannel channel = SocketChannel.open(new InetSocketAddress(_hostname, _port));
+		channel.configureBlocking(false);
+		_channel = channel;
+	}
+	
+	private void disconnect() {
+		final SocketChannel channel = _channel;
+		_channel = null;
+		try {
+			if (channel != null) {
+				channel.close();
+			}
+			if (_selector != null) {
+				_selector.close();
+			}
+		} catch (IOException e) {
+		}
+		
+		// The login server forgets the requests of a closed link.
+		for (WaitingClient wc : _waitingClients.values()) {
+			if (_waitingClients.remove(wc.account, wc)) {
+				LOG.warn("Login server link lost. Closing connection for account {}.", wc.account);
+				rejectPlayer(wc.account, wc.gameClient);
+			}
+		}
+	}
+	
+	/**
+	 * Reads and handles the packets the login server sent.
+	 * @param blowfishKey the blowfish key of the connection
+	 * @return {@code true} if the connection can be kept, {@code false} otherwise
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean readPackets(byte[] blowfishKey) throws IOException {
+		int read;
+		while ((read = _channel.read(_readBuffer)) > 0) {
+			_readBuffer.flip();
+			while (_readBuffer.remaining() >= 2) {
+				final int length = _readBuffer.getShort(_readBuffer.position()) & 0xFFFF;
+				if (length < 2) {
+					LOG.warn("Invalid packet length {} is sent to the server, closing connection.(LS)", length);
+					return false;
+				}
+				
+				if (_readBuffer.remaining() < length) {
+					break;
+				}
+				
+				final byte[] incoming = new byte[length - 2];
+				_readBuffer.position(_readBuffer.position() + 2);
+				_readBuffer.get(incoming);
+				
+				// decrypt if we have a key
+				_blowfish.decrypt(incoming, 0, incoming.length);
+				if (!NewCrypt.verifyChecksum(incoming)) {
+					LOG.warn("Incorrect packet checksum, ignoring packet (LS)");
+					return false;
+				}
+				
+				_packetsReceived.increment();
+				handlePacket(incoming, blowfishKey);
+			}
+			_readBuffer.compact();
+		}
+		
+		if (read < 0) {
+			LOG.info("LoginServerThread: Login terminated the connection.");
+			return false;
+		}
+		return true;
+	}
+	
+	private void handlePacket(byte[] incoming, byte[] blowfishKey) throws IOException {
+		int packetType = incoming[0] & 0xff;
+		switch (packetType) {
+			case 0x00 -> {
+				InitLS init = new InitLS(incoming);
+				RSAPublicKey publicKey;
 				try {
-					_loginSocket.close();
-					if (isInterrupted()) {
-						return;
+					KeyFactory kfac = KeyFactory.getInstance("RSA");
+					BigInteger modulus = new BigInteger(init.getRSAKey());
+					RSAPublicKeySpec kspec1 = new RSAPublicKeySpec(modulus, RSAKeyGenParameterSpec.F4);
+					publicKey = (RSAPublicKey) kfac.generatePublic(kspec1);
+				} catch (GeneralSecurityException e) {
+					LOG.warn("Trouble while init the public key send by login");
+					break;
+				}
+				// send the blowfish key through the rsa encryption
+				sendPacket(new BlowFishKey(blowfishKey, publicKey));
+				// now, only accept packet with the new encryption
+				_blowfish = new NewCrypt(blowfishKey);
+				sendPacket(new AuthRequest(_requestID, _acceptAlternate, _hexID, _gamePort, _reserveHost, _maxPlayer, _subnets, _hosts));
+			}
+			case 0x01 -> {
+				LoginServerFail lsf = new LoginServerFail(incoming);
+				LOG.info("Damn! Registration Failed: {}", lsf.getReasonString());
+			}
+			case 0x02 -> {
+				AuthResponse aresp = new AuthResponse(incoming);
+				int serverID = aresp.getServerId();
+				_serverName = aresp.getServerName();
+				saveHexid(serverID, hexToString(_hexID));
+				LOG.info("Registered on login as Server {}: {}", serverID, _serverName);
+				ServerStatus st = new ServerStatus();
+				if (general().getServerListBrackets()) {
+					st.addAttribute(ServerStatus.SERVER_LIST_SQUARE_BRACKET, ServerStatus.ON);
+				} else {
+					st.addAttribute(ServerStatus.SERVER_LIST_SQUARE_BRACKET, ServerStatus.OFF);
+				}
+				st.addAttribute(ServerStatus.SERVER_TYPE, general().getServerListType());
+				if (general().serverGMOnly()) {
+					st.addAttribute(ServerStatus.SERVER_LIST_STATUS, ServerStatus.STATUS_GM_ONLY);
+				} else {
+					st.addAttribute(ServerStatus.SERVER_LIST_STATUS, ServerStatus.STATUS_AUTO);
+				}
+				if (general().getServerListAge() == TEENAGER) {
+					st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_15);
+				} else if (general().getServerListAge() == ADULT) {
+					st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_18);
+				} else {
+					st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_ALL);
+				}
+				sendPacket(st);
+				if (L2World.getInstance().getAllPlayersCount() > 0) {
+					final List<String> playerList = new ArrayList<>();
+					for (L2PcInstance player : L2World.getInstance().getPlayers()) {
+						playerList.add(player.getAccountName());
 					}
-				} catch (Exception e) {
+					sendPacket(new PlayerInGame(playerList));
+				}
+			}
+			case 0x03 -> {
+				final PlayerAuthResponse par = new PlayerAuthResponse(incoming);
+				final WaitingClient wc = _waitingClients.remove(par.getAccount());
+				if (wc != null) {
+					final long latency = System.nanoTime() - wc.requestTime;
+					_authReplies.increment();
+					_authLatency.add(latency);
+					_maxAuthLatency.accumulate(latency);
+					// The character list is loaded from the database, out of the link thread.
+					ThreadPoolManager.getInstance().executeGeneral(() -> completePlayerAuth(wc.account, wc.gameClient, wc.session, par.isAuthed()));
+				}
+			}
+			case 0x04 -> {
+				KickPlayer kp = new KickPlayer(incoming);
+				doKickPlayer(kp.getAccount());
+			}
+			case 0x05 -> {
+				RequestCharacters rc = new RequestCharacters(incoming);
+				ThreadPoolManager.getInstance().executeGeneral(() -> getCharsOnServer(rc.getAccount()));
+			}
+			case 0x06 -> new ChangePasswordResponse(incoming);
+		}
+	}
+	
+	/**
+	 * Writes the queued packets, as many as the socket takes.<br>
+	 * When the socket is full the thread waits for it to take more, the packets stay in the queue meanwhile.
+	 * @param key the selection key of the channel
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writePackets(SelectionKey key) throws IOException {
+		while (true) {
+			if (!_writeBuffer.hasRemaining()) {
+				_writeBuffer.clear();
+				byte[] frame;
+				while (((frame = _sendQueue.peek()) != null) && (frame.length <= _writeBuffer.remaining())) {
+					_writeBuffer.put(_sendQueue.poll());
+					_packetsSent.increment();
+				}
+				_writeBuffer.flip();
+				if (!_writeBuffer.hasRemaining()) {
+					key.interestOps(SelectionKey.OP_READ);
+					return;
 				}
 			}
 			
+			_channel.write(_writeBuffer);
+			if (_writeBuffer.hasRemaining()) {
+				_partialWrites.increment();
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Disconnects the waiting players the login server did not answer in time.
+	 */
+	private void expireWaitingClients() {
+		final long now = System.nanoTime();
+		WaitingClient wc;
+		while (((wc = _authDeadlines.peek()) != null) && ((now - wc.requestTime) >= _authTimeout)) {
+			_authDeadlines.poll();
+			if (_waitingClients.remove(wc.account, wc)) {
+				_authTimeouts.increment();
+				LOG.warn("Login server did not answer in time. Closing connection for account {}.", wc.account);
+				rejectPlayer(wc.account, wc.gameClient);
+			}
+		}
+	}
+	
+	/**
+	 * Completes the authentication of a player the login server answered.
+	 * @param account the account
+	 * @param client the game client
+	 * @param session the session key
+	 * @param authed {@code true} if the login server accepted the session key, {@code false} otherwise
+	 */
+	protected void completePlayerAuth(String account, L2GameClient client, SessionKey session, boolean authed) {
+		if (authed) {
 			try {
-				Thread.sleep(5000); // 5 seconds tempo.
-			} catch (InterruptedException e) {
-				return; // never swallow an interrupt!
+				sendPacket(new PlayerInGame(account));
+			} catch (IOException e) {
+				LOG.warn("Error while sending player in game packet to login!");
 			}
+			client.setState(GameClientState.AUTHED);
+			client.setSessionId(session);
+			CharSelectionInfo cl = new CharSelectionInfo(account, client.getSessionId().playOkID1);
+			client.getConnection().sendPacket(cl);
+			client.setCharSelection(cl.getCharInfo());
+		} else {
+			LOG.warn("Session key is not correct. Closing connection for account {}.", account);
+			rejectPlayer(account, client);
 		}
 	}
 	
+	private void rejectPlayer(String account, L2GameClient client) {
+		client.close(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
+		_accountsInGameServer.remove(account);
+	}
+	
 	/**
 	 * Adds the waiting client and send request.
 	 * @param acc the account
@@ -329,15 +480,17 @@ public class LoginServerThread extends Thread {
 	 * @param key the session key
 	 */
 	public void addWaitingClientAndSendRequest(String acc, L2GameClient client, SessionKey key) {
-		WaitingClient wc = new WaitingClient(acc, client, key);
-		synchronized (_waitingClients) {
-			_waitingClients.add(wc);
-		}
-		PlayerAuthRequest par = new PlayerAuthRequest(acc, key);
+		final WaitingClient wc = new WaitingClient(acc, client, key);
+		_waitingClients.put(acc, wc);
+		_authDeadlines.add(wc);
+		_authRequests.increment();
 		try {
-			sendPacket(par);
+			sendPacket(new PlayerAuthRequest(acc, key));
 		} catch (IOException e) {
 			LOG.warn("Error while sending player auth request!");
+			if (_waitingClients.remove(acc, wc)) {
+				rejectPlayer(acc, client);
+			}
 		}
 	}
 	
@@ -346,16 +499,14 @@ public class LoginServerThread extends Thread {
 	 * @param client the client
 	 */
 	public void removeWaitingClient(L2GameClient client) {
-		WaitingClient toRemove = null;
-		synchronized (_waitingClients) {
-			for (WaitingClient c : _waitingClients) {
-				if (c.gameClient == client) {
-					toRemove = c;
-				}
-			}
-			if (toRemove != null) {
-				_waitingClients.remove(toRemove);
-			}
+		final String account = client.getAccountName();
+		if (account == null) {
+			return;
+		}
+		
+		final WaitingClient wc = _waitingClients.get(account);
+		if ((wc != null) && (wc.gameClient == client)) {
+			_waitingClients.remove(account, wc);
 		}
 	}
 	
@@ -495,22 +646,29 @@ public class LoginServerThread extends Thread {
 	}
 	
 	/**
-	 * Send packet.
+	 * Send packet.<br>
+	 * The packet is queued for the link thread to write, the caller does not wait for the socket.
 	 * @param sl the sendable packet
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
 	private void sendPacket(BaseSendablePacket sl) throws IOException {
+		if (_channel == null) {
+			throw new IOException("Not connected to login server!");
+		}
+		
 		byte[] data = sl.getContent();
 		NewCrypt.appendChecksum(data);
 		_blowfish.crypt(data, 0, data.length);
 		
 		int len = data.length + 2;
-		synchronized (_out) // avoids tow threads writing in the mean time
-		{
-			_out.write(len & 0xff);
-			_out.write((len >> 8) & 0xff);
-			_out.write(data);
-			_out.flush();
+		final byte[] frame = new byte[len];
+		frame[0] = (byte) (len & 0xff);
+		frame[1] = (byte) ((len >> 8) & 0xff);
+		System.arraycopy(data, 0, frame, 2, data.length);
+		_sendQueue.add(frame);
+		// A single wake up for the packets queued while the thread is busy.
+		if (_writeWakeup.compareAndSet(false, true)) {
+			_selector.wakeup();
 		}
 	}
 	
@@ -626,6 +784,28 @@ public class LoginServerThread extends Thread {
 		return name != null ? _accountsInGameServer.get(name) : null;
 	}
 	
+	/**
+	 * Gets the login server link statistics.
+	 * @return the login server link statistics
+	 */
+	public String[] getStats() {
+		final long replies = _authReplies.sum();
+		return new String[] {
+			"Login Server Link:",
+			" |- Connected:       " + (_channel != null),
+			" |- WaitingClients:  " + _waitingClients.size(),
+			" |- AuthRequests:    " + _authRequests.sum(),
+			" |- AuthReplies:     " + replies,
+			" |- AuthTimeouts:    " + _authTimeouts.sum(),
+			" |- AuthLatencyAvg:  " + ((replies > 0) ? TimeUnit.NANOSECONDS.toMillis(_authLatency.sum() / replies) : 0) + "ms",
+			" |- AuthLatencyMax:  " + TimeUnit.NANOSECONDS.toMillis(_maxAuthLatency.get()) + "ms",
+			" |- PacketsSent:     " + _packetsSent.sum(),
+			" |- PacketsReceived: " + _packetsReceived.sum(),
+			" |- PartialWrites:   " + _partialWrites.sum(),
+			" | -------"
+		};
+	}
+	
 	public static class SessionKey {
 		public int playOkID1;
 		public int playOkID2;
@@ -656,6 +836,7 @@ public class LoginServerThread extends Thread {
 		public String account;
 		public L2GameClient gameClient;
 		public SessionKey session;
+		public long requestTime;
 		
 		/**
 		 * Instantiates a new waiting client.
@@ -667,6 +848,7 @@ public class LoginServerThread extends Thread {
 			account = acc;
 			gameClient = client;
 			session = key;
+			requestTime = System.nanoTime();
 		}
 	}
 	
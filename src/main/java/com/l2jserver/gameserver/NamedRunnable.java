@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+/**
+ * A task that names itself in the {@link ThreadPoolStats task statistics}.<br>
+ * Tasks are otherwise aggregated by class, which puts all the lambdas of a class, or all the work run by a single task class, under one name.
+ * @since 2.6.3.0
+ */
+public interface NamedRunnable extends Runnable {
+	/**
+	 * Gets the name the statistics aggregate the task by.<br>
+	 * It is read after each execution, so a task running different work each time can name the work it just ran.
+	 * @return the task name
+	 */
+	String getTaskName();
+	
+	/**
+	 * Names a task.
+	 * @param name the task name
+	 * @param task the task
+	 * @return the named task
+	 */
+	static NamedRunnable of(String name, Runnable task) {
+		return new NamedRunnable() {
+			@Override
+			public void run() {
+				task.run();
+			}
+			
+			@Override
+			public String getTaskName() {
+				return name;
+			}
+		};
+	}
+}
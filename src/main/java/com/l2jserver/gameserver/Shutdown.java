@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.UPnPService;
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.data.sql.impl.OfflineTradersTable;
 import com.l2jserver.gameserver.datatables.BotReportTable;
@@ -230,6 +231,13 @@ public class Shutdown extends Thread {
 				// ignore
 			}
 			
+			try {
+				DatabaseWriter.getInstance().shutdown();
+				LOG.info("Database Writer: Pending writes written({}ms).", tc.getEstimatedTimeAndRestartCounter());
+			} catch (Exception e) {
+				LOG.warn("Error writing pending database writes!", e);
+			}
+			
 			// commit data, last chance
 			ConnectionFactory.getInstance().close();
 			LOG.info("ConnectionFactory: Database connection has been shutdown({}ms).", tc.getEstimatedTimeAndRestartCounter());
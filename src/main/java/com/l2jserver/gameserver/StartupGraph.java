@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Startup graph.<br>
+ * The server startup is split in stages, each one declaring the stages it depends on.<br>
+ * Stages not depending on each other are loaded in parallel on a work stealing pool, a stage is loaded once all its dependencies are.<br>
+ * The graph is checked before any stage is loaded, a missing dependency or a dependency cycle fails the startup right away.
+ * @since 2.6.3.0
+ */
+public final class StartupGraph {
+	private static final Logger LOG = LoggerFactory.getLogger(StartupGraph.class);
+	
+	private final Map<String, StartupStage> _stages = new LinkedHashMap<>();
+	
+	/**
+	 * Adds a stage to the graph.
+	 * @param name the stage name
+	 * @param loader the stage loader
+	 * @param dependencies the names of the stages loaded before this one
+	 * @return this graph
+	 */
+	public StartupGraph add(String name, Loader loader, String... dependencies) {
+		if (_stages.putIfAbsent(name, new StartupStage(name, loader, List.of(dependencies))) != null) {
+			throw new IllegalArgumentException("Startup stage " + name + " is declared twice!");
+		}
+		return this;
+	}
+	
+	/**
+	 * Gets the stages in load order.<br>
+	 * Of the stages ready to be loaded the first declared comes first, so stages declared after their dependencies keep the declaration order.
+	 * @return the stage names in load order
+	 * @throws IllegalStateException if a stage depends on a missing stage, or on itself through a dependency cycle
+	 */
+	public List<String> getOrder() {
+		for (StartupStage stage : _stages.values()) {
+			for (String dependency : stage._dependencies) {
+				if (!_stages.containsKey(dependency)) {
+					throw new IllegalStateException("Startup stage " + stage._name + " depends on missing stage " + dependency + "!");
+				}
+			}
+		}
+		
+		final Set<String> order = new LinkedHashSet<>();
+		while (order.size() < _stages.size()) {
+			StartupStage ready = null;
+			for (StartupStage stage : _stages.values()) {
+				if (!order.contains(stage._name) && order.containsAll(stage._dependencies)) {
+					ready = stage;
+					break;
+				}
+			}
+			
+			if (ready == null) {
+				throw new IllegalStateException("Startup stages have a dependency cycle " + findCycle(order) + "!");
+			}
+			order.add(ready._name);
+		}
+		return new ArrayList<>(order);
+	}
+	
+	/**
+	 * Finds a cycle between the stages not in the load order, each one of them depends on another one of them.
+	 * @param order the ordered stages
+	 * @return the cycle, as the stage names joined by arrows
+	 */
+	private String findCycle(Set<String> order) {
+		final List<String> path = new ArrayList<>();
+		String current = _stages.keySet().stream().filter(name -> !order.contains(name)).findFirst().orElseThrow();
+		while (!path.contains(current)) {
+			path.add(current);
+			current = _stages.get(current)._dependencies.stream().filter(name -> !order.contains(name)).findFirst().orElseThrow();
+		}
+		final List<String> cycle = new ArrayList<>(path.subList(path.indexOf(current), path.size()));
+		cycle.add(current);
+		return String.join(" -> ", cycle);
+	}
+	
+	/**
+	 * Loads the stages and logs their timing.
+	 * @param threads the amount of threads loading stages, with a single thread the stages are loaded one by one in {@link #getOrder()} by the calling thread
+	 * @throws Exception the exception of the first failed stage in load order, the stages depending on it are not loaded
+	 */
+	public void load(int threads) throws Exception {
+		final List<StartupStage> order = getOrder().stream().map(_stages::get).toList();
+		final long start = System.nanoTime();
+		if (threads <= 1) {
+			for (StartupStage stage : order) {
+				stage.load(start);
+			}
+		} else {
+			final ForkJoinPool pool = new ForkJoinPool(threads, p -> {
+				final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				thread.setName("Startup-" + thread.getPoolIndex());
+				return thread;
+			}, null, false);
+			try {
+				final Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+				for (StartupStage stage : order) {
+					final CompletableFuture<?>[] dependencies = stage._dependencies.stream().map(futures::get).toArray(CompletableFuture[]::new);
+					futures.put(stage._name, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+						try {
+							stage.load(start);
+						} catch (Exception e) {
+							throw new CompletionException(e);
+						}
+					}, pool));
+				}
+				
+				// The failure of a stage fails the stages depending on it, the first failed stage in load order is the cause.
+				CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+				for (StartupStage stage : order) {
+					try {
+						futures.get(stage._name).join();
+					} catch (CompletionException e) {
+						if (e.getCause() instanceof Exception ex) {
+							throw ex;
+						}
+						throw e;
+					}
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+		
+		report(order, System.nanoTime() - start, Math.max(1, threads));
+	}
+	
+	private static void report(List<StartupStage> order, long time, int threads) {
+		// Longest chain of dependencies, the stages the startup can not load faster than.
+		final Map<String, Long> chainTime = new HashMap<>();
+		final Map<String, String> chainPrevious = new HashMap<>();
+		String last = null;
+		long loading = 0;
+		for (StartupStage stage : order) {
+			long previousTime = 0;
+			for (String dependency : stage._dependencies) {
+				if (chainTime.get(dependency) > previousTime) {
+					previousTime = chainTime.get(dependency);
+					chainPrevious.put(stage._name, dependency);
+				}
+			}
+			chainTime.put(stage._name, previousTime + stage._time);
+			if ((last == null) || (chainTime.get(stage._name) > chainTime.get(last))) {
+				last = stage._name;
+			}
+			loading += stage._time;
+		}
+		
+		LOG.info("Startup stages loaded in {}ms by {} threads, {}ms of loading.", TimeUnit.NANOSECONDS.toMillis(time), threads, TimeUnit.NANOSECONDS.toMillis(loading));
+		for (StartupStage stage : order) {
+			LOG.info(" |- {}: {}ms, started at {}ms by {}.", stage._name, TimeUnit.NANOSECONDS.toMillis(stage._time), TimeUnit.NANOSECONDS.toMillis(stage._start), stage._thread);
+		}
+		
+		if (last != null) {
+			final List<String> chain = new ArrayList<>();
+			for (String name = last; name != null; name = chainPrevious.get(name)) {
+				chain.addFirst(name);
+			}
+			LOG.info("Startup critical path {} ({}ms).", String.join(" > ", chain), TimeUnit.NANOSECONDS.toMillis(chainTime.get(last)));
+		}
+	}
+	
+	/**
+	 * Loader of a startup stage.
+	 */
+	@FunctionalInterface
+	public interface Loader {
+		void load() throws Exception;
+	}
+	
+	private static final class StartupStage {
+		private final String _name;
+		private final Loader _loader;
+		private final List<String> _dependencies;
+		/** Nanoseconds since the startup the stage started loading at. */
+		private volatile long _start;
+		/** Nanoseconds the stage took to load. */
+		private volatile long _time;
+		private volatile String _thread;
+		
+		StartupStage(String name, Loader loader, List<String> dependencies) {
+			_name = name;
+			_loader = loader;
+			_dependencies = dependencies;
+		}
+		
+		void load(long startupStart) throws Exception {
+			final long start = GameServer.startTimedSection(_name);
+			_thread = Thread.currentThread().getName();
+			_start = System.nanoTime() - startupStart;
+			_loader.load();
+			_time = (System.nanoTime() - startupStart) - _start;
+			GameServer.endTimedSection(_name, start);
+		}
+	}
+}
@@ -19,8 +19,15 @@
 package com.l2jserver.gameserver;
 
 import static com.l2jserver.gameserver.config.Configuration.general;
+import static com.l2jserver.gameserver.config.Configuration.geodata;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
@@ -33,7 +40,16 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.l2jserver.gameserver.ThreadPoolStats.PoolStats;
 import com.l2jserver.gameserver.config.Configuration;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.QuestWrite;
+import com.l2jserver.gameserver.model.actor.stat.CharStat;
+import com.l2jserver.gameserver.pathfinding.PathFinding;
+import com.l2jserver.gameserver.taskmanager.AiTaskManager;
+import com.l2jserver.gameserver.taskmanager.BroadcastTaskManager;
+import com.l2jserver.gameserver.taskmanager.EffectTaskManager;
+import com.l2jserver.gameserver.taskmanager.KnownListUpdateTaskManager;
 import com.l2jserver.gameserver.util.StringUtil;
 
 /**
@@ -64,10 +80,14 @@ import com.l2jserver.gameserver.util.StringUtil;
  * <ul>
  * <li>{@link #_generalPacketsThreadPool GeneralPackets} where most packets handler are executed.</li>
  * <li>{@link #_ioPacketsThreadPool I/O Packets} where all the i/o packets are executed.</li>
+ * <li>{@link #_virtualPacketsExecutor Virtual Packets} where packets are executed on virtual threads, when enabled in the general configuration.</li>
  * <li>There will be an AI ThreadPool where AI events should be executed</li>
  * <li>A general ThreadPool where everything else that needs to run asynchronously with no delay should be executed ({@link com.l2jserver.gameserver.model.actor.knownlist KnownList} updates, SQL updates/inserts...)?</li>
  * </ul>
  * </p>
+ * <p>
+ * Queue wait and execution times of the tasks can be recorded per task class, or {@link NamedRunnable task name}, in {@link #getTaskStats() task statistics}, enabled in the general configuration or at runtime.
+ * </p>
  * @author -Wooden-
  */
 public class ThreadPoolManager {
@@ -75,21 +95,56 @@ public class ThreadPoolManager {
 	
 	private static final class RunnableWrapper implements Runnable {
 		private final Runnable _r;
+		/** Statistics of the pool running the task, {@code null} for a task run once submitted while they were disabled. */
+		private final PoolStats _stats;
+		private final long _period;
+		/** Nanosecond time the next execution is due. */
+		private long _dueTime;
 		
 		public RunnableWrapper(final Runnable r) {
+			this(r, null, 0, 0);
+		}
+		
+		public RunnableWrapper(final Runnable r, PoolStats stats, long delay, long period) {
 			_r = r;
+			// Periodic tasks are mostly scheduled at startup, they keep their statistics so they are recorded once enabled at runtime.
+			_stats = ((stats != null) && ((period > 0) || stats.isEnabled())) ? stats : null;
+			_period = period;
+			_dueTime = (_stats != null) ? System.nanoTime() + delay : 0;
 		}
 		
 		@Override
 		public void run() {
+			if (_stats == null) {
+				runTask();
+				return;
+			}
+			
+			final long dueTime = _dueTime;
+			// Fixed rate executions are due one period after the previous due time, even when running late.
+			_dueTime += _period;
+			if (!_stats.isEnabled()) {
+				runTask();
+				return;
+			}
+			
+			final long start = System.nanoTime();
+			final boolean failed = !runTask();
+			final String name = (_r instanceof NamedRunnable named) ? named.getTaskName() : _r.getClass().getName();
+			_stats.record(name, Math.max(0, start - dueTime), System.nanoTime() - start, failed);
+		}
+		
+		private boolean runTask() {
 			try {
 				_r.run();
+				return true;
 			} catch (final Throwable e) {
 				final Thread t = Thread.currentThread();
 				final UncaughtExceptionHandler h = t.getUncaughtExceptionHandler();
 				if (h != null) {
 					h.uncaughtException(t, e);
 				}
+				return false;
 			}
 		}
 	}
@@ -102,6 +157,17 @@ public class ThreadPoolManager {
 	private final ThreadPoolExecutor _ioPacketsThreadPool;
 	private final ThreadPoolExecutor _generalThreadPool;
 	private final ThreadPoolExecutor _eventThreadPool;
+	private final ExecutorService _virtualPacketsExecutor;
+	
+	private final ThreadPoolStats _taskStats;
+	private final PoolStats _effectsStats;
+	private final PoolStats _generalScheduledStats;
+	private final PoolStats _aiStats;
+	private final PoolStats _eventScheduledStats;
+	private final PoolStats _generalPacketsStats;
+	private final PoolStats _ioPacketsStats;
+	private final PoolStats _generalStats;
+	private final PoolStats _eventStats;
 	
 	private boolean _shutdown;
 	
@@ -110,6 +176,16 @@ public class ThreadPoolManager {
 	}
 	
 	protected ThreadPoolManager() {
+		_taskStats = new ThreadPoolStats(general().threadPoolStats());
+		_effectsStats = _taskStats.addPool("Effects");
+		_generalScheduledStats = _taskStats.addPool("General");
+		_aiStats = _taskStats.addPool("AI");
+		_eventScheduledStats = _taskStats.addPool("Event");
+		_generalPacketsStats = _taskStats.addPool("Packets");
+		_ioPacketsStats = _taskStats.addPool("I/O Packets");
+		_generalStats = _taskStats.addPool("General Tasks");
+		_eventStats = _taskStats.addPool("Event Tasks");
+		
 		_effectsScheduledThreadPool = new ScheduledThreadPoolExecutor(general().getThreadPoolSizeEffects(), new PriorityThreadFactory("EffectsSTPool", Thread.NORM_PRIORITY));
 		_generalScheduledThreadPool = new ScheduledThreadPoolExecutor(general().getThreadPoolSizeGeneral(), new PriorityThreadFactory("GeneralSTPool", Thread.NORM_PRIORITY));
 		_eventScheduledThreadPool = new ScheduledThreadPoolExecutor(general().getThreadPoolSizeEvents(), new PriorityThreadFactory("EventSTPool", Thread.NORM_PRIORITY));
@@ -118,8 +194,14 @@ public class ThreadPoolManager {
 		_generalThreadPool = new ThreadPoolExecutor(general().getGeneralThreadCoreSize(), general().getGeneralThreadCoreSize() + 2, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new PriorityThreadFactory("General Pool", Thread.NORM_PRIORITY));
 		_aiScheduledThreadPool = new ScheduledThreadPoolExecutor(general().getAiMaxThread(), new PriorityThreadFactory("AISTPool", Thread.NORM_PRIORITY));
 		_eventThreadPool = new ThreadPoolExecutor(general().getEventsMaxThread(), general().getEventsMaxThread() + 2, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new PriorityThreadFactory("Event Pool", Thread.NORM_PRIORITY));
+		_virtualPacketsExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Virtual Packet-", 1).factory());
 		
 		scheduleGeneralAtFixedRate(new PurgeTask(_effectsScheduledThreadPool, _generalScheduledThreadPool, _aiScheduledThreadPool, _eventThreadPool), 10, 5, TimeUnit.MINUTES);
+		
+		final int logInterval = general().getThreadPoolStatsLogInterval();
+		if (logInterval > 0) {
+			scheduleGeneralAtFixedRate(_taskStats::log, logInterval, logInterval, TimeUnit.SECONDS);
+		}
 	}
 	
 	/**
@@ -131,7 +213,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleEffect(Runnable task, long delay, TimeUnit unit) {
 		try {
-			return _effectsScheduledThreadPool.schedule(new RunnableWrapper(task), delay, unit);
+			return _effectsScheduledThreadPool.schedule(new RunnableWrapper(task, _effectsStats, unit.toNanos(delay), 0), delay, unit);
 		} catch (RejectedExecutionException e) {
 			return null;
 		}
@@ -157,7 +239,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleEffectAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
 		try {
-			return _effectsScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task), initialDelay, period, unit);
+			return _effectsScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task, _effectsStats, unit.toNanos(initialDelay), unit.toNanos(period)), initialDelay, period, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -183,7 +265,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleGeneral(Runnable task, long delay, TimeUnit unit) {
 		try {
-			return _generalScheduledThreadPool.schedule(new RunnableWrapper(task), delay, unit);
+			return _generalScheduledThreadPool.schedule(new RunnableWrapper(task, _generalScheduledStats, unit.toNanos(delay), 0), delay, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -209,7 +291,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleGeneralAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
 		try {
-			return _generalScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task), initialDelay, period, unit);
+			return _generalScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task, _generalScheduledStats, unit.toNanos(initialDelay), unit.toNanos(period)), initialDelay, period, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -224,7 +306,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleEvent(Runnable task, long delay, TimeUnit unit) {
 		try {
-			return _eventScheduledThreadPool.schedule(new RunnableWrapper(task), delay, unit);
+			return _eventScheduledThreadPool.schedule(new RunnableWrapper(task, _eventScheduledStats, unit.toNanos(delay), 0), delay, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -250,7 +332,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleEventAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
 		try {
-			return _eventScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task), initialDelay, period, unit);
+			return _eventScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task, _eventScheduledStats, unit.toNanos(initialDelay), unit.toNanos(period)), initialDelay, period, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -276,7 +358,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleAi(Runnable task, long delay, TimeUnit unit) {
 		try {
-			return _aiScheduledThreadPool.schedule(new RunnableWrapper(task), delay, unit);
+			return _aiScheduledThreadPool.schedule(new RunnableWrapper(task, _aiStats, unit.toNanos(delay), 0), delay, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -302,7 +384,7 @@ public class ThreadPoolManager {
 	 */
 	public ScheduledFuture<?> scheduleAiAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
 		try {
-			return _aiScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task), initialDelay, period, unit);
+			return _aiScheduledThreadPool.scheduleAtFixedRate(new RunnableWrapper(task, _aiStats, unit.toNanos(initialDelay), unit.toNanos(period)), initialDelay, period, unit);
 		} catch (RejectedExecutionException e) {
 			return null; /* shutdown, ignore */
 		}
@@ -325,7 +407,7 @@ public class ThreadPoolManager {
 	 */
 	public void executePacket(Runnable task) {
 		try {
-			_generalPacketsThreadPool.execute(task);
+			_generalPacketsThreadPool.execute(_generalPacketsStats.isEnabled() ? new RunnableWrapper(task, _generalPacketsStats, 0, 0) : task);
 		} catch (RejectedExecutionException e) {
 			/* shutdown, ignore */
 		}
@@ -337,7 +419,19 @@ public class ThreadPoolManager {
 	 */
 	public void executeIOPacket(Runnable task) {
 		try {
-			_ioPacketsThreadPool.execute(task);
+			_ioPacketsThreadPool.execute(_ioPacketsStats.isEnabled() ? new RunnableWrapper(task, _ioPacketsStats, 0, 0) : task);
+		} catch (RejectedExecutionException e) {
+			/* shutdown, ignore */
+		}
+	}
+	
+	/**
+	 * Executes a packet task in a new virtual thread.
+	 * @param task the task to execute
+	 */
+	public void executeVirtualPacket(Runnable task) {
+		try {
+			_virtualPacketsExecutor.execute(task);
 		} catch (RejectedExecutionException e) {
 			/* shutdown, ignore */
 		}
@@ -349,7 +443,19 @@ public class ThreadPoolManager {
 	 */
 	public void executeGeneral(Runnable task) {
 		try {
-			_generalThreadPool.execute(new RunnableWrapper(task));
+			_generalThreadPool.execute(new RunnableWrapper(task, _generalStats, 0, 0));
+		} catch (RejectedExecutionException e) {
+			/* shutdown, ignore */
+		}
+	}
+	
+	/**
+	 * Executes an effect task sometime in future in another thread.
+	 * @param task the task to execute
+	 */
+	public void executeEffect(Runnable task) {
+		try {
+			_effectsScheduledThreadPool.execute(new RunnableWrapper(task, _effectsStats, 0, 0));
 		} catch (RejectedExecutionException e) {
 			/* shutdown, ignore */
 		}
@@ -361,7 +467,7 @@ public class ThreadPoolManager {
 	 */
 	public void executeAi(Runnable task) {
 		try {
-			_aiScheduledThreadPool.execute(new RunnableWrapper(task));
+			_aiScheduledThreadPool.execute(new RunnableWrapper(task, _aiStats, 0, 0));
 		} catch (RejectedExecutionException e) {
 			/* shutdown, ignore */
 		}
@@ -373,14 +479,14 @@ public class ThreadPoolManager {
 	 */
 	public void executeEvent(Runnable task) {
 		try {
-			_eventThreadPool.execute(new RunnableWrapper(task));
+			_eventThreadPool.execute(new RunnableWrapper(task, _eventStats, 0, 0));
 		} catch (RejectedExecutionException e) {
 			/* shutdown, ignore */
 		}
 	}
 	
 	public String[] getStats() {
-		return new String[] {
+		final String[] stats = new String[] {
 			"STP:",
 			" + Effects:",
 			" |- ActiveThreads:   " + _effectsScheduledThreadPool.getActiveCount(),
@@ -451,6 +557,66 @@ public class ThreadPoolManager {
 			" |- QueuedTasks:     " + _eventThreadPool.getQueue().size(),
 			" | -------"
 		};
+		
+		final List<String> result = new ArrayList<>(Arrays.asList(stats));
+		final GameTimeController gameTimeController = GameTimeController.getInstance();
+		if (gameTimeController != null) {
+			Collections.addAll(result, gameTimeController.getStats());
+		}
+		Collections.addAll(result, KnownListUpdateTaskManager.getStats());
+		if (general().aiTickScheduler()) {
+			Collections.addAll(result, AiTaskManager.getInstance().getStats());
+		}
+		if (general().effectTickScheduler()) {
+			Collections.addAll(result, EffectTaskManager.getInstance().getStats());
+		}
+		if (general().broadcastTickScheduler()) {
+			Collections.addAll(result, BroadcastTaskManager.getInstance().getStats());
+		}
+		if (general().writeBehindPersistence()) {
+			Collections.addAll(result, DatabaseWriter.getInstance().getStats());
+		}
+		Collections.addAll(result, QuestWrite.getStats());
+		Collections.addAll(result, LoginServerThread.getInstance().getStats());
+		Collections.addAll(result, CharStat.getStatCacheStats());
+		if (geodata().getPathFinding() == 2) {
+			Collections.addAll(result, PathFinding.getInstance().getStat());
+		}
+		return result.toArray(new String[0]);
+	}
+	
+	/**
+	 * Gets the task statistics of the thread pools.
+	 * @return the task statistics
+	 */
+	public ThreadPoolStats getTaskStats() {
+		return _taskStats;
+	}
+	
+	/**
+	 * Records an AI task run by a batch of the AI tick wheel, if the task statistics are enabled.
+	 * @param name the task name
+	 * @param waitTime the nanoseconds the task waited past its due time
+	 * @param executionTime the nanoseconds the task ran
+	 * @param failed if {@code true} the task threw an exception
+	 */
+	public void recordAiTask(String name, long waitTime, long executionTime, boolean failed) {
+		if (_aiStats.isEnabled()) {
+			_aiStats.recordNested(name, waitTime, executionTime, failed);
+		}
+	}
+	
+	/**
+	 * Records an effect task run by a batch of the effect tick wheel, if the task statistics are enabled.
+	 * @param name the task name
+	 * @param waitTime the nanoseconds the task waited past its due time
+	 * @param executionTime the nanoseconds the task ran
+	 * @param failed if {@code true} the task threw an exception
+	 */
+	public void recordEffectTask(String name, long waitTime, long executionTime, boolean failed) {
+		if (_effectsStats.isEnabled()) {
+			_effectsStats.recordNested(name, waitTime, executionTime, failed);
+		}
 	}
 	
 	private static class PriorityThreadFactory implements ThreadFactory {
@@ -490,6 +656,7 @@ public class ThreadPoolManager {
 			_generalScheduledThreadPool.shutdown();
 			_generalPacketsThreadPool.shutdown();
 			_ioPacketsThreadPool.shutdown();
+			_virtualPacketsExecutor.shutdown();
 			_generalThreadPool.shutdown();
 			_eventThreadPool.shutdown();
 			LOG.info("All ThreadPools are now stopped");
@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Task statistics of the thread pools.<br>
+ * Each pool aggregates its tasks by class, or by the name of a {@link NamedRunnable}, recording queue wait time, execution time and exceptions.<br>
+ * All counters are {@link LongAdder}s, so pool threads record without contending with each other.
+ * @since 2.6.3.0
+ */
+public final class ThreadPoolStats {
+	private static final Logger LOG = LoggerFactory.getLogger(ThreadPoolStats.class);
+	
+	/** Upper limits in nanoseconds of the histogram buckets, the last bucket holds everything above them. */
+	private static final long[] BUCKET_LIMITS = {
+		10_000L,
+		100_000L,
+		1_000_000L,
+		10_000_000L,
+		100_000_000L,
+		1_000_000_000L
+	};
+	
+	private static final String[] BUCKET_NAMES = {
+		"<10us",
+		"<100us",
+		"<1ms",
+		"<10ms",
+		"<100ms",
+		"<1s",
+		">=1s"
+	};
+	
+	private final List<PoolStats> _pools = new CopyOnWriteArrayList<>();
+	
+	private volatile boolean _enabled;
+	
+	ThreadPoolStats(boolean enabled) {
+		_enabled = enabled;
+	}
+	
+	/**
+	 * Creates the statistics of a pool.
+	 * @param name the pool name
+	 * @return the pool statistics
+	 */
+	PoolStats addPool(String name) {
+		final PoolStats pool = new PoolStats(name);
+		_pools.add(pool);
+		return pool;
+	}
+	
+	/**
+	 * @return {@code true} if tasks are being recorded
+	 */
+	public boolean isEnabled() {
+		return _enabled;
+	}
+	
+	/**
+	 * Enables or disables the task recording.<br>
+	 * Periodic tasks are recorded from their next run on, tasks run once only if they were submitted while enabled.
+	 * @param enabled if {@code true} tasks are recorded
+	 */
+	public void setEnabled(boolean enabled) {
+		_enabled = enabled;
+	}
+	
+	/**
+	 * Clears the statistics of all pools.
+	 */
+	public void reset() {
+		for (PoolStats pool : _pools) {
+			pool.reset();
+		}
+	}
+	
+	/**
+	 * Gets the statistics of all pools, with the task types using the most execution time first.
+	 * @param top the maximum amount of task types listed for each pool
+	 * @return the statistics lines
+	 */
+	public String[] getStats(int top) {
+		final List<String> result = new ArrayList<>();
+		result.add("Task Stats: " + (_enabled ? "enabled" : "disabled"));
+		for (PoolStats pool : _pools) {
+			final TaskStats total = pool._total;
+			final long count = total._count.sum();
+			result.add(" + " + pool._name + ":");
+			result.add(" |- Tasks:          " + count);
+			if (count == 0) {
+				result.add(" | -------");
+				continue;
+			}
+			
+			result.add(" |- Exceptions:     " + total._exceptions.sum());
+			result.add(" |- Wait:           avg " + formatTime(total._waitTime.sum() / count) + ", max " + formatTime(total._maxWaitTime.get()));
+			result.add(" |- Wait histogram: " + formatHistogram(total._waitHistogram));
+			result.add(" |- Execution:      avg " + formatTime(total._executionTime.sum() / count) + ", max " + formatTime(total._maxExecutionTime.get()));
+			result.add(" |- Exec histogram: " + formatHistogram(total._executionHistogram));
+			result.add(" |- Slowest tasks:");
+			for (TaskStats task : pool.getSlowestTasks(top)) {
+				final long taskCount = Math.max(1, task._count.sum());
+				result.add(" |  " + task._name + ": " + task._count.sum() + " tasks, total " + formatTime(task._executionTime.sum()) + ", avg " + formatTime(task._executionTime.sum() / taskCount) + ", max " + formatTime(task._maxExecutionTime.get()) + ", avg wait "
+					+ formatTime(task._waitTime.sum() / taskCount) + ", " + task._exceptions.sum() + " exceptions");
+			}
+			result.add(" | -------");
+		}
+		return result.toArray(new String[0]);
+	}
+	
+	/**
+	 * Logs one line of key value pairs for every pool that executed tasks since the statistics were last reset.
+	 */
+	void log() {
+		if (!_enabled) {
+			return;
+		}
+		
+		for (PoolStats pool : _pools) {
+			final TaskStats total = pool._total;
+			final long count = total._count.sum();
+			if (count == 0) {
+				continue;
+			}
+			
+			final List<TaskStats> slowest = pool.getSlowestTasks(1);
+			LOG.info("pool=\"{}\" tasks={} exceptions={} waitAvgUs={} waitMaxUs={} execAvgUs={} execMaxUs={} slowestTask={} slowestTaskExecUs={}", pool._name, count, total._exceptions.sum(), //
+				total._waitTime.sum() / count / 1000, total._maxWaitTime.get() / 1000, total._executionTime.sum() / count / 1000, total._maxExecutionTime.get() / 1000, //
+				slowest.isEmpty() ? "none" : slowest.get(0)._name, slowest.isEmpty() ? 0 : slowest.get(0)._executionTime.sum() / 1000);
+		}
+	}
+	
+	private static String formatTime(long nanos) {
+		if (nanos < 1_000_000L) {
+			return (nanos / 1000) + "us";
+		}
+		if (nanos < 1_000_000_000L) {
+			return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+		}
+		return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+	}
+	
+	private static String formatHistogram(LongAdder[] histogram) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < histogram.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(BUCKET_NAMES[i]).append(' ').append(histogram[i].sum());
+		}
+		return sb.toString();
+	}
+	
+	private static LongAdder[] newHistogram() {
+		final LongAdder[] histogram = new LongAdder[BUCKET_NAMES.length];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+		return histogram;
+	}
+	
+	private static int bucket(long nanos) {
+		for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+			if (nanos < BUCKET_LIMITS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_LIMITS.length;
+	}
+	
+	/**
+	 * Statistics of a single pool.
+	 */
+	final class PoolStats {
+		private final String _name;
+		private final TaskStats _total = new TaskStats("total");
+		private final ConcurrentHashMap<String, TaskStats> _tasks = new ConcurrentHashMap<>();
+		
+		PoolStats(String name) {
+			_name = name;
+		}
+		
+		/**
+		 * @return {@code true} if tasks are being recorded
+		 */
+		boolean isEnabled() {
+			return _enabled;
+		}
+		
+		/**
+		 * Records an executed task.
+		 * @param name the task name
+		 * @param waitTime the nanoseconds the task waited past its due time
+		 * @param executionTime the nanoseconds the task ran
+		 * @param failed if {@code true} the task threw an exception
+		 */
+		void record(String name, long waitTime, long executionTime, boolean failed) {
+			TaskStats task = _tasks.get(name);
+			if (task == null) {
+				task = _tasks.computeIfAbsent(name, TaskStats::new);
+			}
+			task.record(waitTime, executionTime, failed);
+			_total.record(waitTime, executionTime, failed);
+		}
+		
+		/**
+		 * Records a task run inside another task of the pool, such as a task of a tick wheel.<br>
+		 * It is only listed by name, its time is already in the total of the outer task.
+		 * @param name the task name
+		 * @param waitTime the nanoseconds the task waited past its due time
+		 * @param executionTime the nanoseconds the task ran
+		 * @param failed if {@code true} the task threw an exception
+		 */
+		void recordNested(String name, long waitTime, long executionTime, boolean failed) {
+			TaskStats task = _tasks.get(name);
+			if (task == null) {
+				task = _tasks.computeIfAbsent(name, TaskStats::new);
+			}
+			task.record(waitTime, executionTime, failed);
+		}
+		
+		List<TaskStats> getSlowestTasks(int top) {
+			return _tasks.values().stream() //
+				.sorted(Comparator.comparingLong((TaskStats t) -> t._executionTime.sum()).reversed()) //
+				.limit(top) //
+				.toList();
+		}
+		
+		void reset() {
+			_tasks.clear();
+			_total.reset();
+		}
+	}
+	
+	/**
+	 * Statistics of a task type, or of all the tasks of a pool.
+	 */
+	static final class TaskStats {
+		private final String _name;
+		private final LongAdder _count = new LongAdder();
+		private final LongAdder _exceptions = new LongAdder();
+		private final LongAdder _waitTime = new LongAdder();
+		private final LongAdder _executionTime = new LongAdder();
+		private final LongAccumulator _maxWaitTime = new LongAccumulator(Math::max, 0);
+		private final LongAccumulator _maxExecutionTime = new LongAccumulator(Math::max, 0);
+		private final LongAdder[] _waitHistogram = newHistogram();
+		private final LongAdder[] _executionHistogram = newHistogram();
+		
+		TaskStats(String name) {
+			_name = name;
+		}
+		
+		void record(long waitTime, long executionTime, boolean failed) {
+			_count.increment();
+			if (failed) {
+				_exceptions.increment();
+			}
+			_waitTime.add(waitTime);
+			_executionTime.add(executionTime);
+			_maxWaitTime.accumulate(waitTime);
+			_maxExecutionTime.accumulate(executionTime);
+			_waitHistogram[bucket(waitTime)].increment();
+			_executionHistogram[bucket(executionTime)].increment();
+		}
+		
+		void reset() {
+			_count.reset();
+			_exceptions.reset();
+			_waitTime.reset();
+			_executionTime.reset();
+			_maxWaitTime.reset();
+			_maxExecutionTime.reset();
+			for (int i = 0; i < _waitHistogram.length; i++) {
+				_waitHistogram[i].reset();
+				_executionHistogram[i].reset();
+			}
+		}
+	}
+}
@@ -21,8 +21,10 @@ package com.l2jserver.gameserver.ai;
 import static com.l2jserver.gameserver.ai.CtrlIntention.AI_INTENTION_ATTACK;
 import static com.l2jserver.gameserver.ai.CtrlIntention.AI_INTENTION_FOLLOW;
 import static com.l2jserver.gameserver.ai.CtrlIntention.AI_INTENTION_IDLE;
+import static com.l2jserver.gameserver.config.Configuration.general;
 
 import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +45,7 @@ import com.l2jserver.gameserver.network.serverpackets.MoveToLocation;
 import com.l2jserver.gameserver.network.serverpackets.MoveToPawn;
 import com.l2jserver.gameserver.network.serverpackets.StopMove;
 import com.l2jserver.gameserver.network.serverpackets.StopRotation;
+import com.l2jserver.gameserver.taskmanager.AiTaskManager;
 import com.l2jserver.gameserver.taskmanager.AttackStanceTaskManager;
 
 /**
@@ -661,7 +664,7 @@ public abstract class AbstractAI implements Ctrl {
 		
 		// Create and Launch an AI Follow Task to execute every 1s
 		_followTarget = target;
-		_followTask = ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new FollowTask(), 5, FOLLOW_INTERVAL);
+		_followTask = scheduleAiTask(new FollowTask(), 5, FOLLOW_INTERVAL, null);
 	}
 	
 	/**
@@ -676,7 +679,7 @@ public abstract class AbstractAI implements Ctrl {
 		}
 		
 		_followTarget = target;
-		_followTask = ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new FollowTask(range), 5, ATTACK_FOLLOW_INTERVAL);
+		_followTask = scheduleAiTask(new FollowTask(range), 5, ATTACK_FOLLOW_INTERVAL, null);
 	}
 	
 	/**
@@ -703,6 +706,21 @@ public abstract class AbstractAI implements Ctrl {
 		_target = target;
 	}
 	
+	/**
+	 * Schedules a periodic AI task of the actor, in the AI tick wheel if enabled or otherwise in the AI thread pool.
+	 * @param task the task to run
+	 * @param initialDelay the initial delay in milliseconds
+	 * @param period the period in milliseconds
+	 * @param skipCondition if not {@code null} and it returns {@code true} while the actor has no known players, the tick wheel skips the execution
+	 * @return a future to cancel the task
+	 */
+	protected Future<?> scheduleAiTask(Runnable task, long initialDelay, long period, BooleanSupplier skipCondition) {
+		if (general().aiTickScheduler()) {
+			return AiTaskManager.getInstance().schedule(_actor, task, initialDelay, period, skipCondition);
+		}
+		return ThreadPoolManager.getInstance().scheduleAiAtFixedRate(task, initialDelay, period);
+	}
+	
 	/**
 	 * Stop all Ai tasks and futures.
 	 */
@@ -88,6 +88,8 @@ public class L2AttackableAI extends L2CharacterAI {
 	private int _attackTimeout;
 	/** The L2Attackable aggro counter. */
 	private int _globalAggro;
+	/** Game tick of the last run of the AI task, to count the thinks skipped while no player was around. */
+	private int _lastAiTaskTick;
 	/** The flag used to indicate that a thinking action is in progress, to prevent recursive thinking. */
 	private boolean _thinking;
 	private int _chaosTime = 0;
@@ -258,10 +260,48 @@ public class L2AttackableAI extends L2CharacterAI {
 	public void startAITask() {
 		// If not idle - create an AI task (schedule onEvtThink repeatedly)
 		if ((_aiTask == null) && (_actor.isInActiveRegion())) {
-			_aiTask = ThreadPoolManager.getInstance().scheduleAiAtFixedRate(this::onEvtThink, 1000, 1000);
+			_lastAiTaskTick = GameTimeController.getInstance().getGameTicks();
+			_aiTask = scheduleAiTask(this::onAiTask, 1000, 1000, this::canSkipThink);
 		}
 	}
 	
+	/**
+	 * Runs the periodic think.<br>
+	 * The global aggro counter first counts down the thinks skipped while no player was around, so the actor turns aggressive on time once a player shows up.
+	 */
+	private void onAiTask() {
+		final int currentTick = GameTimeController.getInstance().getGameTicks();
+		final int skipped = Math.round((float) (currentTick - _lastAiTaskTick) / TICKS_PER_SECOND) - 1;
+		_lastAiTaskTick = currentTick;
+		if (skipped > 0) {
+			if (_globalAggro < 0) {
+				_globalAggro = Math.min(0, _globalAggro + skipped);
+			} else if (_globalAggro > 0) {
+				_globalAggro = Math.max(0, _globalAggro - skipped);
+			}
+		}
+		onEvtThink();
+	}
+	
+	/**
+	 * Checks if a think can be skipped while no player is around, which is the case when the actor is only idling near its spawn.<br>
+	 * Guards and actors fighting other NPCs keep thinking.
+	 * @return {@code true} if the think can be skipped
+	 */
+	private boolean canSkipThink() {
+		final var actor = getActor();
+		if ((getIntention() != AI_INTENTION_ACTIVE) || (actor.getSpawn() == null) || (actor.getLeader() != null) || actor.isReturningToSpawnPoint()) {
+			return false;
+		}
+		
+		if ((actor instanceof L2GuardInstance) || actor.getHateTable().hasNonPlayableHate()) {
+			return false;
+		}
+		
+		final int range = npc().getMaxDriftRange();
+		return actor.isInsideRadius(actor.getSpawn().getLocation(actor), range + range, true, false);
+	}
+	
 	@Override
 	public void stopAITask() {
 		if (_aiTask != null) {
@@ -1067,8 +1107,9 @@ public class L2AttackableAI extends L2CharacterAI {
 		}
 		
 		if (getAttackTarget() == null) {
-			if (actor.getMostHated() != null) {
-				setAttackTarget(actor.getMostHated());
+			final var mostHated = actor.getMostHated();
+			if (mostHated != null) {
+				setAttackTarget(mostHated);
 			}
 		}
 		
@@ -1616,8 +1657,9 @@ public class L2AttackableAI extends L2CharacterAI {
 		double dist2;
 		int range;
 		final var actor = getActor();
-		if (actor.getHateList() != null) {
-			for (var obj : actor.getHateList()) {
+		final var hateList = actor.getHateList();
+		if (hateList != null) {
+			for (var obj : hateList) {
 				if ((obj == null) || !GeoData.getInstance().canSeeTarget(actor, obj) || obj.isDead()) {
 					continue;
 				}
@@ -1685,28 +1727,20 @@ public class L2AttackableAI extends L2CharacterAI {
 		int range;
 		final var actor = getActor();
 		final var mostHated = actor.getMostHated();
-		if (actor.getHateList() != null) {
-			for (var obj : actor.getHateList()) {
-				if ((obj == null) || !GeoData.getInstance().canSeeTarget(actor, obj) || obj.isDead() || (obj != mostHated) || (obj == actor)) {
-					continue;
-				}
-				try {
-					dist = actor.calculateDistance(obj, false, false);
-					dist2 = dist - actor.getTemplate().getCollisionRadius();
-					range = actor.getPhysicalAttackRange() + actor.getTemplate().getCollisionRadius() + obj.getTemplate().getCollisionRadius();
-					if (obj.isMoving()) {
-						dist2 = dist2 - 70;
-					}
-				} catch (NullPointerException e) {
-					continue;
-				}
-				
-				if (dist2 <= range) {
-					actor.addDamageHate(obj, 0, actor.getHating(mostHated));
-					actor.setTarget(obj);
-					setAttackTarget(obj);
-					return;
-				}
+		// Only the most hated creature of the hate list can be chosen, it is tracked by the hate table.
+		if ((mostHated != null) && (mostHated != actor) && !mostHated.isDead() && GeoData.getInstance().canSeeTarget(actor, mostHated)) {
+			dist = actor.calculateDistance(mostHated, false, false);
+			dist2 = dist - actor.getTemplate().getCollisionRadius();
+			range = actor.getPhysicalAttackRange() + actor.getTemplate().getCollisionRadius() + mostHated.getTemplate().getCollisionRadius();
+			if (mostHated.isMoving()) {
+				dist2 = dist2 - 70;
+			}
+			
+			if (dist2 <= range) {
+				actor.addDamageHate(mostHated, 0, actor.getHating(mostHated));
+				actor.setTarget(mostHated);
+				setAttackTarget(mostHated);
+				return;
 			}
 		}
 		if (!(actor instanceof L2GuardInstance)) {
@@ -1745,10 +1779,11 @@ public class L2AttackableAI extends L2CharacterAI {
 	private void aggroReconsider() {
 		final var actor = getActor();
 		final var mostHated = actor.getMostHated();
-		if (actor.getHateList() != null) {
-			var rand = Rnd.get(actor.getHateList().size());
+		final var hateList = actor.getHateList();
+		if (hateList != null) {
+			var rand = Rnd.get(hateList.size());
 			var count = 0;
-			for (var creature : actor.getHateList()) {
+			for (var creature : hateList) {
 				if (count < rand) {
 					count++;
 					continue;
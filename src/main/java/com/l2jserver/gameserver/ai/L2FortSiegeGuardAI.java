@@ -28,7 +28,6 @@ import java.util.concurrent.Future;
 import com.l2jserver.commons.util.Rnd;
 import com.l2jserver.gameserver.GameTimeController;
 import com.l2jserver.gameserver.GeoData;
-import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.actor.L2Attackable;
 import com.l2jserver.gameserver.model.actor.L2Character;
@@ -211,7 +210,7 @@ public class L2FortSiegeGuardAI extends L2CharacterAI implements Runnable {
 		
 		// If not idle - create an AI task (schedule onEvtThink repeatedly)
 		if ((_aiTask == null) && (_actor.isInActiveRegion())) {
-			_aiTask = ThreadPoolManager.getInstance().scheduleAiAtFixedRate(this, 1000, 1000);
+			_aiTask = scheduleAiTask(this, 1000, 1000, null);
 		}
 	}
 	
@@ -781,7 +780,7 @@ public class L2FortSiegeGuardAI extends L2CharacterAI implements Runnable {
 				return;
 			}
 			
-			for (var attacker : me.getAggroList().keySet()) {
+			for (var attacker : me.getHateTable().getAttackers()) {
 				me.addDamageHate(attacker, 0, aggro);
 			}
 			
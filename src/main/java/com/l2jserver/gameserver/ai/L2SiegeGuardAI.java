@@ -28,7 +28,6 @@ import java.util.concurrent.Future;
 import com.l2jserver.commons.util.Rnd;
 import com.l2jserver.gameserver.GameTimeController;
 import com.l2jserver.gameserver.GeoData;
-import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.actor.L2Attackable;
 import com.l2jserver.gameserver.model.actor.L2Character;
@@ -204,7 +203,7 @@ public class L2SiegeGuardAI extends L2CharacterAI implements Runnable {
 		
 		// If not idle - create an AI task (schedule onEvtThink repeatedly)
 		if ((_aiTask == null) && (_actor.isInActiveRegion())) {
-			_aiTask = ThreadPoolManager.getInstance().scheduleAiAtFixedRate(this, 1000, 1000);
+			_aiTask = scheduleAiTask(this, 1000, 1000, null);
 		}
 	}
 	
@@ -759,7 +758,7 @@ public class L2SiegeGuardAI extends L2CharacterAI implements Runnable {
 				return;
 			}
 			
-			for (L2Character aggroed : me.getAggroList().keySet()) {
+			for (L2Character aggroed : me.getHateTable().getAttackers()) {
 				me.addDamageHate(aggroed, 0, aggro);
 			}
 			
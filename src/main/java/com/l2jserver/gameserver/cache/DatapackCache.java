@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.l2jserver.gameserver.cache.DocumentCache.DocumentParser;
+import com.l2jserver.gameserver.cache.DocumentCache.Verification;
+import com.l2jserver.gameserver.engines.DocumentBase;
+import com.l2jserver.gameserver.util.IXmlReader;
+import com.l2jserver.gameserver.util.file.filter.XMLFilter;
+
+/**
+ * Datapack cache.<br>
+ * Document caches of the skill, item and NPC files, the datapack parts with the most documents.
+ * @since 2.6.3.0
+ */
+public final class DatapackCache {
+	
+	private static final XMLFilter XML_FILTER = new XMLFilter();
+	
+	private final DocumentCache _skills;
+	
+	private final DocumentCache _items;
+	
+	private final DocumentCache _npcs;
+	
+	private DatapackCache() {
+		final File dir = general().getDatapackCachePath();
+		final File root = server().getDatapackRoot();
+		_skills = new DocumentCache("Skills", new File(dir, "skills.bin"), root);
+		_items = new DocumentCache("Items", new File(dir, "items.bin"), root);
+		_npcs = new DocumentCache("NPCs", new File(dir, "npcs.bin"), root);
+	}
+	
+	/**
+	 * Gets the skill document cache.
+	 * @return the skill document cache, {@code null} if the datapack cache is disabled
+	 */
+	public DocumentCache getSkills() {
+		return general().datapackCache() ? _skills : null;
+	}
+	
+	/**
+	 * Gets the item document cache.
+	 * @return the item document cache, {@code null} if the datapack cache is disabled
+	 */
+	public DocumentCache getItems() {
+		return general().datapackCache() ? _items : null;
+	}
+	
+	/**
+	 * Gets the NPC document cache.
+	 * @return the NPC document cache, {@code null} if the datapack cache is disabled
+	 */
+	public DocumentCache getNpcs() {
+		return general().datapackCache() ? _npcs : null;
+	}
+	
+	/**
+	 * Parses all the skill, item and NPC files and writes the cache files, whether the datapack cache is enabled or not.
+	 * @return the build report
+	 */
+	public String[] build() {
+		final List<String> report = new ArrayList<>();
+		report.add("Datapack Cache Build:");
+		report.add(" |- Skills:          " + build(_skills, getSkillFiles(), DocumentBase::readDocument));
+		report.add(" |- Items:           " + build(_items, getItemFiles(), DocumentBase::readDocument));
+		report.add(" |- NPCs:            " + build(_npcs, getNpcFiles(), IXmlReader::readDocument));
+		report.add(" | -------");
+		return report.toArray(new String[0]);
+	}
+	
+	private static String build(DocumentCache cache, List<File> files, DocumentParser parser) {
+		final int built = cache.build(files, parser);
+		cache.save();
+		return built + "/" + files.size() + " documents";
+	}
+	
+	/**
+	 * Verifies that the cached documents of the skill, item and NPC files are the same as the documents parsed from the files.
+	 * @return the verification report
+	 */
+	public String[] verify() {
+		final List<String> report = new ArrayList<>();
+		report.add("Datapack Cache Verification:");
+		report.add(" |- Skills:          " + verify(_skills, getSkillFiles(), DocumentBase::readDocument));
+		report.add(" |- Items:           " + verify(_items, getItemFiles(), DocumentBase::readDocument));
+		report.add(" |- NPCs:            " + verify(_npcs, getNpcFiles(), IXmlReader::readDocument));
+		report.add(" | -------");
+		return report.toArray(new String[0]);
+	}
+	
+	private static String verify(DocumentCache cache, List<File> files, DocumentParser parser) {
+		final Verification result = cache.verify(files, parser);
+		return result.matched() + " matched, " + result.mismatched() + " mismatched, " + result.stale() + " not cached";
+	}
+	
+	/**
+	 * Gets the cache statistics.
+	 * @return the cache statistics
+	 */
+	public String[] getStats() {
+		final List<String> stats = new ArrayList<>();
+		stats.add("Datapack Cache: " + (general().datapackCache() ? "enabled" : "disabled"));
+		stats.addAll(List.of(_skills.getStats()));
+		stats.addAll(List.of(_items.getStats()));
+		stats.addAll(List.of(_npcs.getStats()));
+		return stats.toArray(new String[0]);
+	}
+	
+	// The files below are the ones loaded by the document engine and the NPC data.
+	
+	private static List<File> getSkillFiles() {
+		final List<File> files = new ArrayList<>();
+		listFiles("data/stats/skills", false, files);
+		if (general().customSkillsLoad()) {
+			listFiles("data/stats/skills/custom", false, files);
+		}
+		return files;
+	}
+	
+	private static List<File> getItemFiles() {
+		final List<File> files = new ArrayList<>();
+		listFiles("data/stats/items", false, files);
+		if (general().customItemsLoad()) {
+			listFiles("data/stats/items/custom", false, files);
+		}
+		return files;
+	}
+	
+	private static List<File> getNpcFiles() {
+		final List<File> files = new ArrayList<>();
+		listFiles("data/stats/npcs", false, files);
+		if (general().customNpcData()) {
+			listFiles("data/stats/npcs/custom", true, files);
+		}
+		return files;
+	}
+	
+	private static void listFiles(String path, boolean recursive, List<File> files) {
+		listFiles(new File(server().getDatapackRoot(), path), recursive, files);
+	}
+	
+	private static void listFiles(File dir, boolean recursive, List<File> files) {
+		final File[] list = dir.listFiles();
+		if (list == null) {
+			return;
+		}
+		
+		for (File file : list) {
+			if (recursive && file.isDirectory()) {
+				listFiles(file, recursive, files);
+			} else if (XML_FILTER.accept(file)) {
+				files.add(file);
+			}
+		}
+	}
+	
+	public static DatapackCache getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final DatapackCache INSTANCE = new DatapackCache();
+	}
+}
@@ -0,0 +1,529 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Document cache.<br>
+ * Keeps the XML documents of a datapack in a compiled binary form, in a single file where each document is keyed by the SHA-256 hash of its source file content and of the content of the schema it references.<br>
+ * The schema is part of the key because the validation adds the default attribute values of the schema to the document.<br>
+ * A file that did not change since the cache was written is decoded from the memory mapped cache, it is neither parsed nor validated again, any other file is parsed and compiled.<br>
+ * The documents are cached rather than the templates built from them, so the templates are always built by the same code and only the XML parsing is skipped.
+ * @since 2.6.3.0
+ */
+public final class DocumentCache {
+	private static final Logger LOG = LoggerFactory.getLogger(DocumentCache.class);
+	
+	/** "L2DC" */
+	private static final int MAGIC = 0x4C324443;
+	
+	/** Version of the cache file format, version 1 entries were keyed by the source file content only. */
+	private static final int VERSION = 2;
+	
+	private static final int HASH_LENGTH = 32;
+	
+	private static final byte ELEMENT = 1;
+	private static final byte TEXT = 2;
+	private static final byte CDATA = 3;
+	private static final byte COMMENT = 4;
+	
+	/** Schema location of a datapack file, in its root element. */
+	private static final Pattern SCHEMA_LOCATION = Pattern.compile("noNamespaceSchemaLocation\\s*=\\s*[\"']([^\"']+)[\"']");
+	
+	/** Amount of bytes at the start of a file searched for the schema location. */
+	private static final int SCHEMA_LOCATION_SEARCH = 1024;
+	
+	private final String _name;
+	
+	private final File _file;
+	
+	private final Path _root;
+	
+	/** Documents read from the cache file. */
+	private final Map<String, Entry> _entries = new HashMap<>();
+	
+	/** Documents loaded since the cache file was read, the next cache file content. */
+	private final Map<String, Entry> _loaded = new ConcurrentHashMap<>();
+	
+	private volatile boolean _changed;
+	
+	/** Content hashes of the schemas, by path, hashed again when the schema file changes. */
+	private final Map<Path, SchemaHash> _schemas = new ConcurrentHashMap<>();
+	
+	private final LongAdder _hits = new LongAdder();
+	private final LongAdder _misses = new LongAdder();
+	private final LongAdder _decodeFailures = new LongAdder();
+	
+	/**
+	 * Creates a document cache and reads its cache file, if any.
+	 * @param name the name of the cache
+	 * @param file the cache file
+	 * @param root the directory the source file keys are relative to, so a cache can be built on another machine
+	 */
+	public DocumentCache(String name, File file, File root) {
+		_name = name;
+		_file = file;
+		_root = root.toPath().toAbsolutePath().normalize();
+		read();
+	}
+	
+	private void read() {
+		if (!_file.isFile()) {
+			return;
+		}
+		
+		try (var channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ)) {
+			// The mapping stays valid once the channel is closed.
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+				LOG.info("{} cache file {} has an unknown format, it will be rebuilt.", _name, _file);
+				return;
+			}
+			
+			final int count = buffer.getInt();
+			for (int i = 0; i < count; i++) {
+				final String key = readString(buffer);
+				final byte[] hash = new byte[HASH_LENGTH];
+				buffer.get(hash);
+				final int length = buffer.getInt();
+				_entries.put(key, new Entry(hash, buffer.slice(buffer.position(), length)));
+				buffer.position(buffer.position() + length);
+			}
+		} catch (Exception e) {
+			LOG.warn("{} cache file {} could not be read, it will be rebuilt.", _name, _file, e);
+			_entries.clear();
+		}
+	}
+	
+	/**
+	 * Loads the document of a file, from the cache if the file did not change, otherwise with the given parser.<br>
+	 * It is safe to load documents concurrently.
+	 * @param f the XML file
+	 * @param parser the parser, used when the file is not in the cache
+	 * @return the document of the file
+	 * @throws Exception if the file could not be read or parsed
+	 */
+	public Document load(File f, DocumentParser parser) throws Exception {
+		final String key = getKey(f);
+		final byte[] hash = hash(f);
+		final Entry entry = _entries.get(key);
+		if ((entry != null) && Arrays.equals(entry.hash(), hash)) {
+			try {
+				final Document doc = decode(entry.data());
+				_loaded.put(key, entry);
+				_hits.increment();
+				return doc;
+			} catch (Exception e) {
+				_decodeFailures.increment();
+				LOG.warn("{} cache entry of {} could not be decoded, parsing the file.", _name, f, e);
+			}
+		}
+		
+		final Document doc = parser.parse(f);
+		_loaded.put(key, new Entry(hash, ByteBuffer.wrap(encode(doc))));
+		_changed = true;
+		_misses.increment();
+		return doc;
+	}
+	
+	/**
+	 * Parses and compiles the given files, replacing the documents loaded so far.<br>
+	 * Files that could not be parsed are logged and left out.
+	 * @param files the XML files
+	 * @param parser the parser
+	 * @return the amount of compiled documents
+	 */
+	public int build(List<File> files, DocumentParser parser) {
+		_loaded.clear();
+		_changed = true;
+		final AtomicInteger built = new AtomicInteger();
+		files.parallelStream().forEach(f -> {
+			try {
+				_loaded.put(getKey(f), new Entry(hash(f), ByteBuffer.wrap(encode(parser.parse(f)))));
+				built.incrementAndGet();
+			} catch (Exception e) {
+				LOG.warn("{} cache could not compile {}!", _name, f, e);
+			}
+		});
+		return built.get();
+	}
+	
+	/**
+	 * Verifies that the cached documents of the given files are the same as the documents parsed from them.
+	 * @param files the XML files
+	 * @param parser the parser
+	 * @return the verification result
+	 */
+	public Verification verify(List<File> files, DocumentParser parser) {
+		int matched = 0;
+		int mismatched = 0;
+		int stale = 0;
+		for (File f : files) {
+			try {
+				final Entry entry = _entries.get(getKey(f));
+				if ((entry == null) || !Arrays.equals(entry.hash(), hash(f))) {
+					stale++;
+					continue;
+				}
+				
+				final Element cached = decode(entry.data()).getDocumentElement();
+				if (cached.isEqualNode(parser.parse(f).getDocumentElement())) {
+					matched++;
+				} else {
+					mismatched++;
+					LOG.warn("{} cache document of {} does not match the file!", _name, f);
+				}
+			} catch (Exception e) {
+				mismatched++;
+				LOG.warn("{} cache could not verify {}!", _name, f, e);
+			}
+		}
+		return new Verification(matched, mismatched, stale);
+	}
+	
+	/**
+	 * Writes the documents loaded since the cache file was read to the cache file, if any of them changed.<br>
+	 * The documents of files that were not loaded, such as removed files, are dropped.
+	 * @return {@code true} if the cache file was written, {@code false} otherwise
+	 */
+	public synchronized boolean save() {
+		if (!_changed && _loaded.keySet().equals(_entries.keySet())) {
+			return false;
+		}
+		
+		final Map<String, Entry> entries = new TreeMap<>(_loaded);
+		final File tmp = new File(_file.getPath() + ".tmp");
+		try {
+			Files.createDirectories(_file.getAbsoluteFile().getParentFile().toPath());
+			try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (var e : entries.entrySet()) {
+					final byte[] key = e.getKey().getBytes(UTF_8);
+					out.writeInt(key.length);
+					out.write(key);
+					out.write(e.getValue().hash());
+					final ByteBuffer data = e.getValue().data();
+					final byte[] bytes = new byte[data.remaining()];
+					data.duplicate().get(bytes);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			}
+			Files.move(tmp.toPath(), _file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warn("{} cache file {} could not be written!", _name, _file, e);
+			return false;
+		}
+		
+		_entries.clear();
+		_entries.putAll(entries);
+		_changed = false;
+		LOG.info("{} cache: Saved {} documents.", _name, entries.size());
+		return true;
+	}
+	
+	/**
+	 * Gets the cache statistics.
+	 * @return the cache statistics
+	 */
+	public String[] getStats() {
+		final List<String> stats = new ArrayList<>();
+		stats.add(_name + " Cache:");
+		stats.add(" |- File:            " + _file);
+		stats.add(" |- Documents:       " + _entries.size());
+		stats.add(" |- Hits:            " + _hits.sum());
+		stats.add(" |- Misses:          " + _misses.sum());
+		stats.add(" |- DecodeFailures:  " + _decodeFailures.sum());
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	private String getKey(File f) {
+		final Path path = f.toPath().toAbsolutePath().normalize();
+		return (path.startsWith(_root) ? _root.relativize(path) : path).toString().replace('\\', '/');
+	}
+	
+	private byte[] hash(File f) throws IOException {
+		final byte[] content = Files.readAllBytes(f.toPath());
+		final MessageDigest digest = newDigest();
+		digest.update(content);
+		final Matcher matcher = SCHEMA_LOCATION.matcher(new String(content, 0, Math.min(content.length, SCHEMA_LOCATION_SEARCH), UTF_8));
+		if (matcher.find()) {
+			digest.update(hashSchema(f.toPath().toAbsolutePath().getParent().resolve(matcher.group(1)).normalize()));
+		}
+		return digest.digest();
+	}
+	
+	/**
+	 * Gets the content hash of a schema, the schemas are shared by many files so the hash is only computed again when the schema file changes.
+	 * @param schema the schema file
+	 * @return the content hash, empty if the schema cannot be read, the file then fails validation and is not cached
+	 */
+	private byte[] hashSchema(Path schema) {
+		try {
+			final long modified = Files.getLastModifiedTime(schema).toMillis();
+			final long size = Files.size(schema);
+			final SchemaHash cached = _schemas.get(schema);
+			if ((cached != null) && (cached.modified() == modified) && (cached.size() == size)) {
+				return cached.hash();
+			}
+			
+			final byte[] hash = newDigest().digest(Files.readAllBytes(schema));
+			_schemas.put(schema, new SchemaHash(modified, size, hash));
+			return hash;
+		} catch (IOException e) {
+			return new byte[0];
+		}
+	}
+	
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Encodes a document.<br>
+	 * The encoded document holds a flag telling if the names have namespaces, the table of the distinct strings of the document, then its nodes, as indexes in the string table.
+	 * @param doc the document
+	 * @return the encoded document
+	 * @throws IOException never, the document is written in memory
+	 */
+	static byte[] encode(Document doc) throws IOException {
+		final Map<String, Integer> strings = new HashMap<>();
+		final List<String> table = new ArrayList<>();
+		final ByteArrayOutputStream nodes = new ByteArrayOutputStream(4096);
+		try (var out = new DataOutputStream(nodes)) {
+			encodeChildren(doc, out, strings, table);
+		}
+		
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(nodes.size() + 4096);
+		try (var out = new DataOutputStream(bytes)) {
+			out.writeBoolean((doc.getDocumentElement() != null) && (doc.getDocumentElement().getLocalName() != null));
+			out.writeInt(table.size());
+			for (String string : table) {
+				final byte[] b = string.getBytes(UTF_8);
+				out.writeInt(b.length);
+				out.write(b);
+			}
+			nodes.writeTo(out);
+		}
+		return bytes.toByteArray();
+	}
+	
+	private static void encodeChildren(Node parent, DataOutputStream out, Map<String, Integer> strings, List<String> table) throws IOException {
+		int count = 0;
+		for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+			if (getType(n) != 0) {
+				count++;
+			}
+		}
+		
+		out.writeInt(count);
+		for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+			final byte type = getType(n);
+			if (type == 0) {
+				continue;
+			}
+			
+			out.writeByte(type);
+			if (type != ELEMENT) {
+				out.writeInt(index(n.getNodeValue(), strings, table));
+				continue;
+			}
+			
+			out.writeInt(index(n.getNodeName(), strings, table));
+			out.writeInt(index(n.getNamespaceURI(), strings, table));
+			final NamedNodeMap attrs = n.getAttributes();
+			out.writeInt(attrs.getLength());
+			for (int i = 0; i < attrs.getLength(); i++) {
+				final Node attr = attrs.item(i);
+				out.writeInt(index(attr.getNodeName(), strings, table));
+				out.writeInt(index(attr.getNamespaceURI(), strings, table));
+				out.writeInt(index(attr.getNodeValue(), strings, table));
+			}
+			encodeChildren(n, out, strings, table);
+		}
+	}
+	
+	private static byte getType(Node n) {
+		return switch (n.getNodeType()) {
+			case Node.ELEMENT_NODE -> ELEMENT;
+			case Node.TEXT_NODE -> TEXT;
+			case Node.CDATA_SECTION_NODE -> CDATA;
+			case Node.COMMENT_NODE -> COMMENT;
+			// Document types and processing instructions are not used by the datapack.
+			default -> 0;
+		};
+	}
+	
+	private static int index(String string, Map<String, Integer> strings, List<String> table) {
+		if (string == null) {
+			return -1;
+		}
+		
+		return strings.computeIfAbsent(string, k -> {
+			table.add(k);
+			return table.size() - 1;
+		});
+	}
+	
+	/**
+	 * Decodes a document encoded by {@link #encode(Document)}.
+	 * @param data the encoded document, its position is left untouched
+	 * @return the document
+	 * @throws ParserConfigurationException if the document builder could not be created
+	 */
+	static Document decode(ByteBuffer data) throws ParserConfigurationException {
+		final ByteBuffer buffer = data.duplicate();
+		final boolean namespaceAware = buffer.get() != 0;
+		final String[] strings = new String[buffer.getInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = readString(buffer);
+		}
+		
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		decodeChildren(doc, doc, buffer, strings, namespaceAware);
+		return doc;
+	}
+	
+	private static void decodeChildren(Document doc, Node parent, ByteBuffer buffer, String[] strings, boolean namespaceAware) {
+		final int count = buffer.getInt();
+		for (int c = 0; c < count; c++) {
+			final byte type = buffer.get();
+			switch (type) {
+				case TEXT -> parent.appendChild(doc.createTextNode(strings[buffer.getInt()]));
+				case CDATA -> parent.appendChild(doc.createCDATASection(strings[buffer.getInt()]));
+				case COMMENT -> parent.appendChild(doc.createComment(strings[buffer.getInt()]));
+				case ELEMENT -> {
+					final String name = strings[buffer.getInt()];
+					final String namespace = string(strings, buffer.getInt());
+					final Element element = namespaceAware ? doc.createElementNS(namespace, name) : doc.createElement(name);
+					final int attrs = buffer.getInt();
+					for (int i = 0; i < attrs; i++) {
+						final String attrName = strings[buffer.getInt()];
+						final String attrNamespace = string(strings, buffer.getInt());
+						final String value = strings[buffer.getInt()];
+						if (namespaceAware) {
+							element.setAttributeNS(attrNamespace, attrName, value);
+						} else {
+							element.setAttribute(attrName, value);
+						}
+					}
+					decodeChildren(doc, element, buffer, strings, namespaceAware);
+					parent.appendChild(element);
+				}
+				default -> throw new IllegalStateException("Unknown node type " + type + "!");
+			}
+		}
+	}
+	
+	private static String string(String[] strings, int index) {
+		return (index >= 0) ? strings[index] : null;
+	}
+	
+	private static String readString(ByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+	
+	/**
+	 * A cached document.
+	 * @param hash the hash of the source file content and of its schema
+	 * @param data the encoded document
+	 */
+	private record Entry(byte[] hash, ByteBuffer data) {
+	}
+	
+	/**
+	 * Content hash of a schema.
+	 * @param modified the last modified time of the schema file when it was hashed
+	 * @param size the size of the schema file when it was hashed
+	 * @param hash the hash of the schema file content
+	 */
+	private record SchemaHash(long modified, long size, byte[] hash) {
+	}
+	
+	/**
+	 * Result of a cache verification.
+	 * @param matched the cached documents equal to their parsed file
+	 * @param mismatched the cached documents different from their parsed file, or that could not be compared
+	 * @param stale the files without cached document, or whose content changed since it was cached
+	 */
+	public record Verification(int matched, int mismatched, int stale) {
+	}
+	
+	/**
+	 * Parser of the files missing from the cache.
+	 */
+	@FunctionalInterface
+	public interface DocumentParser {
+		/**
+		 * Parses a file.
+		 * @param f the XML file
+		 * @return the document of the file
+		 * @throws Exception if the file could not be parsed
+		 */
+		Document parse(File f) throws Exception;
+	}
+}
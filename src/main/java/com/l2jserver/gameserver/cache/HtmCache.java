@@ -22,21 +22,32 @@ import static com.l2jserver.gameserver.config.Configuration.general;
 import static com.l2jserver.gameserver.config.Configuration.server;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.util.file.filter.HTMLFilter;
 
 /**
- * HTML Cache.
+ * HTML Cache.<br>
+ * Pages are kept as {@link HtmlTemplate}s, tokenized once when loaded, by their path relative to the datapack or script root.<br>
+ * The uncompressed pages are kept within a memory budget, beyond it and after an idle time pages are compressed, they are decompressed when requested again.
  * @author Layane
  * @author Zoey76
  */
@@ -46,14 +57,35 @@ public class HtmCache {
 	
 	private static final HTMLFilter HTML_FILTER = new HTMLFilter();
 	
-	private static final Map<String, String> HTML_CACHE = general().lazyCache() ? new ConcurrentHashMap<>() : new HashMap<>();
+	/** Once over the budget, pages are compressed until the uncompressed pages use this share of it. */
+	private static final double TRIM_RATIO = 0.9;
 	
-	private int _loadedFiles;
+	private final Map<String, Entry> _cache = new ConcurrentHashMap<>();
 	
-	private long _bytesBuffLen;
+	/** Memory budget of the uncompressed pages in bytes, {@code 0} for no budget. */
+	private final long _budget;
+	
+	/** Time in milliseconds a page is kept uncompressed after it was requested, {@code 0} to keep it. */
+	private final long _idleTime;
+	
+	private final AtomicLong _memoryUsage = new AtomicLong();
+	private final AtomicLong _compressedUsage = new AtomicLong();
+	private final LongAdder _hits = new LongAdder();
+	private final LongAdder _misses = new LongAdder();
+	private final LongAdder _compressions = new LongAdder();
+	private final LongAdder _decompressions = new LongAdder();
 	
 	protected HtmCache() {
+		this(general().getHtmlCacheBudget() * 1048576L, general().getHtmlCacheIdleTime());
 		reload();
+		if (_idleTime > 0) {
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(() -> compressIdle(System.currentTimeMillis()), _idleTime, Math.max(1000, _idleTime / 2));
+		}
+	}
+	
+	HtmCache(long budget, long idleTime) {
+		_budget = budget;
+		_idleTime = idleTime;
 	}
 	
 	public void reload() {
@@ -61,14 +93,12 @@ public class HtmCache {
 	}
 	
 	public void reload(File f) {
+		clear();
 		if (!general().lazyCache()) {
 			LOG.info("Html cache start...");
 			parseDir(f);
 			LOG.info(String.format("%.3f", getMemoryUsage()) + " megabytes on " + getLoadedFiles() + " files loaded.");
 		} else {
-			HTML_CACHE.clear();
-			_loadedFiles = 0;
-			_bytesBuffLen = 0;
 			LOG.info("Running lazy cache.");
 		}
 	}
@@ -78,12 +108,16 @@ public class HtmCache {
 		LOG.info("Reloaded specified path.");
 	}
 	
+	/**
+	 * Gets the memory used by the cached pages, the compressed ones included.
+	 * @return the memory in megabytes
+	 */
 	public double getMemoryUsage() {
-		return ((float) _bytesBuffLen / 1048576);
+		return ((float) (_memoryUsage.get() + _compressedUsage.get()) / 1048576);
 	}
 	
 	public int getLoadedFiles() {
-		return _loadedFiles;
+		return _cache.size();
 	}
 	
 	private void parseDir(File dir) {
@@ -100,55 +134,101 @@ public class HtmCache {
 	}
 	
 	public String loadFile(File file) {
+		final HtmlTemplate template = loadTemplate(file, getKey(file));
+		return (template != null) ? template.getText() : null;
+	}
+	
+	private HtmlTemplate loadTemplate(File file, String path) {
 		if (!HTML_FILTER.accept(file)) {
 			return null;
 		}
 		
-		String content = null;
-		try (var fis = new FileInputStream(file);
-			var bis = new BufferedInputStream(fis)) {
-			final int bytes = bis.available();
-			byte[] raw = new byte[bytes];
-			
-			bis.read(raw);
-			content = new String(raw, UTF_8);
-			content = content.replaceAll("(?s)<!--.*?-->", ""); // Remove html comments
-			
-			String oldContent = HTML_CACHE.put(file.getCanonicalPath(), content);
-			if (oldContent == null) {
-				_bytesBuffLen += bytes;
-				_loadedFiles++;
-			} else {
-				_bytesBuffLen = (_bytesBuffLen - oldContent.length()) + bytes;
-			}
+		try {
+			return put(path, new String(Files.readAllBytes(file.toPath()), UTF_8));
 		} catch (Exception e) {
 			LOG.warn("Problem with htm file {}!", file, e);
 		}
-		return content;
+		return null;
+	}
+	
+	/**
+	 * Caches a page.
+	 * @param path the path of the page
+	 * @param content the content of the page
+	 * @return the template of the page
+	 */
+	HtmlTemplate put(String path, String content) {
+		final HtmlTemplate template = HtmlTemplate.compile(removeComments(content));
+		final Entry entry = new Entry(template);
+		_memoryUsage.addAndGet(template.getMemoryUsage());
+		final Entry old = _cache.put(path, entry);
+		if (old != null) {
+			old.evict();
+		}
+		trim();
+		return template;
 	}
 	
 	public String getHtm(String prefix, String path) {
+		final HtmlTemplate template = getTemplate(prefix, path);
+		return (template != null) ? template.getText() : null;
+	}
+	
+	/**
+	 * Gets the template of a page.
+	 * @param prefix the prefix of the path, such as a language directory, can be {@code null}
+	 * @param path the path of the page
+	 * @return the template, {@code null} if the page does not exist
+	 */
+	public HtmlTemplate getTemplate(String prefix, String path) {
 		final var newPath = Objects.requireNonNullElse(prefix, "") + path;
-		var content = HTML_CACHE.get(newPath);
-		if (general().lazyCache() && (content == null)) {
-			content = loadFile(new File(server().getDatapackRoot(), newPath));
-			if (content == null) {
-				content = loadFile(new File(server().getScriptRoot(), newPath));
+		var template = get(newPath);
+		if (general().lazyCache() && (template == null)) {
+			template = loadTemplate(new File(server().getDatapackRoot(), newPath), newPath);
+			if (template == null) {
+				template = loadTemplate(new File(server().getScriptRoot(), newPath), newPath);
 			}
 			
 			// If multilanguage content is not present, try default location.
-			if ((prefix != null) && (content == null)) {
-				content = loadFile(new File(server().getDatapackRoot(), path));
-				if (content == null) {
-					content = loadFile(new File(server().getScriptRoot(), path));
+			if ((prefix != null) && (template == null)) {
+				template = get(path);
+				if (template == null) {
+					template = loadTemplate(new File(server().getDatapackRoot(), path), path);
+				}
+				if (template == null) {
+					template = loadTemplate(new File(server().getScriptRoot(), path), path);
 				}
 			}
 		}
-		return content;
+		return template;
+	}
+	
+	/**
+	 * Gets a cached page, decompressing it if needed.
+	 * @param path the path of the page
+	 * @return the template, {@code null} if the page is not cached
+	 */
+	HtmlTemplate get(String path) {
+		final Entry entry = _cache.get(path);
+		if (entry == null) {
+			_misses.increment();
+			return null;
+		}
+		
+		_hits.increment();
+		entry._lastAccess = System.currentTimeMillis();
+		final HtmlTemplate template = entry._template;
+		if (template != null) {
+			return template;
+		}
+		
+		final HtmlTemplate decompressed = entry.decompress();
+		trim();
+		return decompressed;
 	}
 	
 	public boolean contains(String path) {
-		return HTML_CACHE.containsKey(path);
+		return _cache.containsKey(path);
 	}
 	
 	/**
@@ -159,6 +239,184 @@ public class HtmCache {
 		return HTML_FILTER.accept(new File(server().getDatapackRoot(), path));
 	}
 	
+	private void clear() {
+		for (Entry entry : _cache.values()) {
+			entry.evict();
+		}
+		_cache.clear();
+	}
+	
+	/**
+	 * Compresses the least recently requested pages while the uncompressed pages are over the budget.
+	 */
+	private void trim() {
+		if ((_budget <= 0) || (_memoryUsage.get() <= _budget)) {
+			return;
+		}
+		
+		synchronized (this) {
+			final long target = (long) (_budget * TRIM_RATIO);
+			if (_memoryUsage.get() <= _budget) {
+				return;
+			}
+			
+			final List<Entry> entries = new ArrayList<>(_cache.values());
+			entries.sort(Comparator.comparingLong(e -> e._lastAccess));
+			for (Entry entry : entries) {
+				if (_memoryUsage.get() <= target) {
+					break;
+				}
+				entry.compress();
+			}
+		}
+	}
+	
+	/**
+	 * Compresses the pages not requested for the idle time.
+	 * @param now the current time in milliseconds
+	 */
+	void compressIdle(long now) {
+		for (Entry entry : _cache.values()) {
+			if ((now - entry._lastAccess) >= _idleTime) {
+				entry.compress();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the cache statistics.
+	 * @return the cache statistics
+	 */
+	public String[] getStats() {
+		int compressed = 0;
+		for (Entry entry : _cache.values()) {
+			if (entry._template == null) {
+				compressed++;
+			}
+		}
+		
+		final List<String> stats = new ArrayList<>();
+		stats.add("Html Cache: " + (general().lazyCache() ? "lazy" : "preloaded"));
+		stats.add(" |- Pages:           " + _cache.size());
+		stats.add(" |- Compressed:      " + compressed);
+		stats.add(" |- Memory:          " + (_memoryUsage.get() / 1024) + "KB");
+		stats.add(" |- CompressedMemory:" + (_compressedUsage.get() / 1024) + "KB");
+		stats.add(" |- Budget:          " + ((_budget > 0) ? (_budget / 1024) + "KB" : "none"));
+		stats.add(" |- Hits:            " + _hits.sum());
+		stats.add(" |- Misses:          " + _misses.sum());
+		stats.add(" |- Compressions:    " + _compressions.sum());
+		stats.add(" |- Decompressions:  " + _decompressions.sum());
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	private static String getKey(File file) {
+		final Path root = server().getDatapackRoot().toPath().toAbsolutePath().normalize();
+		final Path path = file.toPath().toAbsolutePath().normalize();
+		return (path.startsWith(root) ? root.relativize(path) : path).toString().replace('\\', '/');
+	}
+	
+	private static String removeComments(String content) {
+		int start = content.indexOf("<!--");
+		if (start < 0) {
+			return content;
+		}
+		
+		final StringBuilder sb = new StringBuilder(content.length());
+		int position = 0;
+		while (start >= 0) {
+			final int end = content.indexOf("-->", start + 4);
+			if (end < 0) {
+				break;
+			}
+			sb.append(content, position, start);
+			position = end + 3;
+			start = content.indexOf("<!--", position);
+		}
+		return sb.append(content, position, content.length()).toString();
+	}
+	
+	/**
+	 * A cached page, uncompressed or compressed.
+	 */
+	private final class Entry {
+		private volatile HtmlTemplate _template;
+		private volatile byte[] _compressed;
+		private volatile long _lastAccess = System.currentTimeMillis();
+		private boolean _evicted;
+		
+		Entry(HtmlTemplate template) {
+			_template = template;
+		}
+		
+		synchronized void compress() {
+			final HtmlTemplate template = _template;
+			if (_evicted || (template == null)) {
+				return;
+			}
+			
+			final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try {
+				deflater.setInput(template.getText().getBytes(UTF_8));
+				deflater.finish();
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				final byte[] buffer = new byte[4096];
+				while (!deflater.finished()) {
+					out.write(buffer, 0, deflater.deflate(buffer));
+				}
+				_compressed = out.toByteArray();
+			} finally {
+				deflater.end();
+			}
+			_template = null;
+			_memoryUsage.addAndGet(-template.getMemoryUsage());
+			_compressedUsage.addAndGet(_compressed.length);
+			_compressions.increment();
+		}
+		
+		synchronized HtmlTemplate decompress() {
+			if (_template != null) {
+				return _template;
+			}
+			
+			final Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(_compressed);
+				final ByteArrayOutputStream out = new ByteArrayOutputStream(_compressed.length * 4);
+				final byte[] buffer = new byte[4096];
+				while (!inflater.finished()) {
+					out.write(buffer, 0, inflater.inflate(buffer));
+				}
+				_template = HtmlTemplate.compile(out.toString(UTF_8));
+			} catch (DataFormatException e) {
+				// Never happens, the cache compressed it.
+				throw new IllegalStateException(e);
+			} finally {
+				inflater.end();
+			}
+			
+			if (!_evicted) {
+				_compressedUsage.addAndGet(-_compressed.length);
+				_memoryUsage.addAndGet(_template.getMemoryUsage());
+				_decompressions.increment();
+			}
+			_compressed = null;
+			return _template;
+		}
+		
+		synchronized void evict() {
+			if (_evicted) {
+				return;
+			}
+			_evicted = true;
+			if (_template != null) {
+				_memoryUsage.addAndGet(-_template.getMemoryUsage());
+			} else {
+				_compressedUsage.addAndGet(-_compressed.length);
+			}
+		}
+	}
+	
 	public static HtmCache getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+/**
+ * HTML builder.<br>
+ * Replaces the patterns of a page and builds it, replacing a placeholder of a {@link HtmlTemplate} only records its value and the page is copied once, when it is built.<br>
+ * Any other replacement builds the page and replaces the pattern in it, so the result is the same as replacing the patterns one after another.
+ * @since 2.6.3.0
+ */
+public final class HtmlBuilder {
+	
+	private HtmlTemplate _template;
+	
+	private String[] _values;
+	
+	/** If a value could make a new placeholder pattern with the text around its token. */
+	private boolean _joinable;
+	
+	/** The page, once built or if it is not tokenized. */
+	private String _html;
+	
+	/** If the page was tokenized, a page is tokenized once at most. */
+	private boolean _compiled;
+	
+	/**
+	 * Creates a builder of a template.
+	 * @param template the template
+	 */
+	public HtmlBuilder(HtmlTemplate template) {
+		_template = template;
+		_compiled = true;
+	}
+	
+	/**
+	 * Creates a builder of a page, the page is tokenized on the first replacement.
+	 * @param html the page
+	 */
+	public HtmlBuilder(String html) {
+		_html = html;
+	}
+	
+	/**
+	 * Replaces all the occurrences of a pattern.
+	 * @param pattern the pattern, replaced as it is and not as a regular expression
+	 * @param value the value
+	 * @return this builder
+	 */
+	public HtmlBuilder replace(String pattern, String value) {
+		if (!_compiled) {
+			_template = HtmlTemplate.compile(_html);
+			_html = null;
+			_compiled = true;
+		}
+		
+		if (_template != null) {
+			final int slot = _template.getSlot(pattern);
+			if ((slot >= 0) && !_joinable && (value.indexOf('%') < 0)) {
+				if (_values == null) {
+					_values = new String[_template.getSlotCount()];
+				}
+				// Once replaced the placeholder is no longer in the page.
+				if (_values[slot] == null) {
+					_values[slot] = value;
+					_joinable = _template.isEnclosed(slot) && HtmlTemplate.isName(value);
+				}
+				return this;
+			}
+			
+			// Not a placeholder, it can only be in the page if it is in the text or in the values.
+			if ((slot < 0) && (_values == null) && !_template.getText().contains(pattern)) {
+				return this;
+			}
+			build();
+		}
+		
+		_html = _html.replace(pattern, value);
+		return this;
+	}
+	
+	public HtmlBuilder replace(String pattern, boolean value) {
+		return replace(pattern, String.valueOf(value));
+	}
+	
+	public HtmlBuilder replace(String pattern, int value) {
+		return replace(pattern, String.valueOf(value));
+	}
+	
+	public HtmlBuilder replace(String pattern, long value) {
+		return replace(pattern, String.valueOf(value));
+	}
+	
+	public HtmlBuilder replace(String pattern, double value) {
+		return replace(pattern, String.valueOf(value));
+	}
+	
+	/**
+	 * Builds the page.
+	 * @return the page
+	 */
+	public String build() {
+		if (_template != null) {
+			_html = _template.render(_values);
+			_template = null;
+			_values = null;
+		}
+		return _html;
+	}
+	
+	@Override
+	public String toString() {
+		return build();
+	}
+}
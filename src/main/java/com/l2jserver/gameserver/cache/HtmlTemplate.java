@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML template.<br>
+ * A page tokenized once into its literal text and its {@code %name%} placeholders, the placeholders of a render are filled by a {@link HtmlBuilder} and the page is copied once, when it is built.<br>
+ * A placeholder is only indexed if all the occurrences of its pattern in the page are tokens, so replacing it is the same as replacing its pattern in the page.
+ * @since 2.6.3.0
+ */
+public final class HtmlTemplate {
+	
+	private final String _text;
+	
+	/** Start of each token in the text. */
+	private final int[] _starts;
+	
+	/** End of each token in the text, exclusive. */
+	private final int[] _ends;
+	
+	/** Slot of each token, tokens of the same placeholder share their slot. */
+	private final int[] _slots;
+	
+	/** Slots of the placeholders, by pattern. */
+	private final Map<String, Integer> _slotsByPattern;
+	
+	/** Slots with a token enclosed by percent signs, a value made of name characters could make a new pattern there. */
+	private final boolean[] _enclosed;
+	
+	private final long _memoryUsage;
+	
+	private HtmlTemplate(String text, int[] starts, int[] ends, int[] slots, Map<String, Integer> slotsByPattern, boolean[] enclosed) {
+		_text = text;
+		_starts = starts;
+		_ends = ends;
+		_slots = slots;
+		_slotsByPattern = slotsByPattern;
+		_enclosed = enclosed;
+		
+		boolean latin1 = true;
+		for (int i = 0; (i < text.length()) && latin1; i++) {
+			latin1 = text.charAt(i) <= 0xFF;
+		}
+		_memoryUsage = (latin1 ? text.length() : text.length() * 2L) + (starts.length * 12L) + (slotsByPattern.size() * 64L) + 96;
+	}
+	
+	/**
+	 * Tokenizes a page.
+	 * @param text the page
+	 * @return the template
+	 */
+	public static HtmlTemplate compile(String text) {
+		final List<int[]> tokens = new ArrayList<>();
+		final Map<String, List<int[]>> tokensByPattern = new HashMap<>();
+		int i = text.indexOf('%');
+		while (i >= 0) {
+			final int j = text.indexOf('%', i + 1);
+			if (j < 0) {
+				break;
+			}
+			
+			if ((j > (i + 1)) && isName(text, i + 1, j)) {
+				final int[] token = {
+					i,
+					j + 1
+				};
+				tokens.add(token);
+				tokensByPattern.computeIfAbsent(text.substring(i, j + 1), k -> new ArrayList<>()).add(token);
+				i = text.indexOf('%', j + 1);
+			} else {
+				// The closing percent sign could open the next placeholder.
+				i = j;
+			}
+		}
+		
+		final Map<String, Integer> slotsByPattern = new HashMap<>();
+		final Map<int[], Integer> tokenSlots = new HashMap<>();
+		for (Map.Entry<String, List<int[]>> entry : tokensByPattern.entrySet()) {
+			if (isTokenized(text, entry.getKey(), entry.getValue())) {
+				final int slot = slotsByPattern.size();
+				slotsByPattern.put(entry.getKey(), slot);
+				for (int[] token : entry.getValue()) {
+					tokenSlots.put(token, slot);
+				}
+			}
+		}
+		
+		// Tokens of placeholders that are not indexed are left in the literal text.
+		tokens.removeIf(token -> !tokenSlots.containsKey(token));
+		final int[] starts = new int[tokens.size()];
+		final int[] ends = new int[tokens.size()];
+		final int[] slots = new int[tokens.size()];
+		final boolean[] enclosed = new boolean[slotsByPattern.size()];
+		for (int t = 0; t < tokens.size(); t++) {
+			starts[t] = tokens.get(t)[0];
+			ends[t] = tokens.get(t)[1];
+			slots[t] = tokenSlots.get(tokens.get(t));
+			enclosed[slots[t]] |= isEnclosed(text, starts[t], ends[t]);
+		}
+		return new HtmlTemplate(text, starts, ends, slots, Map.copyOf(slotsByPattern), enclosed);
+	}
+	
+	/**
+	 * Gets the page, with its placeholders.
+	 * @return the page
+	 */
+	public String getText() {
+		return _text;
+	}
+	
+	/**
+	 * Gets the slot of a placeholder.
+	 * @param pattern the placeholder pattern, such as {@code %objectId%}
+	 * @return the slot, {@code -1} if the pattern is not an indexed placeholder of the page
+	 */
+	public int getSlot(String pattern) {
+		final Integer slot = _slotsByPattern.get(pattern);
+		return (slot != null) ? slot : -1;
+	}
+	
+	/**
+	 * Gets the amount of slots, the distinct indexed placeholders of the page.
+	 * @return the amount of slots
+	 */
+	public int getSlotCount() {
+		return _enclosed.length;
+	}
+	
+	/**
+	 * Verifies if a token of the slot is enclosed by percent signs, separated from them by name characters only.
+	 * @param slot the slot
+	 * @return {@code true} if a value made of name characters could make a new placeholder pattern there
+	 */
+	public boolean isEnclosed(int slot) {
+		return _enclosed[slot];
+	}
+	
+	/**
+	 * Gets the estimated memory used by the template.
+	 * @return the memory in bytes
+	 */
+	public long getMemoryUsage() {
+		return _memoryUsage;
+	}
+	
+	/**
+	 * Renders the page.
+	 * @param values the values of the slots, a placeholder without value is left in the page
+	 * @return the page
+	 */
+	public String render(String[] values) {
+		if ((values == null) || (_starts.length == 0)) {
+			return _text;
+		}
+		
+		int length = _text.length();
+		for (int t = 0; t < _starts.length; t++) {
+			final String value = values[_slots[t]];
+			if (value != null) {
+				length += value.length() - (_ends[t] - _starts[t]);
+			}
+		}
+		
+		final StringBuilder sb = new StringBuilder(length);
+		int position = 0;
+		for (int t = 0; t < _starts.length; t++) {
+			final String value = values[_slots[t]];
+			if (value != null) {
+				sb.append(_text, position, _starts[t]).append(value);
+				position = _ends[t];
+			}
+		}
+		return sb.append(_text, position, _text.length()).toString();
+	}
+	
+	/**
+	 * Verifies if the characters of a text are all name characters.
+	 * @param text the text
+	 * @return {@code true} if the text is made of name characters only
+	 */
+	public static boolean isName(String text) {
+		return isName(text, 0, text.length());
+	}
+	
+	private static boolean isName(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!isNameChar(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isNameChar(char c) {
+		return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')) || (c == '_');
+	}
+	
+	/**
+	 * Verifies the tokens of a pattern are all the occurrences found by searching it in the page.
+	 */
+	private static boolean isTokenized(String text, String pattern, List<int[]> tokens) {
+		int count = 0;
+		int i = text.indexOf(pattern);
+		while (i >= 0) {
+			if ((count == tokens.size()) || (tokens.get(count)[0] != i)) {
+				return false;
+			}
+			count++;
+			i = text.indexOf(pattern, i + pattern.length());
+		}
+		return count == tokens.size();
+	}
+	
+	private static boolean isEnclosed(String text, int start, int end) {
+		int left = start - 1;
+		while ((left >= 0) && isNameChar(text.charAt(left))) {
+			left--;
+		}
+		int right = end;
+		while ((right < text.length()) && isNameChar(text.charAt(right))) {
+			right++;
+		}
+		return (left >= 0) && (text.charAt(left) == '%') && (right < text.length()) && (text.charAt(right) == '%');
+	}
+}
@@ -60,6 +60,9 @@ public interface CharacterConfiguration extends Reloadable {
 	@Key("DecreaseSkillOnDelevel")
 	boolean decreaseSkillOnDelevel();
 	
+	@Key("StatCache")
+	boolean statCache();
+	
 	@Key("WeightLimit")
 	int getWeightLimit();
 	
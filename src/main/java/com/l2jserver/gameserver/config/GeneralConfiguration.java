@@ -22,6 +22,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.aeonbits.owner.Config.HotReloadType.ASYNC;
 import static org.aeonbits.owner.Config.LoadType.MERGE;
 
+import java.io.File;
 import java.util.Set;
 
 import org.aeonbits.owner.Config.HotReload;
@@ -30,6 +31,7 @@ import org.aeonbits.owner.Config.Sources;
 import org.aeonbits.owner.Mutable;
 import org.aeonbits.owner.Reloadable;
 
+import com.l2jserver.gameserver.config.converter.FileConverter;
 import com.l2jserver.gameserver.config.converter.Minutes2MillisecondsConverter;
 import com.l2jserver.gameserver.config.converter.Seconds2MillisecondsConverter;
 import com.l2jserver.gameserver.config.converter.ServerListTypeConverter;
@@ -170,6 +172,40 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("EventsMaxThread")
 	int getEventsMaxThread();
 	
+	@Key("MovementThreadPoolSize")
+	int getMovementThreadPoolSize();
+	
+	@Key("MovementParallelThreshold")
+	int getMovementParallelThreshold();
+	
+	@Key("AiTickScheduler")
+	boolean aiTickScheduler();
+	
+	@Key("AiTickParallelThreshold")
+	int getAiTickParallelThreshold();
+	
+	@Key("EffectTickScheduler")
+	boolean effectTickScheduler();
+	
+	@Key("BroadcastTickScheduler")
+	boolean broadcastTickScheduler();
+	
+	@Key("ThreadPoolStats")
+	boolean threadPoolStats();
+	
+	@Key("ThreadPoolStatsLogInterval")
+	int getThreadPoolStatsLogInterval();
+	
+	@Key("StartupThreads")
+	int getStartupThreads();
+	
+	@Key("DatapackCache")
+	boolean datapackCache();
+	
+	@Key("DatapackCachePath")
+	@ConverterClass(FileConverter.class)
+	File getDatapackCachePath();
+	
 	@Key("DeadLockDetector")
 	boolean deadLockDetector();
 	
@@ -180,6 +216,9 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("RestartOnDeadlock")
 	boolean restartOnDeadlock();
 	
+	@Key("ClientPacketVirtualThreads")
+	boolean clientPacketVirtualThreads();
+	
 	@Key("ClientPacketQueueSize")
 	int getClientPacketQueueSize();
 	
@@ -237,6 +276,18 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("UpdateItemsOnCharStore")
 	boolean updateItemsOnCharStore();
 	
+	@Key("WriteBehindPersistence")
+	boolean writeBehindPersistence();
+	
+	@Key("WriteBehindFlushInterval")
+	long getWriteBehindFlushInterval();
+	
+	@Key("WriteBehindBatchSize")
+	int getWriteBehindBatchSize();
+	
+	@Key("WriteBehindQueueSize")
+	int getWriteBehindQueueSize();
+	
 	@Key("DestroyPlayerDroppedItem")
 	boolean destroyPlayerDroppedItem();
 	
@@ -277,6 +328,13 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("LazyCache")
 	boolean lazyCache();
 	
+	@Key("HtmlCacheBudget")
+	int getHtmlCacheBudget();
+	
+	@Key("HtmlCacheIdleTime")
+	@ConverterClass(Minutes2MillisecondsConverter.class)
+	long getHtmlCacheIdleTime();
+	
 	@Key("CacheCharNames")
 	boolean cacheCharNames();
 	
@@ -298,6 +356,15 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("KnownListUpdateInterval")
 	long getKnownListUpdateInterval();
 	
+	@Key("KnownListIncrementalUpdate")
+	boolean knownListIncrementalUpdate();
+	
+	@Key("KnownListUpdateDistance")
+	int getKnownListUpdateDistance();
+	
+	@Key("KnownListConsistencyCheckInterval")
+	long getKnownListConsistencyCheckInterval();
+	
 	@Key("CheckKnownList")
 	boolean checkKnownList();
 	
@@ -63,6 +63,12 @@ public interface GeodataConfiguration extends Mutable, Reloadable {
 	@Key("PathFindBuffers")
 	String getPathFindBuffers();
 	
+	@Key("PathCacheSize")
+	int getPathCacheSize();
+	
+	@Key("PathCacheExpireTime")
+	long getPathCacheExpireTime();
+	
 	@Key("LowWeight")
 	float getLowWeight();
 	
@@ -74,6 +74,9 @@ public interface ServerConfiguration extends Mutable, Reloadable {
 	@Key("ReserveHostOnLogin")
 	boolean reserveHostOnLogin();
 	
+	@Key("PlayerAuthTimeout")
+	long getPlayerAuthTimeout();
+	
 	@Key("DatapackRoot")
 	@ConverterClass(FileConverter.class)
 	File getDatapackRoot();
@@ -39,7 +39,7 @@ public interface PlayerSkillSaveDAO {
 	void delete(L2PcInstance player, int classIndex);
 	
 	/**
-	 * Stores the player skills in the database.
+	 * Stores the player skills in the database, replacing the stored ones of the current class index.
 	 * @param player the player
 	 * @param storeEffects if {@code true} effects will be stored
 	 */
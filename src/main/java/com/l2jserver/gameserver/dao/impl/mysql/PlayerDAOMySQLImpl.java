@@ -28,6 +28,10 @@ import org.slf4j.LoggerFactory;
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PlayerDAO;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.SqlWrite;
+import com.l2jserver.gameserver.dao.writer.WriteBatch;
+import com.l2jserver.gameserver.dao.writer.WriteKey;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.enums.Sex;
 import com.l2jserver.gameserver.instancemanager.CursedWeaponsManager;
@@ -268,63 +272,64 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 			totalOnlineTime += MILLISECONDS.toSeconds(System.currentTimeMillis() - player.getOnlineBeginTime());
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(UPDATE)) {
-			ps.setInt(1, player.getBaseLevel());
-			ps.setInt(2, player.getMaxHp());
-			ps.setDouble(3, player.getCurrentHp());
-			ps.setInt(4, player.getMaxCp());
-			ps.setDouble(5, player.getCurrentCp());
-			ps.setInt(6, player.getMaxMp());
-			ps.setDouble(7, player.getCurrentMp());
-			ps.setInt(8, player.getAppearance().getFace());
-			ps.setInt(9, player.getAppearance().getHairStyle());
-			ps.setInt(10, player.getAppearance().getHairColor());
-			ps.setInt(11, player.getAppearance().getSex() ? 1 : 0);
-			ps.setInt(12, player.getHeading());
-			ps.setInt(13, player.inObserverMode() ? player.getLastLocation().getX() : player.getX());
-			ps.setInt(14, player.inObserverMode() ? player.getLastLocation().getY() : player.getY());
-			ps.setInt(15, player.inObserverMode() ? player.getLastLocation().getZ() : player.getZ());
-			ps.setLong(16, player.getBaseExp());
-			ps.setLong(17, player.getExpBeforeDeath());
-			ps.setInt(18, player.getBaseSp());
-			ps.setInt(19, player.getKarma());
-			ps.setInt(20, player.getFame());
-			ps.setInt(21, player.getPvpKills());
-			ps.setInt(22, player.getPkKills());
-			ps.setInt(23, player.getClanId());
-			ps.setInt(24, player.getRace().ordinal());
-			ps.setInt(25, player.getClassId().getId());
-			ps.setLong(26, player.getDeleteTimer());
-			ps.setString(27, player.getTitle());
-			ps.setInt(28, player.getAppearance().getTitleColor());
-			ps.setInt(29, player.getAccessLevel().getLevel());
-			ps.setInt(30, player.isOnlineInt());
-			ps.setInt(31, player.isIn7sDungeon() ? 1 : 0);
-			ps.setInt(32, player.getClanPrivileges().getBitmask());
-			ps.setInt(33, player.getWantsPeace());
-			ps.setInt(34, player.getBaseClass());
-			ps.setLong(35, totalOnlineTime);
-			ps.setInt(36, player.getNewbie());
-			ps.setInt(37, player.isNoble() ? 1 : 0);
-			ps.setInt(38, player.getPowerGrade());
-			ps.setInt(39, player.getPledgeType());
-			ps.setInt(40, player.getLvlJoinedAcademy());
-			ps.setLong(41, player.getApprentice());
-			ps.setLong(42, player.getSponsor());
-			ps.setLong(43, player.getClanJoinExpiryTime());
-			ps.setLong(44, player.getClanCreateExpiryTime());
-			ps.setString(45, player.getName());
-			ps.setLong(46, player.getDeathPenaltyBuffLevel());
-			ps.setInt(47, player.getBookMarkSlot());
-			ps.setInt(48, player.getVitalityPoints());
-			ps.setInt(49, player.getHuntingSystem().getHuntingBonusTime());
-			ps.setInt(50, player.getHuntingSystem().getNevitBlessingPoints());
-			ps.setInt(51, player.getHuntingSystem().getNevitBlessingTime());
-			ps.setString(52, player.getLang());
-			ps.setInt(53, player.getObjectId());
-			
-			ps.execute();
+		try {
+			// The values are taken now, the row is written by the database writer.
+			final Object[] params = {
+				player.getBaseLevel(),
+				player.getMaxHp(),
+				player.getCurrentHp(),
+				player.getMaxCp(),
+				player.getCurrentCp(),
+				player.getMaxMp(),
+				player.getCurrentMp(),
+				player.getAppearance().getFace(),
+				player.getAppearance().getHairStyle(),
+				player.getAppearance().getHairColor(),
+				player.getAppearance().getSex() ? 1 : 0,
+				player.getHeading(),
+				player.inObserverMode() ? player.getLastLocation().getX() : player.getX(),
+				player.inObserverMode() ? player.getLastLocation().getY() : player.getY(),
+				player.inObserverMode() ? player.getLastLocation().getZ() : player.getZ(),
+				player.getBaseExp(),
+				player.getExpBeforeDeath(),
+				player.getBaseSp(),
+				player.getKarma(),
+				player.getFame(),
+				player.getPvpKills(),
+				player.getPkKills(),
+				player.getClanId(),
+				player.getRace().ordinal(),
+				player.getClassId().getId(),
+				player.getDeleteTimer(),
+				player.getTitle(),
+				player.getAppearance().getTitleColor(),
+				player.getAccessLevel().getLevel(),
+				player.isOnlineInt(),
+				player.isIn7sDungeon() ? 1 : 0,
+				player.getClanPrivileges().getBitmask(),
+				player.getWantsPeace(),
+				player.getBaseClass(),
+				totalOnlineTime,
+				player.getNewbie(),
+				player.isNoble() ? 1 : 0,
+				player.getPowerGrade(),
+				player.getPledgeType(),
+				player.getLvlJoinedAcademy(),
+				player.getApprentice(),
+				player.getSponsor(),
+				player.getClanJoinExpiryTime(),
+				player.getClanCreateExpiryTime(),
+				player.getName(),
+				player.getDeathPenaltyBuffLevel(),
+				player.getBookMarkSlot(),
+				player.getVitalityPoints(),
+				player.getHuntingSystem().getHuntingBonusTime(),
+				player.getHuntingSystem().getNevitBlessingPoints(),
+				player.getHuntingSystem().getNevitBlessingTime(),
+				player.getLang(),
+				player.getObjectId()
+			};
+			DatabaseWriter.getInstance().write(new WriteKey("characters", player.getObjectId()), new SqlWrite().add(WriteBatch.UPDATE, UPDATE, params));
 		} catch (Exception ex) {
 			LOG.error("Could not store {} base data!", player, ex);
 		}
@@ -332,14 +337,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 	
 	@Override
 	public void updateOnlineStatus(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(UPDATE_ONLINE)) {
-			ps.setInt(1, player.isOnlineInt());
-			ps.setLong(2, System.currentTimeMillis());
-			ps.setInt(3, player.getObjectId());
-			ps.execute();
-		} catch (Exception ex) {
-			LOG.error("Failed updating player online status!", ex);
-		}
+		// The online status has its own key, so a pending store of the base data does not replace it.
+		DatabaseWriter.getInstance().write(new WriteKey("characters_online", player.getObjectId()), new SqlWrite().add(WriteBatch.UPDATE, UPDATE_ONLINE, player.isOnlineInt(), System.currentTimeMillis(), player.getObjectId()));
 	}
 }
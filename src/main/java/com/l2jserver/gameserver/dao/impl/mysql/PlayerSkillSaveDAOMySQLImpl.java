@@ -30,6 +30,10 @@ import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PlayerSkillSaveDAO;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.SqlWrite;
+import com.l2jserver.gameserver.dao.writer.WriteBatch;
+import com.l2jserver.gameserver.dao.writer.WriteKey;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.model.TimeStamp;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -53,14 +57,7 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int classIndex) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(DELETE)) {
-			ps.setInt(1, player.getObjectId());
-			ps.setInt(2, classIndex);
-			ps.execute();
-		} catch (Exception ex) {
-			LOG.error("Could not delete all effect data for player {}!", player, ex);
-		}
+		DatabaseWriter.getInstance().write(new WriteKey("character_skills_save", player.getObjectId(), classIndex), new SqlWrite().add(WriteBatch.DELETE, DELETE, player.getObjectId(), classIndex));
 	}
 	
 	@Override
@@ -70,8 +67,9 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, boolean storeEffects) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(INSERT)) {
+		try {
+			// The stored rows of the class are replaced, so this write also replaces a pending delete.
+			final SqlWrite write = new SqlWrite().add(WriteBatch.DELETE, DELETE, player.getObjectId(), player.getClassIndex());
 			int buff_index = 0;
 			final List<Integer> storedSkills = new ArrayList<>();
 			
@@ -104,19 +102,12 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 					
 					storedSkills.add(skill.getReuseHashCode());
 					
-					ps.setInt(1, player.getObjectId());
-					ps.setInt(2, skill.getId());
-					ps.setInt(3, skill.getLevel());
-					ps.setInt(4, info.getTime());
-					
 					final TimeStamp t = player.getSkillReuseTimeStamp(skill.getReuseHashCode());
-					ps.setLong(5, (t != null) && t.hasNotPassed() ? t.getReuse() : 0);
-					ps.setLong(6, (t != null) && t.hasNotPassed() ? t.getStamp() : 0);
+					final long reuse = (t != null) && t.hasNotPassed() ? t.getReuse() : 0;
+					final long stamp = (t != null) && t.hasNotPassed() ? t.getStamp() : 0;
 					
-					ps.setInt(7, 0); // Store type 0, active buffs/debuffs.
-					ps.setInt(8, player.getClassIndex());
-					ps.setInt(9, ++buff_index);
-					ps.execute();
+					// Store type 0, active buffs/debuffs.
+					write.add(WriteBatch.INSERT, INSERT, player.getObjectId(), skill.getId(), skill.getLevel(), info.getTime(), reuse, stamp, 0, player.getClassIndex(), ++buff_index);
 				}
 			}
 			
@@ -133,19 +124,13 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 					if ((t != null) && t.hasNotPassed()) {
 						storedSkills.add(hash);
 						
-						ps.setInt(1, player.getObjectId());
-						ps.setInt(2, t.getSkillId());
-						ps.setInt(3, t.getSkillLvl());
-						ps.setInt(4, -1);
-						ps.setLong(5, t.getReuse());
-						ps.setLong(6, t.getStamp());
-						ps.setInt(7, 1); // Restore type 1, skill reuse.
-						ps.setInt(8, player.getClassIndex());
-						ps.setInt(9, ++buff_index);
-						ps.execute();
+						// Restore type 1, skill reuse.
+						write.add(WriteBatch.INSERT, INSERT, player.getObjectId(), t.getSkillId(), t.getSkillLvl(), -1, t.getReuse(), t.getStamp(), 1, player.getClassIndex(), ++buff_index);
 					}
 				}
 			}
+			
+			DatabaseWriter.getInstance().write(new WriteKey("character_skills_save", player.getObjectId(), player.getClassIndex()), write);
 		} catch (Exception e) {
 			LOG.error("Could not store {} effect data!", player, e);
 		}
@@ -153,6 +138,7 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
+		DatabaseWriter.getInstance().flush();
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
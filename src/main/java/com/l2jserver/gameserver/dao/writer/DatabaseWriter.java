@@ -0,0 +1,389 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.commons.database.ConnectionFactory;
+
+/**
+ * Database writer.<br>
+ * Writes of items, characters and quest variables are queued, merged by key while they wait, and written by a dedicated thread in JDBC batches, a single transaction per flush.<br>
+ * The queue is bounded, threads queueing new keys in a full queue wait for the writer thread.<br>
+ * When the write-behind is disabled, or after {@link #shutdown()}, writes are done right away by the calling thread.
+ * @since 2.6.3.0
+ */
+public final class DatabaseWriter {
+	private static final Logger LOG = LoggerFactory.getLogger(DatabaseWriter.class);
+	
+	private final ConnectionSource _connections;
+	
+	private final boolean _enabled;
+	
+	private final long _flushInterval;
+	
+	private final int _batchSize;
+	
+	private final int _queueSize;
+	
+	private final ReentrantLock _lock = new ReentrantLock();
+	
+	private final Condition _notFull = _lock.newCondition();
+	
+	private final Condition _flushRequested = _lock.newCondition();
+	
+	private final Condition _written = _lock.newCondition();
+	
+	private Map<WriteKey, PendingWrite> _pending = new LinkedHashMap<>();
+	
+	/** Time the oldest pending write was queued. */
+	private long _oldestPending;
+	
+	/** Amount of flushes taken by the writer thread. */
+	private long _taken;
+	
+	/** Amount of flushes written by the writer thread. */
+	private long _done;
+	
+	private boolean _flushNow;
+	
+	private volatile boolean _shutdown;
+	
+	private final Thread _thread;
+	
+	private final LongAdder _writes = new LongAdder();
+	private final LongAdder _merged = new LongAdder();
+	private final LongAdder _waits = new LongAdder();
+	private final LongAdder _flushes = new LongAdder();
+	private final LongAdder _batches = new LongAdder();
+	private final LongAdder _rows = new LongAdder();
+	private final LongAdder _failures = new LongAdder();
+	private final LongAdder _flushTime = new LongAdder();
+	private final LongAccumulator _maxQueued = new LongAccumulator(Math::max, 0);
+	private final LongAccumulator _maxBatchRows = new LongAccumulator(Math::max, 0);
+	private final LongAccumulator _maxFlushTime = new LongAccumulator(Math::max, 0);
+	
+	private DatabaseWriter() {
+		this(ConnectionFactory.getInstance()::getConnection, general().writeBehindPersistence(), general().getWriteBehindFlushInterval(), general().getWriteBehindBatchSize(), general().getWriteBehindQueueSize());
+	}
+	
+	DatabaseWriter(ConnectionSource connections, boolean enabled, long flushInterval, int batchSize, int queueSize) {
+		_connections = connections;
+		_enabled = enabled;
+		_flushInterval = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+		_batchSize = Math.max(1, batchSize);
+		_queueSize = Math.max(1, queueSize);
+		_thread = enabled ? Thread.ofPlatform().name("DatabaseWriter").daemon().start(this::run) : null;
+	}
+	
+	/**
+	 * Queues a write, merging it with the pending write of the same key if there is one.<br>
+	 * If the queue is full the calling thread waits until the writer thread takes the pending writes.
+	 * @param key the key of the written rows
+	 * @param write the write
+	 * @return {@code false} if the write was done right away and failed, {@code true} otherwise
+	 */
+	public boolean write(WriteKey key, PendingWrite write) {
+		if (!_enabled || _shutdown || (Thread.currentThread() == _thread)) {
+			_writes.increment();
+			return execute(List.of(write));
+		}
+		
+		_lock.lock();
+		try {
+			PendingWrite older;
+			while (((older = _pending.get(key)) == null) && (_pending.size() >= _queueSize)) {
+				_waits.increment();
+				_flushNow = true;
+				_flushRequested.signal();
+				_notFull.awaitUninterruptibly();
+			}
+			
+			_writes.increment();
+			if (older == null) {
+				if (_pending.isEmpty()) {
+					_oldestPending = System.nanoTime();
+				}
+				_pending.put(key, write);
+			} else {
+				_merged.increment();
+				final PendingWrite merged = write.merge(older);
+				if (merged != null) {
+					_pending.put(key, merged);
+				} else {
+					_pending.remove(key);
+				}
+			}
+			
+			_maxQueued.accumulate(_pending.size());
+			if (_pending.size() >= _batchSize) {
+				_flushRequested.signal();
+			}
+		} finally {
+			_lock.unlock();
+		}
+		return true;
+	}
+	
+	/**
+	 * Waits until the writes queued before this call are written.<br>
+	 * Called before loading data that may still have pending writes.
+	 */
+	public void flush() {
+		if (!_enabled || (Thread.currentThread() == _thread)) {
+			return;
+		}
+		
+		_lock.lock();
+		try {
+			final long target = _pending.isEmpty() ? _taken : _taken + 1;
+			if (_done >= target) {
+				return;
+			}
+			
+			_flushNow = true;
+			_flushRequested.signal();
+			while (_done < target) {
+				_written.awaitUninterruptibly();
+			}
+		} finally {
+			_lock.unlock();
+		}
+	}
+	
+	/**
+	 * Asks the writer thread to write the pending writes now, without waiting for them.<br>
+	 * Called when a player logs out, so its last writes do not wait for the flush interval.
+	 */
+	public void requestFlush() {
+		if (!_enabled || _shutdown) {
+			return;
+		}
+		
+		_lock.lock();
+		try {
+			if (!_pending.isEmpty()) {
+				_flushNow = true;
+				_flushRequested.signal();
+			}
+		} finally {
+			_lock.unlock();
+		}
+	}
+	
+	/**
+	 * Writes the pending writes and stops the writer thread, later writes are done right away.
+	 */
+	public void shutdown() {
+		if (!_enabled) {
+			return;
+		}
+		
+		_shutdown = true;
+		flush();
+		_lock.lock();
+		try {
+			_flushRequested.signal();
+		} finally {
+			_lock.unlock();
+		}
+		try {
+			_thread.join(TimeUnit.MINUTES.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * @return the amount of pending writes
+	 */
+	public int getQueued() {
+		_lock.lock();
+		try {
+			return _pending.size();
+		} finally {
+			_lock.unlock();
+		}
+	}
+	
+	private void run() {
+		while (true) {
+			final Map<WriteKey, PendingWrite> writes;
+			final long flush;
+			_lock.lock();
+			try {
+				while (true) {
+					if (_pending.isEmpty()) {
+						if (_shutdown) {
+							return;
+						}
+						_flushRequested.awaitUninterruptibly();
+						continue;
+					}
+					
+					final long wait = _flushInterval - (System.nanoTime() - _oldestPending);
+					if (_flushNow || _shutdown || (wait <= 0) || (_pending.size() >= _batchSize)) {
+						break;
+					}
+					
+					try {
+						_flushRequested.awaitNanos(wait);
+					} catch (InterruptedException e) {
+						// The writer thread stops only on shutdown, once the queue is empty.
+					}
+				}
+				
+				writes = _pending;
+				_pending = new LinkedHashMap<>();
+				flush = ++_taken;
+				_flushNow = false;
+				_notFull.signalAll();
+			} finally {
+				_lock.unlock();
+			}
+			
+			final long start = System.nanoTime();
+			execute(writes.values());
+			final long time = System.nanoTime() - start;
+			_flushes.increment();
+			_flushTime.add(time);
+			_maxFlushTime.accumulate(time);
+			
+			_lock.lock();
+			try {
+				_done = flush;
+				_written.signalAll();
+			} finally {
+				_lock.unlock();
+			}
+		}
+	}
+	
+	private boolean execute(Collection<PendingWrite> writes) {
+		final WriteBatch batch = new WriteBatch();
+		for (PendingWrite write : writes) {
+			write.addTo(batch);
+		}
+		if (batch.getRows() == 0) {
+			return true;
+		}
+		
+		try (var con = _connections.getConnection()) {
+			con.setAutoCommit(false);
+			try {
+				batch.execute(con, _batchSize, this::onBatch);
+				con.commit();
+				return true;
+			} catch (SQLException ex) {
+				con.rollback();
+				if (writes.size() == 1) {
+					_failures.increment();
+					LOG.warn("Could not write {} to database!", writes.iterator().next(), ex);
+					return false;
+				}
+				
+				// One failing row must not lose the other writes, they are written again one by one.
+				LOG.warn("Could not write a batch of {} writes to database, writing them one by one!", writes.size(), ex);
+				con.setAutoCommit(true);
+				boolean written = true;
+				for (PendingWrite write : writes) {
+					final WriteBatch single = new WriteBatch();
+					write.addTo(single);
+					try {
+						single.execute(con, _batchSize, this::onBatch);
+					} catch (SQLException e) {
+						_failures.increment();
+						written = false;
+						LOG.warn("Could not write {} to database!", write, e);
+					}
+				}
+				return written;
+			} finally {
+				con.setAutoCommit(true);
+			}
+		} catch (SQLException ex) {
+			_failures.add(writes.size());
+			LOG.warn("Could not get a connection to write {} writes to database!", writes.size(), ex);
+			return false;
+		}
+	}
+	
+	private void onBatch(int rows) {
+		_batches.increment();
+		_rows.add(rows);
+		_maxBatchRows.accumulate(rows);
+	}
+	
+	/**
+	 * Gets the database writer statistics.
+	 * @return the database writer statistics
+	 */
+	public String[] getStats() {
+		final long flushes = _flushes.sum();
+		final long batches = _batches.sum();
+		final List<String> stats = new ArrayList<>();
+		stats.add("Database Writer:");
+		stats.add(" |- Queued:          " + getQueued());
+		stats.add(" |- QueuedMax:       " + _maxQueued.get());
+		stats.add(" |- Writes:          " + _writes.sum());
+		stats.add(" |- Merged:          " + _merged.sum());
+		stats.add(" |- QueueFullWaits:  " + _waits.sum());
+		stats.add(" |- Flushes:         " + flushes);
+		stats.add(" |- Batches:         " + batches);
+		stats.add(" |- BatchRowsAvg:    " + ((batches > 0) ? _rows.sum() / batches : 0));
+		stats.add(" |- BatchRowsMax:    " + _maxBatchRows.get());
+		stats.add(" |- FlushTimeAvg:    " + ((flushes > 0) ? TimeUnit.NANOSECONDS.toMillis(_flushTime.sum() / flushes) : 0) + "ms");
+		stats.add(" |- FlushTimeMax:    " + TimeUnit.NANOSECONDS.toMillis(_maxFlushTime.get()) + "ms");
+		stats.add(" |- Failures:        " + _failures.sum());
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	/**
+	 * Source of the connections of the writer.
+	 */
+	@FunctionalInterface
+	interface ConnectionSource {
+		Connection getConnection() throws SQLException;
+	}
+	
+	public static DatabaseWriter getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final DatabaseWriter INSTANCE = new DatabaseWriter();
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import java.util.List;
+
+/**
+ * Pending write of an item row, with its augmentation and elementals.<br>
+ * Writes of the same item merge so the rows the item had when the queue was last written end as the item is now: an update after an insert is still an insert, a delete after an insert writes nothing.<br>
+ * The augmentation and elementals changed on an item already written go through the same key, so they cannot overtake the insert or the delete of the item.
+ * @since 2.6.3.0
+ */
+public final class ItemWrite implements PendingWrite {
+	private static final String INSERT = "INSERT INTO items (owner_id, item_id, count, loc, loc_data, enchant_level, object_id, custom_type1, custom_type2, mana_left, time, agathion_energy) VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+	
+	private static final String UPDATE = "UPDATE items SET owner_id=?, count=?, loc=?, loc_data=?, enchant_level=?, custom_type1=?, custom_type2=?, mana_left=?, time=?, agathion_energy=? WHERE object_id=?";
+	
+	private static final String DELETE = "DELETE FROM items WHERE object_id = ?";
+	
+	private static final String DELETE_ATTRIBUTES = "DELETE FROM item_attributes WHERE itemId = ?";
+	
+	private static final String DELETE_ELEMENTALS = "DELETE FROM item_elementals WHERE itemId = ?";
+	
+	private static final String REPLACE_ATTRIBUTES = "REPLACE INTO item_attributes VALUES(?,?)";
+	
+	private static final String INSERT_ELEMENTAL = "INSERT INTO item_elementals VALUES(?,?,?)";
+	
+	/** Index of the object ID in the row. */
+	private static final int OBJECT_ID = 6;
+	
+	private enum Type {
+		INSERT,
+		UPDATE,
+		DELETE,
+		/** Only the augmentation and elementals. */
+		ATTRIBUTES
+	}
+	
+	private final Type _type;
+	
+	/** If the rows of the item are deleted before it is inserted again. */
+	private final boolean _deleteFirst;
+	
+	private final int _objectId;
+	
+	private final Object[] _row;
+	
+	private final Integer _augmentation;
+	
+	private final List<Object[]> _elementals;
+	
+	/** If the augmentation and elementals of an update are written, replacing the ones in the database. */
+	private final boolean _attributes;
+	
+	private ItemWrite(Type type, boolean deleteFirst, int objectId, Object[] row, Integer augmentation, List<Object[]> elementals) {
+		this(type, deleteFirst, objectId, row, augmentation, elementals, type == Type.ATTRIBUTES);
+	}
+	
+	private ItemWrite(Type type, boolean deleteFirst, int objectId, Object[] row, Integer augmentation, List<Object[]> elementals, boolean attributes) {
+		_type = type;
+		_deleteFirst = deleteFirst;
+		_objectId = objectId;
+		_row = row;
+		_augmentation = augmentation;
+		_elementals = elementals;
+		_attributes = attributes;
+	}
+	
+	/**
+	 * Creates the write inserting an item.
+	 * @param row the item row, in the order of the columns {@code owner_id, item_id, count, loc, loc_data, enchant_level, object_id, custom_type1, custom_type2, mana_left, time, agathion_energy}
+	 * @param augmentation the augmentation attributes, {@code null} if the item is not augmented
+	 * @param elementals the elemental rows {@code elemType, elemValue}, {@code null} if the item has no elementals
+	 * @return the write
+	 */
+	public static ItemWrite insert(Object[] row, Integer augmentation, List<Object[]> elementals) {
+		return new ItemWrite(Type.INSERT, false, (int) row[OBJECT_ID], row, augmentation, elementals);
+	}
+	
+	/**
+	 * Creates the write updating an item.
+	 * @param row the item row, as for {@link #insert(Object[], Integer, List)}
+	 * @return the write
+	 */
+	public static ItemWrite update(Object[] row) {
+		return new ItemWrite(Type.UPDATE, false, (int) row[OBJECT_ID], row, null, null);
+	}
+	
+	/**
+	 * Creates the write deleting an item, with its augmentation and elementals.
+	 * @param objectId the item object ID
+	 * @return the write
+	 */
+	public static ItemWrite delete(int objectId) {
+		return new ItemWrite(Type.DELETE, false, objectId, null, null, null);
+	}
+	
+	/**
+	 * Creates the write replacing the augmentation and elementals of an item.
+	 * @param objectId the item object ID
+	 * @param augmentation the augmentation attributes, {@code null} if the item is not augmented
+	 * @param elementals the elemental rows {@code elemType, elemValue}, {@code null} if the item has no elementals
+	 * @return the write
+	 */
+	public static ItemWrite attributes(int objectId, Integer augmentation, List<Object[]> elementals) {
+		return new ItemWrite(Type.ATTRIBUTES, false, objectId, null, augmentation, elementals);
+	}
+	
+	@Override
+	public void addTo(WriteBatch batch) {
+		if ((_type == Type.DELETE) || _deleteFirst) {
+			batch.add(WriteBatch.DELETE, DELETE, _objectId);
+			batch.add(WriteBatch.DELETE, DELETE_ATTRIBUTES, _objectId);
+			batch.add(WriteBatch.DELETE, DELETE_ELEMENTALS, _objectId);
+		}
+		
+		switch (_type) {
+			case INSERT -> {
+				batch.add(WriteBatch.INSERT, INSERT, _row);
+				if (_augmentation != null) {
+					batch.add(WriteBatch.INSERT, REPLACE_ATTRIBUTES, _objectId, _augmentation);
+				}
+				if (_elementals != null) {
+					if (!_deleteFirst) {
+						batch.add(WriteBatch.DELETE, DELETE_ELEMENTALS, _objectId);
+					}
+					addElementals(batch);
+				}
+			}
+			case UPDATE -> batch.add(WriteBatch.UPDATE, UPDATE, _row[0], _row[2], _row[3], _row[4], _row[5], _row[7], _row[8], _row[9], _row[10], _row[11], _objectId);
+		}
+		
+		if (_attributes) {
+			if (_augmentation != null) {
+				batch.add(WriteBatch.INSERT, REPLACE_ATTRIBUTES, _objectId, _augmentation);
+			} else {
+				batch.add(WriteBatch.DELETE, DELETE_ATTRIBUTES, _objectId);
+			}
+			batch.add(WriteBatch.DELETE, DELETE_ELEMENTALS, _objectId);
+			if (_elementals != null) {
+				addElementals(batch);
+			}
+		}
+	}
+	
+	private void addElementals(WriteBatch batch) {
+		for (Object[] elemental : _elementals) {
+			batch.add(WriteBatch.INSERT, INSERT_ELEMENTAL, _objectId, elemental[0], elemental[1]);
+		}
+	}
+	
+	@Override
+	public PendingWrite merge(PendingWrite older) {
+		if (!(older instanceof ItemWrite olderItem)) {
+			return this;
+		}
+		
+		final boolean olderInsert = olderItem._type == Type.INSERT;
+		return switch (_type) {
+			// The row is not in the database yet, the insert takes the new values.
+			case UPDATE -> olderInsert ? new ItemWrite(Type.INSERT, olderItem._deleteFirst, _objectId, _row, olderItem._augmentation, olderItem._elementals) : olderItem._attributes ? new ItemWrite(Type.UPDATE, false, _objectId, _row, olderItem._augmentation, olderItem._elementals, true) : this;
+			// The insert or the update takes the new augmentation and elementals, nothing is left of a deleted item.
+			case ATTRIBUTES -> switch (olderItem._type) {
+				case INSERT -> new ItemWrite(Type.INSERT, olderItem._deleteFirst, _objectId, olderItem._row, _augmentation, _elementals);
+				case UPDATE -> new ItemWrite(Type.UPDATE, false, _objectId, olderItem._row, _augmentation, _elementals, true);
+				case DELETE -> olderItem;
+				case ATTRIBUTES -> this;
+			};
+			// Nothing to delete if the row was never written.
+			case DELETE -> (olderInsert && !olderItem._deleteFirst) ? null : this;
+			// The row may still be in the database, it is deleted before the insert.
+			case INSERT -> (olderInsert && !olderItem._deleteFirst) ? this : new ItemWrite(Type.INSERT, true, _objectId, _row, _augmentation, _elementals);
+		};
+	}
+	
+	@Override
+	public String toString() {
+		return "ItemWrite[" + _type + (_deleteFirst ? " after delete" : "") + ((_attributes && (_type != Type.ATTRIBUTES)) ? " with attributes" : "") + " " + _objectId + "]";
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+/**
+ * Pending write of the database writer.<br>
+ * A write holds the values of the rows it writes, taken when it is created, so it can be written later from another thread.
+ * @since 2.6.3.0
+ */
+public interface PendingWrite {
+	
+	/**
+	 * Adds the statements of this write to the batch.
+	 * @param batch the batch
+	 */
+	void addTo(WriteBatch batch);
+	
+	/**
+	 * Merges this write with the older write of the same key still waiting in the queue.<br>
+	 * By default this write replaces the older one.
+	 * @param older the older write
+	 * @return the merged write, {@code null} if nothing is left to write
+	 */
+	default PendingWrite merge(PendingWrite older) {
+		return this;
+	}
+}
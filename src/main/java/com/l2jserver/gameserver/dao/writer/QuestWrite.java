@@ -0,0 +1,365 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pending write of quest variables.<br>
+ * The variables of a quest of a player, of a quest, or the global quest variables of a player, are written by the same key, so the variables changed while the write waits merge into one write of their last values.<br>
+ * Merged writes leave the rows as the writes one by one would: a variable update after its creation is still a creation, an update only changes an existing row, and the variables changed after the quest is deleted are written after the delete.
+ * @since 2.6.3.0
+ */
+public final class QuestWrite implements PendingWrite {
+	/** The variable holding the state of a quest. */
+	public static final String STATE = "<state>";
+	
+	/** Amount of quests shown in the statistics. */
+	private static final int STATS_QUESTS = 10;
+	
+	private static final Map<String, QuestStats> STATS = new ConcurrentHashMap<>();
+	
+	private static final long START_TIME = System.nanoTime();
+	
+	private enum Table {
+		CHARACTER_QUESTS("DELETE FROM character_quests WHERE charId=? AND name=?", "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?", "DELETE FROM character_quests WHERE charId=? AND name=? AND var=?", "INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?", "UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?"),
+		QUEST_GLOBAL_DATA("DELETE FROM quest_global_data WHERE quest_name = ?", null, "DELETE FROM quest_global_data WHERE quest_name = ? AND var = ?", "REPLACE INTO quest_global_data (quest_name,var,value) VALUES (?,?,?)", null),
+		CHARACTER_QUEST_GLOBAL_DATA(null, null, "DELETE FROM character_quest_global_data WHERE charId = ? AND var = ?", "REPLACE INTO character_quest_global_data (charId, var, value) VALUES (?, ?, ?)", null);
+		
+		private final String _deleteAll;
+		private final String _deleteAllButState;
+		private final String _delete;
+		private final String _set;
+		private final String _update;
+		
+		Table(String deleteAll, String deleteAllButState, String delete, String set, String update) {
+			_deleteAll = deleteAll;
+			_deleteAllButState = deleteAllButState;
+			_delete = delete;
+			_set = set;
+			_update = update;
+		}
+	}
+	
+	/** Variables deleted before the variables of the write are written. */
+	private enum Clear {
+		NONE,
+		ALL,
+		ALL_BUT_STATE
+	}
+	
+	private enum Type {
+		/** Inserts the variable, or updates it if it exists. */
+		SET,
+		/** Updates the variable only if it exists. */
+		UPDATE,
+		DELETE
+	}
+	
+	private record Variable(Type type, String value) {
+	}
+	
+	private final Table _table;
+	
+	private final String _quest;
+	
+	private final Object[] _scope;
+	
+	private final WriteKey _key;
+	
+	private final Clear _clear;
+	
+	private final Map<String, Variable> _variables;
+	
+	private QuestWrite(Table table, String quest, Object[] scope, WriteKey key, Clear clear, Map<String, Variable> variables) {
+		_table = table;
+		_quest = quest;
+		_scope = scope;
+		_key = key;
+		_clear = clear;
+		_variables = variables;
+	}
+	
+	private static QuestWrite ofQuest(int charId, String quest, Clear clear, String var, Type type, String value) {
+		return create(Table.CHARACTER_QUESTS, quest, new Object[] {
+			charId,
+			quest
+		}, new WriteKey("character_quests " + quest, charId), clear, var, type, value);
+	}
+	
+	private static QuestWrite ofGlobal(String quest, Clear clear, String var, Type type, String value) {
+		return create(Table.QUEST_GLOBAL_DATA, quest, new Object[] {
+			quest
+		}, new WriteKey("quest_global_data " + quest, 0), clear, var, type, value);
+	}
+	
+	private static QuestWrite ofPlayerGlobal(int charId, String quest, String var, Type type, String value) {
+		return create(Table.CHARACTER_QUEST_GLOBAL_DATA, quest, new Object[] {
+			charId
+		}, new WriteKey("character_quest_global_data", charId), Clear.NONE, var, type, value);
+	}
+	
+	private static QuestWrite create(Table table, String quest, Object[] scope, WriteKey key, Clear clear, String var, Type type, String value) {
+		STATS.computeIfAbsent(quest, k -> new QuestStats())._writes.increment();
+		final Map<String, Variable> variables = new LinkedHashMap<>(2);
+		if (var != null) {
+			variables.put(var, new Variable(type, value));
+		}
+		return new QuestWrite(table, quest, scope, key, clear, variables);
+	}
+	
+	/**
+	 * Creates the write inserting a variable of a quest of a player, or updating it if it exists.
+	 * @param charId the player object ID
+	 * @param quest the quest name
+	 * @param var the variable name
+	 * @param value the value
+	 * @return the write
+	 */
+	public static QuestWrite set(int charId, String quest, String var, String value) {
+		return ofQuest(charId, quest, Clear.NONE, var, Type.SET, value);
+	}
+	
+	/**
+	 * Creates the write updating a variable of a quest of a player, nothing is written if the variable does not exist.
+	 * @param charId the player object ID
+	 * @param quest the quest name
+	 * @param var the variable name
+	 * @param value the value
+	 * @return the write
+	 */
+	public static QuestWrite update(int charId, String quest, String var, String value) {
+		return ofQuest(charId, quest, Clear.NONE, var, Type.UPDATE, value);
+	}
+	
+	/**
+	 * Creates the write deleting a variable of a quest of a player.
+	 * @param charId the player object ID
+	 * @param quest the quest name
+	 * @param var the variable name
+	 * @return the write
+	 */
+	public static QuestWrite delete(int charId, String quest, String var) {
+		return ofQuest(charId, quest, Clear.NONE, var, Type.DELETE, null);
+	}
+	
+	/**
+	 * Creates the write deleting the variables of a quest of a player.
+	 * @param charId the player object ID
+	 * @param quest the quest name
+	 * @param keepState if {@code true} the {@link #STATE} variable is kept
+	 * @return the write
+	 */
+	public static QuestWrite deleteQuest(int charId, String quest, boolean keepState) {
+		return ofQuest(charId, quest, keepState ? Clear.ALL_BUT_STATE : Clear.ALL, null, null, null);
+	}
+	
+	/**
+	 * Creates the write inserting or replacing a global variable of a quest.
+	 * @param quest the quest name
+	 * @param var the variable name
+	 * @param value the value
+	 * @return the write
+	 */
+	public static QuestWrite setGlobal(String quest, String var, String value) {
+		return ofGlobal(quest, Clear.NONE, var, Type.SET, value);
+	}
+	
+	/**
+	 * Creates the write deleting a global variable of a quest.
+	 * @param quest the quest name
+	 * @param var the variable name
+	 * @return the write
+	 */
+	public static QuestWrite deleteGlobal(String quest, String var) {
+		return ofGlobal(quest, Clear.NONE, var, Type.DELETE, null);
+	}
+	
+	/**
+	 * Creates the write deleting all the global variables of a quest.
+	 * @param quest the quest name
+	 * @return the write
+	 */
+	public static QuestWrite deleteAllGlobals(String quest) {
+		return ofGlobal(quest, Clear.ALL, null, null, null);
+	}
+	
+	/**
+	 * Creates the write inserting or replacing a global quest variable of a player.
+	 * @param charId the player object ID
+	 * @param quest the name of the quest writing the variable, for the statistics
+	 * @param var the variable name
+	 * @param value the value
+	 * @return the write
+	 */
+	public static QuestWrite setPlayerGlobal(int charId, String quest, String var, String value) {
+		return ofPlayerGlobal(charId, quest, var, Type.SET, value);
+	}
+	
+	/**
+	 * Creates the write deleting a global quest variable of a player.
+	 * @param charId the player object ID
+	 * @param quest the name of the quest deleting the variable, for the statistics
+	 * @param var the variable name
+	 * @return the write
+	 */
+	public static QuestWrite deletePlayerGlobal(int charId, String quest, String var) {
+		return ofPlayerGlobal(charId, quest, var, Type.DELETE, null);
+	}
+	
+	/**
+	 * @return the key of the write
+	 */
+	public WriteKey getKey() {
+		return _key;
+	}
+	
+	private boolean isCleared(String var) {
+		return switch (_clear) {
+			case NONE -> false;
+			case ALL -> true;
+			case ALL_BUT_STATE -> !STATE.equals(var);
+		};
+	}
+	
+	@Override
+	public void addTo(WriteBatch batch) {
+		switch (_clear) {
+			case ALL -> batch.add(WriteBatch.DELETE, _table._deleteAll, _scope);
+			case ALL_BUT_STATE -> batch.add(WriteBatch.DELETE, _table._deleteAllButState, params(STATE));
+		}
+		
+		// A single write per variable, so the ranks never reorder the writes of a variable.
+		for (Map.Entry<String, Variable> entry : _variables.entrySet()) {
+			final String var = entry.getKey();
+			final String value = entry.getValue().value();
+			switch (entry.getValue().type()) {
+				case SET -> batch.add(WriteBatch.INSERT, _table._set, (_table == Table.CHARACTER_QUESTS) ? params(var, value, value) : params(var, value));
+				case UPDATE -> batch.add(WriteBatch.UPDATE, _table._update, value, _scope[0], _scope[1], var);
+				case DELETE -> batch.add(WriteBatch.DELETE, _table._delete, params(var));
+			}
+		}
+	}
+	
+	private Object[] params(Object... params) {
+		final Object[] result = new Object[_scope.length + params.length];
+		System.arraycopy(_scope, 0, result, 0, _scope.length);
+		System.arraycopy(params, 0, result, _scope.length, params.length);
+		return result;
+	}
+	
+	@Override
+	public PendingWrite merge(PendingWrite older) {
+		if (!(older instanceof QuestWrite olderQuest)) {
+			return this;
+		}
+		
+		STATS.computeIfAbsent(_quest, k -> new QuestStats())._merged.increment();
+		
+		// The variables of the older write, minus the ones deleted by this write.
+		Clear clear = olderQuest._clear;
+		final Map<String, Variable> variables = new LinkedHashMap<>(olderQuest._variables);
+		if (_clear == Clear.ALL) {
+			clear = Clear.ALL;
+			variables.clear();
+		} else if (_clear == Clear.ALL_BUT_STATE) {
+			if (clear != Clear.ALL) {
+				clear = Clear.ALL_BUT_STATE;
+			}
+			variables.keySet().removeIf(var -> !STATE.equals(var));
+		}
+		
+		final QuestWrite merged = new QuestWrite(_table, _quest, _scope, _key, clear, variables);
+		for (Map.Entry<String, Variable> entry : _variables.entrySet()) {
+			merged.put(entry.getKey(), entry.getValue());
+		}
+		return merged;
+	}
+	
+	private void put(String var, Variable variable) {
+		if (variable.type() != Type.UPDATE) {
+			_variables.put(var, variable);
+			return;
+		}
+		
+		final Variable pending = _variables.get(var);
+		if (pending == null) {
+			// A deleted row is not updated.
+			if (!isCleared(var)) {
+				_variables.put(var, variable);
+			}
+			return;
+		}
+		
+		switch (pending.type()) {
+			// The row is not in the database yet, it is inserted with the new value.
+			case SET -> _variables.put(var, new Variable(Type.SET, variable.value()));
+			case UPDATE -> _variables.put(var, variable);
+			// The row is deleted, there is nothing to update.
+			case DELETE -> {
+			}
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "QuestWrite[" + _table + " " + _key.id() + " " + _quest + ((_clear != Clear.NONE) ? " after delete" : "") + " " + _variables.keySet() + "]";
+	}
+	
+	/**
+	 * Gets the quest write statistics, the quests writing the most.
+	 * @return the quest write statistics
+	 */
+	public static String[] getStats() {
+		final double minutes = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - START_TIME)) / 60.0;
+		final List<Map.Entry<String, QuestStats>> quests = new ArrayList<>(STATS.entrySet());
+		quests.sort(Comparator.comparingLong((Map.Entry<String, QuestStats> entry) -> entry.getValue()._writes.sum()).reversed());
+		long writes = 0;
+		long merged = 0;
+		for (Map.Entry<String, QuestStats> entry : quests) {
+			writes += entry.getValue()._writes.sum();
+			merged += entry.getValue()._merged.sum();
+		}
+		
+		final List<String> stats = new ArrayList<>();
+		stats.add("Quest Writes:");
+		stats.add(" |- Quests:          " + quests.size());
+		stats.add(" |- Writes:          " + writes);
+		stats.add(" |- Merged:          " + merged);
+		stats.add(" |- WritesPerMinute: " + String.format("%.1f", writes / minutes));
+		for (Map.Entry<String, QuestStats> entry : quests.subList(0, Math.min(STATS_QUESTS, quests.size()))) {
+			final long questWrites = entry.getValue()._writes.sum();
+			stats.add(" |- " + entry.getKey() + ": " + questWrites + " writes, " + entry.getValue()._merged.sum() + " merged, " + String.format("%.1f", questWrites / minutes) + "/min");
+		}
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	private static final class QuestStats {
+		private final LongAdder _writes = new LongAdder();
+		private final LongAdder _merged = new LongAdder();
+	}
+}
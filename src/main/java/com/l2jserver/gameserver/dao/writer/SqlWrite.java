@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pending write of rows of one or more statements, it replaces the older pending write of the same key.
+ * @since 2.6.3.0
+ */
+public final class SqlWrite implements PendingWrite {
+	private final List<Row> _rows = new ArrayList<>(1);
+	
+	private record Row(int rank, String sql, Object[] params) {
+	}
+	
+	/**
+	 * Adds a row to the write.
+	 * @param rank the rank of the statement, see {@link WriteBatch}
+	 * @param sql the statement
+	 * @param params the parameters of the row
+	 * @return this write
+	 */
+	public SqlWrite add(int rank, String sql, Object... params) {
+		_rows.add(new Row(rank, sql, params));
+		return this;
+	}
+	
+	@Override
+	public void addTo(WriteBatch batch) {
+		for (Row row : _rows) {
+			batch.add(row.rank(), row.sql(), row.params());
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return _rows.isEmpty() ? "SqlWrite[]" : "SqlWrite[" + _rows.getFirst().sql() + " (" + _rows.size() + " rows)]";
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Batch of statements of the database writer.<br>
+ * The rows of a statement are sent in JDBC batches, statements run by rank and then in the order they were first added.<br>
+ * Ranks keep the statements of a single write in order, a write deleting and inserting again the same row adds the delete with a lower rank.
+ * @since 2.6.3.0
+ */
+public final class WriteBatch {
+	/** Rank of the statements deleting rows. */
+	public static final int DELETE = 0;
+	
+	/** Rank of the statements inserting rows. */
+	public static final int INSERT = 1;
+	
+	/** Rank of the statements updating rows. */
+	public static final int UPDATE = 2;
+	
+	private final Map<Integer, Map<String, List<Object[]>>> _statements = new TreeMap<>();
+	
+	private int _rows;
+	
+	/**
+	 * Adds a row to the batch.
+	 * @param rank the rank of the statement
+	 * @param sql the statement
+	 * @param params the parameters of the row
+	 */
+	public void add(int rank, String sql, Object... params) {
+		_statements.computeIfAbsent(rank, k -> new LinkedHashMap<>()).computeIfAbsent(sql, k -> new ArrayList<>()).add(params);
+		_rows++;
+	}
+	
+	/**
+	 * @return the amount of rows of the batch
+	 */
+	public int getRows() {
+		return _rows;
+	}
+	
+	/**
+	 * Executes the batch.
+	 * @param con the connection
+	 * @param batchSize the maximum amount of rows of a JDBC batch
+	 * @param onBatch called with the amount of rows of each JDBC batch executed
+	 * @throws SQLException if a statement fails
+	 */
+	void execute(Connection con, int batchSize, IntConsumer onBatch) throws SQLException {
+		for (Map<String, List<Object[]>> statements : _statements.values()) {
+			for (Map.Entry<String, List<Object[]>> statement : statements.entrySet()) {
+				try (var ps = con.prepareStatement(statement.getKey())) {
+					int rows = 0;
+					for (Object[] params : statement.getValue()) {
+						for (int i = 0; i < params.length; i++) {
+							ps.setObject(i + 1, params[i]);
+						}
+						ps.addBatch();
+						if (++rows == batchSize) {
+							ps.executeBatch();
+							onBatch.accept(rows);
+							rows = 0;
+						}
+					}
+					if (rows > 0) {
+						ps.executeBatch();
+						onBatch.accept(rows);
+					}
+				}
+			}
+		}
+	}
+}
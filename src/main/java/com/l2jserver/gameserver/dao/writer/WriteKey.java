@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+/**
+ * Key of a pending write, the writes with the same key are merged while they wait in the queue.
+ * @param table the table, or a name for the kind of write
+ * @param id the object ID of the written entity
+ * @param index the index of the written rows of the entity, such as a class index
+ * @since 2.6.3.0
+ */
+public record WriteKey(String table, int id, int index) {
+	
+	public WriteKey(String table, int id) {
+		this(table, id, 0);
+	}
+}
@@ -25,14 +25,13 @@ import java.io.FileFilter;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.DOMException;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 
-import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.L2Npc;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.multisell.Entry;
@@ -69,67 +68,63 @@ public final class MultisellData implements IXmlReader {
 	@Override
 	public void load() {
 		_entries.clear();
-		parseDatapackDirectory("data/multisell", false);
+		parseDatapackDirectory("data/multisell", false, this::parseList, (f, list) -> _entries.put(list.getListId(), list));
 		if (general().customMultisellLoad()) {
-			parseDatapackDirectory("data/multisell/custom", false);
+			parseDatapackDirectory("data/multisell/custom", false, this::parseList, (f, list) -> _entries.put(list.getListId(), list));
 		}
 		
 		verify();
 		LOG.info("Loaded {} multisell lists.", _entries.size());
 	}
 	
-	@Override
-	public void parseDocument(Document doc, File f) {
-		try {
-			int id = Integer.parseInt(f.getName().replaceAll(".xml", ""));
-			int entryId = 1;
-			Node att;
-			final ListContainer list = new ListContainer(id);
+	/**
+	 * Parses a multisell list file, called concurrently for the files of a directory.
+	 * @param reader the reader
+	 * @param f the file
+	 * @return the multisell list
+	 * @throws XMLStreamException if the file is not well formed
+	 */
+	private ListContainer parseList(XMLStreamReader reader, File f) throws XMLStreamException {
+		final ListContainer list = new ListContainer(Integer.parseInt(f.getName().replaceAll(".xml", "")));
+		int entryId = 1;
+		Entry entry = null;
+		while (reader.hasNext()) {
+			if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
 			
-			for (Node n = doc.getFirstChild(); n != null; n = n.getNextSibling()) {
-				if ("list".equalsIgnoreCase(n.getNodeName())) {
-					att = n.getAttributes().getNamedItem("applyTaxes");
-					list.setApplyTaxes((att != null) && Boolean.parseBoolean(att.getNodeValue()));
-					
-					att = n.getAttributes().getNamedItem("useRate");
-					if (att != null) {
+			switch (reader.getLocalName()) {
+				case "list" -> {
+					list.setApplyTaxes(parseBoolean(reader, "applyTaxes", false));
+					final String useRate = parseString(reader, "useRate");
+					if (useRate != null) {
 						try {
-							
-							list.setUseRate(Double.parseDouble(att.getNodeValue()));
+							list.setUseRate(Double.parseDouble(useRate));
 							if (list.getUseRate() <= 1e-6) {
 								throw new NumberFormatException("The value cannot be 0"); // threat 0 as invalid value
 							}
 						} catch (NumberFormatException ex) {
-							LOG.warn("Unable to parse {}!", doc.getLocalName(), ex);
+							LOG.warn("Unable to parse {}!", f.getName(), ex);
 							list.setUseRate(1.0);
-						} catch (DOMException ex) {
-							LOG.warn("Unable to parse {}!", doc.getLocalName(), ex);
 						}
 					}
-					
-					att = n.getAttributes().getNamedItem("maintainEnchantment");
-					list.setMaintainEnchantment((att != null) && Boolean.parseBoolean(att.getNodeValue()));
-					
-					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
-						if ("item".equalsIgnoreCase(d.getNodeName())) {
-							Entry e = parseEntry(d, entryId++, list);
-							list.getEntries().add(e);
-						} else if ("npcs".equalsIgnoreCase(d.getNodeName())) {
-							for (Node b = d.getFirstChild(); b != null; b = b.getNextSibling()) {
-								if ("npc".equalsIgnoreCase(b.getNodeName())) {
-									if (Util.isDigit(b.getTextContent())) {
-										list.allowNpc(Integer.parseInt(b.getTextContent()));
-									}
-								}
-							}
-						}
+					list.setMaintainEnchantment(parseBoolean(reader, "maintainEnchantment", false));
+				}
+				case "item" -> {
+					entry = new Entry(entryId++);
+					list.getEntries().add(entry);
+				}
+				case "ingredient" -> entry.addIngredient(new Ingredient(parseAttributes(reader)));
+				case "production" -> entry.addProduct(new Ingredient(parseAttributes(reader)));
+				case "npc" -> {
+					final String npcId = reader.getElementText();
+					if (Util.isDigit(npcId)) {
+						list.allowNpc(Integer.parseInt(npcId));
 					}
 				}
 			}
-			_entries.put(id, list);
-		} catch (Exception ex) {
-			LOG.error("There has been an error in file {}!", f, ex);
 		}
+		return list;
 	}
 	
 	@Override
@@ -137,37 +132,6 @@ public final class MultisellData implements IXmlReader {
 		return NUMERIC_FILTER;
 	}
 	
-	private Entry parseEntry(Node n, int entryId, ListContainer list) {
-		Node first = n.getFirstChild();
-		final Entry entry = new Entry(entryId);
-		
-		NamedNodeMap attrs;
-		Node att;
-		StatsSet set;
-		
-		for (n = first; n != null; n = n.getNextSibling()) {
-			if ("ingredient".equalsIgnoreCase(n.getNodeName())) {
-				attrs = n.getAttributes();
-				set = new StatsSet();
-				for (int i = 0; i < attrs.getLength(); i++) {
-					att = attrs.item(i);
-					set.set(att.getNodeName(), att.getNodeValue());
-				}
-				entry.addIngredient(new Ingredient(set));
-			} else if ("production".equalsIgnoreCase(n.getNodeName())) {
-				attrs = n.getAttributes();
-				set = new StatsSet();
-				for (int i = 0; i < attrs.getLength(); i++) {
-					att = attrs.item(i);
-					set.set(att.getNodeName(), att.getNodeValue());
-				}
-				entry.addProduct(new Ingredient(set));
-			}
-		}
-		
-		return entry;
-	}
-	
 	/**
 	 * This will generate the multisell list for the items.<br>
 	 * There exist various parameters in multisells that affect the way they will appear:
@@ -38,6 +38,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
+import com.l2jserver.gameserver.cache.DatapackCache;
+import com.l2jserver.gameserver.cache.DocumentCache;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.enums.AISkillScope;
 import com.l2jserver.gameserver.model.StatsSet;
@@ -85,6 +87,16 @@ public class NpcData implements IXmlReader {
 		}
 		
 		_minionData = null;
+		
+		final DocumentCache cache = getDocumentCache();
+		if (cache != null) {
+			cache.save();
+		}
+	}
+	
+	@Override
+	public DocumentCache getDocumentCache() {
+		return DatapackCache.getInstance().getNpcs();
 	}
 	
 	@Override
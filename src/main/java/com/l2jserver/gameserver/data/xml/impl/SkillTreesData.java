@@ -20,6 +20,7 @@ package com.l2jserver.gameserver.data.xml.impl;
 
 import static com.l2jserver.gameserver.config.Configuration.character;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,17 +32,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.enums.Race;
 import com.l2jserver.gameserver.model.L2Clan;
 import com.l2jserver.gameserver.model.L2SkillLearn;
-import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.base.AcquireSkillType;
 import com.l2jserver.gameserver.model.base.ClassId;
@@ -131,7 +132,7 @@ public final class SkillTreesData implements IXmlReader {
 		_gameMasterAuraSkillTree.clear();
 		
 		// Load files.
-		parseDatapackDirectory("data/skillTrees/", false);
+		parseDatapackDirectory("data/skillTrees/", false, this::parseSkillTrees, this::addSkillTrees);
 		
 		// Generate check arrays.
 		generateCheckArrays();
@@ -143,92 +144,96 @@ public final class SkillTreesData implements IXmlReader {
 	}
 	
 	/**
-	 * Parse a skill tree file and store it into the correct skill tree.
+	 * Parses the skill trees of a file, called concurrently for the files of the directory.
+	 * @param reader the reader
+	 * @param f the file
+	 * @return the skill trees of the file
+	 * @throws XMLStreamException if the file is not well formed
 	 */
-	@Override
-	public void parseDocument(Document doc) {
-		int cId;
+	private List<ParsedSkillTree> parseSkillTrees(XMLStreamReader reader, File f) throws XMLStreamException {
+		final List<ParsedSkillTree> skillTrees = new ArrayList<>();
+		ParsedSkillTree skillTree = null;
+		L2SkillLearn skillLearn = null;
+		while (reader.hasNext()) {
+			if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			
+			switch (reader.getLocalName()) {
+				case "skillTree" -> {
+					final Integer classId = parseInteger(reader, "classId");
+					final Integer parentClassId = parseInteger(reader, "parentClassId");
+					skillTree = new ParsedSkillTree(parseString(reader, "type"), (classId != null) ? classId : -1, (parentClassId != null) ? parentClassId : -1, new ArrayList<>());
+					skillTrees.add(skillTree);
+				}
+				case "skill" -> {
+					skillLearn = new L2SkillLearn(parseAttributes(reader));
+					skillTree.skills().add(skillLearn);
+				}
+				case "item" -> skillLearn.addRequiredItem(new ItemHolder(parseInteger(reader, "id"), parseInteger(reader, "count")));
+				case "preRequisiteSkill" -> skillLearn.addPreReqSkill(new SkillHolder(parseInteger(reader, "id"), parseInteger(reader, "lvl")));
+				case "race" -> skillLearn.addRace(Race.valueOf(reader.getElementText()));
+				case "residenceId" -> skillLearn.addResidenceId(Integer.valueOf(reader.getElementText()));
+				case "socialClass" -> skillLearn.setSocialClass(Enum.valueOf(SocialClass.class, reader.getElementText()));
+				case "subClassConditions" -> skillLearn.addSubclassConditions(parseInteger(reader, "slot"), parseInteger(reader, "lvl"));
+			}
+		}
+		return skillTrees;
+	}
+	
+	/**
+	 * Stores the skill trees of a file into the correct skill trees.
+	 * @param f the file
+	 * @param skillTrees the skill trees of the file
+	 */
+	private void addSkillTrees(File f, List<ParsedSkillTree> skillTrees) {
 		ClassId classId = null;
-		for (Node n = doc.getFirstChild(); n != null; n = n.getNextSibling()) {
-			if ("list".equalsIgnoreCase(n.getNodeName())) {
-				for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
-					if ("skillTree".equalsIgnoreCase(d.getNodeName())) {
-						final Map<Integer, L2SkillLearn> classSkillTree = new HashMap<>();
-						final Map<Integer, L2SkillLearn> trasferSkillTree = new HashMap<>();
-						final String type = d.getAttributes().getNamedItem("type").getNodeValue();
-						Node attr = d.getAttributes().getNamedItem("classId");
-						if (attr != null) {
-							cId = Integer.parseInt(attr.getNodeValue());
-							classId = ClassId.values()[cId];
+		for (ParsedSkillTree skillTree : skillTrees) {
+			final Map<Integer, L2SkillLearn> classSkillTree = new HashMap<>();
+			final Map<Integer, L2SkillLearn> trasferSkillTree = new HashMap<>();
+			final String type = skillTree.type();
+			final int cId = skillTree.classId();
+			if (cId > -1) {
+				classId = ClassId.values()[cId];
+			}
+			
+			final int parentClassId = skillTree.parentClassId();
+			if ((cId > -1) && (cId != parentClassId) && (parentClassId > -1) && !_parentClassMap.containsKey(classId)) {
+				_parentClassMap.put(classId, ClassId.values()[parentClassId]);
+			}
+			
+			for (L2SkillLearn skillLearn : skillTree.skills()) {
+				final int skillHashCode = SkillData.getSkillHashCode(skillLearn.getSkillId(), skillLearn.getSkillLevel());
+				switch (type) {
+					case "classSkillTree" -> {
+						if (cId != -1) {
+							classSkillTree.put(skillHashCode, skillLearn);
 						} else {
-							cId = -1;
-						}
-						
-						attr = d.getAttributes().getNamedItem("parentClassId");
-						if (attr != null) {
-							final int parentClassId = Integer.parseInt(attr.getNodeValue());
-							if ((cId > -1) && (cId != parentClassId) && (parentClassId > -1) && !_parentClassMap.containsKey(classId)) {
-								_parentClassMap.put(classId, ClassId.values()[parentClassId]);
-							}
-						}
-						
-						for (Node c = d.getFirstChild(); c != null; c = c.getNextSibling()) {
-							if ("skill".equalsIgnoreCase(c.getNodeName())) {
-								final StatsSet learnSkillSet = new StatsSet();
-								NamedNodeMap attrs = c.getAttributes();
-								for (int i = 0; i < attrs.getLength(); i++) {
-									attr = attrs.item(i);
-									learnSkillSet.set(attr.getNodeName(), attr.getNodeValue());
-								}
-								
-								final L2SkillLearn skillLearn = new L2SkillLearn(learnSkillSet);
-								for (Node b = c.getFirstChild(); b != null; b = b.getNextSibling()) {
-									attrs = b.getAttributes();
-									switch (b.getNodeName()) {
-										case "item" -> skillLearn.addRequiredItem(new ItemHolder(parseInteger(attrs, "id"), parseInteger(attrs, "count")));
-										case "preRequisiteSkill" -> skillLearn.addPreReqSkill(new SkillHolder(parseInteger(attrs, "id"), parseInteger(attrs, "lvl")));
-										case "race" -> skillLearn.addRace(Race.valueOf(b.getTextContent()));
-										case "residenceId" -> skillLearn.addResidenceId(Integer.valueOf(b.getTextContent()));
-										case "socialClass" -> skillLearn.setSocialClass(Enum.valueOf(SocialClass.class, b.getTextContent()));
-										case "subClassConditions" -> skillLearn.addSubclassConditions(parseInteger(attrs, "slot"), parseInteger(attrs, "lvl"));
-									}
-								}
-								
-								final int skillHashCode = SkillData.getSkillHashCode(skillLearn.getSkillId(), skillLearn.getSkillLevel());
-								switch (type) {
-									case "classSkillTree" -> {
-										if (cId != -1) {
-											classSkillTree.put(skillHashCode, skillLearn);
-										} else {
-											_commonSkillTree.put(skillHashCode, skillLearn);
-										}
-									}
-									case "transferSkillTree" -> trasferSkillTree.put(skillHashCode, skillLearn);
-									case "collectSkillTree" -> _collectSkillTree.put(skillHashCode, skillLearn);
-									case "fishingSkillTree" -> _fishingSkillTree.put(skillHashCode, skillLearn);
-									case "pledgeSkillTree" -> _pledgeSkillTree.put(skillHashCode, skillLearn);
-									case "subClassSkillTree" -> _subClassSkillTree.put(skillHashCode, skillLearn);
-									case "subPledgeSkillTree" -> _subPledgeSkillTree.put(skillHashCode, skillLearn);
-									case "transformSkillTree" -> _transformSkillTree.put(skillHashCode, skillLearn);
-									case "nobleSkillTree" -> _nobleSkillTree.put(skillHashCode, skillLearn);
-									case "heroSkillTree" -> _heroSkillTree.put(skillHashCode, skillLearn);
-									case "gameMasterSkillTree" -> _gameMasterSkillTree.put(skillHashCode, skillLearn);
-									case "gameMasterAuraSkillTree" -> _gameMasterAuraSkillTree.put(skillHashCode, skillLearn);
-									default -> LOG.warn("Unknown Skill Tree type: {}!", type);
-								}
-							}
-						}
-						
-						if (type.equals("transferSkillTree")) {
-							_transferSkillTrees.put(classId, trasferSkillTree);
-						} else if (type.equals("classSkillTree") && (cId > -1)) {
-							if (!_classSkillTrees.containsKey(classId)) {
-								_classSkillTrees.put(classId, classSkillTree);
-							} else {
-								_classSkillTrees.get(classId).putAll(classSkillTree);
-							}
+							_commonSkillTree.put(skillHashCode, skillLearn);
 						}
 					}
+					case "transferSkillTree" -> trasferSkillTree.put(skillHashCode, skillLearn);
+					case "collectSkillTree" -> _collectSkillTree.put(skillHashCode, skillLearn);
+					case "fishingSkillTree" -> _fishingSkillTree.put(skillHashCode, skillLearn);
+					case "pledgeSkillTree" -> _pledgeSkillTree.put(skillHashCode, skillLearn);
+					case "subClassSkillTree" -> _subClassSkillTree.put(skillHashCode, skillLearn);
+					case "subPledgeSkillTree" -> _subPledgeSkillTree.put(skillHashCode, skillLearn);
+					case "transformSkillTree" -> _transformSkillTree.put(skillHashCode, skillLearn);
+					case "nobleSkillTree" -> _nobleSkillTree.put(skillHashCode, skillLearn);
+					case "heroSkillTree" -> _heroSkillTree.put(skillHashCode, skillLearn);
+					case "gameMasterSkillTree" -> _gameMasterSkillTree.put(skillHashCode, skillLearn);
+					case "gameMasterAuraSkillTree" -> _gameMasterAuraSkillTree.put(skillHashCode, skillLearn);
+					default -> LOG.warn("Unknown Skill Tree type: {}!", type);
+				}
+			}
+			
+			if (type.equals("transferSkillTree")) {
+				_transferSkillTrees.put(classId, trasferSkillTree);
+			} else if (type.equals("classSkillTree") && (cId > -1)) {
+				if (!_classSkillTrees.containsKey(classId)) {
+					_classSkillTrees.put(classId, classSkillTree);
+				} else {
+					_classSkillTrees.get(classId).putAll(classSkillTree);
 				}
 			}
 		}
@@ -1053,6 +1058,12 @@ public final class SkillTreesData implements IXmlReader {
 		}
 	}
 	
+	/**
+	 * Skill tree read from a file, before it is stored.
+	 */
+	private record ParsedSkillTree(String type, int classId, int parentClassId, List<L2SkillLearn> skills) {
+	}
+	
 	public static SkillTreesData getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
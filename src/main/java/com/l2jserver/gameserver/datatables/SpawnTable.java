@@ -21,18 +21,22 @@ package com.l2jserver.gameserver.datatables;
 import static com.l2jserver.gameserver.config.Configuration.general;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.data.xml.impl.NpcData;
@@ -57,6 +61,14 @@ public final class SpawnTable implements IXmlReader {
 	
 	private static final Map<Integer, Set<L2Spawn>> _spawnTable = new ConcurrentHashMap<>();
 	
+	/** Optional integer attributes of the XML spawns. */
+	private static final String[] OPTIONAL_PARAMS = {
+		"heading",
+		"count",
+		"respawnDelay",
+		"respawnRandom"
+	};
+	
 	private int _xmlSpawnCount = 0;
 	
 	@Override
@@ -72,7 +84,7 @@ public final class SpawnTable implements IXmlReader {
 			}
 			
 			// Load XML list
-			parseDatapackDirectory("data/spawnlist", false);
+			parseDatapackDirectory("data/spawnlist", false, this::parseSpawns, this::addSpawns);
 			LOG.info("Loaded {} NPC spawns from XML.", _xmlSpawnCount);
 		}
 	}
@@ -93,114 +105,106 @@ public final class SpawnTable implements IXmlReader {
 		return !npcTemplate.isType("L2SiegeGuard") && !npcTemplate.isType("L2RaidBoss");
 	}
 	
-	@Override
-	public void parseDocument(Document doc) {
-		NamedNodeMap attrs;
-		for (Node list = doc.getFirstChild(); list != null; list = list.getNextSibling()) {
-			if (list.getNodeName().equalsIgnoreCase("list")) {
-				attrs = list.getAttributes();
+	/**
+	 * Parses the spawns of a file, called concurrently for the files of the directory.
+	 * @param reader the reader
+	 * @param f the file
+	 * @return the spawns of the file
+	 * @throws XMLStreamException if the file is not well formed
+	 */
+	private List<ParsedSpawn> parseSpawns(XMLStreamReader reader, File f) throws XMLStreamException {
+		final List<ParsedSpawn> spawns = new ArrayList<>();
+		boolean enabled = false;
+		String zone = null;
+		String spawnName = null;
+		Map<String, Integer> map = null;
+		while (reader.hasNext()) {
+			if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			
+			final String name = reader.getLocalName();
+			if (name.equalsIgnoreCase("list")) {
 				// skip disabled spawnlists
-				if (!Boolean.parseBoolean(attrs.getNamedItem("enabled").getNodeValue())) {
-					continue;
+				enabled = parseBoolean(reader, "enabled", false);
+			} else if (!enabled) {
+				continue;
+			} else if (name.equalsIgnoreCase("spawn")) {
+				spawnName = parseString(reader, "name");
+				zone = parseString(reader, "zone");
+				map = null;
+			} else if (name.equalsIgnoreCase("AIData")) {
+				// Check if there are any AI parameters
+				if (map == null) {
+					map = new HashMap<>();
 				}
-				for (Node param = list.getFirstChild(); param != null; param = param.getNextSibling()) {
-					attrs = param.getAttributes();
-					if (param.getNodeName().equalsIgnoreCase("spawn")) {
-						String territoryName = null;
-						String spawnName = null;
-						Map<String, Integer> map = null;
-						
-						// Check, if spawn name specified
-						if (attrs.getNamedItem("name") != null) {
-							spawnName = parseString(attrs, "name");
-						}
-						// Check, if spawn territory specified and exists
-						if ((attrs.getNamedItem("zone") != null) && (ZoneManager.getInstance().getSpawnTerritory(attrs.getNamedItem("zone").getNodeValue()) != null)) {
-							territoryName = parseString(attrs, "zone");
-						}
-						
-						for (Node npctag = param.getFirstChild(); npctag != null; npctag = npctag.getNextSibling()) {
-							attrs = npctag.getAttributes();
-							// Check if there are any AI parameters
-							if (npctag.getNodeName().equalsIgnoreCase("AIData")) {
-								attrs = npctag.getAttributes();
-								if (map == null) {
-									map = new HashMap<>();
-								}
-								for (Node c = npctag.getFirstChild(); c != null; c = c.getNextSibling()) {
-									// Skip odd nodes
-									if (c.getNodeName().equals("#text")) {
-										continue;
-									}
-									int val = switch (c.getNodeName()) {
-										case "disableRandomAnimation", "disableRandomWalk" -> Boolean.parseBoolean(c.getTextContent()) ? 1 : 0;
-										default -> Integer.parseInt(c.getTextContent());
-									};
-									map.put(c.getNodeName(), val);
-								}
-							}
-							// Check for NPC spawns
-							else if (npctag.getNodeName().equalsIgnoreCase("npc")) {
-								// mandatory
-								final int templateId = parseInteger(attrs, "id");
-								// coordinates are optional, if territory is specified; mandatory otherwise
-								int x = 0;
-								int y = 0;
-								int z = 0;
-								
-								try {
-									x = parseInteger(attrs, "x");
-									y = parseInteger(attrs, "y");
-									z = parseInteger(attrs, "z");
-								} catch (NullPointerException npe) {
-									// x, y, z can be unspecified, if this spawn is territory based, do nothing
-								}
-								
-								if ((x == 0) && (y == 0) && (territoryName == null)) // Both coordinates and zone are unspecified
-								{
-									LOG.warn("Spawn could not be initialized, both coordinates and zone are unspecified for ID {}!", templateId);
-									continue;
-								}
-								
-								StatsSet spawnInfo = new StatsSet();
-								spawnInfo.set("npcTemplateid", templateId);
-								spawnInfo.set("x", x);
-								spawnInfo.set("y", y);
-								spawnInfo.set("z", z);
-								spawnInfo.set("territoryName", territoryName);
-								spawnInfo.set("spawnName", spawnName);
-								
-								// trying to read optional parameters
-								if (attrs.getNamedItem("heading") != null) {
-									spawnInfo.set("heading", parseInteger(attrs, "heading"));
-								}
-								
-								if (attrs.getNamedItem("count") != null) {
-									spawnInfo.set("count", parseInteger(attrs, "count"));
-								}
-								
-								if (attrs.getNamedItem("respawnDelay") != null) {
-									spawnInfo.set("respawnDelay", parseInteger(attrs, "respawnDelay"));
-								}
-								
-								if (attrs.getNamedItem("respawnRandom") != null) {
-									spawnInfo.set("respawnRandom", parseInteger(attrs, "respawnRandom"));
-								}
-								
-								if (attrs.getNamedItem("periodOfDay") != null) {
-									String period = attrs.getNamedItem("periodOfDay").getNodeValue();
-									if (period.equalsIgnoreCase("day") || period.equalsIgnoreCase("night")) {
-										spawnInfo.set("periodOfDay", period.equalsIgnoreCase("day") ? 1 : 2);
-									}
-								}
-								
-								_xmlSpawnCount += addSpawn(spawnInfo, map);
-							}
-						}
-					}
+				while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+					final String param = reader.getLocalName();
+					final String value = reader.getElementText();
+					map.put(param, switch (param) {
+						case "disableRandomAnimation", "disableRandomWalk" -> Boolean.parseBoolean(value) ? 1 : 0;
+						default -> Integer.parseInt(value);
+					});
 				}
+			} else if (name.equalsIgnoreCase("npc")) {
+				// Check for NPC spawns
+				final StatsSet spawnInfo = parseAttributes(reader);
+				spawnInfo.set("spawnName", spawnName);
+				spawns.add(new ParsedSpawn(spawnInfo, zone, map));
 			}
 		}
+		return spawns;
+	}
+	
+	/**
+	 * Adds the spawns of a file.
+	 * @param f the file
+	 * @param spawns the spawns of the file
+	 */
+	private void addSpawns(File f, List<ParsedSpawn> spawns) {
+		for (ParsedSpawn spawn : spawns) {
+			final StatsSet attrs = spawn.attributes();
+			// mandatory
+			final int templateId = attrs.getInt("id");
+			// Check, if spawn territory specified and exists
+			final String territoryName = ((spawn.zone() != null) && (ZoneManager.getInstance().getSpawnTerritory(spawn.zone()) != null)) ? spawn.zone() : null;
+			// coordinates are optional, if territory is specified; x and y are mandatory otherwise, a missing z is 0 and corrected to the geodata height on spawn
+			if ((territoryName == null) && (!attrs.containsKey("x") || !attrs.containsKey("y"))) {
+				LOG.warn("Spawn could not be initialized, coordinates are missing and zone is unspecified for ID {} in {}!", templateId, f.getName());
+				continue;
+			}
+			
+			final int x = attrs.getInt("x", 0);
+			final int y = attrs.getInt("y", 0);
+			final int z = attrs.getInt("z", 0);
+			if ((x == 0) && (y == 0) && (territoryName == null)) // Both coordinates and zone are unspecified
+			{
+				LOG.warn("Spawn could not be initialized, both coordinates and zone are unspecified for ID {}!", templateId);
+				continue;
+			}
+			
+			final StatsSet spawnInfo = new StatsSet();
+			spawnInfo.set("npcTemplateid", templateId);
+			spawnInfo.set("x", x);
+			spawnInfo.set("y", y);
+			spawnInfo.set("z", z);
+			spawnInfo.set("territoryName", territoryName);
+			spawnInfo.set("spawnName", attrs.getString("spawnName", null));
+			
+			// trying to read optional parameters
+			for (String param : OPTIONAL_PARAMS) {
+				if (attrs.containsKey(param)) {
+					spawnInfo.set(param, attrs.getInt(param));
+				}
+			}
+			
+			final String period = attrs.getString("periodOfDay", "");
+			if (period.equalsIgnoreCase("day") || period.equalsIgnoreCase("night")) {
+				spawnInfo.set("periodOfDay", period.equalsIgnoreCase("day") ? 1 : 2);
+			}
+			
+			_xmlSpawnCount += addSpawn(spawnInfo, spawn.aiData());
+		}
 	}
 	
 	/**
@@ -431,6 +435,12 @@ public final class SpawnTable implements IXmlReader {
 		return true;
 	}
 	
+	/**
+	 * Spawn read from a file, before it is added.
+	 */
+	private record ParsedSpawn(StatsSet attributes, String zone, Map<String, Integer> aiData) {
+	}
+	
 	public static SpawnTable getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
@@ -38,6 +38,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
+import com.l2jserver.gameserver.cache.DocumentCache;
 import com.l2jserver.gameserver.datatables.ItemTable;
 import com.l2jserver.gameserver.enums.CategoryType;
 import com.l2jserver.gameserver.enums.InstanceType;
@@ -158,12 +159,18 @@ public abstract class DocumentBase {
 	}
 	
 	public Document parse() {
+		return parse(null);
+	}
+	
+	/**
+	 * Parses the file, with its cached document if it did not change.
+	 * @param cache the document cache, {@code null} to always parse the file
+	 * @return the document, {@code null} if it could not be loaded
+	 */
+	public Document parse(DocumentCache cache) {
 		Document doc = null;
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setValidating(false);
-			factory.setIgnoringComments(true);
-			doc = factory.newDocumentBuilder().parse(_file);
+			doc = (cache != null) ? cache.load(_file, DocumentBase::readDocument) : readDocument(_file);
 			parseDocument(doc);
 		} catch (Exception ex) {
 			LOG.error("Error loading file {}!", _file, ex);
@@ -171,6 +178,19 @@ public abstract class DocumentBase {
 		return doc;
 	}
 	
+	/**
+	 * Reads the document of a file, without validation.
+	 * @param f the XML file
+	 * @return the document
+	 * @throws Exception if the file could not be parsed
+	 */
+	public static Document readDocument(File f) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setValidating(false);
+		factory.setIgnoringComments(true);
+		return factory.newDocumentBuilder().parse(f);
+	}
+	
 	protected abstract void parseDocument(Document doc);
 	
 	protected abstract StatsSet getStatsSet();
@@ -33,6 +33,8 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.l2jserver.gameserver.cache.DatapackCache;
+import com.l2jserver.gameserver.cache.DocumentCache;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.engines.items.DocumentItem;
 import com.l2jserver.gameserver.engines.skills.DocumentSkill;
@@ -80,22 +82,27 @@ public class DocumentEngine {
 		}
 	}
 	
-	private List<Skill> loadSkills(File file) {
+	private List<Skill> loadSkills(File file, DocumentCache cache) {
 		if (file == null) {
 			LOG.warn("Skill file not found!");
 			return null;
 		}
 		DocumentSkill doc = new DocumentSkill(file);
-		doc.parse();
+		doc.parse(cache);
 		return doc.getSkills();
 	}
 	
 	public Map<Integer, Skill> loadAllSkills() {
-		return _skillFiles.parallelStream()
-			.map(this::loadSkills)
+		final DocumentCache cache = DatapackCache.getInstance().getSkills();
+		final Map<Integer, Skill> skills = _skillFiles.parallelStream()
+			.map(file -> loadSkills(file, cache))
 			.filter(Objects::nonNull)
 			.flatMap(List::stream)
 			.collect(Collectors.toConcurrentMap(SkillData::getSkillHashCode, Function.identity()));
+		if (cache != null) {
+			cache.save();
+		}
+		return skills;
 	}
 	
 	/**
@@ -103,15 +110,20 @@ public class DocumentEngine {
 	 * @return List of {@link L2Item}
 	 */
 	public List<L2Item> loadItems() {
-		return _itemFiles.parallelStream()
+		final DocumentCache cache = DatapackCache.getInstance().getItems();
+		final List<L2Item> items = _itemFiles.parallelStream()
 			.filter(Objects::nonNull)
 			.map(DocumentItem::new)
 			.map(doc -> {
-				doc.parse();
+				doc.parse(cache);
 				return doc.getItemList();
 			})
 			.flatMap(List::stream)
 			.toList();
+		if (cache != null) {
+			cache.save();
+		}
+		return items;
 	}
 	
 	private static class SingletonHolder {
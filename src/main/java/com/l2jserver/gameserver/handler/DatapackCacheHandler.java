@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.handler;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.StringTokenizer;
+
+import com.l2jserver.gameserver.cache.DatapackCache;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
+
+/**
+ * Datapack cache command, available as admin and telnet command.<br>
+ * Usage: {@code datapackcache [build|verify]}, without option it shows the cache statistics.
+ * @since 2.6.3.0
+ */
+public final class DatapackCacheHandler implements IAdminCommandHandler, ITelnetHandler {
+	private static final String[] ADMIN_COMMANDS = {
+		"admin_datapackcache"
+	};
+	
+	private static final String[] TELNET_COMMANDS = {
+		"datapackcache"
+	};
+	
+	@Override
+	public boolean useAdminCommand(String command, L2PcInstance activeChar) {
+		final String[] lines = handle(command);
+		if (lines.length == 1) {
+			activeChar.sendMessage(lines[0]);
+			return true;
+		}
+		
+		final StringBuilder sb = new StringBuilder(2048);
+		sb.append("<html><title>Datapack Cache</title><body>");
+		for (String line : lines) {
+			sb.append(line.replace("<", "&lt;").replace(">", "&gt;")).append("<br>");
+		}
+		sb.append("</body></html>");
+		activeChar.sendPacket(new NpcHtmlMessage(sb.toString()));
+		return true;
+	}
+	
+	@Override
+	public String[] getAdminCommandList() {
+		return ADMIN_COMMANDS;
+	}
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int __uptime) {
+		for (String line : handle(command)) {
+			_print.println(line);
+		}
+		return true;
+	}
+	
+	@Override
+	public String[] getCommandList() {
+		return TELNET_COMMANDS;
+	}
+	
+	private static String[] handle(String command) {
+		final StringTokenizer st = new StringTokenizer(command);
+		st.nextToken();
+		if (!st.hasMoreTokens()) {
+			return DatapackCache.getInstance().getStats();
+		}
+		
+		return switch (st.nextToken().toLowerCase()) {
+			case "build" -> DatapackCache.getInstance().build();
+			case "verify" -> DatapackCache.getInstance().verify();
+			default -> new String[] {
+				"Usage: datapackcache [build|verify]"
+			};
+		};
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.handler;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
+import com.l2jserver.gameserver.taskmanager.QuestTimerManager;
+
+/**
+ * Quest timer statistics command, available as admin and telnet command.<br>
+ * Usage: {@code questtimers}, it shows the timer statistics and the amount of timers of each quest.
+ * @since 2.6.3.0
+ */
+public final class QuestTimerHandler implements IAdminCommandHandler, ITelnetHandler {
+	private static final String[] ADMIN_COMMANDS = {
+		"admin_questtimers"
+	};
+	
+	private static final String[] TELNET_COMMANDS = {
+		"questtimers"
+	};
+	
+	@Override
+	public boolean useAdminCommand(String command, L2PcInstance activeChar) {
+		final StringBuilder sb = new StringBuilder(4096);
+		sb.append("<html><title>Quest Timers</title><body>");
+		for (String line : QuestTimerManager.getInstance().getStats()) {
+			sb.append(line.replace("<", "&lt;").replace(">", "&gt;")).append("<br>");
+		}
+		sb.append("</body></html>");
+		activeChar.sendPacket(new NpcHtmlMessage(sb.toString()));
+		return true;
+	}
+	
+	@Override
+	public String[] getAdminCommandList() {
+		return ADMIN_COMMANDS;
+	}
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int __uptime) {
+		for (String line : QuestTimerManager.getInstance().getStats()) {
+			_print.println(line);
+		}
+		return true;
+	}
+	
+	@Override
+	public String[] getCommandList() {
+		return TELNET_COMMANDS;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.handler;
+
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.StringTokenizer;
+
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.ThreadPoolStats;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
+import com.l2jserver.gameserver.util.Util;
+
+/**
+ * Thread pool task statistics command, available as admin and telnet command.<br>
+ * Usage: {@code threadstats [on|off|reset|<top>]}, where {@code top} is the amount of task types listed for each pool.
+ * @since 2.6.3.0
+ */
+public final class ThreadPoolStatsHandler implements IAdminCommandHandler, ITelnetHandler {
+	private static final String[] ADMIN_COMMANDS = {
+		"admin_threadstats"
+	};
+	
+	private static final String[] TELNET_COMMANDS = {
+		"threadstats"
+	};
+	
+	/** Task types listed for each pool in the admin window, more would exceed the maximum html size. */
+	private static final int ADMIN_TOP = 3;
+	
+	private static final int TELNET_TOP = 10;
+	
+	@Override
+	public boolean useAdminCommand(String command, L2PcInstance activeChar) {
+		final String[] stats = handle(command, ADMIN_TOP);
+		if (stats.length == 1) {
+			activeChar.sendMessage(stats[0]);
+			return true;
+		}
+		
+		final StringBuilder sb = new StringBuilder(4096);
+		sb.append("<html><title>Thread Pool Stats</title><body>");
+		for (String line : stats) {
+			sb.append(line.replace("<", "&lt;").replace(">", "&gt;")).append("<br>");
+		}
+		sb.append("</body></html>");
+		activeChar.sendPacket(new NpcHtmlMessage(sb.toString()));
+		return true;
+	}
+	
+	@Override
+	public String[] getAdminCommandList() {
+		return ADMIN_COMMANDS;
+	}
+	
+	@Override
+	public boolean useCommand(String command, PrintWriter _print, Socket _cSocket, int __uptime) {
+		for (String line : handle(command, TELNET_TOP)) {
+			_print.println(line);
+		}
+		return true;
+	}
+	
+	@Override
+	public String[] getCommandList() {
+		return TELNET_COMMANDS;
+	}
+	
+	private static String[] handle(String command, int top) {
+		final ThreadPoolStats stats = ThreadPoolManager.getInstance().getTaskStats();
+		final StringTokenizer st = new StringTokenizer(command);
+		st.nextToken();
+		if (!st.hasMoreTokens()) {
+			return stats.getStats(top);
+		}
+		
+		final String option = st.nextToken();
+		switch (option.toLowerCase()) {
+			case "on" -> {
+				stats.setEnabled(true);
+				return new String[] {
+					"Thread pool task stats enabled."
+				};
+			}
+			case "off" -> {
+				stats.setEnabled(false);
+				return new String[] {
+					"Thread pool task stats disabled."
+				};
+			}
+			case "reset" -> {
+				stats.reset();
+				return new String[] {
+					"Thread pool task stats reset."
+				};
+			}
+			default -> {
+				if (Util.isDigit(option)) {
+					return stats.getStats(Integer.parseInt(option));
+				}
+				return new String[] {
+					"Usage: threadstats [on|off|reset|<top>]"
+				};
+			}
+		}
+	}
+}
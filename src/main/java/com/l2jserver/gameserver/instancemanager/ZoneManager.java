@@ -90,7 +90,7 @@ public final class ZoneManager implements IXmlReader {
 		// Clear zones
 		for (L2WorldRegion[] worldRegion : worldRegions) {
 			for (L2WorldRegion element : worldRegion) {
-				element.getZones().clear();
+				element.clearZones();
 				count++;
 			}
 		}
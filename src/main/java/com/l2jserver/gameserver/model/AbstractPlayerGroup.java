@@ -94,6 +94,7 @@ public abstract class AbstractPlayerGroup {
 	 * @param packet the packet to broadcast
 	 */
 	public void broadcastPacket(final L2GameServerPacket packet) {
+		packet.encodeOnce();
 		forEachMember(m -> {
 			if (m != null) {
 				m.sendPacket(packet);
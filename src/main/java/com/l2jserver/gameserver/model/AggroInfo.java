@@ -21,15 +21,22 @@ package com.l2jserver.gameserver.model;
 import com.l2jserver.gameserver.model.actor.L2Character;
 
 /**
+ * Hate and damage of an attacker, read from and written to the hate table of the attackable.
  * @author xban1x
+ * @deprecated use the {@link HateTable} of the attackable, this adapter is kept for one release
  */
+@Deprecated(since = "2.6.3.0", forRemoval = true)
 public final class AggroInfo {
+	private final HateTable _hateTable;
 	private final L2Character _attacker;
-	private long _hate = 0;
-	private int _damage = 0;
 	
 	public AggroInfo(L2Character pAttacker) {
-		_attacker = pAttacker;
+		this(new HateTable(), pAttacker);
+	}
+	
+	AggroInfo(HateTable hateTable, L2Character attacker) {
+		_hateTable = hateTable;
+		_attacker = attacker;
 	}
 	
 	public L2Character getAttacker() {
@@ -37,31 +44,31 @@ public final class AggroInfo {
 	}
 	
 	public long getHate() {
-		return _hate;
+		return _hateTable.getHate(_attacker);
 	}
 	
 	public long checkHate(L2Character owner) {
 		if (_attacker.isAlikeDead() || !_attacker.isVisible() || !owner.getKnownList().knowsObject(_attacker)) {
-			_hate = 0;
+			_hateTable.stopHate(_attacker);
 		}
 		
-		return _hate;
+		return getHate();
 	}
 	
 	public void addHate(long value) {
-		_hate = Math.min(_hate + value, 999999999);
+		_hateTable.addDamageHate(_attacker, 0, value);
 	}
 	
 	public void stopHate() {
-		_hate = 0;
+		_hateTable.stopHate(_attacker);
 	}
 	
 	public int getDamage() {
-		return _damage;
+		return (int) _hateTable.getDamage(_attacker);
 	}
 	
 	public void addDamage(int value) {
-		_damage = (int) Math.min(_damage + (long) value, 999999999);
+		_hateTable.addDamageHate(_attacker, value, 0);
 	}
 	
 	@Override
@@ -84,6 +91,6 @@ public final class AggroInfo {
 	
 	@Override
 	public String toString() {
-		return "AggroInfo [attacker=" + _attacker + ", hate=" + _hate + ", damage=" + _damage + "]";
+		return "AggroInfo [attacker=" + _attacker + ", hate=" + getHate() + ", damage=" + getDamage() + "]";
 	}
 }
@@ -20,22 +20,26 @@ package com.l2jserver.gameserver.model;
 
 import static com.l2jserver.gameserver.config.Configuration.character;
 
+import java.util.AbstractQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.actor.L2Summon;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -57,7 +61,9 @@ import com.l2jserver.gameserver.network.serverpackets.ShortBuffStatusUpdate;
  * Effect lists.<br>
  * Holds all the buff infos that are affecting a creature.<br>
  * Manages the logic that controls whether a buff is added, remove, replaced or set inactive.<br>
- * Uses maps with skill ID as key and buff info DTO as value to avoid iterations.<br>
+ * Uses a sorted skill ID index and an abnormal type indexed array to avoid iterations.<br>
+ * The effect queues are copy-on-write, readers iterate an array snapshot without locking while writers copy the array.<br>
+ * Icon updates are coalesced, all the changes made within {@link #ICON_UPDATE_DELAY} milliseconds are sent in a single update.<br>
  * Uses Double-Checked Locking to avoid useless initialization and synchronization issues and overhead.<br>
  * Methods may resemble List interface, although it doesn't implement such interface.
  * @author Zoey76
@@ -65,6 +71,15 @@ import com.l2jserver.gameserver.network.serverpackets.ShortBuffStatusUpdate;
 public final class CharEffectList {
 	private static final Logger LOG = LoggerFactory.getLogger(CharEffectList.class);
 	
+	/** Delay in milliseconds in which icon updates are gathered before sending them. */
+	public static final int ICON_UPDATE_DELAY = 100;
+	
+	private static final int ICONS_UPDATED = 0;
+	private static final int PARTY_ICONS_PENDING = 1;
+	private static final int ICONS_PENDING = 2;
+	
+	private static final BuffInfo[] EMPTY = new BuffInfo[0];
+	
 	/** Queue containing all effects from buffs for this effect list. */
 	private volatile Queue<BuffInfo> _buffs;
 	/** Queue containing all triggered skills for this effect list. */
@@ -77,8 +92,10 @@ public final class CharEffectList {
 	private volatile Queue<BuffInfo> _debuffs;
 	/** Queue containing all passives for this effect list. They bypass most of the actions and they are not included in most operations. */
 	private volatile Queue<BuffInfo> _passives;
-	/** Map containing the all stacked effect in progress for each abnormal type. */
-	private volatile Map<AbnormalType, BuffInfo> _stackedEffects;
+	/** Skill ID index of all the effects, including passives. */
+	private final SkillIdIndex _skillIds = new SkillIdIndex();
+	/** Stacked effect in progress for each abnormal type, indexed by the abnormal type ordinal. */
+	private volatile AtomicReferenceArray<BuffInfo> _stackedEffects;
 	/** Set containing all abnormal types that shouldn't be added to this creature effect list. */
 	private volatile Set<AbnormalType> _blockedBuffSlots = null;
 	/** Short buff skill ID. */
@@ -91,8 +108,8 @@ public final class CharEffectList {
 	private volatile boolean _hasDebuffsRemovedOnDamage = false;
 	/** Effect flags. */
 	private int _effectFlags;
-	/** If {@code true} only party icons need to be updated. */
-	private boolean _partyOnly = false;
+	/** Pending icon update, one of {@link #ICONS_UPDATED}, {@link #PARTY_ICONS_PENDING} or {@link #ICONS_PENDING}. */
+	private final AtomicInteger _iconUpdate = new AtomicInteger(ICONS_UPDATED);
 	/** The owner of this effect list. */
 	private final L2Character _owner;
 	/** Hidden buffs count, prevents iterations. */
@@ -114,7 +131,7 @@ public final class CharEffectList {
 		if (_buffs == null) {
 			synchronized (this) {
 				if (_buffs == null) {
-					_buffs = new ConcurrentLinkedQueue<>();
+					_buffs = new EffectQueue(0);
 				}
 			}
 		}
@@ -129,7 +146,7 @@ public final class CharEffectList {
 		if (_triggered == null) {
 			synchronized (this) {
 				if (_triggered == null) {
-					_triggered = new ConcurrentLinkedQueue<>();
+					_triggered = new EffectQueue(1);
 				}
 			}
 		}
@@ -144,7 +161,7 @@ public final class CharEffectList {
 		if (_dances == null) {
 			synchronized (this) {
 				if (_dances == null) {
-					_dances = new ConcurrentLinkedQueue<>();
+					_dances = new EffectQueue(2);
 				}
 			}
 		}
@@ -159,7 +176,7 @@ public final class CharEffectList {
 		if (_toggles == null) {
 			synchronized (this) {
 				if (_toggles == null) {
-					_toggles = new ConcurrentLinkedQueue<>();
+					_toggles = new EffectQueue(3);
 				}
 			}
 		}
@@ -174,7 +191,7 @@ public final class CharEffectList {
 		if (_debuffs == null) {
 			synchronized (this) {
 				if (_debuffs == null) {
-					_debuffs = new ConcurrentLinkedQueue<>();
+					_debuffs = new EffectQueue(4);
 				}
 			}
 		}
@@ -189,7 +206,7 @@ public final class CharEffectList {
 		if (_passives == null) {
 			synchronized (this) {
 				if (_passives == null) {
-					_passives = new ConcurrentLinkedQueue<>();
+					_passives = new EffectQueue(5);
 				}
 			}
 		}
@@ -337,36 +354,13 @@ public final class CharEffectList {
 	
 	/**
 	 * Gets the buff info by skill ID.<br>
-	 * Prevents initialization.
+	 * It's a binary search on the skill ID index, without locking.<br>
+	 * If several buff infos have the skill, the first one of the buffs, triggered, dances, toggles, debuffs and passives, in that order, is returned.
 	 * @param skillId the skill ID
 	 * @return the buff info
 	 */
 	public BuffInfo getBuffInfoBySkillId(int skillId) {
-		BuffInfo info = null;
-		if (hasBuffs()) {
-			info = getBuffs().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		
-		if (hasTriggered() && (info == null)) {
-			info = getTriggered().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		
-		if (hasDances() && (info == null)) {
-			info = getDances().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		
-		if (hasToggles() && (info == null)) {
-			info = getToggles().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		
-		if (hasDebuffs() && (info == null)) {
-			info = getDebuffs().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		
-		if (hasPassives() && (info == null)) {
-			info = getPassives().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
-		}
-		return info;
+		return _skillIds.get(skillId);
 	}
 	
 	/**
@@ -376,7 +370,8 @@ public final class CharEffectList {
 	 * @return the buff info if it's present, {@code null} otherwise
 	 */
 	public BuffInfo getBuffInfoByAbnormalType(AbnormalType type) {
-		return (_stackedEffects != null) ? _stackedEffects.get(type) : null;
+		final AtomicReferenceArray<BuffInfo> stackedEffects = _stackedEffects;
+		return (stackedEffects != null) ? stackedEffects.get(type.ordinal()) : null;
 	}
 	
 	/**
@@ -528,9 +523,9 @@ public final class CharEffectList {
 		if (!info.isInUse()) {
 			_hiddenBuffs.decrementAndGet();
 		}
-		// Removes the buff from the stack.
+		// Removes the buff from the stack, unless another buff took its place.
 		else if (_stackedEffects != null) {
-			_stackedEffects.remove(info.getSkill().getAbnormalType());
+			_stackedEffects.compareAndSet(info.getSkill().getAbnormalType().ordinal(), info, null);
 		}
 		
 		// If it's an herb that ends, check if there are hidden buffs.
@@ -543,7 +538,7 @@ public final class CharEffectList {
 					buff.addStats();
 					// Adds the buff to the stack.
 					if (_stackedEffects != null) {
-						_stackedEffects.put(buff.getSkill().getAbnormalType(), buff);
+						_stackedEffects.set(buff.getSkill().getAbnormalType().ordinal(), buff);
 					}
 					// If it's a hidden buff that gets activated, then decrease hidden buff count.
 					_hiddenBuffs.decrementAndGet();
@@ -572,7 +567,9 @@ public final class CharEffectList {
 		stopAllDebuffs(false);
 		
 		if (_stackedEffects != null) {
-			_stackedEffects.clear();
+			for (int i = 0; i < _stackedEffects.length(); i++) {
+				_stackedEffects.set(i, null);
+			}
 		}
 		
 		// Update effect flags and icons.
@@ -798,7 +795,7 @@ public final class CharEffectList {
 	 */
 	public boolean stopSkillEffects(boolean removed, AbnormalType type) {
 		if (_stackedEffects != null) {
-			final BuffInfo old = _stackedEffects.remove(type);
+			final BuffInfo old = _stackedEffects.getAndSet(type.ordinal(), null);
 			if (old != null) {
 				stopSkillEffects(removed, old.getSkill());
 				return true;
@@ -881,14 +878,13 @@ public final class CharEffectList {
 	}
 	
 	/**
-	 * @param partyOnly
+	 * Updates the effect flags and schedules an icon update.
+	 * @param partyOnly if {@code true} only the party icons are updated, unless a full update is already pending
 	 */
 	public void updateEffectIcons(boolean partyOnly) {
-		if (partyOnly) {
-			_partyOnly = true;
-		}
-		// Update effect flags and icons.
-		updateEffectList(true);
+		updateEffectFlags();
+		computeEffectFlags();
+		scheduleIconUpdate(partyOnly ? PARTY_ICONS_PENDING : ICONS_PENDING);
 	}
 	
 	/**
@@ -1069,15 +1065,15 @@ public final class CharEffectList {
 			if (_stackedEffects == null) {
 				synchronized (this) {
 					if (_stackedEffects == null) {
-						_stackedEffects = new ConcurrentHashMap<>();
+						_stackedEffects = new AtomicReferenceArray<>(AbnormalType.values().length);
 					}
 				}
 			}
 			
-			if (_stackedEffects.containsKey(skill.getAbnormalType())) {
-				BuffInfo stackedInfo = _stackedEffects.get(skill.getAbnormalType());
+			BuffInfo stackedInfo = _stackedEffects.get(skill.getAbnormalType().ordinal());
+			if (stackedInfo != null) {
 				// Skills are only replaced if the incoming buff has greater or equal abnormal level.
-				if ((stackedInfo != null) && (skill.getAbnormalLvl() >= stackedInfo.getSkill().getAbnormalLvl())) {
+				if (skill.getAbnormalLvl() >= stackedInfo.getSkill().getAbnormalLvl()) {
 					// If it is an herb, set as not in use the lesser buff.
 					// Effect will be present in the effect list.
 					// Effects stats are removed and onActionTime() is not called.
@@ -1085,7 +1081,7 @@ public final class CharEffectList {
 					if (skill.isAbnormalInstant()) {
 						if (stackedInfo.getSkill().isAbnormalInstant()) {
 							stopSkillEffects(true, skill.getAbnormalType());
-							stackedInfo = _stackedEffects.get(skill.getAbnormalType());
+							stackedInfo = _stackedEffects.get(skill.getAbnormalType().ordinal());
 						}
 						
 						if (stackedInfo != null) {
@@ -1108,7 +1104,7 @@ public final class CharEffectList {
 					return;
 				}
 			}
-			_stackedEffects.put(skill.getAbnormalType(), info);
+			_stackedEffects.set(skill.getAbnormalType().ordinal(), info);
 		}
 		
 		// Select the map that holds the effects related to this skill.
@@ -1153,19 +1149,36 @@ public final class CharEffectList {
 	}
 	
 	/**
-	 * Update effect icons.<br>
-	 * Prevents initialization.
+	 * Schedules an icon update, if there is no update of the same or higher level pending.<br>
+	 * Only playable creatures have icons.
+	 * @param level the update level
 	 */
-	private void updateEffectIcons() {
-		if (_owner == null) {
+	private void scheduleIconUpdate(int level) {
+		if ((_owner == null) || !_owner.isPlayable()) {
 			return;
 		}
 		
-		updateEffectFlags();
-		
-		if (!_owner.isPlayable()) {
-			return;
+		while (true) {
+			final int pending = _iconUpdate.get();
+			if (pending >= level) {
+				return;
+			}
+			
+			if (_iconUpdate.compareAndSet(pending, level)) {
+				if (pending == ICONS_UPDATED) {
+					ThreadPoolManager.getInstance().scheduleEffect(this::updateEffectIcons, ICON_UPDATE_DELAY);
+				}
+				return;
+			}
 		}
+	}
+	
+	/**
+	 * Update effect icons.<br>
+	 * Sends the updates gathered since the update was scheduled.
+	 */
+	private void updateEffectIcons() {
+		final boolean partyOnly = _iconUpdate.getAndSet(ICONS_UPDATED) == PARTY_ICONS_PENDING;
 		
 		AbnormalStatusUpdate asu = null;
 		PartySpelled ps = null;
@@ -1174,9 +1187,7 @@ public final class CharEffectList {
 		boolean isSummon = false;
 		
 		if (_owner.isPlayer()) {
-			if (_partyOnly) {
-				_partyOnly = false;
-			} else {
+			if (!partyOnly) {
 				asu = new AbnormalStatusUpdate();
 			}
 			
@@ -1283,13 +1294,12 @@ public final class CharEffectList {
 	}
 	
 	/**
-	 * Wrapper to update abnormal icons and effect flags.
+	 * Wrapper to update effect flags and schedule an icon update.
 	 * @param update if {@code true} performs an update
 	 */
 	private void updateEffectList(boolean update) {
 		if (update) {
-			updateEffectIcons();
-			computeEffectFlags();
+			updateEffectIcons(false);
 		}
 	}
 	
@@ -1421,4 +1431,229 @@ public final class CharEffectList {
 	public boolean isAffected(EffectFlag flag) {
 		return (_effectFlags & flag.getMask()) != 0;
 	}
+	
+	/**
+	 * Copy-on-write effect queue.<br>
+	 * Iterations walk the array snapshot taken when they started, writers copy the array and update the skill ID index while holding the queue lock.
+	 */
+	private final class EffectQueue extends AbstractQueue<BuffInfo> {
+		/** Order of the queue in the skill ID lookups. */
+		private final int _priority;
+		
+		private volatile BuffInfo[] _infos = EMPTY;
+		
+		EffectQueue(int priority) {
+			_priority = priority;
+		}
+		
+		@Override
+		public boolean offer(BuffInfo info) {
+			Objects.requireNonNull(info);
+			synchronized (this) {
+				final BuffInfo[] infos = Arrays.copyOf(_infos, _infos.length + 1);
+				infos[infos.length - 1] = info;
+				_infos = infos;
+				_skillIds.add(info, _priority);
+			}
+			return true;
+		}
+		
+		@Override
+		public BuffInfo poll() {
+			final BuffInfo info;
+			synchronized (this) {
+				if (_infos.length == 0) {
+					return null;
+				}
+				info = _infos[0];
+				_infos = Arrays.copyOfRange(_infos, 1, _infos.length);
+				_skillIds.remove(info);
+			}
+			return info;
+		}
+		
+		@Override
+		public BuffInfo peek() {
+			final BuffInfo[] infos = _infos;
+			return (infos.length > 0) ? infos[0] : null;
+		}
+		
+		@Override
+		public boolean remove(Object o) {
+			synchronized (this) {
+				final BuffInfo[] infos = _infos;
+				int index = -1;
+				for (int i = 0; i < infos.length; i++) {
+					if (infos[i] == o) {
+						index = i;
+						break;
+					}
+				}
+				
+				if (index < 0) {
+					return false;
+				}
+				
+				final BuffInfo[] result = new BuffInfo[infos.length - 1];
+				System.arraycopy(infos, 0, result, 0, index);
+				System.arraycopy(infos, index + 1, result, index, infos.length - index - 1);
+				_infos = result;
+				_skillIds.remove((BuffInfo) o);
+			}
+			return true;
+		}
+		
+		@Override
+		public void clear() {
+			synchronized (this) {
+				for (BuffInfo info : _infos) {
+					_skillIds.remove(info);
+				}
+				_infos = EMPTY;
+			}
+		}
+		
+		@Override
+		public int size() {
+			return _infos.length;
+		}
+		
+		@Override
+		public boolean isEmpty() {
+			return _infos.length == 0;
+		}
+		
+		@Override
+		public Object[] toArray() {
+			return _infos.clone();
+		}
+		
+		@Override
+		public Iterator<BuffInfo> iterator() {
+			final BuffInfo[] infos = _infos;
+			return new Iterator<>() {
+				private int _cursor;
+				private BuffInfo _last;
+				
+				@Override
+				public boolean hasNext() {
+					return _cursor < infos.length;
+				}
+				
+				@Override
+				public BuffInfo next() {
+					if (_cursor >= infos.length) {
+						throw new NoSuchElementException();
+					}
+					return _last = infos[_cursor++];
+				}
+				
+				@Override
+				public void remove() {
+					if (_last == null) {
+						throw new IllegalStateException();
+					}
+					EffectQueue.this.remove(_last);
+					_last = null;
+				}
+			};
+		}
+	}
+	
+	/**
+	 * Skill ID index.<br>
+	 * Skill IDs are kept sorted in a primitive array, lookups are a binary search on the current snapshot and writers replace the snapshot.<br>
+	 * The buff infos of a skill ID are sorted by the priority of their queue, then by insertion.
+	 */
+	private static final class SkillIdIndex {
+		private static final Snapshot EMPTY_SNAPSHOT = new Snapshot(new int[0], new byte[0], EMPTY);
+		
+		private volatile Snapshot _snapshot = EMPTY_SNAPSHOT;
+		
+		BuffInfo get(int skillId) {
+			final Snapshot snapshot = _snapshot;
+			final int index = first(snapshot.skillIds(), skillId);
+			return (index >= 0) ? snapshot.infos()[index] : null;
+		}
+		
+		synchronized void add(BuffInfo info, int priority) {
+			final int[] skillIds = _snapshot.skillIds();
+			final byte[] priorities = _snapshot.priorities();
+			final BuffInfo[] infos = _snapshot.infos();
+			final int skillId = info.getSkill().getId();
+			// New buff infos go after the ones with the same skill ID and a lower or the same priority.
+			int index = first(skillIds, skillId);
+			if (index < 0) {
+				index = -index - 1;
+			} else {
+				while ((index < skillIds.length) && (skillIds[index] == skillId) && (priorities[index] <= priority)) {
+					index++;
+				}
+			}
+			
+			final int[] newSkillIds = new int[skillIds.length + 1];
+			final byte[] newPriorities = new byte[priorities.length + 1];
+			final BuffInfo[] newInfos = new BuffInfo[infos.length + 1];
+			System.arraycopy(skillIds, 0, newSkillIds, 0, index);
+			System.arraycopy(priorities, 0, newPriorities, 0, index);
+			System.arraycopy(infos, 0, newInfos, 0, index);
+			newSkillIds[index] = skillId;
+			newPriorities[index] = (byte) priority;
+			newInfos[index] = info;
+			System.arraycopy(skillIds, index, newSkillIds, index + 1, skillIds.length - index);
+			System.arraycopy(priorities, index, newPriorities, index + 1, priorities.length - index);
+			System.arraycopy(infos, index, newInfos, index + 1, infos.length - index);
+			_snapshot = new Snapshot(newSkillIds, newPriorities, newInfos);
+		}
+		
+		synchronized void remove(BuffInfo info) {
+			final int[] skillIds = _snapshot.skillIds();
+			final byte[] priorities = _snapshot.priorities();
+			final BuffInfo[] infos = _snapshot.infos();
+			final int skillId = info.getSkill().getId();
+			int index = first(skillIds, skillId);
+			if (index < 0) {
+				return;
+			}
+			
+			while ((index < skillIds.length) && (skillIds[index] == skillId) && (infos[index] != info)) {
+				index++;
+			}
+			if ((index == skillIds.length) || (infos[index] != info)) {
+				return;
+			}
+			
+			if (skillIds.length == 1) {
+				_snapshot = EMPTY_SNAPSHOT;
+				return;
+			}
+			
+			final int[] newSkillIds = new int[skillIds.length - 1];
+			final byte[] newPriorities = new byte[priorities.length - 1];
+			final BuffInfo[] newInfos = new BuffInfo[infos.length - 1];
+			System.arraycopy(skillIds, 0, newSkillIds, 0, index);
+			System.arraycopy(priorities, 0, newPriorities, 0, index);
+			System.arraycopy(infos, 0, newInfos, 0, index);
+			System.arraycopy(skillIds, index + 1, newSkillIds, index, skillIds.length - index - 1);
+			System.arraycopy(priorities, index + 1, newPriorities, index, priorities.length - index - 1);
+			System.arraycopy(infos, index + 1, newInfos, index, infos.length - index - 1);
+			_snapshot = new Snapshot(newSkillIds, newPriorities, newInfos);
+		}
+		
+		/**
+		 * @param skillIds the sorted skill IDs
+		 * @param skillId the skill ID
+		 * @return the first index of the skill ID, as {@link Arrays#binarySearch(int[], int)} if it is not found
+		 */
+		private static int first(int[] skillIds, int skillId) {
+			int index = Arrays.binarySearch(skillIds, skillId);
+			while ((index > 0) && (skillIds[index - 1] == skillId)) {
+				index--;
+			}
+			return index;
+		}
+		
+		private record Snapshot(int[] skillIds, byte[] priorities, BuffInfo[] infos) {
+		}
+	}
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.util.IntIndex;
+import com.l2jserver.gameserver.util.Util;
+
+/**
+ * Hate table of an attackable.<br>
+ * The hate and damage of each attacker are kept in primitive columns, the row of an attacker is found by its object ID, instead of an aggro info object per attacker in a concurrent map.<br>
+ * The most hated attacker is tracked as hate is added, it is only searched again when its hate decreases or it leaves the table.<br>
+ * The methods synchronize on the table, they are short updates of a single creature.
+ * @since 2.6.3.0
+ */
+public final class HateTable {
+	/** Maximum hate and damage of an attacker. */
+	public static final long MAX_VALUE = 999_999_999;
+	
+	private static final L2Character[] EMPTY_ATTACKERS = new L2Character[0];
+	
+	private static final long[] EMPTY_VALUES = new long[0];
+	
+	/** Damage by player of the kill being rewarded by each thread, reused from one kill to the next. */
+	private static final ThreadLocal<PlayerDamageTable> PLAYER_DAMAGE = ThreadLocal.withInitial(PlayerDamageTable::new);
+	
+	/** Rows by attacker object ID, created with the first row, most creatures are never attacked. */
+	private IntIndex _index;
+	
+	private L2Character[] _attackers = EMPTY_ATTACKERS;
+	
+	private long[] _hate = EMPTY_VALUES;
+	
+	private long[] _damage = EMPTY_VALUES;
+	
+	private int _size;
+	
+	/** Row of the most hated attacker, {@code -1} if no attacker has hate. */
+	private int _mostHated = -1;
+	
+	/** If the most hated attacker must be searched again. */
+	private boolean _searchMostHated;
+	
+	/**
+	 * Adds damage and hate to an attacker, the attacker is added to the table even if both are zero.
+	 * @param attacker the attacker
+	 * @param damage the damage
+	 * @param hate the hate, negative to decrease it
+	 */
+	public synchronized void addDamageHate(L2Character attacker, long damage, long hate) {
+		final int row = getOrAddRow(attacker);
+		_damage[row] = Math.min(_damage[row] + damage, MAX_VALUE);
+		if (hate != 0) {
+			addHate(row, hate);
+		}
+	}
+	
+	/**
+	 * Adds hate to all the attackers.
+	 * @param hate the hate, negative to decrease it
+	 */
+	public synchronized void addHateToAll(long hate) {
+		for (int row = 0; row < _size; row++) {
+			addHate(row, hate);
+		}
+	}
+	
+	private void addHate(int row, long hate) {
+		_hate[row] = Math.min(_hate[row] + hate, MAX_VALUE);
+		if (_searchMostHated) {
+			return;
+		}
+		
+		if (hate < 0) {
+			_searchMostHated = (row == _mostHated);
+		} else if ((_hate[row] > 0) && ((_mostHated < 0) || (_hate[row] > _hate[_mostHated]))) {
+			_mostHated = row;
+		}
+	}
+	
+	/**
+	 * Clears the hate of an attacker, keeping it in the table.
+	 * @param attacker the attacker
+	 */
+	public synchronized void stopHate(L2Character attacker) {
+		final int row = getRow(attacker);
+		if (row >= 0) {
+			clearHate(row);
+		}
+	}
+	
+	private void clearHate(int row) {
+		_hate[row] = 0;
+		_searchMostHated |= (row == _mostHated);
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @return the hate of the attacker, {@code 0} if it is not in the table
+	 */
+	public synchronized long getHate(L2Character attacker) {
+		final int row = getRow(attacker);
+		return (row >= 0) ? _hate[row] : 0;
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @return the damage of the attacker, {@code 0} if it is not in the table
+	 */
+	public synchronized long getDamage(L2Character attacker) {
+		final int row = getRow(attacker);
+		return (row >= 0) ? _damage[row] : 0;
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @return {@code true} if the attacker is in the table, {@code false} otherwise
+	 */
+	public synchronized boolean contains(L2Character attacker) {
+		return getRow(attacker) >= 0;
+	}
+	
+	/**
+	 * Gets the most hated attacker.<br>
+	 * The hate of an attacker the owner cannot attack any more, because it is dead, invisible or unknown to the owner, is cleared first.
+	 * @param owner the owner of the table
+	 * @return the most hated attacker, {@code null} if no attacker has hate
+	 */
+	public synchronized L2Character getMostHated(L2Character owner) {
+		if (!_searchMostHated && (_mostHated >= 0) && !canBeHated(owner, _attackers[_mostHated])) {
+			clearHate(_mostHated);
+		}
+		
+		if (_searchMostHated) {
+			searchMostHated(owner);
+		}
+		return (_mostHated >= 0) ? _attackers[_mostHated] : null;
+	}
+	
+	private void searchMostHated(L2Character owner) {
+		_mostHated = -1;
+		for (int row = 0; row < _size; row++) {
+			if (!canBeHated(owner, _attackers[row])) {
+				_hate[row] = 0;
+			}
+			
+			if ((_hate[row] > 0) && ((_mostHated < 0) || (_hate[row] > _hate[_mostHated]))) {
+				_mostHated = row;
+			}
+		}
+		_searchMostHated = false;
+	}
+	
+	/**
+	 * Gets the two most hated attackers, as {@link #getMostHated(L2Character)} does.
+	 * @param owner the owner of the table
+	 * @return the most hated attacker and the second most hated attacker, each one {@code null} if there is no such attacker
+	 */
+	public synchronized L2Character[] get2MostHated(L2Character owner) {
+		searchMostHated(owner);
+		int second = -1;
+		for (int row = 0; row < _size; row++) {
+			if ((row != _mostHated) && (_hate[row] > 0) && ((second < 0) || (_hate[row] > _hate[second]))) {
+				second = row;
+			}
+		}
+		
+		return new L2Character[] {
+			(_mostHated >= 0) ? _attackers[_mostHated] : null,
+			(second >= 0) ? _attackers[second] : null
+		};
+	}
+	
+	/**
+	 * Gets the attackers, the hate of the attackers the owner cannot attack any more is cleared first, as {@link #getMostHated(L2Character)} does.
+	 * @param owner the owner of the table
+	 * @return the attackers
+	 */
+	public synchronized List<L2Character> getAttackers(L2Character owner) {
+		searchMostHated(owner);
+		return getAttackers();
+	}
+	
+	/**
+	 * @return the attackers
+	 */
+	public synchronized List<L2Character> getAttackers() {
+		return new ArrayList<>(Arrays.asList(_attackers).subList(0, _size));
+	}
+	
+	/**
+	 * Sums the damage of the attackers by player, a summon counts for its owner, for the rewards of a kill.<br>
+	 * Only the players within range of the owner that did more than 1 damage are counted.
+	 * @param owner the owner of the table
+	 * @param range the range
+	 * @return the damage by player, a table of the calling thread that is not changed by the hate table and is reused by the next call of the thread
+	 */
+	public synchronized PlayerDamageTable sumDamageByPlayer(L2Character owner, int range) {
+		// The rewards of a kill are computed by a single thread, so the table of the thread is free again.
+		final PlayerDamageTable playerDamage = PLAYER_DAMAGE.get();
+		playerDamage.clear();
+		for (int row = 0; row < _size; row++) {
+			final L2PcInstance player = _attackers[row].getActingPlayer();
+			// Prevent unwanted behavior
+			if ((player != null) && (_damage[row] > 1) && Util.checkIfInRange(range, owner, player, true)) {
+				playerDamage.add(player, _damage[row]);
+			}
+		}
+		return playerDamage;
+	}
+	
+	/**
+	 * Removes an attacker.
+	 * @param attacker the attacker
+	 */
+	public synchronized void remove(L2Character attacker) {
+		final int row = getRow(attacker);
+		if (row < 0) {
+			return;
+		}
+		
+		// The last row takes the place of the removed one.
+		final int last = _size - 1;
+		_index.remove(attacker.getObjectId());
+		if (row != last) {
+			_attackers[row] = _attackers[last];
+			_hate[row] = _hate[last];
+			_damage[row] = _damage[last];
+			_index.put(_attackers[row].getObjectId(), row);
+		}
+		_attackers[last] = null;
+		_size--;
+		
+		if (_mostHated == row) {
+			_searchMostHated = true;
+		} else if (_mostHated == last) {
+			_mostHated = row;
+		}
+	}
+	
+	/**
+	 * Removes all the attackers.
+	 */
+	public synchronized void clear() {
+		if (_size == 0) {
+			return;
+		}
+		
+		Arrays.fill(_attackers, 0, _size, null);
+		_index.clear();
+		_size = 0;
+		_mostHated = -1;
+		_searchMostHated = false;
+	}
+	
+	/**
+	 * @return {@code true} if there is no attacker, {@code false} otherwise
+	 */
+	public synchronized boolean isEmpty() {
+		return _size == 0;
+	}
+	
+	/**
+	 * @return the amount of attackers
+	 */
+	public synchronized int size() {
+		return _size;
+	}
+	
+	/**
+	 * Checks if an attacker that is not a playable has hate, such as a guard or a monster fighting the owner.
+	 * @return {@code true} if a non playable attacker has hate, {@code false} otherwise
+	 */
+	public synchronized boolean hasNonPlayableHate() {
+		for (int row = 0; row < _size; row++) {
+			if ((_hate[row] > 0) && !_attackers[row].isPlayable()) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @return the aggro info of the attacker, reading and updating this table
+	 * @deprecated use the methods of this table
+	 */
+	@Deprecated(since = "2.6.3.0", forRemoval = true)
+	@SuppressWarnings("removal")
+	public AggroInfo getAggroInfo(L2Character attacker) {
+		return new AggroInfo(this, attacker);
+	}
+	
+	private int getRow(L2Character attacker) {
+		return ((attacker == null) || (_size == 0)) ? -1 : _index.get(attacker.getObjectId());
+	}
+	
+	private int getOrAddRow(L2Character attacker) {
+		final int row = getRow(attacker);
+		if (row >= 0) {
+			return row;
+		}
+		
+		if (_index == null) {
+			_index = new IntIndex();
+		}
+		
+		if (_size == _attackers.length) {
+			final int capacity = Math.max(4, _size * 2);
+			_attackers = Arrays.copyOf(_attackers, capacity);
+			_hate = Arrays.copyOf(_hate, capacity);
+			_damage = Arrays.copyOf(_damage, capacity);
+		}
+		
+		_attackers[_size] = attacker;
+		_hate[_size] = 0;
+		_damage[_size] = 0;
+		_index.put(attacker.getObjectId(), _size);
+		return _size++;
+	}
+	
+	private static boolean canBeHated(L2Character owner, L2Character attacker) {
+		return !attacker.isAlikeDead() && attacker.isVisible() && owner.getKnownList().knowsObject(attacker);
+	}
+}
@@ -1241,6 +1241,7 @@ public class L2Clan implements IIdentifiable, INamable {
 	}
 	
 	public void broadcastToOnlineMembers(L2GameServerPacket packet) {
+		packet.encodeOnce();
 		for (L2ClanMember member : _members.values()) {
 			if ((member != null) && member.isOnline()) {
 				member.getPlayerInstance().sendPacket(packet);
@@ -1257,6 +1258,7 @@ public class L2Clan implements IIdentifiable, INamable {
 	}
 	
 	public void broadcastToOtherOnlineMembers(L2GameServerPacket packet, L2PcInstance player) {
+		packet.encodeOnce();
 		for (L2ClanMember member : _members.values()) {
 			if ((member != null) && member.isOnline() && (member.getPlayerInstance() != player)) {
 				member.getPlayerInstance().sendPacket(packet);
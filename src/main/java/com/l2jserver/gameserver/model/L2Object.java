@@ -62,6 +62,8 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 	private int _objectId;
 	/** World Region */
 	private L2WorldRegion _worldRegion;
+	/** Sub-cell of the world region spatial index, -1 if not indexed */
+	private volatile int _worldCell = -1;
 	/** Instance type */
 	private InstanceType _instanceType = null;
 	private volatile Map<String, Object> _scripts;
@@ -554,6 +556,18 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 		return _worldRegion;
 	}
 	
+	/**
+	 * Gets the index of the sub-cell of the world region this object is indexed in.
+	 * @return the cell index, {@code -1} if the object is not indexed
+	 */
+	public final int getWorldCell() {
+		return _worldCell;
+	}
+	
+	final void setWorldCell(int worldCell) {
+		_worldCell = worldCell;
+	}
+	
 	public void setWorldRegion(L2WorldRegion value) {
 		if ((getWorldRegion() != null) && isCharacter()) // confirm revalidation of old region's zones
 		{
@@ -663,8 +677,11 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 		setZ(newZ);
 		
 		try {
-			if (L2World.getInstance().getRegion(getLocation()) != getWorldRegion()) {
+			final L2WorldRegion region = getWorldRegion();
+			if (L2World.getInstance().getRegion(newX, newY) != region) {
 				updateWorldRegion();
+			} else if (region != null) {
+				region.updateVisibleObject(this);
 			}
 		} catch (Exception e) {
 			badCoords();
@@ -757,6 +774,12 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 		_z.set(loc.getZ());
 		_heading.set(loc.getHeading());
 		_instanceId.set(loc.getInstanceId());
+		
+		// The world region is not changed here, the object is only moved inside the grid of the region it is still in.
+		final L2WorldRegion region = getWorldRegion();
+		if ((region != null) && (region.getTileX() == ((loc.getX() >> L2World.SHIFT_BY) + L2World.OFFSET_X)) && (region.getTileY() == ((loc.getY() >> L2World.SHIFT_BY) + L2World.OFFSET_Y))) {
+			region.updateVisibleObject(this);
+		}
 	}
 	
 	/**
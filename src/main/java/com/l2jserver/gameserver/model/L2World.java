@@ -27,8 +27,8 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -39,6 +39,7 @@ import com.l2jserver.gameserver.data.xml.impl.AdminData;
 import com.l2jserver.gameserver.model.actor.L2Playable;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PetInstance;
+import com.l2jserver.gameserver.taskmanager.KnownListUpdateTaskManager;
 
 public final class L2World {
 	
@@ -242,6 +243,12 @@ public final class L2World {
 		if (!newRegion.isActive()) {
 			return;
 		}
+		
+		if (general().knownListIncrementalUpdate()) {
+			object.getKnownList().updateKnownObjects();
+			return;
+		}
+		
 		// Get all visible objects contained in the _visibleObjects of L2WorldRegions
 		// in a circular area of 2000 units
 		List<L2Object> visibles = getVisibleObjects(object, 2000);
@@ -315,16 +322,22 @@ public final class L2World {
 		
 		// Goes through all surrounding world region's creatures.
 		// And removes the object from their known lists.
+		int removed = 0;
 		for (L2WorldRegion worldRegion : oldWorldRegion.getSurroundingRegions()) {
 			for (L2Object obj : worldRegion.getVisibleObjects().values()) {
-				if (obj != null) {
-					obj.getKnownList().removeKnownObject(object);
+				if ((obj != null) && obj.getKnownList().removeKnownObject(object)) {
+					removed++;
 				}
 			}
 		}
 		
 		// Removes all objects from the object's known list.
+		removed += object.getKnownList().getKnownObjects().size();
 		object.getKnownList().removeAllKnownObjects();
+		
+		if (general().knownListIncrementalUpdate()) {
+			KnownListUpdateTaskManager.recordIncrementalUpdate(0, removed);
+		}
 	}
 	
 	/**
@@ -335,16 +348,19 @@ public final class L2World {
 	 * @return
 	 */
 	public List<L2Object> getVisibleObjects(L2Object object) {
-		final List<L2Object> result = new LinkedList<>();
-		for (L2WorldRegion regi : object.getWorldRegion().getSurroundingRegions()) {
-			for (L2Object visibleObject : regi.getVisibleObjects().values()) {
-				if ((visibleObject == null) || visibleObject.equals(object) || !visibleObject.isVisible()) {
-					continue; // skip our own character
-				}
-				result.add(visibleObject);
-			}
+		final List<L2Object> result = new ArrayList<>();
+		final L2WorldRegion region = object.getWorldRegion();
+		if (region == null) {
+			return result;
 		}
 		
+		for (L2WorldRegion regi : region.getSurroundingRegions()) {
+			regi.forEachVisibleObject(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, visibleObject -> {
+				if ((visibleObject != object) && visibleObject.isVisible()) {
+					result.add(visibleObject);
+				}
+			});
+		}
 		return result;
 	}
 	
@@ -366,21 +382,13 @@ public final class L2World {
 	 * @return the visible objects in the radius
 	 */
 	public List<L2Object> getVisibleObjects(L2Object object, int radius, boolean excludeTarget) {
-		return getVisibleObjectsStream(object, radius, excludeTarget).toList();
+		final List<L2Object> result = new ArrayList<>();
+		forEachVisibleObject(object, radius, excludeTarget, false, result::add);
+		return result;
 	}
 	
 	public Stream<L2Object> getVisibleObjectsStream(L2Object object, int radius, boolean excludeTarget) {
-		if ((object == null) || !object.isVisible()) {
-			return Stream.of();
-		}
-		final int sqRadius = radius * radius;
-		return object.getWorldRegion()
-			.getSurroundingRegions()
-			.stream()
-			.flatMap(r -> r.getVisibleObjects().values().stream())
-			.filter(Objects::nonNull)
-			.filter(o -> !excludeTarget || !o.equals(object))
-			.filter(o -> sqRadius > object.calculateDistance(o, false, true));
+		return getVisibleObjects(object, radius, excludeTarget).stream();
 	}
 	
 	/**
@@ -393,27 +401,56 @@ public final class L2World {
 	 * @return
 	 */
 	public List<L2Object> getVisibleObjects3D(L2Object object, int radius) {
+		final List<L2Object> result = new ArrayList<>();
+		forEachVisibleObject(object, radius, true, true, result::add);
+		return result;
+	}
+	
+	/**
+	 * Visits the visible objects around a given object without allocating intermediate collections.<br>
+	 * Only the sub-cells of the surrounding world regions overlapping the radius are scanned.
+	 * @param object the origin
+	 * @param radius the radius to check
+	 * @param excludeTarget if the origin should be excluded
+	 * @param action the action to perform on each object
+	 */
+	public void forEachVisibleObject(L2Object object, int radius, boolean excludeTarget, Consumer<? super L2Object> action) {
+		forEachVisibleObject(object, radius, excludeTarget, false, action);
+	}
+	
+	/**
+	 * Visits the visible objects of the given type around a given object without allocating intermediate collections.
+	 * @param <T> the type of the visited objects
+	 * @param object the origin, always excluded
+	 * @param clazz the type of the visited objects
+	 * @param radius the radius to check
+	 * @param action the action to perform on each object
+	 */
+	public <T extends L2Object> void forEachVisibleObject(L2Object object, Class<T> clazz, int radius, Consumer<? super T> action) {
+		forEachVisibleObject(object, radius, true, false, o -> {
+			if (clazz.isInstance(o)) {
+				action.accept(clazz.cast(o));
+			}
+		});
+	}
+	
+	private void forEachVisibleObject(L2Object object, int radius, boolean excludeTarget, boolean includeZAxis, Consumer<? super L2Object> action) {
 		if ((object == null) || !object.isVisible()) {
-			return new ArrayList<>();
+			return;
 		}
 		
-		final int sqRadius = radius * radius;
-		
-		// Create a list in order to contain all visible objects.
-		final List<L2Object> result = new LinkedList<>();
-		for (L2WorldRegion regi : object.getWorldRegion().getSurroundingRegions()) {
-			for (L2Object _object : regi.getVisibleObjects().values()) {
-				if ((_object == null) || _object.equals(object)) {
-					continue; // skip our own character
-				}
-				
-				if (sqRadius > object.calculateDistance(_object, true, true)) {
-					result.add(_object);
-				}
-			}
+		final L2WorldRegion region = object.getWorldRegion();
+		if (region == null) {
+			return;
 		}
 		
-		return result;
+		final int x = object.getX();
+		final int y = object.getY();
+		final int z = object.getZ();
+		final int excludeId = excludeTarget ? object.getObjectId() : 0;
+		for (L2WorldRegion regi : region.getSurroundingRegions()) {
+			regi.forEachVisibleObject(x, y, z, radius, includeZAxis, excludeId, action);
+		}
 	}
 	
 	/**
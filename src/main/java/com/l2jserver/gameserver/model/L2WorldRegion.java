@@ -20,6 +20,7 @@ package com.l2jserver.gameserver.model;
 
 import static com.l2jserver.gameserver.config.Configuration.general;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -27,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +53,16 @@ public final class L2WorldRegion {
 	/** Map containing visible objects in this world region. */
 	private final Map<Integer, L2Object> _visibleObjects = new ConcurrentHashMap<>();
 	
+	/** Spatial index of the visible objects in this world region, created when the first object enters the region. */
+	private volatile WorldCellGrid _cells;
+	
 	private final Queue<L2WorldRegion> _surroundingRegions = new ConcurrentLinkedQueue<>();
 	private final int _tileX, _tileY;
 	private boolean _active;
 	private ScheduledFuture<?> _neighborsTask = null;
 	private final List<L2ZoneType> _zones = new CopyOnWriteArrayList<>();
+	/** Bounding boxes of the zones in this world region, used to skip zones far away from a character. */
+	private volatile ZoneBounds[] _zoneBounds = new ZoneBounds[0];
 	
 	public L2WorldRegion(int pTileX, int pTileY) {
 		_tileX = pTileX;
@@ -77,12 +84,38 @@ public final class L2WorldRegion {
 		return _zones;
 	}
 	
-	public void addZone(L2ZoneType zone) {
+	public synchronized void addZone(L2ZoneType zone) {
 		_zones.add(zone);
+		updateZoneBounds();
 	}
 	
-	public void removeZone(L2ZoneType zone) {
+	public synchronized void removeZone(L2ZoneType zone) {
 		_zones.remove(zone);
+		updateZoneBounds();
+	}
+	
+	public synchronized void clearZones() {
+		_zones.clear();
+		updateZoneBounds();
+	}
+	
+	private void updateZoneBounds() {
+		final ZoneBounds[] zoneBounds = new ZoneBounds[_zones.size()];
+		int i = 0;
+		for (L2ZoneType zone : _zones) {
+			if (zone == null) {
+				continue;
+			}
+			
+			if (zone.getZone() == null) {
+				zoneBounds[i++] = new ZoneBounds(zone, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+				continue;
+			}
+			
+			final var boundingBox = zone.getZone().getBoundingBox();
+			zoneBounds[i++] = new ZoneBounds(zone, boundingBox.x, boundingBox.y, boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height);
+		}
+		_zoneBounds = (i == zoneBounds.length) ? zoneBounds : Arrays.copyOf(zoneBounds, i);
 	}
 	
 	public void revalidateZones(L2Character character) {
@@ -93,9 +126,12 @@ public final class L2WorldRegion {
 			return;
 		}
 		
-		for (L2ZoneType z : getZones()) {
-			if (z != null) {
-				z.revalidateInZone(character);
+		final int x = character.getX();
+		final int y = character.getY();
+		for (ZoneBounds bounds : _zoneBounds) {
+			// outside the bounding box the exact check is only needed to remove a character still registered in the zone
+			if (bounds.contains(x, y) || bounds.zone().isCharacterInZone(character)) {
+				bounds.zone().revalidateInZone(character);
 			}
 		}
 	}
@@ -166,6 +202,15 @@ public final class L2WorldRegion {
 		}
 	}
 	
+	/**
+	 * Zone of this world region with its bounding box, edges included.
+	 */
+	private record ZoneBounds(L2ZoneType zone, int minX, int minY, int maxX, int maxY) {
+		boolean contains(int x, int y) {
+			return (x >= minX) && (x <= maxX) && (y >= minY) && (y <= maxY);
+		}
+	}
+	
 	/** Task of AI notification */
 	public class NeighborsTask implements Runnable {
 		private final boolean _isActivating;
@@ -336,7 +381,11 @@ public final class L2WorldRegion {
 		
 		assert object.getWorldRegion() == this;
 		
-		_visibleObjects.put(object.getObjectId(), object);
+		if (_visibleObjects.put(object.getObjectId(), object) == null) {
+			getCells().add(object);
+		} else {
+			getCells().update(object);
+		}
 		
 		if (object instanceof L2Playable playable) {
 			_allPlayable.put(object.getObjectId(), playable);
@@ -360,7 +409,10 @@ public final class L2WorldRegion {
 		
 		assert (object.getWorldRegion() == this) || (object.getWorldRegion() == null);
 		
-		_visibleObjects.remove(object.getObjectId());
+		final WorldCellGrid cells = _cells;
+		if ((_visibleObjects.remove(object.getObjectId()) != null) && (cells != null)) {
+			cells.remove(object);
+		}
 		
 		if (object instanceof L2Playable) {
 			_allPlayable.remove(object.getObjectId());
@@ -371,6 +423,63 @@ public final class L2WorldRegion {
 		}
 	}
 	
+	/**
+	 * Updates the sub-cell of the given object after a position change inside this world region.
+	 * @param object the object that moved
+	 */
+	public void updateVisibleObject(L2Object object) {
+		final WorldCellGrid cells = _cells;
+		if (cells != null) {
+			cells.update(object);
+		}
+	}
+	
+	/**
+	 * Visits the visible objects of this world region inside the cells overlapping the given box, without allocation.
+	 * @param minX the minimum X coordinate of the box
+	 * @param minY the minimum Y coordinate of the box
+	 * @param maxX the maximum X coordinate of the box
+	 * @param maxY the maximum Y coordinate of the box
+	 * @param visitor the visitor
+	 */
+	public void forEachVisibleObject(int minX, int minY, int maxX, int maxY, Consumer<? super L2Object> visitor) {
+		final WorldCellGrid cells = _cells;
+		if (cells != null) {
+			cells.forEach(minX, minY, maxX, maxY, visitor);
+		}
+	}
+	
+	/**
+	 * Visits the visible objects of this world region inside the given radius, without allocation.
+	 * @param x the X coordinate of the center
+	 * @param y the Y coordinate of the center
+	 * @param z the Z coordinate of the center
+	 * @param radius the radius
+	 * @param includeZAxis if {@code true} the Z axis is included in the distance check
+	 * @param excludeId object ID to skip, {@code 0} to skip none
+	 * @param visitor the visitor
+	 */
+	public void forEachVisibleObject(int x, int y, int z, int radius, boolean includeZAxis, int excludeId, Consumer<? super L2Object> visitor) {
+		final WorldCellGrid cells = _cells;
+		if (cells != null) {
+			cells.forEachInRadius(x, y, z, radius, includeZAxis, excludeId, visitor);
+		}
+	}
+	
+	private WorldCellGrid getCells() {
+		WorldCellGrid cells = _cells;
+		if (cells == null) {
+			synchronized (this) {
+				cells = _cells;
+				if (cells == null) {
+					cells = new WorldCellGrid(_tileX, _tileY);
+					_cells = cells;
+				}
+			}
+		}
+		return cells;
+	}
+	
 	public void addSurroundingRegion(L2WorldRegion region) {
 		_surroundingRegions.add(region);
 	}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.Arrays;
+
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.util.IntIndex;
+
+/**
+ * Damage done by each player to an attackable, used to split the rewards of a kill.<br>
+ * It is filled by {@link HateTable#sumDamageByPlayer(com.l2jserver.gameserver.model.actor.L2Character, int)} for each kill and reused by the next kill of the same thread, with parallel arrays instead of a map and a damage info object per player.<br>
+ * A player rewarded with its party is removed, its row stays in place so the table can be iterated while rows are removed.
+ * @since 2.6.3.0
+ */
+public final class PlayerDamageTable {
+	
+	private static final L2PcInstance[] EMPTY_PLAYERS = new L2PcInstance[0];
+	
+	private static final long[] EMPTY_DAMAGE = new long[0];
+	
+	/** Rows by player object ID, created with the first row. */
+	private IntIndex _index;
+	
+	private L2PcInstance[] _players = EMPTY_PLAYERS;
+	
+	private long[] _damage = EMPTY_DAMAGE;
+	
+	private int _size;
+	
+	private long _totalDamage;
+	
+	private int _maxDealer = -1;
+	
+	PlayerDamageTable() {
+	}
+	
+	/**
+	 * Adds damage done by a player.
+	 * @param player the player
+	 * @param damage the damage
+	 */
+	void add(L2PcInstance player, long damage) {
+		if (_index == null) {
+			_index = new IntIndex();
+		}
+		
+		int row = _index.get(player.getObjectId());
+		if (row < 0) {
+			if (_size == _players.length) {
+				final int capacity = Math.max(4, _size * 2);
+				_players = Arrays.copyOf(_players, capacity);
+				_damage = Arrays.copyOf(_damage, capacity);
+			}
+			row = _size++;
+			_players[row] = player;
+			_damage[row] = 0;
+			_index.put(player.getObjectId(), row);
+		}
+		
+		_damage[row] += damage;
+		_totalDamage += damage;
+		if ((_maxDealer < 0) || (_damage[row] > _damage[_maxDealer])) {
+			_maxDealer = row;
+		}
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the damage done by the player, {@code -1} if it is not in the table or it was removed
+	 */
+	public long getDamage(L2PcInstance player) {
+		final int row = (_size > 0) ? _index.get(player.getObjectId()) : -1;
+		return ((row >= 0) && (_players[row] != null)) ? _damage[row] : -1;
+	}
+	
+	/**
+	 * Removes a player, its damage still counts in the total damage.
+	 * @param player the player
+	 */
+	public void remove(L2PcInstance player) {
+		final int row = (_size > 0) ? _index.get(player.getObjectId()) : -1;
+		if (row >= 0) {
+			_players[row] = null;
+		}
+	}
+	
+	/**
+	 * @return the amount of rows, including the removed ones
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * @param row the row
+	 * @return the player of the row, {@code null} if it was removed
+	 */
+	public L2PcInstance getPlayer(int row) {
+		return _players[row];
+	}
+	
+	/**
+	 * @param row the row
+	 * @return the damage of the row
+	 */
+	public long getDamage(int row) {
+		return _damage[row];
+	}
+	
+	/**
+	 * @return the damage done by all the players
+	 */
+	public long getTotalDamage() {
+		return _totalDamage;
+	}
+	
+	/**
+	 * @return the player that did the most damage, {@code null} if the table is empty
+	 */
+	public L2PcInstance getMaxDealer() {
+		return (_maxDealer >= 0) ? _players[_maxDealer] : null;
+	}
+	
+	/**
+	 * Removes all the players, the references to the players are cleared.
+	 */
+	public void clear() {
+		if (_size > 0) {
+			Arrays.fill(_players, 0, _size, null);
+			_index.clear();
+		}
+		_size = 0;
+		_totalDamage = 0;
+		_maxDealer = -1;
+	}
+}
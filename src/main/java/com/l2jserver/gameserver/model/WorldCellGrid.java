@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of a single world region.<br>
+ * The region is split into square sub-cells, each one holding a flat copy-on-write array of the objects inside it.<br>
+ * Writes (spawn, decay, crossing a cell border) copy the cell arrays, reads walk the current arrays without any allocation.
+ * @since 2.6.3.0
+ */
+final class WorldCellGrid {
+	/** Bit shift of a sub-cell, 512 units wide cells split a region into 8x8 cells. */
+	static final int CELL_SHIFT = 9;
+	/** Number of sub-cells in each axis of a region. */
+	static final int CELLS_PER_SIDE = 1 << (L2World.SHIFT_BY - CELL_SHIFT);
+	
+	private static final int CELL_MASK = CELLS_PER_SIDE - 1;
+	
+	private static final L2Object[] EMPTY_OBJECTS = new L2Object[0];
+	
+	private static final int[] EMPTY_IDS = new int[0];
+	
+	private final Cell[] _cells = new Cell[CELLS_PER_SIDE * CELLS_PER_SIDE];
+	
+	/** World coordinates of the region's top left corner. */
+	private final int _originX, _originY;
+	
+	WorldCellGrid(int tileX, int tileY) {
+		_originX = (tileX - L2World.OFFSET_X) << L2World.SHIFT_BY;
+		_originY = (tileY - L2World.OFFSET_Y) << L2World.SHIFT_BY;
+		for (int i = 0; i < _cells.length; i++) {
+			_cells[i] = new Cell();
+		}
+	}
+	
+	/**
+	 * Gets the index of the cell containing the given world coordinates.
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @return the cell index
+	 */
+	static int cellIndex(int x, int y) {
+		return (((x >> CELL_SHIFT) & CELL_MASK) * CELLS_PER_SIDE) + ((y >> CELL_SHIFT) & CELL_MASK);
+	}
+	
+	void add(L2Object object) {
+		final int index = cellIndex(object.getX(), object.getY());
+		final Cell cell = _cells[index];
+		synchronized (cell) {
+			cell.add(object);
+			object.setWorldCell(index);
+		}
+	}
+	
+	void remove(L2Object object) {
+		while (true) {
+			final int index = object.getWorldCell();
+			if (index < 0) {
+				return;
+			}
+			
+			final Cell cell = _cells[index];
+			synchronized (cell) {
+				// Moved meanwhile, the lock of its new cell is the one to take.
+				if (object.getWorldCell() != index) {
+					continue;
+				}
+				
+				if (cell.remove(object.getObjectId())) {
+					object.setWorldCell(-1);
+				}
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Moves the object to another cell if its current position is outside the cell it was indexed in.<br>
+	 * The cell of an object only changes holding the lock of the cell it is in, a move holds the locks of both cells, taken in index order, so concurrent moves of an object cannot leave it in two cells or in none.
+	 * @param object the object
+	 */
+	void update(L2Object object) {
+		while (true) {
+			final int oldIndex = object.getWorldCell();
+			if (oldIndex < 0) {
+				return;
+			}
+			
+			final int newIndex = cellIndex(object.getX(), object.getY());
+			if (oldIndex == newIndex) {
+				return;
+			}
+			
+			final Cell oldCell = _cells[oldIndex];
+			final Cell newCell = _cells[newIndex];
+			synchronized ((oldIndex < newIndex) ? oldCell : newCell) {
+				synchronized ((oldIndex < newIndex) ? newCell : oldCell) {
+					if (object.getWorldCell() != oldIndex) {
+						continue;
+					}
+					
+					// Indexed in another region's grid.
+					if (!oldCell.remove(object.getObjectId())) {
+						return;
+					}
+					newCell.add(object);
+					object.setWorldCell(newIndex);
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Visits all objects inside the cells overlapping the given box.
+	 * @param minX the minimum X coordinate of the box
+	 * @param minY the minimum Y coordinate of the box
+	 * @param maxX the maximum X coordinate of the box
+	 * @param maxY the maximum Y coordinate of the box
+	 * @param visitor the visitor
+	 */
+	void forEach(int minX, int minY, int maxX, int maxY, Consumer<? super L2Object> visitor) {
+		final int cx0 = cell((long) minX - _originX);
+		final int cx1 = cell((long) maxX - _originX);
+		final int cy0 = cell((long) minY - _originY);
+		final int cy1 = cell((long) maxY - _originY);
+		for (int cx = cx0; cx <= cx1; cx++) {
+			for (int cy = cy0; cy <= cy1; cy++) {
+				for (L2Object object : _cells[(cx * CELLS_PER_SIDE) + cy]._objects) {
+					visitor.accept(object);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Visits all objects inside the given circle.
+	 * @param x the X coordinate of the center
+	 * @param y the Y coordinate of the center
+	 * @param z the Z coordinate of the center
+	 * @param radius the radius
+	 * @param includeZAxis if {@code true} the Z axis is included in the distance check
+	 * @param excludeId object ID to skip, {@code 0} to skip none
+	 * @param visitor the visitor
+	 */
+	void forEachInRadius(int x, int y, int z, int radius, boolean includeZAxis, int excludeId, Consumer<? super L2Object> visitor) {
+		final long sqRadius = (long) radius * radius;
+		final int cx0 = cell(((long) x - radius) - _originX);
+		final int cx1 = cell(((long) x + radius) - _originX);
+		final int cy0 = cell(((long) y - radius) - _originY);
+		final int cy1 = cell(((long) y + radius) - _originY);
+		for (int cx = cx0; cx <= cx1; cx++) {
+			for (int cy = cy0; cy <= cy1; cy++) {
+				for (L2Object object : _cells[(cx * CELLS_PER_SIDE) + cy]._objects) {
+					if (object.getObjectId() == excludeId) {
+						continue;
+					}
+					
+					final long dx = object.getX() - x;
+					final long dy = object.getY() - y;
+					final long dz = includeZAxis ? object.getZ() - z : 0;
+					if (((dx * dx) + (dy * dy) + (dz * dz)) < sqRadius) {
+						visitor.accept(object);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the cell of an offset from the region's origin, clamped to the region.<br>
+	 * The offset is a long, a box reaching {@link Integer#MIN_VALUE} or {@link Integer#MAX_VALUE} would overflow once the origin is subtracted.
+	 * @param offset the offset from the origin, in world units
+	 * @return the cell in the axis of the offset
+	 */
+	private static int cell(long offset) {
+		return (int) Math.max(0, Math.min(CELL_MASK, offset >> CELL_SHIFT));
+	}
+	
+	/**
+	 * A single sub-cell.<br>
+	 * Object IDs and objects are kept in parallel arrays, the ID array is only used to locate removals.
+	 */
+	private static final class Cell {
+		private volatile L2Object[] _objects = EMPTY_OBJECTS;
+		private int[] _ids = EMPTY_IDS;
+		
+		synchronized void add(L2Object object) {
+			final int size = _ids.length;
+			final int[] ids = new int[size + 1];
+			final L2Object[] objects = new L2Object[size + 1];
+			System.arraycopy(_ids, 0, ids, 0, size);
+			System.arraycopy(_objects, 0, objects, 0, size);
+			ids[size] = object.getObjectId();
+			objects[size] = object;
+			_ids = ids;
+			_objects = objects;
+		}
+		
+		synchronized boolean remove(int objectId) {
+			final int[] oldIds = _ids;
+			final int size = oldIds.length;
+			int index = -1;
+			for (int i = 0; i < size; i++) {
+				if (oldIds[i] == objectId) {
+					index = i;
+					break;
+				}
+			}
+			
+			if (index < 0) {
+				return false;
+			}
+			
+			if (size == 1) {
+				_ids = EMPTY_IDS;
+				_objects = EMPTY_OBJECTS;
+				return true;
+			}
+			
+			final int[] ids = new int[size - 1];
+			final L2Object[] objects = new L2Object[size - 1];
+			System.arraycopy(oldIds, 0, ids, 0, index);
+			System.arraycopy(_objects, 0, objects, 0, index);
+			System.arraycopy(oldIds, index + 1, ids, index, size - index - 1);
+			System.arraycopy(_objects, index + 1, objects, index, size - index - 1);
+			_ids = ids;
+			_objects = objects;
+			return true;
+		}
+	}
+}
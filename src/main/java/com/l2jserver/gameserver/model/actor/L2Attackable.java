@@ -27,6 +27,7 @@ import static com.l2jserver.gameserver.config.Configuration.rates;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -52,10 +53,11 @@ import com.l2jserver.gameserver.instancemanager.CursedWeaponsManager;
 import com.l2jserver.gameserver.instancemanager.WalkingManager;
 import com.l2jserver.gameserver.model.AbsorberInfo;
 import com.l2jserver.gameserver.model.AggroInfo;
-import com.l2jserver.gameserver.model.DamageDoneInfo;
 import com.l2jserver.gameserver.model.L2CommandChannel;
+import com.l2jserver.gameserver.model.HateTable;
 import com.l2jserver.gameserver.model.L2Party;
 import com.l2jserver.gameserver.model.L2Seed;
+import com.l2jserver.gameserver.model.PlayerDamageTable;
 import com.l2jserver.gameserver.model.actor.instance.L2GrandBossInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -88,7 +90,7 @@ public class L2Attackable extends L2Npc {
 	private boolean _isRaidMinion = false;
 	//
 	private boolean _champion = false;
-	private final Map<L2Character, AggroInfo> _aggroList = new ConcurrentHashMap<>();
+	private final HateTable _aggroList = new HateTable();
 	private boolean _isReturningToSpawnPoint = false;
 	private boolean _canReturnToSpawnPoint = true;
 	private boolean _seeThroughSilentMove = false;
@@ -151,10 +153,24 @@ public class L2Attackable extends L2Npc {
 		return new L2AttackableAI(this);
 	}
 	
-	public final Map<L2Character, AggroInfo> getAggroList() {
+	public final HateTable getHateTable() {
 		return _aggroList;
 	}
 	
+	/**
+	 * @return a copy of the attackers of the hate table, the aggro info of each attacker reads and updates the hate table
+	 * @deprecated use {@link #getHateTable()}, adding or removing entries of the copy does not change the hate table
+	 */
+	@Deprecated(since = "2.6.3.0", forRemoval = true)
+	@SuppressWarnings("removal")
+	public final Map<L2Character, AggroInfo> getAggroList() {
+		final Map<L2Character, AggroInfo> aggroList = new HashMap<>();
+		for (L2Character attacker : _aggroList.getAttackers()) {
+			aggroList.put(attacker, _aggroList.getAggroInfo(attacker));
+		}
+		return aggroList;
+	}
+	
 	public final boolean isReturningToSpawnPoint() {
 		return _isReturningToSpawnPoint;
 	}
@@ -330,50 +346,16 @@ public class L2Attackable extends L2Npc {
 	 */
 	@Override
 	protected void calculateRewards(L2Character lastAttacker) {
+		PlayerDamageTable rewards = null;
 		try {
 			if (_aggroList.isEmpty()) {
 				return;
 			}
 			
-			// NOTE: Concurrent-safe map is used because while iterating to verify all conditions sometimes an entry must be removed.
-			final Map<L2PcInstance, DamageDoneInfo> rewards = new ConcurrentHashMap<>();
-			
-			L2PcInstance maxDealer = null;
-			int maxDamage = 0;
-			long totalDamage = 0;
-			// While Iterating over This Map Removing Object is Not Allowed
-			// Go through the _aggroList of the L2Attackable
-			for (AggroInfo info : _aggroList.values()) {
-				if (info == null) {
-					continue;
-				}
-				
-				// Get the L2Character corresponding to this attacker
-				final L2PcInstance attacker = info.getAttacker().getActingPlayer();
-				if (attacker != null) {
-					// Get damages done by this attacker
-					final int damage = info.getDamage();
-					
-					// Prevent unwanted behavior
-					if (damage > 1) {
-						// Check if damage dealer isn't too far from this (killed monster)
-						if (!Util.checkIfInRange(character().getPartyRange(), this, attacker, true)) {
-							continue;
-						}
-						
-						totalDamage += damage;
-						
-						// Calculate real damages (Summoners should get own damage plus summon's damage)
-						final DamageDoneInfo reward = rewards.computeIfAbsent(attacker, DamageDoneInfo::new);
-						reward.addDamage(damage);
-						
-						if (reward.getDamage() > maxDamage) {
-							maxDealer = attacker;
-							maxDamage = reward.getDamage();
-						}
-					}
-				}
-			}
+			// Calculate real damages (Summoners should get own damage plus summon's damage)
+			rewards = _aggroList.sumDamageByPlayer(this, character().getPartyRange());
+			final L2PcInstance maxDealer = rewards.getMaxDealer();
+			final long totalDamage = rewards.getTotalDamage();
 			
 			// Manage Base, Quests and Sweep drops of the L2Attackable
 			doItemDrop((maxDealer != null) && maxDealer.isOnline() ? maxDealer : lastAttacker);
@@ -385,17 +367,16 @@ public class L2Attackable extends L2Npc {
 				return;
 			}
 			
-			if (!rewards.isEmpty()) {
-				for (DamageDoneInfo reward : rewards.values()) {
-					if (reward == null) {
+			if (rewards.size() > 0) {
+				for (int row = 0; row < rewards.size(); row++) {
+					// Attacker to be rewarded, null if it was rewarded with its party
+					final L2PcInstance attacker = rewards.getPlayer(row);
+					if (attacker == null) {
 						continue;
 					}
 					
-					// Attacker to be rewarded
-					final L2PcInstance attacker = reward.getAttacker();
-					
 					// Total amount of damage done
-					final int damage = reward.getDamage();
+					final int damage = (int) rewards.getDamage(row);
 					
 					// Get party
 					final L2Party attackerParty = attacker.getParty();
@@ -465,13 +446,13 @@ public class L2Attackable extends L2Npc {
 								continue;
 							}
 							
-							// Get the RewardInfo of this L2PcInstance from L2Attackable rewards
-							final DamageDoneInfo reward2 = rewards.get(partyPlayer);
+							// Get the damage of this L2PcInstance from L2Attackable rewards
+							final long damage2 = rewards.getDamage(partyPlayer);
 							
 							// If the L2PcInstance is in the L2Attackable rewards add its damages to party damages
-							if (reward2 != null) {
+							if (damage2 >= 0) {
 								if (Util.checkIfInRange(character().getPartyRange(), this, partyPlayer, true)) {
-									partyDmg += reward2.getDamage(); // Add L2PcInstance damages to party damages
+									partyDmg += damage2; // Add L2PcInstance damages to party damages
 									rewardedMembers.add(partyPlayer);
 									
 									if (partyPlayer.getLevel() > partyLvl) {
@@ -537,6 +518,11 @@ public class L2Attackable extends L2Npc {
 			}
 		} catch (Exception ex) {
 			LOG.error("Error calculating rewards!", ex);
+		} finally {
+			// The table is reused by the next kill of this thread, it must not keep the players until then.
+			if (rewards != null) {
+				rewards.clear();
+			}
 		}
 	}
 	
@@ -591,17 +577,14 @@ public class L2Attackable extends L2Npc {
 			return;
 		}
 		
-		// Get the AggroInfo of the attacker L2Character from the _aggroList of the L2Attackable
-		final AggroInfo ai = _aggroList.computeIfAbsent(attacker, AggroInfo::new);
-		ai.addDamage(damage);
-		
 		// Traps does not cause aggro
 		// making this hack because not possible to determine if damage made by trap
 		// so just check for triggered trap here
 		final L2PcInstance targetPlayer = attacker.getActingPlayer();
-		if ((targetPlayer == null) || (targetPlayer.getTrap() == null) || !targetPlayer.getTrap().isTriggered()) {
-			ai.addHate(aggro);
-		}
+		final boolean triggeredTrap = (targetPlayer != null) && (targetPlayer.getTrap() != null) && targetPlayer.getTrap().isTriggered();
+		
+		// Add the damage and hate of the attacker L2Character to the _aggroList of the L2Attackable
+		_aggroList.addDamageHate(attacker, damage, triggeredTrap ? 0 : aggro);
 		
 		if ((targetPlayer != null) && (aggro == 0)) {
 			addDamageHate(attacker, 0, 1);
@@ -615,7 +598,7 @@ public class L2Attackable extends L2Npc {
 			EventDispatcher.getInstance().notifyEventAsync(new AttackableAggroRangeEnter(this, targetPlayer, attacker.isSummon()), this);
 		} else if ((targetPlayer == null) && (aggro == 0)) {
 			aggro = 1;
-			ai.addHate(1);
+			_aggroList.addDamageHate(attacker, 0, 1);
 		}
 		
 		// Set the intention to the L2Attackable to AI_INTENTION_ACTIVE
@@ -642,9 +625,7 @@ public class L2Attackable extends L2Npc {
 				return;
 			}
 			
-			for (AggroInfo ai : _aggroList.values()) {
-				ai.addHate(amount);
-			}
+			_aggroList.addHateToAll(amount);
 			
 			amount = getHating(mostHated);
 			if (amount >= 0) {
@@ -656,14 +637,13 @@ public class L2Attackable extends L2Npc {
 			return;
 		}
 		
-		AggroInfo ai = _aggroList.get(target);
-		if (ai == null) {
+		if (!_aggroList.contains(target)) {
 			LOG.info("Target {} not present in aggro list of {}.", target, this);
 			return;
 		}
 		
-		ai.addHate(amount);
-		if ((ai.getHate() >= 0) && (getMostHated() == null)) {
+		_aggroList.addDamageHate(target, 0, amount);
+		if ((_aggroList.getHate(target) >= 0) && (getMostHated() == null)) {
 			((L2AttackableAI) getAI()).setGlobalAggro(-25);
 			clearAggroList();
 			getAI().setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
@@ -679,10 +659,7 @@ public class L2Attackable extends L2Npc {
 		if (target == null) {
 			return;
 		}
-		AggroInfo ai = _aggroList.get(target);
-		if (ai != null) {
-			ai.stopHate();
-		}
+		_aggroList.stopHate(target);
 	}
 	
 	/**
@@ -692,24 +669,7 @@ public class L2Attackable extends L2Npc {
 		if (_aggroList.isEmpty() || isAlikeDead()) {
 			return null;
 		}
-		
-		L2Character mostHated = null;
-		long maxHate = 0;
-		
-		// While Interacting over This Map Removing Object is Not Allowed
-		// Go through the aggroList of the L2Attackable
-		for (AggroInfo ai : _aggroList.values()) {
-			if (ai == null) {
-				continue;
-			}
-			
-			if (ai.checkHate(this) > maxHate) {
-				mostHated = ai.getAttacker();
-				maxHate = ai.getHate();
-			}
-		}
-		
-		return mostHated;
+		return _aggroList.getMostHated(this);
 	}
 	
 	/**
@@ -720,29 +680,12 @@ public class L2Attackable extends L2Npc {
 			return null;
 		}
 		
-		L2Character mostHated = null;
-		L2Character secondMostHated = null;
-		long maxHate = 0;
-		List<L2Character> result = new ArrayList<>();
-		
-		// While iterating over this map removing objects is not allowed
-		// Go through the aggroList of the L2Attackable
-		for (AggroInfo ai : _aggroList.values()) {
-			if (ai == null) {
-				continue;
-			}
-			
-			if (ai.checkHate(this) > maxHate) {
-				secondMostHated = mostHated;
-				mostHated = ai.getAttacker();
-				maxHate = ai.getHate();
-			}
-		}
-		
-		result.add(mostHated);
+		final L2Character[] mostHated = _aggroList.get2MostHated(this);
+		final List<L2Character> result = new ArrayList<>(2);
+		result.add(mostHated[0]);
 		
-		if (getAttackByList().contains(secondMostHated)) {
-			result.add(secondMostHated);
+		if (getAttackByList().contains(mostHated[1])) {
+			result.add(mostHated[1]);
 		} else {
 			result.add(null);
 		}
@@ -753,17 +696,7 @@ public class L2Attackable extends L2Npc {
 		if (_aggroList.isEmpty() || isAlikeDead()) {
 			return null;
 		}
-		
-		List<L2Character> result = new ArrayList<>();
-		for (AggroInfo ai : _aggroList.values()) {
-			if (ai == null) {
-				continue;
-			}
-			ai.checkHate(this);
-			
-			result.add(ai.getAttacker());
-		}
-		return result;
+		return _aggroList.getAttackers(this);
 	}
 	
 	/**
@@ -771,33 +704,27 @@ public class L2Attackable extends L2Npc {
 	 * @return the hate level of the L2Attackable against this L2Character contained in _aggroList.
 	 */
 	public long getHating(final L2Character target) {
-		if (_aggroList.isEmpty() || (target == null)) {
-			return 0;
-		}
-		
-		final AggroInfo ai = _aggroList.get(target);
-		if (ai == null) {
+		if ((target == null) || !_aggroList.contains(target)) {
 			return 0;
 		}
 		
-		if (ai.getAttacker() instanceof L2PcInstance act) {
-			if (act.isInvisible() || ai.getAttacker().isInvul() || act.isSpawnProtected()) {
-				// Remove Object Should Use This Method and Can be Blocked While Interacting
+		if (target instanceof L2PcInstance act) {
+			if (act.isInvisible() || act.isInvul() || act.isSpawnProtected()) {
 				_aggroList.remove(target);
 				return 0;
 			}
 		}
 		
-		if (!ai.getAttacker().isVisible() || ai.getAttacker().isInvisible()) {
+		if (!target.isVisible() || target.isInvisible()) {
 			_aggroList.remove(target);
 			return 0;
 		}
 		
-		if (ai.getAttacker().isAlikeDead()) {
-			ai.stopHate();
+		if (target.isAlikeDead()) {
+			_aggroList.stopHate(target);
 			return 0;
 		}
-		return ai.getHate();
+		return _aggroList.getHate(target);
 	}
 	
 	public void doItemDrop(L2Character mainDamageDealer) {
@@ -839,31 +766,7 @@ public class L2Attackable extends L2Npc {
 			_sweepItems.set(npcTemplate.calculateDrops(DropListScope.CORPSE, this, player));
 		}
 		
-		Collection<ItemHolder> deathItems = npcTemplate.calculateDrops(DropListScope.DEATH, this, player);
-		if (deathItems != null) {
-			for (ItemHolder drop : deathItems) {
-				L2Item item = ItemTable.getInstance().getTemplate(drop.getId());
-				// Check if the autoLoot mode is active
-				// Give the item(s) to the L2PcInstance inventory has killed the L2Attackable
-				if ((!item.hasExImmediateEffect() && ((!isRaid() && character().autoLoot()) || (isRaid() && character().autoLootRaids()))) || (item.hasExImmediateEffect() && character().autoLootHerbs())) {
-					player.doAutoLoot(this, drop);
-				} else if ((!item.hasExImmediateEffect() && ((!isRaid() && ((player.isAutoLoot() && !player.isAutoLootItem()) || (player.isAutoLootItem() && customs().getAutoLootItemsList().contains(item.getId())))))) || //
-					(item.hasExImmediateEffect() && ((player.isAutoLootHerb() && customs().getAutoLootHerbsList().contains(item.getId()))))) {
-					player.doAutoLoot(this, drop);
-				} else {
-					dropItem(player, drop); // Drop the rest or all item(s) on the ground
-				}
-				
-				// Broadcast message if RaidBoss was defeated
-				if (isRaid() && !isRaidMinion() && (drop.getCount() > 0)) {
-					final SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.C1_DIED_DROPPED_S3_S2);
-					sm.addCharName(this);
-					sm.addItemName(item);
-					sm.addLong(drop.getCount());
-					broadcastPacket(sm);
-				}
-			}
-		}
+		npcTemplate.calculateDrops(DropListScope.DEATH, this, player, (itemId, count) -> doDeathItemDrop(player, itemId, count));
 		
 		// Apply Special Item drop with random(rnd) quantity(qty) for champions.
 		if (customs().championEnable() && isChampion() && ((customs().getChampionRewardLowerLvlItemChance() > 0) || (customs().getChampionRewardHigherLvlItemChance() > 0))) {
@@ -891,6 +794,35 @@ public class L2Attackable extends L2Npc {
 		}
 	}
 	
+	/**
+	 * Gives a death drop to the player, or drops it on the ground.
+	 * @param player the player
+	 * @param itemId the item ID
+	 * @param count the item count
+	 */
+	private void doDeathItemDrop(L2PcInstance player, int itemId, long count) {
+		L2Item item = ItemTable.getInstance().getTemplate(itemId);
+		// Check if the autoLoot mode is active
+		// Give the item(s) to the L2PcInstance inventory has killed the L2Attackable
+		if ((!item.hasExImmediateEffect() && ((!isRaid() && character().autoLoot()) || (isRaid() && character().autoLootRaids()))) || (item.hasExImmediateEffect() && character().autoLootHerbs())) {
+			player.doAutoLoot(this, itemId, count);
+		} else if ((!item.hasExImmediateEffect() && ((!isRaid() && ((player.isAutoLoot() && !player.isAutoLootItem()) || (player.isAutoLootItem() && customs().getAutoLootItemsList().contains(item.getId())))))) || //
+			(item.hasExImmediateEffect() && ((player.isAutoLootHerb() && customs().getAutoLootHerbsList().contains(item.getId()))))) {
+			player.doAutoLoot(this, itemId, count);
+		} else {
+			dropItem(player, itemId, count); // Drop the rest or all item(s) on the ground
+		}
+		
+		// Broadcast message if RaidBoss was defeated
+		if (isRaid() && !isRaidMinion() && (count > 0)) {
+			final SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.C1_DIED_DROPPED_S3_S2);
+			sm.addCharName(this);
+			sm.addItemName(item);
+			sm.addLong(count);
+			broadcastPacket(sm);
+		}
+	}
+	
 	/**
 	 * Manage Special Events drops created by GM for a defined period.<br>
 	 * Concept:<br>
@@ -951,7 +883,7 @@ public class L2Attackable extends L2Npc {
 	 * @return {@code true} if the creature is in the aggro list, {@code false} otherwise
 	 */
 	public boolean isInAggroList(L2Character creature) {
-		return _aggroList.containsKey(creature);
+		return _aggroList.contains(creature);
 	}
 	
 	/**
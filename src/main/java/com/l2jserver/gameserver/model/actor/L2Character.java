@@ -39,6 +39,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.StampedLock;
 
@@ -157,9 +158,11 @@ import com.l2jserver.gameserver.network.serverpackets.StatusUpdate;
 import com.l2jserver.gameserver.network.serverpackets.StopMove;
 import com.l2jserver.gameserver.network.serverpackets.SystemMessage;
 import com.l2jserver.gameserver.network.serverpackets.TeleportToLocation;
-import com.l2jserver.gameserver.pathfinding.AbstractNodeLoc;
+import com.l2jserver.gameserver.pathfinding.GeoPath;
 import com.l2jserver.gameserver.pathfinding.PathFinding;
 import com.l2jserver.gameserver.taskmanager.AttackStanceTaskManager;
+import com.l2jserver.gameserver.taskmanager.BroadcastTaskManager;
+import com.l2jserver.gameserver.taskmanager.QuestTimerManager;
 import com.l2jserver.gameserver.util.EmptyQueue;
 import com.l2jserver.gameserver.util.Util;
 
@@ -280,6 +283,9 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	protected Future<?> _skillCast;
 	protected Future<?> _skillCast2;
 	
+	/** Info broadcasts waiting for the next broadcast tick, see {@link BroadcastTaskManager}. */
+	private final AtomicInteger _pendingBroadcasts = new AtomicInteger();
+	
 	/**
 	 * Constructor of L2Character.<br>
 	 * <B><U>Concept</U>:</B><br>
@@ -513,6 +519,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	 */
 	public void broadcastPacket(L2GameServerPacket mov) {
 		mov.setInvisible(isInvisible());
+		mov.encodeOnce();
 		Collection<L2PcInstance> plrs = getKnownList().getKnownPlayers().values();
 		for (L2PcInstance player : plrs) {
 			if (player != null) {
@@ -531,6 +538,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	 */
 	public void broadcastPacket(L2GameServerPacket mov, int radiusInKnownlist) {
 		mov.setInvisible(isInvisible());
+		mov.encodeOnce();
 		Collection<L2PcInstance> plrs = getKnownList().getKnownPlayers().values();
 		for (L2PcInstance player : plrs) {
 			if ((player != null) && isInsideRadius(player, radiusInKnownlist, false, false)) {
@@ -568,6 +576,14 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		return false;
 	}
 	
+	/**
+	 * Broadcasts the current HP and MP of this character, the update is sent by the next broadcast tick.
+	 * @see #sendStatusUpdate()
+	 */
+	public void broadcastStatusUpdate() {
+		BroadcastTaskManager.getInstance().broadcast(this, BroadcastTaskManager.STATUS_UPDATE);
+	}
+	
 	/**
 	 * Send the Server->Client packet StatusUpdate with current HP and MP to all other L2PcInstance to inform.<br>
 	 * <B><U>Actions</U>:</B>
@@ -577,7 +593,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	 * </ul>
 	 * <FONT COLOR=#FF0000><B><U>Caution</U>: This method DOESN'T SEND CP information</B></FONT>
 	 */
-	public void broadcastStatusUpdate() {
+	protected void sendStatusUpdate() {
 		if (getStatus().getStatusListener().isEmpty() || !needHpUpdate()) {
 			return;
 		}
@@ -596,6 +612,40 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 	}
 	
+	/**
+	 * Marks info broadcasts of this character as pending.
+	 * @param blocks the broadcasts, see {@link BroadcastTaskManager}
+	 * @return the broadcasts that were already pending
+	 */
+	public int addPendingBroadcasts(int blocks) {
+		return _pendingBroadcasts.getAndAccumulate(blocks, (pending, added) -> pending | added);
+	}
+	
+	/**
+	 * Takes the pending info broadcasts of this character, they are no longer pending.
+	 * @return the pending broadcasts, see {@link BroadcastTaskManager}
+	 */
+	public int takePendingBroadcasts() {
+		return _pendingBroadcasts.getAndSet(0);
+	}
+	
+	/**
+	 * Sends info broadcasts of this character right away.
+	 * @param blocks the broadcasts, see {@link BroadcastTaskManager}
+	 */
+	public void sendBroadcasts(int blocks) {
+		if ((blocks & BroadcastTaskManager.STATUS_UPDATE) != 0) {
+			sendStatusUpdate();
+		}
+	}
+	
+	/**
+	 * Sends the pending info broadcasts of this character right away, for the paths that need them before the packets they send next.
+	 */
+	public void flushBroadcasts() {
+		BroadcastTaskManager.getInstance().flush(this);
+	}
+	
 	/**
 	 * @param text
 	 */
@@ -2081,6 +2131,9 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (hasAI()) {
 			getAI().stopAITask();
 		}
+		
+		// Repeating quest timers of the creature would run forever.
+		QuestTimerManager.getInstance().cancelRepeatingTimers(this);
 		return true;
 	}
 	
@@ -2855,7 +2908,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		
 		public boolean disregardingGeodata;
 		public int onGeodataPathIndex;
-		public List<AbstractNodeLoc> geoPath;
+		public GeoPath geoPath;
 		public int geoPathAccurateTx;
 		public int geoPathAccurateTy;
 		public int geoPathGtx;
@@ -2903,6 +2956,8 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			
 			// Add the Func to the calculator corresponding to the state
 			_calculators[stat].addFunc(function);
+			
+			getStat().invalidateStatCache(function.getStat());
 		}
 	}
 	
@@ -2970,6 +3025,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			
 			// Remove the Func object from the Calculator
 			_calculators[stat].removeFunc(function);
+			getStat().invalidateStatCache(function.getStat());
 			
 			if (_calculators[stat].size() == 0) {
 				_calculators[stat] = null;
@@ -3076,6 +3132,12 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				}
 			}
 			
+			if (modifiedStats != null) {
+				for (Stats stat : modifiedStats) {
+					getStat().invalidateStatCache(stat);
+				}
+			}
+			
 			broadcastModifiedStats(modifiedStats);
 		}
 	}
@@ -3388,6 +3450,10 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		revalidateZone(false);
 		
+		if (general().knownListIncrementalUpdate() && getKnownList().checkMoved()) {
+			ThreadPoolManager.getInstance().executeAi(() -> getKnownList().updateKnownObjects());
+		}
+		
 		// Set the timer of last position update to now
 		m._moveTimestamp = gameTicks;
 		
@@ -3726,9 +3792,9 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 						m.geoPathAccurateTx = originalX;
 						m.geoPathAccurateTy = originalY;
 						
-						x = m.geoPath.get(m.onGeodataPathIndex).getX();
-						y = m.geoPath.get(m.onGeodataPathIndex).getY();
-						z = m.geoPath.get(m.onGeodataPathIndex).getZ();
+						x = m.geoPath.getX(m.onGeodataPathIndex);
+						y = m.geoPath.getY(m.onGeodataPathIndex);
+						z = m.geoPath.getZ(m.onGeodataPathIndex);
 						
 						// check for doors in the route
 						if (DoorData.getInstance().checkIfDoorsBetween(curX, curY, curZ, x, y, z, getInstanceId())) {
@@ -3737,7 +3803,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 							return;
 						}
 						for (int i = 0; i < (m.geoPath.size() - 1); i++) {
-							if (DoorData.getInstance().checkIfDoorsBetween(m.geoPath.get(i), m.geoPath.get(i + 1), getInstanceId())) {
+							if (DoorData.getInstance().checkIfDoorsBetween(m.geoPath.getX(i), m.geoPath.getY(i), m.geoPath.getZ(i), m.geoPath.getX(i + 1), m.geoPath.getY(i + 1), m.geoPath.getZ(i + 1), getInstanceId())) {
 								m.geoPath = null;
 								getAI().setIntention(CtrlIntention.AI_INTENTION_IDLE);
 								return;
@@ -3834,11 +3900,11 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (md.onGeodataPathIndex == (md.geoPath.size() - 2)) {
 			m._xDestination = md.geoPathAccurateTx;
 			m._yDestination = md.geoPathAccurateTy;
-			m._zDestination = md.geoPath.get(m.onGeodataPathIndex).getZ();
+			m._zDestination = md.geoPath.getZ(m.onGeodataPathIndex);
 		} else {
-			m._xDestination = md.geoPath.get(m.onGeodataPathIndex).getX();
-			m._yDestination = md.geoPath.get(m.onGeodataPathIndex).getY();
-			m._zDestination = md.geoPath.get(m.onGeodataPathIndex).getZ();
+			m._xDestination = md.geoPath.getX(m.onGeodataPathIndex);
+			m._yDestination = md.geoPath.getY(m.onGeodataPathIndex);
+			m._zDestination = md.geoPath.getZ(m.onGeodataPathIndex);
 		}
 		
 		double distance = Math.hypot(m._xDestination - super.getX(), m._yDestination - super.getY());
@@ -34,7 +34,7 @@ import com.l2jserver.gameserver.enums.Team;
 import com.l2jserver.gameserver.handler.IItemHandler;
 import com.l2jserver.gameserver.handler.ItemHandler;
 import com.l2jserver.gameserver.instancemanager.TerritoryWarManager;
-import com.l2jserver.gameserver.model.AggroInfo;
+import com.l2jserver.gameserver.model.HateTable;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.L2Party;
 import com.l2jserver.gameserver.model.L2WorldRegion;
@@ -292,9 +292,9 @@ public abstract class L2Summon extends L2Playable {
 						continue;
 					}
 					
-					AggroInfo info = ((L2Attackable) TgMob).getAggroList().get(this);
-					if (info != null) {
-						((L2Attackable) TgMob).addDamageHate(owner, info.getDamage(), info.getHate());
+					final HateTable aggroList = ((L2Attackable) TgMob).getHateTable();
+					if (aggroList.contains(this)) {
+						((L2Attackable) TgMob).addDamageHate(owner, (int) aggroList.getDamage(this), aggroList.getHate(this));
 					}
 				}
 			}
@@ -324,8 +324,8 @@ public abstract class L2Summon extends L2Playable {
 	}
 	
 	@Override
-	public void broadcastStatusUpdate() {
-		super.broadcastStatusUpdate();
+	protected void sendStatusUpdate() {
+		super.sendStatusUpdate();
 		updateAndBroadcastStatus(1);
 	}
 	
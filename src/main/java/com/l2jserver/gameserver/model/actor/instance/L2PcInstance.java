@@ -83,6 +83,7 @@ import com.l2jserver.gameserver.bbs.model.Forum;
 import com.l2jserver.gameserver.bbs.service.ForumsBBSManager;
 import com.l2jserver.gameserver.cache.WarehouseCacheManager;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
 import com.l2jserver.gameserver.data.sql.impl.CharNameTable;
 import com.l2jserver.gameserver.data.sql.impl.CharSummonTable;
 import com.l2jserver.gameserver.data.xml.impl.AdminData;
@@ -339,6 +340,7 @@ import com.l2jserver.gameserver.network.serverpackets.TradeStart;
 import com.l2jserver.gameserver.network.serverpackets.UserInfo;
 import com.l2jserver.gameserver.network.serverpackets.ValidateLocation;
 import com.l2jserver.gameserver.taskmanager.AttackStanceTaskManager;
+import com.l2jserver.gameserver.taskmanager.BroadcastTaskManager;
 import com.l2jserver.gameserver.util.Broadcast;
 import com.l2jserver.gameserver.util.EnumIntBitmask;
 import com.l2jserver.gameserver.util.FloodProtectors;
@@ -735,6 +737,8 @@ public final class L2PcInstance extends L2Playable {
 	 * @return the player
 	 */
 	public static L2PcInstance load(int objectId) {
+		// The character and its items may still have pending writes from its last logout.
+		DatabaseWriter.getInstance().flush();
 		try {
 			final L2PcInstance player = DAOFactory.getInstance().getPlayerDAO().load(objectId);
 			if (player == null) {
@@ -3537,7 +3541,7 @@ public final class L2PcInstance extends L2Playable {
 	 * <li>Send the Server->Client packet PartySmallWindowUpdate with current HP, MP and Level to all other L2PcInstance of the Party</li> <FONT COLOR=#FF0000><B> <U>Caution</U> : This method DOESN'T SEND current HP and MP to all L2PcInstance of the _statusListener</B></FONT>
 	 */
 	@Override
-	public void broadcastStatusUpdate() {
+	protected void sendStatusUpdate() {
 		// TODO We mustn't send these informations to other players
 		// Send the Server->Client packet StatusUpdate with current HP and MP to all L2PcInstance that must be informed of HP/MP updates of this L2PcInstance
 		// super.broadcastStatusUpdate();
@@ -3581,15 +3585,27 @@ public final class L2PcInstance extends L2Playable {
 	 * STR, DEX...</B></FONT>
 	 */
 	public void broadcastUserInfo() {
-		// Send a Server->Client packet UserInfo to this L2PcInstance
-		sendPacket(new UserInfo(this));
+		// The packets are built and sent by the next broadcast tick, see sendBroadcasts.
+		BroadcastTaskManager.getInstance().broadcast(this, BroadcastTaskManager.USER_INFO | BroadcastTaskManager.CHAR_INFO);
+	}
+	
+	@Override
+	public void sendBroadcasts(int blocks) {
+		if ((blocks & BroadcastTaskManager.USER_INFO) != 0) {
+			// Send a Server->Client packet UserInfo to this L2PcInstance
+			sendPacket(new UserInfo(this));
+		}
 		
-		// Send a Server->Client packet CharInfo to all L2PcInstance in _KnownPlayers of the L2PcInstance
-		broadcastPacket(new CharInfo(this));
-		broadcastPacket(new ExBrExtraUserInfo(this));
-		if (TerritoryWarManager.getInstance().isTWInProgress() && (TerritoryWarManager.getInstance().checkIsRegistered(-1, getObjectId()) || TerritoryWarManager.getInstance().checkIsRegistered(-1, getClan()))) {
-			broadcastPacket(new ExDominionWarStart(this));
+		if ((blocks & BroadcastTaskManager.CHAR_INFO) != 0) {
+			// Send a Server->Client packet CharInfo to all L2PcInstance in _KnownPlayers of the L2PcInstance
+			broadcastPacket(new CharInfo(this));
+			broadcastPacket(new ExBrExtraUserInfo(this));
+			if (TerritoryWarManager.getInstance().isTWInProgress() && (TerritoryWarManager.getInstance().checkIsRegistered(-1, getObjectId()) || TerritoryWarManager.getInstance().checkIsRegistered(-1, getClan()))) {
+				broadcastPacket(new ExDominionWarStart(this));
+			}
 		}
+		
+		super.sendBroadcasts(blocks);
 	}
 	
 	public void broadcastTitleInfo() {
@@ -3609,6 +3625,7 @@ public final class L2PcInstance extends L2Playable {
 		}
 		
 		mov.setInvisible(isInvisible());
+		mov.encodeOnce();
 		
 		final Collection<L2PcInstance> plrs = getKnownList().getKnownPlayers().values();
 		for (L2PcInstance player : plrs) {
@@ -3636,6 +3653,7 @@ public final class L2PcInstance extends L2Playable {
 		}
 		
 		mov.setInvisible(isInvisible());
+		mov.encodeOnce();
 		
 		Collection<L2PcInstance> plrs = getKnownList().getKnownPlayers().values();
 		for (L2PcInstance player : plrs) {
@@ -6103,6 +6121,8 @@ public final class L2PcInstance extends L2Playable {
 			_hennaWIT += ((_hennaWIT + h.getStatWIT()) > 5) ? 5 - _hennaWIT : h.getStatWIT();
 			_hennaDEX += ((_hennaDEX + h.getStatDEX()) > 5) ? 5 - _hennaDEX : h.getStatDEX();
 		}
+		
+		getStat().invalidateStatCache();
 	}
 	
 	/**
@@ -7340,6 +7360,8 @@ public final class L2PcInstance extends L2Playable {
 	
 	public void setIsInOlympiadMode(boolean b) {
 		_inOlympiadMode = b;
+		// Olympiad enchant limit.
+		getStat().invalidateStatCache();
 	}
 	
 	public void setIsOlympiadStart(boolean b) {
@@ -8414,6 +8436,8 @@ public final class L2PcInstance extends L2Playable {
 	public boolean deleteMe() {
 		cleanup();
 		storeMe();
+		// The last writes of the player, quest variables included, are written without waiting for the flush interval.
+		DatabaseWriter.getInstance().requestFlush();
 		return super.deleteMe();
 	}
 	
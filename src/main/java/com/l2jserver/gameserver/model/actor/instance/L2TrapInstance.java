@@ -96,6 +96,7 @@ public final class L2TrapInstance extends L2Npc {
 	
 	@Override
 	public void broadcastPacket(L2GameServerPacket mov) {
+		mov.encodeOnce();
 		for (L2PcInstance player : getKnownList().getKnownPlayers().values()) {
 			if ((player != null) && (_isTriggered || isVisibleFor(player))) {
 				player.sendPacket(mov);
@@ -105,6 +106,7 @@ public final class L2TrapInstance extends L2Npc {
 	
 	@Override
 	public void broadcastPacket(L2GameServerPacket mov, int radiusInKnownlist) {
+		mov.encodeOnce();
 		for (L2PcInstance player : getKnownList().getKnownPlayers().values()) {
 			if ((player != null) && isInsideRadius(player, radiusInKnownlist, false, false) && (_isTriggered || isVisibleFor(player))) {
 				player.sendPacket(mov);
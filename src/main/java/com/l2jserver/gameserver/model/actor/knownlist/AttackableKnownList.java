@@ -38,8 +38,8 @@ public class AttackableKnownList extends NpcKnownList {
 		}
 		
 		// Remove the L2Object from the _aggrolist of the L2Attackable
-		if (object instanceof L2Character) {
-			getActiveChar().getAggroList().remove(object);
+		if (object instanceof L2Character character) {
+			getActiveChar().getHateTable().remove(character);
 		}
 		// Set the L2Attackable Intention to AI_INTENTION_IDLE
 		final Collection<L2PcInstance> known = getKnownPlayers().values();
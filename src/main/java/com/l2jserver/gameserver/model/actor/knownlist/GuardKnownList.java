@@ -78,7 +78,7 @@ public class GuardKnownList extends AttackableKnownList {
 		}
 		
 		// Check if the aggression list of this guard is empty.
-		if (getActiveChar().getAggroList().isEmpty()) {
+		if (getActiveChar().getHateTable().isEmpty()) {
 			// Set the L2GuardInstance to AI_INTENTION_IDLE
 			if (getActiveChar().hasAI() && !getActiveChar().isWalker()) {
 				getActiveChar().getAI().setIntention(CtrlIntention.AI_INTENTION_IDLE, null);
@@ -18,19 +18,34 @@
  */
 package com.l2jserver.gameserver.model.actor.knownlist;
 
+import static com.l2jserver.gameserver.config.Configuration.general;
+
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.l2jserver.gameserver.model.L2Object;
+import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.L2WorldRegion;
 import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.taskmanager.KnownListUpdateTaskManager;
 import com.l2jserver.gameserver.util.Util;
 
 public class ObjectKnownList {
+	/** Largest forget distance of a known list, objects further away cannot know the active object. */
+	private static final int MAX_FORGET_DISTANCE = 5000;
+	/** Largest forget distance of a known list for vehicles. */
+	private static final int MAX_VEHICLE_FORGET_DISTANCE = 10000;
+	
 	private final L2Object _activeObject;
 	private volatile Map<Integer, L2Object> _knownObjects;
 	
+	/** World region, sub-cell and position of the active object on the last incremental update. */
+	private volatile L2WorldRegion _lastUpdateRegion;
+	private volatile int _lastUpdateCell = -1;
+	private volatile int _lastUpdateX;
+	private volatile int _lastUpdateY;
+	
 	public ObjectKnownList(L2Object activeObject) {
 		_activeObject = activeObject;
 	}
@@ -129,6 +144,85 @@ public class ObjectKnownList {
 		}
 	}
 	
+	/**
+	 * Checks if the active object moved far enough since the last incremental update to need a new one.<br>
+	 * That is the case when it entered another world region or sub-cell, or moved further than the configured update distance.<br>
+	 * On {@code true} the current position becomes the reference for the next check.
+	 * @return {@code true} if the known list needs to be updated, {@code false} otherwise
+	 */
+	public final boolean checkMoved() {
+		final L2Object activeObject = getActiveObject();
+		final L2WorldRegion region = activeObject.getWorldRegion();
+		if (region == null) {
+			return false;
+		}
+		
+		final long dx = activeObject.getX() - _lastUpdateX;
+		final long dy = activeObject.getY() - _lastUpdateY;
+		final long distance = general().getKnownListUpdateDistance();
+		if ((region == _lastUpdateRegion) && (activeObject.getWorldCell() == _lastUpdateCell) && (((dx * dx) + (dy * dy)) < (distance * distance))) {
+			return false;
+		}
+		
+		markUpdated();
+		return true;
+	}
+	
+	/**
+	 * Incrementally updates the known lists around the active object.<br>
+	 * Forgets the objects that went out of range, and offers the active object and the objects around it to each other.<br>
+	 * The objects around that still know the active object but are out of their forget range forget it, so stationary objects do not need a full sweep to notice it left.
+	 */
+	public final void updateKnownObjects() {
+		final L2Object activeObject = getActiveObject();
+		if (!activeObject.isVisible() || (activeObject.getWorldRegion() == null)) {
+			return;
+		}
+		
+		markUpdated();
+		
+		final int knownBefore = getKnownObjects().size();
+		forgetObjects(true);
+		final int forgotten = Math.max(0, knownBefore - getKnownObjects().size());
+		
+		final int[] delta = new int[2];
+		final int radius = (activeObject.isVehicle() ? MAX_VEHICLE_FORGET_DISTANCE : MAX_FORGET_DISTANCE) + general().getKnownListUpdateDistance();
+		L2World.getInstance().forEachVisibleObject(activeObject, radius, true, object -> {
+			if (!object.isVisible()) {
+				return;
+			}
+			
+			if (addKnownObject(object)) {
+				delta[0]++;
+			}
+			
+			if (!(object instanceof L2Character)) {
+				return;
+			}
+			
+			final ObjectKnownList knownList = object.getKnownList();
+			if (!knownList.knowsObject(activeObject)) {
+				if (knownList.addKnownObject(activeObject)) {
+					delta[0]++;
+				}
+			} else if (!Util.checkIfInShortRadius(knownList.getDistanceToForgetObject(activeObject), object, activeObject, true)) {
+				if (knownList.removeKnownObject(activeObject)) {
+					delta[1]++;
+				}
+			}
+		});
+		
+		KnownListUpdateTaskManager.recordIncrementalUpdate(delta[0], forgotten + delta[1]);
+	}
+	
+	private void markUpdated() {
+		final L2Object activeObject = getActiveObject();
+		_lastUpdateRegion = activeObject.getWorldRegion();
+		_lastUpdateCell = activeObject.getWorldCell();
+		_lastUpdateX = activeObject.getX();
+		_lastUpdateY = activeObject.getY();
+	}
+	
 	/**
 	 * Remove invisible and too far L2Object from _knowObject and if necessary from _knownPlayers of the L2Character
 	 * @param fullCheck
@@ -23,10 +23,13 @@ import static com.l2jserver.gameserver.config.Configuration.customs;
 import static com.l2jserver.gameserver.config.Configuration.npc;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.l2jserver.gameserver.model.Elementals;
 import com.l2jserver.gameserver.model.PcCondOverride;
 import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.transform.Transform;
 import com.l2jserver.gameserver.model.items.L2Weapon;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jserver.gameserver.model.skills.Skill;
@@ -37,6 +40,10 @@ import com.l2jserver.gameserver.model.stats.TraitType;
 import com.l2jserver.gameserver.model.zone.ZoneId;
 
 public class CharStat {
+	private static final LongAdder STAT_CACHE_HITS = new LongAdder();
+	private static final LongAdder STAT_CACHE_MISSES = new LongAdder();
+	private static final LongAdder STAT_CACHE_UNCACHEABLE = new LongAdder();
+	
 	private final L2Character _activeChar;
 	private int _level = 1;
 	private final float[] _attackTraits = new float[TraitType.values().length];
@@ -45,8 +52,24 @@ public class CharStat {
 	private final int[] _defenceTraitsCount = new int[TraitType.values().length];
 	private final int[] _traitsInvul = new int[TraitType.values().length];
 	
+	private final boolean _statCacheEnabled;
+	/** Cached stat values, indexed by stat ordinal, created on first use. */
+	private volatile StatCacheEntry[] _statCache;
+	/** Incremented by changes of the character state invalidating all cached stats. */
+	private final AtomicInteger _statCacheVersion = new AtomicInteger();
+	
 	public CharStat(L2Character activeChar) {
+		this(activeChar, character().statCache());
+	}
+	
+	/**
+	 * Creates the stats of a character.
+	 * @param activeChar the character
+	 * @param statCacheEnabled if {@code true} calculated stats are cached
+	 */
+	public CharStat(L2Character activeChar, boolean statCacheEnabled) {
 		_activeChar = activeChar;
+		_statCacheEnabled = statCacheEnabled;
 		Arrays.fill(_attackTraits, 1.0f);
 		Arrays.fill(_defenceTraits, 1.0f);
 	}
@@ -82,6 +105,41 @@ public class CharStat {
 			return value;
 		}
 		
+		if (!_statCacheEnabled) {
+			return calculateStat(stat, c, value, target, skill);
+		}
+		
+		// The version must be read before the functions, so a concurrent change always invalidates the entry.
+		final int calculatorVersion = c.getVersion();
+		if (!c.isCacheable()) {
+			STAT_CACHE_UNCACHEABLE.increment();
+			return calculateStat(stat, c, value, target, skill);
+		}
+		
+		final int version = _statCacheVersion.get();
+		final int level = _activeChar.getLevel();
+		final Transform transformation = _activeChar.getTransformation();
+		final double hp = c.isHpDependent() ? _activeChar.getCurrentHp() : 0;
+		StatCacheEntry[] cache = _statCache;
+		if (cache != null) {
+			final StatCacheEntry entry = cache[id];
+			if ((entry != null) && entry.matches(c, calculatorVersion, version, level, transformation, initVal, hp)) {
+				STAT_CACHE_HITS.increment();
+				return entry.value();
+			}
+		} else {
+			cache = _statCache = new StatCacheEntry[Stats.NUM_STATS];
+		}
+		
+		STAT_CACHE_MISSES.increment();
+		value = calculateStat(stat, c, value, target, skill);
+		cache[id] = new StatCacheEntry(c, calculatorVersion, version, level, transformation, initVal, hp, value);
+		return value;
+	}
+	
+	private double calculateStat(Stats stat, Calculator c, double initVal, L2Character target, Skill skill) {
+		double value = initVal;
+		
 		// Apply transformation stats.
 		if (getActiveChar().isPlayer() && getActiveChar().isTransformed()) {
 			double val = getActiveChar().getTransformation().getStat(getActiveChar().getActingPlayer(), stat);
@@ -102,6 +160,49 @@ public class CharStat {
 		return value;
 	}
 	
+	/**
+	 * Invalidates the cached value of the given stat.<br>
+	 * Base stats and max HP are used by the functions and conditions of other stats, changing them invalidates all the cached stats.
+	 * @param stat the stat
+	 */
+	public final void invalidateStatCache(Stats stat) {
+		switch (stat) {
+			case STAT_STR, STAT_CON, STAT_DEX, STAT_INT, STAT_WIT, STAT_MEN, MAX_HP -> invalidateStatCache();
+			default -> {
+				final StatCacheEntry[] cache = _statCache;
+				if (cache != null) {
+					cache[stat.ordinal()] = null;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Invalidates all the cached stats.<br>
+	 * Used when the character state read by the stat functions changes, for example its equipment, hennas or enchant levels.
+	 */
+	public final void invalidateStatCache() {
+		_statCacheVersion.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the stat cache statistics of all characters.
+	 * @return the statistics lines
+	 */
+	public static String[] getStatCacheStats() {
+		final long hits = STAT_CACHE_HITS.sum();
+		final long misses = STAT_CACHE_MISSES.sum();
+		final long lookups = hits + misses;
+		return new String[] {
+			"Stat Cache:",
+			" |- Hits:            " + hits,
+			" |- Misses:          " + misses,
+			" |- HitRatio:        " + ((lookups > 0) ? String.format("%.2f%%", (hits * 100.0) / lookups) : "-"),
+			" |- Uncacheable:     " + STAT_CACHE_UNCACHEABLE.sum(),
+			" | -------"
+		};
+	}
+	
 	/**
 	 * @return the Accuracy (base+modifier) of the L2Character in function of the Weapon Expertise Penalty.
 	 */
@@ -626,4 +727,13 @@ public class CharStat {
 	public int getMaxBuffCount() {
 		return (int) calcStat(Stats.ENLARGE_ABNORMAL_SLOT, character().getMaxBuffAmount());
 	}
+	
+	/**
+	 * Cached value of a stat, along with the state it was calculated from.
+	 */
+	private record StatCacheEntry(Calculator calculator, int calculatorVersion, int version, int level, Transform transformation, double initVal, double hp, double value) {
+		boolean matches(Calculator c, int cVersion, int sVersion, int lvl, Transform transform, double init, double currentHp) {
+			return (calculator == c) && (calculatorVersion == cVersion) && (version == sVersion) && (level == lvl) && (transformation == transform) && (Double.compare(initVal, init) == 0) && (Double.compare(hp, currentHp) == 0);
+		}
+	}
 }
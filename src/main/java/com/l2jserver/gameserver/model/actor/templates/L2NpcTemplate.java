@@ -22,7 +22,7 @@ import static com.l2jserver.gameserver.config.Configuration.npc;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +35,8 @@ import com.l2jserver.gameserver.enums.Sex;
 import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.drops.DropListScope;
+import com.l2jserver.gameserver.model.drops.DropTable;
+import com.l2jserver.gameserver.model.drops.DropTable.DropConsumer;
 import com.l2jserver.gameserver.model.drops.IDropItem;
 import com.l2jserver.gameserver.model.holders.ItemHolder;
 import com.l2jserver.gameserver.model.interfaces.IIdentifiable;
@@ -90,6 +92,7 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	private Set<Integer> _clans;
 	private Set<Integer> _ignoreClanNpcIds;
 	private Map<DropListScope, List<IDropItem>> _dropLists;
+	private Map<DropListScope, DropTable> _dropTables;
 	private double _collisionRadiusGrown;
 	private double _collisionHeightGrown;
 	
@@ -426,6 +429,14 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	}
 	
 	public void setDropLists(Map<DropListScope, List<IDropItem>> dropLists) {
+		Map<DropListScope, DropTable> dropTables = null;
+		if (dropLists != null) {
+			dropTables = new EnumMap<>(DropListScope.class);
+			for (var entry : dropLists.entrySet()) {
+				dropTables.put(entry.getKey(), DropTable.compile(entry.getValue()));
+			}
+		}
+		_dropTables = dropTables;
 		_dropLists = dropLists != null ? Collections.unmodifiableMap(dropLists) : null;
 	}
 	
@@ -434,27 +445,33 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 		return dropLists != null ? dropLists.get(dropListScope) : null;
 	}
 	
+	/**
+	 * Gets the drop table compiled from a drop list.
+	 * @param dropListScope the drop list scope
+	 * @return the drop table, {@code null} if there is no such drop list
+	 */
+	public DropTable getDropTable(DropListScope dropListScope) {
+		final var dropTables = _dropTables;
+		return dropTables != null ? dropTables.get(dropListScope) : null;
+	}
+	
 	public Collection<ItemHolder> calculateDrops(DropListScope dropListScope, L2Character victim, L2Character killer) {
-		final var dropList = getDropList(dropListScope);
-		if (dropList == null) {
-			return null;
-		}
-		
-		Collection<ItemHolder> calculatedDrops = null;
-		for (var dropItem : dropList) {
-			final var drops = dropItem.calculateDrops(victim, killer);
-			if ((drops == null) || drops.isEmpty()) {
-				continue;
-			}
-			
-			if (calculatedDrops == null) {
-				calculatedDrops = new LinkedList<>();
-			}
-			
-			calculatedDrops.addAll(drops);
+		final var dropTable = getDropTable(dropListScope);
+		return dropTable != null ? dropTable.calculateDrops(victim, killer) : null;
+	}
+	
+	/**
+	 * Calculates the drops of a kill without collecting them.
+	 * @param dropListScope the drop list scope
+	 * @param victim the victim
+	 * @param killer the killer
+	 * @param consumer the consumer of the dropped items
+	 */
+	public void calculateDrops(DropListScope dropListScope, L2Character victim, L2Character killer, DropConsumer consumer) {
+		final var dropTable = getDropTable(dropListScope);
+		if (dropTable != null) {
+			dropTable.calculateDrops(victim, killer, consumer);
 		}
-		
-		return calculatedDrops;
 	}
 	
 	public double getCollisionRadiusGrown() {
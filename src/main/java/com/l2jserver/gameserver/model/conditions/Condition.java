@@ -124,6 +124,23 @@ public abstract class Condition implements ConditionListener {
 	 */
 	public abstract boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item);
 	
+	/**
+	 * Checks if the result of this condition only depends on effector state tracked by the stat cache, that is its equipment, level, transformation and HP.<br>
+	 * Conditions depending on the target, the skill or any other state must not be cached.
+	 * @return {@code true} if the result can be cached, {@code false} otherwise
+	 */
+	public boolean isCacheable() {
+		return false;
+	}
+	
+	/**
+	 * Checks if the result of this condition depends on the current HP of the effector.
+	 * @return {@code true} if the result depends on the current HP, {@code false} otherwise
+	 */
+	public boolean isHpDependent() {
+		return false;
+	}
+	
 	@Override
 	public void notifyChanged() {
 		if (_listener != null) {
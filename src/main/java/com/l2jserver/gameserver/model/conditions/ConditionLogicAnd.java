@@ -67,4 +67,24 @@ public class ConditionLogicAnd extends Condition {
 		}
 		return true;
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		for (Condition c : conditions) {
+			if (!c.isCacheable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public boolean isHpDependent() {
+		for (Condition c : conditions) {
+			if (c.isHpDependent()) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
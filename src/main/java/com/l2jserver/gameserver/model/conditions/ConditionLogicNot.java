@@ -50,4 +50,14 @@ public class ConditionLogicNot extends Condition {
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item) {
 		return !_condition.test(effector, effected, skill, item);
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		return _condition.isCacheable();
+	}
+	
+	@Override
+	public boolean isHpDependent() {
+		return _condition.isHpDependent();
+	}
 }
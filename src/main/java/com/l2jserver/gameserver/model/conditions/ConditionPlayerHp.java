@@ -37,4 +37,14 @@ public class ConditionPlayerHp extends Condition {
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item) {
 		return (effector != null) && (((effector.getCurrentHp() * 100) / effector.getMaxHp()) <= _hp);
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
+	
+	@Override
+	public boolean isHpDependent() {
+		return true;
+	}
 }
@@ -37,4 +37,9 @@ public class ConditionPlayerLevel extends Condition {
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item) {
 		return effector.getLevel() >= _level;
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
@@ -40,4 +40,9 @@ public class ConditionPlayerRace extends Condition {
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item) {
 		return effector.isPlayer() && races.contains(effector.getActingPlayer().getRace());
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
@@ -81,4 +81,9 @@ public final class ConditionUsingItemType extends Condition {
 		}
 		return (_mask & inv.getWearedMask()) != 0;
 	}
+	
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
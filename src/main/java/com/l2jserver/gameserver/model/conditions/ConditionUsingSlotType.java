@@ -42,4 +42,8 @@ public class ConditionUsingSlotType extends Condition {
 		return (effector.getActiveWeaponItem().getBodyPart() & _mask) != 0;
 	}
 	
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
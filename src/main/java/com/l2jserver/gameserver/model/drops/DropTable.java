@@ -0,0 +1,484 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.drops;
+
+import static com.l2jserver.gameserver.config.Configuration.customs;
+import static com.l2jserver.gameserver.config.Configuration.rates;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.commons.util.Rnd;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.drops.strategy.IAmountMultiplierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IAmountMultiplierStrategy.RateAmountMultiplier;
+import com.l2jserver.gameserver.model.drops.strategy.IChanceMultiplierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IChanceMultiplierStrategy.RateChanceMultiplier;
+import com.l2jserver.gameserver.model.drops.strategy.IDropCalculationStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IGroupedItemDropCalculationStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IKillerChanceModifierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.INonGroupedKillerChanceModifierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IPreciseDeterminationStrategy;
+import com.l2jserver.gameserver.model.holders.ItemHolder;
+import com.l2jserver.gameserver.model.itemcontainer.Inventory;
+
+/**
+ * Drop table compiled from a drop list.<br>
+ * The chances and amounts of the items are multiplied by the rates once for each kind of victim, as they only depend on the victim being a champion or a raid, when the table is compiled and by the first kill after the rates or the customs are reloaded.<br>
+ * A kill then only computes the deep blue modifiers, once per kill, and rolls the items from primitive arrays, without the strategy calls nor the normalized groups and item holders of {@link IDropItem#calculateDrops(L2Character, L2Character)}.<br>
+ * The rolls are the same, in the same order, as the ones of the default strategies, so a kill drops the same items for the same random numbers.<br>
+ * Drop items with other strategies, such as the ones of scripts or the multiple group rolls, are kept as they are and calculated by their strategies.
+ * @since 2.6.3.0
+ */
+public final class DropTable {
+	private static final Logger LOG = LoggerFactory.getLogger(DropTable.class);
+	
+	/** Kinds of victim, a champion and a raid flag. */
+	private static final int VICTIM_KINDS = 4;
+	
+	private static final byte ITEM = 0;
+	private static final byte GROUP = 1;
+	private static final byte STRATEGY = 2;
+	
+	private static final byte NO_RULES = 0;
+	private static final byte DEEP_BLUE_ITEM = 1;
+	private static final byte DEEP_BLUE_ADENA = 2;
+	private static final byte DEEP_BLUE_GROUP = 3;
+	
+	/** Version of the rates, incremented when the rates or the customs are reloaded. */
+	private static final AtomicInteger RATES_VERSION = new AtomicInteger();
+	
+	static {
+		rates().addReloadListener(event -> RATES_VERSION.incrementAndGet());
+		customs().addReloadListener(event -> RATES_VERSION.incrementAndGet());
+	}
+	
+	/** Type of each drop. */
+	private final byte[] _types;
+	/** First row of each drop. */
+	private final int[] _firstRows;
+	/** Amount of rows of each drop, the items of a group. */
+	private final int[] _rowCounts;
+	/** Killer chance modifier of each drop. */
+	private final byte[] _killerModifiers;
+	/** If the chance of each drop over 100% multiplies the amount. */
+	private final boolean[] _precise;
+	/** Drop items calculated by their strategies. */
+	private final IDropItem[] _strategyDrops;
+	
+	private final int _rows;
+	private final int[] _itemIds;
+	/** Item of each row, for its rates. */
+	private final GeneralDropItem[] _items;
+	/** Chance of each row, without the rates. */
+	private final double[] _itemChances;
+	/** Chance of the group of each row, {@code 1} for an item. */
+	private final double[] _groupChances;
+	/** Chances and amounts of the rows multiplied by the rates. */
+	private volatile Rates _rates;
+	
+	/** Drop items used to compute the deep blue modifiers of a kill. */
+	private final GeneralDropItem _deepBlueItem;
+	private final GeneralDropItem _deepBlueAdena;
+	
+	private DropTable(Builder builder) {
+		final int drops = builder._drops.size();
+		_types = new byte[drops];
+		_firstRows = new int[drops];
+		_rowCounts = new int[drops];
+		_killerModifiers = new byte[drops];
+		_precise = new boolean[drops];
+		_strategyDrops = new IDropItem[drops];
+		for (int drop = 0; drop < drops; drop++) {
+			final Drop compiled = builder._drops.get(drop);
+			_types[drop] = compiled.type();
+			_firstRows[drop] = compiled.firstRow();
+			_rowCounts[drop] = compiled.rowCount();
+			_killerModifiers[drop] = compiled.killerModifier();
+			_precise[drop] = compiled.precise();
+			_strategyDrops[drop] = compiled.strategyDrop();
+		}
+		
+		_rows = builder._rows.size();
+		_itemIds = new int[_rows];
+		_items = new GeneralDropItem[_rows];
+		_itemChances = new double[_rows];
+		_groupChances = new double[_rows];
+		for (int row = 0; row < _rows; row++) {
+			final Row compiled = builder._rows.get(row);
+			_itemIds[row] = compiled.item().getItemId();
+			_items[row] = compiled.item();
+			_itemChances[row] = compiled.chance();
+			_groupChances[row] = compiled.groupChance();
+		}
+		_deepBlueItem = builder._deepBlueItem;
+		_deepBlueAdena = builder._deepBlueAdena;
+		_rates = multiply(RATES_VERSION.get());
+	}
+	
+	/**
+	 * Multiplies the chances and amounts of the rows by the rates, for each kind of victim.
+	 * @param version the version of the rates
+	 * @return the multiplied chances and amounts
+	 */
+	private Rates multiply(int version) {
+		final double[] chances = new double[_rows * VICTIM_KINDS];
+		final long[] mins = new long[_rows * VICTIM_KINDS];
+		final long[] maxs = new long[_rows * VICTIM_KINDS];
+		for (int kind = 0; kind < VICTIM_KINDS; kind++) {
+			final boolean champion = (kind & 2) != 0;
+			final boolean raid = (kind & 1) != 0;
+			for (int row = 0; row < _rows; row++) {
+				// As GeneralDropItem#getChance(L2Character), GeneralDropItem#getMin(L2Character) and GeneralDropItem#getMax(L2Character).
+				final GeneralDropItem item = _items[row];
+				final double amountMultiplier = getAmountMultiplier(item, champion, raid);
+				chances[(kind * _rows) + row] = (_itemChances[row] * getChanceMultiplier(item, champion, raid)) * _groupChances[row];
+				mins[(kind * _rows) + row] = (long) (item.getMin() * amountMultiplier);
+				maxs[(kind * _rows) + row] = (long) (item.getMax() * amountMultiplier);
+			}
+		}
+		return new Rates(version, chances, mins, maxs);
+	}
+	
+	/**
+	 * Gets the chances and amounts of the rows, multiplied again if the rates were reloaded.<br>
+	 * Concurrent kills may both multiply them, with the same result.
+	 * @return the multiplied chances and amounts
+	 */
+	private Rates getRates() {
+		final Rates rates = _rates;
+		final int version = RATES_VERSION.get();
+		if (rates.version() == version) {
+			return rates;
+		}
+		
+		final Rates reloaded = multiply(version);
+		_rates = reloaded;
+		return reloaded;
+	}
+	
+	/**
+	 * Compiles a drop list.
+	 * @param dropList the drop list
+	 * @return the drop table
+	 */
+	public static DropTable compile(List<IDropItem> dropList) {
+		final Builder builder = new Builder();
+		for (IDropItem dropItem : dropList) {
+			try {
+				if (!builder.add(dropItem)) {
+					builder.addStrategy(dropItem);
+				}
+			} catch (Exception ex) {
+				LOG.warn("Could not compile drop {}, it will be calculated by its strategies!", dropItem, ex);
+				builder.addStrategy(dropItem);
+			}
+		}
+		return new DropTable(builder);
+	}
+	
+	/**
+	 * Calculates the drops of a kill.
+	 * @param victim the victim
+	 * @param killer the killer
+	 * @param consumer the consumer of the dropped items, in drop list order
+	 */
+	public void calculateDrops(L2Character victim, L2Character killer, DropConsumer consumer) {
+		final Rates rates = getRates();
+		final int offset = ((victim.isChampion() ? 2 : 0) | (victim.isRaid() ? 1 : 0)) * _rows;
+		double deepBlueItem = Double.NaN;
+		double deepBlueAdena = Double.NaN;
+		double deepBlueGroup = Double.NaN;
+		for (int drop = 0; drop < _types.length; drop++) {
+			if (_types[drop] == STRATEGY) {
+				final List<ItemHolder> drops = _strategyDrops[drop].calculateDrops(victim, killer);
+				if (drops != null) {
+					for (ItemHolder item : drops) {
+						consumer.accept(item.getId(), item.getCount());
+					}
+				}
+				continue;
+			}
+			
+			final double killerModifier;
+			switch (_killerModifiers[drop]) {
+				case DEEP_BLUE_ITEM -> {
+					if (Double.isNaN(deepBlueItem)) {
+						deepBlueItem = IKillerChanceModifierStrategy.DEFAULT_NONGROUP_STRATEGY.getKillerChanceModifier(_deepBlueItem, victim, killer);
+					}
+					killerModifier = deepBlueItem;
+				}
+				case DEEP_BLUE_ADENA -> {
+					if (Double.isNaN(deepBlueAdena)) {
+						deepBlueAdena = IKillerChanceModifierStrategy.DEFAULT_NONGROUP_STRATEGY.getKillerChanceModifier(_deepBlueAdena, victim, killer);
+					}
+					killerModifier = deepBlueAdena;
+				}
+				case DEEP_BLUE_GROUP -> {
+					if (Double.isNaN(deepBlueGroup)) {
+						deepBlueGroup = IKillerChanceModifierStrategy.DEFAULT_STRATEGY.getKillerChanceModifier((IDropItem) null, victim, killer);
+					}
+					killerModifier = deepBlueGroup;
+				}
+				default -> killerModifier = 1;
+			}
+			
+			if (_types[drop] == ITEM) {
+				rollItem(rates, drop, offset + _firstRows[drop], killerModifier, consumer);
+			} else {
+				rollGroup(rates, drop, offset + _firstRows[drop], killerModifier, consumer);
+			}
+		}
+	}
+	
+	/**
+	 * Calculates the drops of a kill.
+	 * @param victim the victim
+	 * @param killer the killer
+	 * @return the dropped items, {@code null} if nothing dropped
+	 */
+	public Collection<ItemHolder> calculateDrops(L2Character victim, L2Character killer) {
+		final DropCollector collector = new DropCollector();
+		calculateDrops(victim, killer, collector);
+		return collector._drops;
+	}
+	
+	/**
+	 * As {@link IDropCalculationStrategy#DEFAULT_STRATEGY}.
+	 */
+	private void rollItem(Rates rates, int drop, int row, double killerModifier, DropConsumer consumer) {
+		final double chance = killerModifier * rates.chances()[row];
+		if (chance > (Rnd.nextDouble() * 100)) {
+			int amountMultiply = 1;
+			if (_precise[drop] && (chance > 100)) {
+				amountMultiply = (int) chance / 100;
+				if ((chance % 100) > (Rnd.nextDouble() * 100)) {
+					amountMultiply++;
+				}
+			}
+			
+			consumer.accept(_itemIds[row % _rows], Rnd.get(rates.mins()[row], rates.maxs()[row]) * amountMultiply);
+		}
+	}
+	
+	/**
+	 * As {@link IGroupedItemDropCalculationStrategy#DEFAULT_STRATEGY} with the group normalized by {@link GroupedGeneralDropItem#normalizeMe(L2Character, L2Character)}.
+	 */
+	private void rollGroup(Rates rates, int drop, int firstRow, double killerModifier, DropConsumer consumer) {
+		final double[] chances = rates.chances();
+		final int lastRow = firstRow + _rowCounts[drop];
+		double groupChance = 0;
+		for (int row = firstRow; row < lastRow; row++) {
+			groupChance += (chances[row] * killerModifier) / 100;
+		}
+		
+		if (groupChance > (Rnd.nextDouble() * 100)) {
+			final double random = (Rnd.nextDouble() * 100);
+			double totalChance = 0;
+			for (int row = firstRow; row < lastRow; row++) {
+				totalChance += (chances[row] * killerModifier) / groupChance;
+				if (totalChance > random) {
+					int amountMultiply = 1;
+					if (_precise[drop] && (groupChance >= 100)) {
+						amountMultiply = (int) (groupChance) / 100;
+						if ((groupChance % 100) > (Rnd.nextDouble() * 100)) {
+							amountMultiply++;
+						}
+					}
+					
+					consumer.accept(_itemIds[row % _rows], Rnd.get(rates.mins()[row], rates.maxs()[row]) * amountMultiply);
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the amount of drops calculated by their strategies
+	 */
+	public int getStrategyDropCount() {
+		int count = 0;
+		for (byte type : _types) {
+			if (type == STRATEGY) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	private static double getChanceMultiplier(GeneralDropItem item, boolean champion, boolean raid) {
+		final IChanceMultiplierStrategy strategy = item.getChanceStrategy();
+		if (strategy instanceof RateChanceMultiplier rates) {
+			return rates.getChanceMultiplier(item.getItemId(), champion, raid);
+		}
+		return (strategy == IChanceMultiplierStrategy.QUEST) ? IChanceMultiplierStrategy.getQuestChanceMultiplier(item.getItemId(), champion) : 1;
+	}
+	
+	private static double getAmountMultiplier(GeneralDropItem item, boolean champion, boolean raid) {
+		return (item.getAmountStrategy() instanceof RateAmountMultiplier rates) ? rates.getAmountMultiplier(item.getItemId(), champion, raid) : 1;
+	}
+	
+	/**
+	 * Consumer of the dropped items.
+	 */
+	@FunctionalInterface
+	public interface DropConsumer {
+		/**
+		 * @param itemId the item ID
+		 * @param count the item count
+		 */
+		void accept(int itemId, long count);
+	}
+	
+	private static final class DropCollector implements DropConsumer {
+		private List<ItemHolder> _drops;
+		
+		@Override
+		public void accept(int itemId, long count) {
+			if (_drops == null) {
+				_drops = new ArrayList<>(2);
+			}
+			_drops.add(new ItemHolder(itemId, count));
+		}
+	}
+	
+	/**
+	 * A compiled drop, an item, a group of items or a drop item calculated by its strategies.
+	 */
+	private record Drop(byte type, int firstRow, int rowCount, byte killerModifier, boolean precise, IDropItem strategyDrop) {
+	}
+	
+	/**
+	 * A compiled item, with its chance and the chance of its group.
+	 */
+	private record Row(GeneralDropItem item, double chance, double groupChance) {
+	}
+	
+	/**
+	 * Chances and amounts of the rows by victim kind, multiplied by a version of the rates.
+	 */
+	private record Rates(int version, double[] chances, long[] mins, long[] maxs) {
+	}
+	
+	private static final class Builder {
+		private final List<Drop> _drops = new ArrayList<>();
+		private final List<Row> _rows = new ArrayList<>();
+		private GeneralDropItem _deepBlueItem;
+		private GeneralDropItem _deepBlueAdena;
+		
+		/**
+		 * Adds a drop item with the default strategies.
+		 * @param dropItem the drop item
+		 * @return {@code true} if it was added, {@code false} if it has other strategies
+		 */
+		boolean add(IDropItem dropItem) {
+			if (dropItem instanceof GeneralDropItem item) {
+				if (item.getDropCalculationStrategy() != IDropCalculationStrategy.DEFAULT_STRATEGY) {
+					return false;
+				}
+				return addItem(item, item.getChance(), item.getKillerChanceModifierStrategy(), item.getPreciseStrategy());
+			}
+			
+			if ((dropItem instanceof GroupedGeneralDropItem group) && (group.getDropCalculationStrategy() == IGroupedItemDropCalculationStrategy.DEFAULT_STRATEGY)) {
+				final List<GeneralDropItem> items = group.getItems();
+				if (items.size() == 1) {
+					// As the single item of the default strategy, with the precise and killer strategies of the group.
+					final GeneralDropItem item = items.get(0);
+					if (item.getDropCalculationStrategy() != IDropCalculationStrategy.DEFAULT_STRATEGY) {
+						return false;
+					}
+					return addItem(item, (item.getChance() * group.getChance()) / 100, group.getKillerChanceModifierStrategy(), group.getPreciseStrategy());
+				}
+				return addGroup(group);
+			}
+			return false;
+		}
+		
+		private boolean addItem(GeneralDropItem item, double chance, INonGroupedKillerChanceModifierStrategy killerStrategy, IPreciseDeterminationStrategy preciseStrategy) {
+			final byte killerModifier = getKillerModifier(killerStrategy, item);
+			if ((killerModifier < 0) || !isKnown(preciseStrategy) || !isKnown(item)) {
+				return false;
+			}
+			
+			_drops.add(new Drop(ITEM, _rows.size(), 1, killerModifier, preciseStrategy.isPreciseCalculated(item), null));
+			_rows.add(new Row(item, chance, 1));
+			return true;
+		}
+		
+		private boolean addGroup(GroupedGeneralDropItem group) {
+			final byte killerModifier = getKillerModifier(group.getKillerChanceModifierStrategy(), null);
+			if ((killerModifier < 0) || !isKnown(group.getPreciseStrategy())) {
+				return false;
+			}
+			
+			final List<Row> rows = new ArrayList<>(group.getItems().size());
+			for (GeneralDropItem item : group.getItems()) {
+				if (!isKnown(item)) {
+					return false;
+				}
+				// The chance of the item is multiplied by the chance of the group before the deep blue modifier, as in the normalization.
+				rows.add(new Row(item, item.getChance(), group.getChance()));
+			}
+			
+			_drops.add(new Drop(GROUP, _rows.size(), rows.size(), killerModifier, group.isPreciseCalculated(), null));
+			_rows.addAll(rows);
+			return true;
+		}
+		
+		void addStrategy(IDropItem dropItem) {
+			_drops.add(new Drop(STRATEGY, _rows.size(), 0, NO_RULES, false, dropItem));
+		}
+		
+		private byte getKillerModifier(INonGroupedKillerChanceModifierStrategy strategy, GeneralDropItem item) {
+			if (strategy == IKillerChanceModifierStrategy.NO_RULES) {
+				return NO_RULES;
+			}
+			
+			if (strategy == IKillerChanceModifierStrategy.DEFAULT_STRATEGY) {
+				return DEEP_BLUE_GROUP;
+			}
+			
+			if ((strategy == IKillerChanceModifierStrategy.DEFAULT_NONGROUP_STRATEGY) && (item != null)) {
+				if (item.getItemId() == Inventory.ADENA_ID) {
+					_deepBlueAdena = item;
+					return DEEP_BLUE_ADENA;
+				}
+				_deepBlueItem = item;
+				return DEEP_BLUE_ITEM;
+			}
+			return -1;
+		}
+		
+		private static boolean isKnown(IPreciseDeterminationStrategy strategy) {
+			return (strategy == IPreciseDeterminationStrategy.ALWAYS) || (strategy == IPreciseDeterminationStrategy.DEFAULT) || (strategy == IPreciseDeterminationStrategy.NEVER);
+		}
+		
+		private static boolean isKnown(GeneralDropItem item) {
+			final IChanceMultiplierStrategy chanceStrategy = item.getChanceStrategy();
+			final IAmountMultiplierStrategy amountStrategy = item.getAmountStrategy();
+			return ((chanceStrategy == IChanceMultiplierStrategy.STATIC) || (chanceStrategy == IChanceMultiplierStrategy.QUEST) || (chanceStrategy instanceof RateChanceMultiplier)) //
+				&& ((amountStrategy == IAmountMultiplierStrategy.STATIC) || (amountStrategy instanceof RateAmountMultiplier));
+		}
+	}
+}
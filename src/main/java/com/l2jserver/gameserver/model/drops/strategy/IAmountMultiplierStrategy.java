@@ -36,24 +36,44 @@ public interface IAmountMultiplierStrategy {
 	IAmountMultiplierStrategy QUEST = DEFAULT_STRATEGY(rates().getQuestDropAmountMultiplier());
 	
 	static IAmountMultiplierStrategy DEFAULT_STRATEGY(final double defaultMultiplier) {
-		return (item, victim) -> {
+		return new RateAmountMultiplier(defaultMultiplier);
+	}
+	
+	/**
+	 * Amount multiplier of the server rates, it only depends on the item and on the victim being a champion or a raid.
+	 * @param defaultMultiplier the multiplier of the items without a rate of their own
+	 * @since 2.6.3.0
+	 */
+	record RateAmountMultiplier(double defaultMultiplier) implements IAmountMultiplierStrategy {
+		@Override
+		public double getAmountMultiplier(GeneralDropItem item, L2Character victim) {
+			return getAmountMultiplier(item.getItemId(), victim.isChampion(), victim.isRaid());
+		}
+		
+		/**
+		 * @param itemId the item ID
+		 * @param champion if the victim is a champion
+		 * @param raid if the victim is a raid
+		 * @return the amount multiplier
+		 */
+		public double getAmountMultiplier(int itemId, boolean champion, boolean raid) {
 			double multiplier = 1;
-			if (victim.isChampion()) {
-				multiplier *= item.getItemId() != Inventory.ADENA_ID ? customs().getChampionRewardsAmount() : customs().getChampionAdenasRewardsAmount();
+			if (champion) {
+				multiplier *= itemId != Inventory.ADENA_ID ? customs().getChampionRewardsAmount() : customs().getChampionAdenasRewardsAmount();
 			}
 			
-			Float dropAmountMultiplier = rates().getDropAmountMultiplierByItemId().get(item.getItemId());
+			Float dropAmountMultiplier = rates().getDropAmountMultiplierByItemId().get(itemId);
 			if (dropAmountMultiplier != null) {
 				multiplier *= dropAmountMultiplier;
-			} else if (ItemTable.getInstance().getTemplate(item.getItemId()).hasExImmediateEffect()) {
+			} else if (ItemTable.getInstance().getTemplate(itemId).hasExImmediateEffect()) {
 				multiplier *= rates().getHerbDropAmountMultiplier();
-			} else if (victim.isRaid()) {
+			} else if (raid) {
 				multiplier *= rates().getRaidDropAmountMultiplier();
 			} else {
 				multiplier *= defaultMultiplier;
 			}
 			return multiplier;
-		};
+		}
 	}
 	
 	double getAmountMultiplier(GeneralDropItem item, L2Character victim);
@@ -34,35 +34,63 @@ public interface IChanceMultiplierStrategy {
 	IChanceMultiplierStrategy SPOIL = DEFAULT_STRATEGY(rates().getCorpseDropChanceMultiplier());
 	IChanceMultiplierStrategy STATIC = (item, victim) -> 1;
 	
-	IChanceMultiplierStrategy QUEST = (item, victim) -> {
+	IChanceMultiplierStrategy QUEST = (item, victim) -> getQuestChanceMultiplier(item.getItemId(), (victim != null) && victim.isChampion());
+	
+	static IChanceMultiplierStrategy DEFAULT_STRATEGY(final double defaultMultiplier) {
+		return new RateChanceMultiplier(defaultMultiplier);
+	}
+	
+	/**
+	 * Gets the chance multiplier of {@link #QUEST}.
+	 * @param itemId the item ID
+	 * @param champion if the victim is a champion
+	 * @return the chance multiplier
+	 */
+	static double getQuestChanceMultiplier(int itemId, boolean champion) {
 		double championmult;
-		if ((item.getItemId() == Inventory.ADENA_ID) || (item.getItemId() == Inventory.ANCIENT_ADENA_ID)) {
+		if ((itemId == Inventory.ADENA_ID) || (itemId == Inventory.ANCIENT_ADENA_ID)) {
 			championmult = customs().getChampionAdenasRewardsChance();
 		} else {
 			championmult = customs().getChampionRewardsChance();
 		}
 		
-		return (customs().championEnable() && (victim != null) && victim.isChampion()) ? (rates().getQuestDropChanceMultiplier() * championmult) : rates().getQuestDropChanceMultiplier();
-	};
+		return (customs().championEnable() && champion) ? (rates().getQuestDropChanceMultiplier() * championmult) : rates().getQuestDropChanceMultiplier();
+	}
 	
-	static IChanceMultiplierStrategy DEFAULT_STRATEGY(final double defaultMultiplier) {
-		return (item, victim) -> {
+	/**
+	 * Chance multiplier of the server rates, it only depends on the item and on the victim being a champion or a raid.
+	 * @param defaultMultiplier the multiplier of the items without a rate of their own
+	 * @since 2.6.3.0
+	 */
+	record RateChanceMultiplier(double defaultMultiplier) implements IChanceMultiplierStrategy {
+		@Override
+		public double getChanceMultiplier(GeneralDropItem item, L2Character victim) {
+			return getChanceMultiplier(item.getItemId(), victim.isChampion(), victim.isRaid());
+		}
+		
+		/**
+		 * @param itemId the item ID
+		 * @param champion if the victim is a champion
+		 * @param raid if the victim is a raid
+		 * @return the chance multiplier
+		 */
+		public double getChanceMultiplier(int itemId, boolean champion, boolean raid) {
 			float multiplier = 1;
-			if (victim.isChampion()) {
-				multiplier *= item.getItemId() != Inventory.ADENA_ID ? customs().getChampionRewardsChance() : customs().getChampionAdenasRewardsChance();
+			if (champion) {
+				multiplier *= itemId != Inventory.ADENA_ID ? customs().getChampionRewardsChance() : customs().getChampionAdenasRewardsChance();
 			}
-			Float dropChanceMultiplier = rates().getDropChanceMultiplierByItemId().get(item.getItemId());
+			Float dropChanceMultiplier = rates().getDropChanceMultiplierByItemId().get(itemId);
 			if (dropChanceMultiplier != null) {
 				multiplier *= dropChanceMultiplier;
-			} else if (ItemTable.getInstance().getTemplate(item.getItemId()).hasExImmediateEffect()) {
+			} else if (ItemTable.getInstance().getTemplate(itemId).hasExImmediateEffect()) {
 				multiplier *= rates().getHerbDropChanceMultiplier();
-			} else if (victim.isRaid()) {
+			} else if (raid) {
 				multiplier *= rates().getRaidDropChanceMultiplier();
 			} else {
 				multiplier *= defaultMultiplier;
 			}
 			return multiplier;
-		};
+		}
 	}
 	
 	double getChanceMultiplier(GeneralDropItem item, L2Character victim);
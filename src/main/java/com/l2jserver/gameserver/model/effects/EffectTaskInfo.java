@@ -18,7 +18,7 @@
  */
 package com.l2jserver.gameserver.model.effects;
 
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 
 /**
  * Effect Task Info DTO.
@@ -26,9 +26,9 @@ import java.util.concurrent.ScheduledFuture;
  */
 public class EffectTaskInfo {
 	private final EffectTickTask _effectTask;
-	private final ScheduledFuture<?> _scheduledFuture;
+	private final Future<?> _scheduledFuture;
 	
-	public EffectTaskInfo(EffectTickTask effectTask, ScheduledFuture<?> scheduledFuture) {
+	public EffectTaskInfo(EffectTickTask effectTask, Future<?> scheduledFuture) {
 		_effectTask = effectTask;
 		_scheduledFuture = scheduledFuture;
 	}
@@ -37,7 +37,7 @@ public class EffectTaskInfo {
 		return _effectTask;
 	}
 	
-	public ScheduledFuture<?> getScheduledFuture() {
+	public Future<?> getScheduledFuture() {
 		return _scheduledFuture;
 	}
 }
@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
 import com.l2jserver.gameserver.datatables.ItemTable;
 import com.l2jserver.gameserver.enums.ItemLocation;
 import com.l2jserver.gameserver.enums.PrivateStoreType;
@@ -654,14 +655,7 @@ public abstract class Inventory extends ItemContainer {
 	 */
 	@Override
 	protected void refreshWeight() {
-		long weight = 0;
-		
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getItem() != null)) {
-				weight += item.getItem().getWeight() * item.getCount();
-			}
-		}
-		_totalWeight = (int) Math.min(weight, Integer.MAX_VALUE);
+		_totalWeight = (int) Math.min(_items.getWeight(), Integer.MAX_VALUE);
 	}
 	
 	/**
@@ -718,6 +712,7 @@ public abstract class Inventory extends ItemContainer {
 	 */
 	@Override
 	public void restore() {
+		DatabaseWriter.getInstance().flush();
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement("SELECT object_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, mana_left, time, agathion_energy FROM items WHERE owner_id=? AND (loc=? OR loc=?) ORDER BY loc_data")) {
 			ps.setInt(1, getOwnerId());
@@ -877,11 +872,15 @@ public abstract class Inventory extends ItemContainer {
 		@Override
 		public void notifyUnequiped(int slot, L2ItemInstance item, Inventory inventory) {
 			inventory.getOwner().removeStatsOwner(item);
+			// Formulas and conditions of other stats read the paperdoll.
+			inventory.getOwner().getStat().invalidateStatCache();
 		}
 		
 		@Override
 		public void notifyEquiped(int slot, L2ItemInstance item, Inventory inventory) {
 			inventory.getOwner().addStatFuncs(item.getStatFuncs(inventory.getOwner()));
+			// Formulas and conditions of other stats read the paperdoll.
+			inventory.getOwner().getStat().invalidateStatCache();
 		}
 	}
 }
@@ -21,15 +21,14 @@ package com.l2jserver.gameserver.model.itemcontainer;
 import static com.l2jserver.gameserver.config.Configuration.general;
 import static com.l2jserver.gameserver.config.Configuration.rates;
 
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
 import com.l2jserver.gameserver.datatables.ItemTable;
 import com.l2jserver.gameserver.enums.ItemLocation;
 import com.l2jserver.gameserver.model.L2World;
@@ -44,7 +43,7 @@ import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
 public abstract class ItemContainer {
 	private static final Logger LOG = LoggerFactory.getLogger(ItemContainer.class);
 	
-	protected final List<L2ItemInstance> _items = new CopyOnWriteArrayList<>();
+	protected final ItemStorage _items = new ItemStorage();
 	
 	protected ItemContainer() {
 	}
@@ -75,7 +74,7 @@ public abstract class ItemContainer {
 	 * @return the items in inventory
 	 */
 	public L2ItemInstance[] getItems() {
-		return _items.toArray(new L2ItemInstance[0]);
+		return _items.toArray();
 	}
 	
 	/**
@@ -83,12 +82,7 @@ public abstract class ItemContainer {
 	 * @return the item from inventory by itemId
 	 */
 	public L2ItemInstance getItemByItemId(int itemId) {
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getId() == itemId)) {
-				return item;
-			}
-		}
-		return null;
+		return _items.getFirstByItemId(itemId);
 	}
 	
 	/**
@@ -108,13 +102,7 @@ public abstract class ItemContainer {
 	 * @return the items list from inventory by using its itemId
 	 */
 	public List<L2ItemInstance> getItemsByItemId(int itemId) {
-		final List<L2ItemInstance> returnList = new LinkedList<>();
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getId() == itemId)) {
-				returnList.add(item);
-			}
-		}
-		return returnList;
+		return _items.getByItemId(itemId);
 	}
 	
 	/**
@@ -123,8 +111,8 @@ public abstract class ItemContainer {
 	 * @return the item from inventory by itemId
 	 */
 	public L2ItemInstance getItemByItemId(int itemId, L2ItemInstance itemToIgnore) {
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getId() == itemId) && !item.equals(itemToIgnore)) {
+		for (L2ItemInstance item : _items.getByItemId(itemId)) {
+			if (!item.equals(itemToIgnore)) {
 				return item;
 			}
 		}
@@ -136,12 +124,7 @@ public abstract class ItemContainer {
 	 * @return item from inventory by objectId
 	 */
 	public L2ItemInstance getItemByObjectId(int objectId) {
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getObjectId() == objectId)) {
-				return item;
-			}
-		}
-		return null;
+		return _items.getByObjectId(objectId);
 	}
 	
 	/**
@@ -164,8 +147,8 @@ public abstract class ItemContainer {
 	public long getInventoryItemCount(int itemId, int enchantLevel, boolean includeEquipped) {
 		long count = 0;
 		
-		for (L2ItemInstance item : _items) {
-			if ((item.getId() == itemId) && ((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped())) {
+		for (L2ItemInstance item : _items.getByItemId(itemId)) {
+			if (((item.getEnchantLevel() == enchantLevel) || (enchantLevel < 0)) && (includeEquipped || !item.isEquipped())) {
 				if (item.isStackable()) {
 					// FIXME: Zoey76: if there are more than one stacks of the same item Id
 					// it will return the count of the last one, if is not possible to
@@ -501,14 +484,7 @@ public abstract class ItemContainer {
 	 * @return warehouse Adena.
 	 */
 	public long getAdena() {
-		long count = 0;
-		for (L2ItemInstance item : _items) {
-			if ((item != null) && (item.getId() == Inventory.ADENA_ID)) {
-				count = item.getCount();
-				return count;
-			}
-		}
-		return count;
+		return _items.getAdena();
 	}
 	
 	/**
@@ -567,6 +543,7 @@ public abstract class ItemContainer {
 	 * Get back items in container from database
 	 */
 	public void restore() {
+		DatabaseWriter.getInstance().flush();
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement("SELECT object_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, mana_left, time, agathion_energy FROM items WHERE owner_id=? AND (loc=?)")) {
 			ps.setInt(1, getOwnerId());
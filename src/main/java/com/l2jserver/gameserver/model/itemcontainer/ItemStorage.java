@@ -0,0 +1,346 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.itemcontainer;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.util.IntIndex;
+
+/**
+ * Item storage of an item container.<br>
+ * Items are kept in insertion order, indexed by object ID and by item ID, and the total weight and adena of the storage follow every add, remove and count change of its items.<br>
+ * Iteration walks an immutable snapshot, rebuilt on the first iteration after a change, so a bulk deposit copies the items once instead of once per item.
+ * @since 2.6.3.0
+ */
+public final class ItemStorage extends AbstractCollection<L2ItemInstance> {
+	
+	private static final int INITIAL_CAPACITY = 8;
+	
+	private static final L2ItemInstance[] EMPTY = new L2ItemInstance[0];
+	
+	/** Slots in insertion order, removed items leave a {@code null} slot until the storage is compacted. */
+	private L2ItemInstance[] _slots = new L2ItemInstance[INITIAL_CAPACITY];
+	
+	/** Next slot holding the same item ID, or {@code -1}. */
+	private int[] _nextSameId = new int[INITIAL_CAPACITY];
+	
+	private long[] _weights = new long[INITIAL_CAPACITY];
+	
+	private long[] _adenas = new long[INITIAL_CAPACITY];
+	
+	/** Amount of slots in use, including the removed ones. */
+	private int _end;
+	
+	private volatile int _size;
+	
+	private long _weight;
+	
+	private long _adena;
+	
+	/** Object ID to slot. */
+	private final IntIndex _objectIds = new IntIndex();
+	
+	/** Item ID to the first slot holding it. */
+	private final IntIndex _itemIds = new IntIndex();
+	
+	/** Items in insertion order, {@code null} when the storage changed since it was taken. */
+	private volatile L2ItemInstance[] _snapshot = EMPTY;
+	
+	@Override
+	public synchronized boolean add(L2ItemInstance item) {
+		if (_objectIds.get(item.getObjectId()) >= 0) {
+			return false;
+		}
+		
+		if (_end == _slots.length) {
+			// Compacts in place when half the slots are removed items, grows otherwise.
+			resize((_size > (_end / 2)) ? _slots.length * 2 : _slots.length);
+		}
+		
+		final int slot = _end++;
+		_slots[slot] = item;
+		_nextSameId[slot] = -1;
+		_objectIds.put(item.getObjectId(), slot);
+		final int first = _itemIds.get(item.getId());
+		if (first < 0) {
+			_itemIds.put(item.getId(), slot);
+		} else {
+			int last = first;
+			while (_nextSameId[last] >= 0) {
+				last = _nextSameId[last];
+			}
+			_nextSameId[last] = slot;
+		}
+		
+		_weights[slot] = weightOf(item);
+		_adenas[slot] = adenaOf(item);
+		_weight += _weights[slot];
+		_adena += _adenas[slot];
+		_size++;
+		_snapshot = null;
+		item.setItemStorage(this);
+		return true;
+	}
+	
+	@Override
+	public synchronized boolean remove(Object o) {
+		if (!(o instanceof L2ItemInstance item)) {
+			return false;
+		}
+		
+		final int slot = _objectIds.get(item.getObjectId());
+		if ((slot < 0) || (_slots[slot] != item)) {
+			return false;
+		}
+		removeSlot(slot);
+		return true;
+	}
+	
+	/**
+	 * Removes the oldest item of the storage.
+	 * @return the removed item
+	 * @throws NoSuchElementException if the storage is empty
+	 */
+	public synchronized L2ItemInstance removeFirst() {
+		for (int slot = 0; slot < _end; slot++) {
+			final L2ItemInstance item = _slots[slot];
+			if (item != null) {
+				removeSlot(slot);
+				return item;
+			}
+		}
+		throw new NoSuchElementException();
+	}
+	
+	@Override
+	public synchronized void clear() {
+		for (int slot = 0; slot < _end; slot++) {
+			if (_slots[slot] != null) {
+				_slots[slot].removeItemStorage(this);
+			}
+		}
+		_slots = new L2ItemInstance[INITIAL_CAPACITY];
+		_nextSameId = new int[INITIAL_CAPACITY];
+		_weights = new long[INITIAL_CAPACITY];
+		_adenas = new long[INITIAL_CAPACITY];
+		_end = 0;
+		_size = 0;
+		_weight = 0;
+		_adena = 0;
+		_objectIds.clear();
+		_itemIds.clear();
+		_snapshot = EMPTY;
+	}
+	
+	@Override
+	public synchronized boolean contains(Object o) {
+		if (!(o instanceof L2ItemInstance item)) {
+			return false;
+		}
+		final int slot = _objectIds.get(item.getObjectId());
+		return (slot >= 0) && (_slots[slot] == item);
+	}
+	
+	@Override
+	public int size() {
+		return _size;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return _size == 0;
+	}
+	
+	@Override
+	public Iterator<L2ItemInstance> iterator() {
+		return Arrays.asList(snapshot()).iterator();
+	}
+	
+	@Override
+	public L2ItemInstance[] toArray() {
+		return snapshot().clone();
+	}
+	
+	/**
+	 * @param objectId the item object ID
+	 * @return the item with the given object ID, {@code null} if it is not in the storage
+	 */
+	public synchronized L2ItemInstance getByObjectId(int objectId) {
+		final int slot = _objectIds.get(objectId);
+		return (slot >= 0) ? _slots[slot] : null;
+	}
+	
+	/**
+	 * @param itemId the item ID
+	 * @return the oldest item with the given item ID, {@code null} if there is none
+	 */
+	public synchronized L2ItemInstance getFirstByItemId(int itemId) {
+		final int slot = _itemIds.get(itemId);
+		return (slot >= 0) ? _slots[slot] : null;
+	}
+	
+	/**
+	 * @param itemId the item ID
+	 * @return the items with the given item ID, in insertion order
+	 */
+	public synchronized List<L2ItemInstance> getByItemId(int itemId) {
+		final List<L2ItemInstance> items = new ArrayList<>(1);
+		for (int slot = _itemIds.get(itemId); slot >= 0; slot = _nextSameId[slot]) {
+			items.add(_slots[slot]);
+		}
+		return items;
+	}
+	
+	/**
+	 * @return the total weight of the items
+	 */
+	public synchronized long getWeight() {
+		return _weight;
+	}
+	
+	/**
+	 * @return the total adena count of the items
+	 */
+	public synchronized long getAdena() {
+		return _adena;
+	}
+	
+	/**
+	 * Updates the totals after the count of an item of the storage changed.
+	 * @param item the item
+	 */
+	public synchronized void countChanged(L2ItemInstance item) {
+		final int slot = _objectIds.get(item.getObjectId());
+		if ((slot < 0) || (_slots[slot] != item)) {
+			return;
+		}
+		
+		final long weight = weightOf(item);
+		final long adena = adenaOf(item);
+		_weight += weight - _weights[slot];
+		_adena += adena - _adenas[slot];
+		_weights[slot] = weight;
+		_adenas[slot] = adena;
+	}
+	
+	private L2ItemInstance[] snapshot() {
+		L2ItemInstance[] snapshot = _snapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = _snapshot;
+				if (snapshot == null) {
+					snapshot = new L2ItemInstance[_size];
+					int i = 0;
+					for (int slot = 0; slot < _end; slot++) {
+						if (_slots[slot] != null) {
+							snapshot[i++] = _slots[slot];
+						}
+					}
+					_snapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+	
+	private void removeSlot(int slot) {
+		final L2ItemInstance item = _slots[slot];
+		final int next = _nextSameId[slot];
+		final int first = _itemIds.get(item.getId());
+		if (first == slot) {
+			if (next < 0) {
+				_itemIds.remove(item.getId());
+			} else {
+				_itemIds.put(item.getId(), next);
+			}
+		} else {
+			int previous = first;
+			while (_nextSameId[previous] != slot) {
+				previous = _nextSameId[previous];
+			}
+			_nextSameId[previous] = next;
+		}
+		_objectIds.remove(item.getObjectId());
+		
+		_weight -= _weights[slot];
+		_adena -= _adenas[slot];
+		_slots[slot] = null;
+		_size--;
+		_snapshot = null;
+		item.removeItemStorage(this);
+		
+		if ((_end > INITIAL_CAPACITY) && (_size < (_end / 4))) {
+			resize(Math.max(INITIAL_CAPACITY, _slots.length / 2));
+		}
+	}
+	
+	/**
+	 * Moves the items to new slots of the given capacity, dropping the removed ones and rebuilding the indexes.
+	 * @param capacity the new capacity
+	 */
+	private void resize(int capacity) {
+		final L2ItemInstance[] slots = _slots;
+		final long[] weights = _weights;
+		final long[] adenas = _adenas;
+		final int end = _end;
+		_slots = new L2ItemInstance[capacity];
+		_nextSameId = new int[capacity];
+		_weights = new long[capacity];
+		_adenas = new long[capacity];
+		_end = 0;
+		_objectIds.clear();
+		_itemIds.clear();
+		
+		final IntIndex lastSameId = new IntIndex();
+		for (int slot = 0; slot < end; slot++) {
+			final L2ItemInstance item = slots[slot];
+			if (item == null) {
+				continue;
+			}
+			
+			final int newSlot = _end++;
+			_slots[newSlot] = item;
+			_nextSameId[newSlot] = -1;
+			_weights[newSlot] = weights[slot];
+			_adenas[newSlot] = adenas[slot];
+			_objectIds.put(item.getObjectId(), newSlot);
+			final int last = lastSameId.get(item.getId());
+			if (last < 0) {
+				_itemIds.put(item.getId(), newSlot);
+			} else {
+				_nextSameId[last] = newSlot;
+			}
+			lastSameId.put(item.getId(), newSlot);
+		}
+	}
+	
+	private static long weightOf(L2ItemInstance item) {
+		return (item.getItem() != null) ? item.getItem().getWeight() * item.getCount() : 0;
+	}
+	
+	private static long adenaOf(L2ItemInstance item) {
+		return (item.getId() == Inventory.ADENA_ID) ? item.getCount() : 0;
+	}
+}
@@ -208,12 +208,8 @@ public class PcInventory extends Inventory {
 	 */
 	public L2ItemInstance[] getAllItemsByItemId(int itemId, boolean includeEquipped) {
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items) {
-			if (item == null) {
-				continue;
-			}
-			
-			if ((item.getId() == itemId) && (includeEquipped || !item.isEquipped())) {
+		for (L2ItemInstance item : _items.getByItemId(itemId)) {
+			if (includeEquipped || !item.isEquipped()) {
 				list.add(item);
 			}
 		}
@@ -238,12 +234,8 @@ public class PcInventory extends Inventory {
 	 */
 	public L2ItemInstance[] getAllItemsByItemId(int itemId, int enchantment, boolean includeEquipped) {
 		List<L2ItemInstance> list = new LinkedList<>();
-		for (L2ItemInstance item : _items) {
-			if (item == null) {
-				continue;
-			}
-			
-			if ((item.getId() == itemId) && (item.getEnchantLevel() == enchantment) && (includeEquipped || !item.isEquipped())) {
+		for (L2ItemInstance item : _items.getByItemId(itemId)) {
+			if ((item.getEnchantLevel() == enchantment) && (includeEquipped || !item.isEquipped())) {
 				list.add(item);
 			}
 		}
@@ -25,7 +25,6 @@ import static com.l2jserver.gameserver.model.itemcontainer.Inventory.ADENA_ID;
 import static com.l2jserver.gameserver.model.items.type.EtcItemType.ARROW;
 import static com.l2jserver.gameserver.model.items.type.EtcItemType.SHOT;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +38,9 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.GeoData;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.agathion.repository.AgathionRepository;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.ItemWrite;
+import com.l2jserver.gameserver.dao.writer.WriteKey;
 import com.l2jserver.gameserver.data.xml.impl.EnchantItemOptionsData;
 import com.l2jserver.gameserver.data.xml.impl.OptionData;
 import com.l2jserver.gameserver.datatables.ItemTable;
@@ -65,6 +67,7 @@ import com.l2jserver.gameserver.model.events.impl.item.ItemBypass;
 import com.l2jserver.gameserver.model.events.impl.item.ItemTalk;
 import com.l2jserver.gameserver.model.holders.SkillHolder;
 import com.l2jserver.gameserver.model.itemcontainer.Inventory;
+import com.l2jserver.gameserver.model.itemcontainer.ItemStorage;
 import com.l2jserver.gameserver.model.items.L2Armor;
 import com.l2jserver.gameserver.model.items.L2EtcItem;
 import com.l2jserver.gameserver.model.items.L2Item;
@@ -100,6 +103,9 @@ public final class L2ItemInstance extends L2Object {
 	/** Quantity of the item */
 	private long _count;
 	
+	/** Storage of the container holding the item, told about count changes */
+	private volatile ItemStorage _itemStorage;
+	
 	/** Initial Quantity of the item */
 	private long _initCount;
 	
@@ -399,12 +405,35 @@ public final class L2ItemInstance extends L2Object {
 		
 		_count = count >= -1 ? count : 0;
 		_storedInDb = false;
+		
+		final ItemStorage itemStorage = _itemStorage;
+		if (itemStorage != null) {
+			itemStorage.countChanged(this);
+		}
 	}
 	
 	public long getCount() {
 		return _count;
 	}
 	
+	/**
+	 * Sets the storage of the container holding this item.
+	 * @param itemStorage the item storage
+	 */
+	public void setItemStorage(ItemStorage itemStorage) {
+		_itemStorage = itemStorage;
+	}
+	
+	/**
+	 * Unsets the storage of the container holding this item, unless the item was already added to another one.
+	 * @param itemStorage the item storage the item was removed from
+	 */
+	public void removeItemStorage(ItemStorage itemStorage) {
+		if (_itemStorage == itemStorage) {
+			_itemStorage = null;
+		}
+	}
+	
 	/**
 	 * Sets the quantity of the item.<BR>
 	 * <BR>
@@ -780,6 +809,13 @@ public final class L2ItemInstance extends L2Object {
 		_enchantLevel = enchantLevel;
 		applyEnchantStats();
 		_storedInDb = false;
+		
+		if (isEquipped()) {
+			final L2PcInstance player = getActingPlayer();
+			if (player != null) {
+				player.getStat().invalidateStatCache();
+			}
+		}
 	}
 	
 	/**
@@ -811,11 +847,7 @@ public final class L2ItemInstance extends L2Object {
 		}
 		
 		_augmentation = augmentation;
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			updateItemAttributes(con);
-		} catch (Exception ex) {
-			LOG.warn("Could not update atributes for item {} from database!", this, ex);
-		}
+		updateItemAttributes();
 		
 		EventDispatcher.getInstance().notifyEventAsync(new PlayerAugment(getActingPlayer(), this, augmentation, true), getItem());
 		return true;
@@ -829,14 +861,7 @@ public final class L2ItemInstance extends L2Object {
 		// Copy augmentation before removing it.
 		final L2Augmentation augment = _augmentation;
 		_augmentation = null;
-		
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("DELETE FROM item_attributes WHERE itemId = ?")) {
-			ps.setInt(1, getObjectId());
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not remove augmentation for item {} from database!", this, ex);
-		}
+		updateItemAttributes();
 		
 		// Notify to scripts.
 		EventDispatcher.getInstance().notifyEventAsync(new PlayerAugment(getActingPlayer(), this, augment, false), getItem());
@@ -871,39 +896,33 @@ public final class L2ItemInstance extends L2Object {
 		}
 	}
 	
-	private void updateItemAttributes(Connection con) {
-		try (var ps = con.prepareStatement("REPLACE INTO item_attributes VALUES(?,?)")) {
-			ps.setInt(1, getObjectId());
-			ps.setInt(2, _augmentation != null ? _augmentation.getAttributes() : -1);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not update atributes for item {} from database!", this, ex);
+	/**
+	 * Writes the augmentation and elementals of the item, through the item writes so they stay in order with its insert and delete.
+	 */
+	private void updateItemAttributes() {
+		if (_wear) {
+			return;
 		}
+		
+		DatabaseWriter.getInstance().write(new WriteKey("items", getObjectId()), ItemWrite.attributes(getObjectId(), (_augmentation != null) ? _augmentation.getAttributes() : null, getElementalRows()));
 	}
 	
-	private void updateItemElements(Connection con) {
-		try (var ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?")) {
-			ps.setInt(1, getObjectId());
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not update elementals for item {} from database!", this, ex);
-		}
-		
+	/**
+	 * @return the elemental rows {@code elemType, elemValue} of the item, {@code null} if it has no elementals
+	 */
+	private List<Object[]> getElementalRows() {
 		if (_elementals == null) {
-			return;
+			return null;
 		}
 		
-		try (var ps = con.prepareStatement("INSERT INTO item_elementals VALUES(?,?,?)")) {
-			for (Elementals elm : _elementals) {
-				ps.setInt(1, getObjectId());
-				ps.setByte(2, elm.getElement());
-				ps.setInt(3, elm.getValue());
-				ps.executeUpdate();
-				ps.clearParameters();
-			}
-		} catch (Exception ex) {
-			LOG.warn("Could not update elementals for item {} from database!", this, ex);
+		final List<Object[]> elementals = new ArrayList<>(_elementals.length);
+		for (Elementals elm : _elementals) {
+			elementals.add(new Object[] {
+				elm.getElement(),
+				elm.getValue()
+			});
 		}
+		return elementals;
 	}
 	
 	public Elementals[] getElementals() {
@@ -986,11 +1005,7 @@ public final class L2ItemInstance extends L2Object {
 	 */
 	public void setElementAttr(byte element, int value) {
 		applyAttribute(element, value);
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			updateItemElements(con);
-		} catch (Exception ex) {
-			LOG.warn("Could not update elementals for item {} from database!", this, ex);
-		}
+		updateItemAttributes();
 	}
 	
 	/**
@@ -1013,20 +1028,7 @@ public final class L2ItemInstance extends L2Object {
 			}
 		}
 		_elementals = array;
-		
-		String query = (element != -1) ? "DELETE FROM item_elementals WHERE itemId = ? AND elemType = ?" : "DELETE FROM item_elementals WHERE itemId = ?";
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(query)) {
-			if (element != -1) {
-				// Item can have still others
-				ps.setInt(2, element);
-			}
-			
-			ps.setInt(1, getObjectId());
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not remove elemental enchant for item {} from database!", this, ex);
-		}
+		updateItemAttributes();
 	}
 	
 	/**
@@ -1371,24 +1373,8 @@ public final class L2ItemInstance extends L2Object {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("UPDATE items SET owner_id=?, count=?, loc=?, loc_data=?, enchant_level=?, custom_type1=?, custom_type2=?, mana_left=?, time=?, agathion_energy=? WHERE object_id=?")) {
-			ps.setInt(1, _ownerId);
-			ps.setLong(2, getCount());
-			ps.setString(3, _loc.name());
-			ps.setInt(4, _locData);
-			ps.setInt(5, getEnchantLevel());
-			ps.setInt(6, getCustomType1());
-			ps.setInt(7, getCustomType2());
-			ps.setInt(8, getMana());
-			ps.setLong(9, getTime());
-			ps.setInt(10, getAgathionRemainingEnergy());
-			ps.setInt(11, getObjectId());
-			ps.executeUpdate();
-			_existsInDb = true;
+		if (DatabaseWriter.getInstance().write(new WriteKey("items", getObjectId()), ItemWrite.update(toRow()))) {
 			_storedInDb = true;
-		} catch (Exception ex) {
-			LOG.warn("Could not update item {} in database!", this, ex);
 		}
 	}
 	
@@ -1399,33 +1385,10 @@ public final class L2ItemInstance extends L2Object {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("INSERT INTO items (owner_id, item_id, count, loc, loc_data, enchant_level, object_id, custom_type1, custom_type2, mana_left, time, agathion_energy) VALUES (?,?,?,?,?,?,?,?,?,?,?,?)")) {
-			ps.setInt(1, _ownerId);
-			ps.setInt(2, _itemId);
-			ps.setLong(3, getCount());
-			ps.setString(4, _loc.name());
-			ps.setInt(5, _locData);
-			ps.setInt(6, getEnchantLevel());
-			ps.setInt(7, getObjectId());
-			ps.setInt(8, _type1);
-			ps.setInt(9, _type2);
-			ps.setInt(10, getMana());
-			ps.setLong(11, getTime());
-			ps.setInt(12, getAgathionRemainingEnergy());
-			
-			ps.executeUpdate();
+		// The flags stay unset if the write failed, so the next update tries again.
+		if (DatabaseWriter.getInstance().write(new WriteKey("items", getObjectId()), ItemWrite.insert(toRow(), (_augmentation != null) ? _augmentation.getAttributes() : null, getElementalRows()))) {
 			_existsInDb = true;
 			_storedInDb = true;
-			
-			if (_augmentation != null) {
-				updateItemAttributes(con);
-			}
-			if (_elementals != null) {
-				updateItemElements(con);
-			}
-		} catch (Exception ex) {
-			LOG.warn("Could not insert item {} into database!", this, ex);
 		}
 	}
 	
@@ -1436,28 +1399,32 @@ public final class L2ItemInstance extends L2Object {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			try (var ps = con.prepareStatement("DELETE FROM items WHERE object_id = ?")) {
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
-				_existsInDb = false;
-				_storedInDb = false;
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM item_attributes WHERE itemId = ?")) {
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?")) {
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
-			}
-		} catch (Exception ex) {
-			LOG.warn("Could not delete item {} in database!", this, ex);
+		if (DatabaseWriter.getInstance().write(new WriteKey("items", getObjectId()), ItemWrite.delete(getObjectId()))) {
+			_existsInDb = false;
+			_storedInDb = false;
 		}
 	}
 	
+	/**
+	 * @return the values of the item row, in the order of the columns of {@link ItemWrite#insert(Object[], Integer, List)}
+	 */
+	private Object[] toRow() {
+		return new Object[] {
+			_ownerId,
+			_itemId,
+			getCount(),
+			_loc.name(),
+			_locData,
+			getEnchantLevel(),
+			getObjectId(),
+			_type1,
+			_type2,
+			getMana(),
+			getTime(),
+			getAgathionRemainingEnergy()
+		};
+	}
+	
 	@Override
 	public String toString() {
 		return _item + "[" + getObjectId() + "]" + (getEnchantLevel() > 0 ? " +" + getEnchantLevel() : "");
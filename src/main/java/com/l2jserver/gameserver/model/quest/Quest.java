@@ -60,10 +60,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
@@ -74,6 +70,8 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.commons.util.Rnd;
 import com.l2jserver.commons.util.Util;
 import com.l2jserver.gameserver.cache.HtmCache;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.QuestWrite;
 import com.l2jserver.gameserver.enums.CategoryType;
 import com.l2jserver.gameserver.enums.Race;
 import com.l2jserver.gameserver.enums.audio.IAudio;
@@ -130,6 +128,7 @@ import com.l2jserver.gameserver.network.serverpackets.NpcHtmlMessage;
 import com.l2jserver.gameserver.network.serverpackets.NpcQuestHtmlMessage;
 import com.l2jserver.gameserver.network.serverpackets.TutorialShowHtml;
 import com.l2jserver.gameserver.scripting.ScriptManager;
+import com.l2jserver.gameserver.taskmanager.QuestTimerManager;
 
 /**
  * Quest main class.
@@ -140,15 +139,6 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(Quest.class);
 	
-	/** Map containing lists of timers from the name of the timer. */
-	private volatile Map<String, List<QuestTimer>> _questTimers = null;
-	
-	private final ReentrantReadWriteLock _rwLock = new ReentrantReadWriteLock();
-	
-	private final WriteLock _writeLock = _rwLock.writeLock();
-	
-	private final ReadLock _readLock = _rwLock.readLock();
-	
 	/** Map containing all the start conditions. */
 	private volatile Map<Predicate<L2PcInstance>, String> _startCondition = null;
 	
@@ -163,9 +153,6 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	private static final String DEFAULT_NO_QUEST_MSG = "<html><body>You are either not on a quest that involves this NPC, or you don't meet this NPC's minimum quest requirements.</body></html>";
 	private static final String DEFAULT_ALREADY_COMPLETED_MSG = "<html><body>This quest has already been completed.</body></html>";
 	
-	private static final String QUEST_DELETE_FROM_CHAR_QUERY = "DELETE FROM character_quests WHERE charId=? AND name=?";
-	private static final String QUEST_DELETE_FROM_CHAR_QUERY_NON_REPEATABLE_QUERY = "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?";
-	
 	private static final int RESET_HOUR = 6;
 	private static final int RESET_MINUTES = 30;
 	
@@ -297,17 +284,10 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	
 	/**
 	 * Gets the quest timers.
-	 * @return the quest timers
+	 * @return the quest timers by name, a snapshot of the timers running
 	 */
 	public final Map<String, List<QuestTimer>> getQuestTimers() {
-		if (_questTimers == null) {
-			synchronized (this) {
-				if (_questTimers == null) {
-					_questTimers = new ConcurrentHashMap<>(1);
-				}
-			}
-		}
-		return _questTimers;
+		return QuestTimerManager.getInstance().getTimers(this);
 	}
 	
 	/**
@@ -320,17 +300,8 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 *            If {@code true}, the task is repeated every {@code time} milliseconds until explicitly stopped.
 	 */
 	public void startQuestTimer(String name, long time, L2Npc npc, L2PcInstance player, boolean repeating) {
-		final List<QuestTimer> timers = getQuestTimers().computeIfAbsent(name, k -> new ArrayList<>(1));
 		// if there exists a timer with this name, allow the timer only if the [npc, player] set is unique
-		// nulls act as wildcards
-		if (getQuestTimer(name, npc, player) == null) {
-			_writeLock.lock();
-			try {
-				timers.add(new QuestTimer(this, name, time, npc, player, repeating));
-			} finally {
-				_writeLock.unlock();
-			}
-		}
+		QuestTimerManager.getInstance().startTimer(this, name, time, npc, player, repeating);
 	}
 	
 	/**
@@ -341,26 +312,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @return the quest timer that matches the specified parameters or {@code null} if nothing was found
 	 */
 	public QuestTimer getQuestTimer(String name, L2Npc npc, L2PcInstance player) {
-		if (_questTimers == null) {
-			return null;
-		}
-		
-		final List<QuestTimer> timers = getQuestTimers().get(name);
-		if (timers != null) {
-			_readLock.lock();
-			try {
-				for (QuestTimer timer : timers) {
-					if (timer != null) {
-						if (timer.isMatch(this, name, npc, player)) {
-							return timer;
-						}
-					}
-				}
-			} finally {
-				_readLock.unlock();
-			}
-		}
-		return null;
+		return QuestTimerManager.getInstance().getTimer(this, name, npc, player);
 	}
 	
 	/**
@@ -368,24 +320,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param name the name of the quest timers to cancel
 	 */
 	public void cancelQuestTimers(String name) {
-		if (_questTimers == null) {
-			return;
-		}
-		
-		final List<QuestTimer> timers = getQuestTimers().get(name);
-		if (timers != null) {
-			_writeLock.lock();
-			try {
-				for (QuestTimer timer : timers) {
-					if (timer != null) {
-						timer.cancel();
-					}
-				}
-				timers.clear();
-			} finally {
-				_writeLock.unlock();
-			}
-		}
+		QuestTimerManager.getInstance().cancelTimers(this, name);
 	}
 	
 	/**
@@ -407,16 +342,8 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param timer the {@link QuestState} object to remove
 	 */
 	public void removeQuestTimer(QuestTimer timer) {
-		if ((timer != null) && (_questTimers != null)) {
-			final List<QuestTimer> timers = getQuestTimers().get(timer.getName());
-			if (timers != null) {
-				_writeLock.lock();
-				try {
-					timers.remove(timer);
-				} finally {
-					_writeLock.unlock();
-				}
-			}
+		if (timer != null) {
+			QuestTimerManager.getInstance().removeTimer(timer);
 		}
 	}
 	
@@ -1011,15 +938,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param value the value of the variable
 	 */
 	public final void saveGlobalQuestVar(String var, String value) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("REPLACE INTO quest_global_data (quest_name,var,value) VALUES (?,?,?)")) {
-			ps.setString(1, getName());
-			ps.setString(2, var);
-			ps.setString(3, value);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not insert global quest variable!", ex);
-		}
+		write(QuestWrite.setGlobal(getName(), var, value));
 	}
 	
 	/**
@@ -1032,6 +951,8 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @return the current value of the specified variable, or an empty string if the variable does not exist
 	 */
 	public final String loadGlobalQuestVar(String var) {
+		// The variable may still have a pending write.
+		DatabaseWriter.getInstance().flush();
 		String result = "";
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement("SELECT value FROM quest_global_data WHERE quest_name = ? AND var = ?")) {
@@ -1053,27 +974,14 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param var the name of the variable to delete
 	 */
 	public final void deleteGlobalQuestVar(String var) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("DELETE FROM quest_global_data WHERE quest_name = ? AND var = ?")) {
-			ps.setString(1, getName());
-			ps.setString(2, var);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not delete global quest variable!", ex);
-		}
+		write(QuestWrite.deleteGlobal(getName(), var));
 	}
 	
 	/**
 	 * Permanently delete from the database all global quest variables that were previously saved for this quest.
 	 */
 	public final void deleteAllGlobalQuestVars() {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("DELETE FROM quest_global_data WHERE quest_name = ?")) {
-			ps.setString(1, getName());
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not delete global quest variables!", ex);
-		}
+		write(QuestWrite.deleteAllGlobals(getName()));
 	}
 	
 	/**
@@ -1083,17 +991,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param value the value of the variable
 	 */
 	public static void createQuestVarInDb(QuestState qs, String var, String value) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?")) {
-			ps.setInt(1, qs.getPlayer().getObjectId());
-			ps.setString(2, qs.getQuestName());
-			ps.setString(3, var);
-			ps.setString(4, value);
-			ps.setString(5, value);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not insert char quest!", ex);
-		}
+		write(QuestWrite.set(qs.getPlayer().getObjectId(), qs.getQuestName(), var, value));
 	}
 	
 	/**
@@ -1103,16 +1001,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param value the value of the variable
 	 */
 	public static void updateQuestVarInDb(QuestState qs, String var, String value) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?")) {
-			ps.setString(1, value);
-			ps.setInt(2, qs.getPlayer().getObjectId());
-			ps.setString(3, qs.getQuestName());
-			ps.setString(4, var);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not update char quest!", ex);
-		}
+		write(QuestWrite.update(qs.getPlayer().getObjectId(), qs.getQuestName(), var, value));
 	}
 	
 	/**
@@ -1121,15 +1010,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param var the name of the variable to delete
 	 */
 	public static void deleteQuestVarInDb(QuestState qs, String var) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("DELETE FROM character_quests WHERE charId=? AND name=? AND var=?")) {
-			ps.setInt(1, qs.getPlayer().getObjectId());
-			ps.setString(2, qs.getQuestName());
-			ps.setString(3, var);
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Could not delete char quest!", ex);
-		}
+		write(QuestWrite.delete(qs.getPlayer().getObjectId(), qs.getQuestName(), var));
 	}
 	
 	/**
@@ -1138,17 +1019,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param repeatable if {@code false}, the state variable will be preserved, otherwise it will be deleted as well
 	 */
 	public static void deleteQuestInDb(QuestState qs, boolean repeatable) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(repeatable ? QUEST_DELETE_FROM_CHAR_QUERY : QUEST_DELETE_FROM_CHAR_QUERY_NON_REPEATABLE_QUERY)) {
-			ps.setInt(1, qs.getPlayer().getObjectId());
-			ps.setString(2, qs.getQuestName());
-			if (!repeatable) {
-				ps.setString(3, "<state>");
-			}
-			ps.executeUpdate();
-		} catch (Exception ex) {
-			LOG.warn("Unable to delete char quest!", ex);
-		}
+		write(QuestWrite.deleteQuest(qs.getPlayer().getObjectId(), qs.getQuestName(), !repeatable));
 	}
 	
 	/**
@@ -1156,7 +1027,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param qs the {@link QuestState} object whose data to write in the database
 	 */
 	public static void createQuestInDb(QuestState qs) {
-		createQuestVarInDb(qs, "<state>", State.getStateName(qs.getState()));
+		createQuestVarInDb(qs, QuestWrite.STATE, State.getStateName(qs.getState()));
 	}
 	
 	/**
@@ -1164,7 +1035,15 @@ public class Quest extends AbstractScript implements IIdentifiable {
 	 * @param qs the {@link QuestState} object whose data to update in the database
 	 */
 	public static void updateQuestInDb(QuestState qs) {
-		updateQuestVarInDb(qs, "<state>", State.getStateName(qs.getState()));
+		updateQuestVarInDb(qs, QuestWrite.STATE, State.getStateName(qs.getState()));
+	}
+	
+	/**
+	 * Queues a write of quest variables, the variables are kept in the quest states and the writes are merged and batched by the {@link DatabaseWriter}.
+	 * @param write the write
+	 */
+	static void write(QuestWrite write) {
+		DatabaseWriter.getInstance().write(write.getKey(), write);
 	}
 	
 	/**
@@ -2117,20 +1996,7 @@ public class Quest extends AbstractScript implements IIdentifiable {
 		// cancel all pending timers before reloading.
 		// if timers ought to be restarted, the quest can take care of it
 		// with its code (example: save global data indicating what timer must be restarted).
-		if (_questTimers != null) {
-			for (List<QuestTimer> timers : getQuestTimers().values()) {
-				_readLock.lock();
-				try {
-					for (QuestTimer timer : timers) {
-						timer.cancel();
-					}
-				} finally {
-					_readLock.unlock();
-				}
-				timers.clear();
-			}
-			getQuestTimers().clear();
-		}
+		QuestTimerManager.getInstance().cancelTimers(this);
 		
 		if (removeFromList) {
 			return QuestManager.getInstance().removeScript(this) && super.unload();
@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
+import com.l2jserver.gameserver.dao.writer.QuestWrite;
 import com.l2jserver.gameserver.enums.QuestType;
 import com.l2jserver.gameserver.enums.audio.IAudio;
 import com.l2jserver.gameserver.enums.audio.Sound;
@@ -349,15 +351,7 @@ public final class QuestState {
 	 */
 	// TODO: these methods should not be here, they could be used by other classes to save some variables, but they can't because they require to create a QuestState first.
 	public void saveGlobalQuestVar(String var, String value) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("REPLACE INTO character_quest_global_data (charId, var, value) VALUES (?, ?, ?)")) {
-			ps.setInt(1, _player.getObjectId());
-			ps.setString(2, var);
-			ps.setString(3, value);
-			ps.executeUpdate();
-		} catch (Exception e) {
-			LOG.warn("Could not insert player's global quest variable: {}", e.getMessage(), e);
-		}
+		Quest.write(QuestWrite.setPlayerGlobal(_player.getObjectId(), getQuestName(), var, value));
 	}
 	
 	/**
@@ -371,6 +365,8 @@ public final class QuestState {
 	 */
 	// TODO: these methods should not be here, they could be used by other classes to save some variables, but they can't because they require to create a QuestState first.
 	public String getGlobalQuestVar(String var) {
+		// The variable may still have a pending write.
+		DatabaseWriter.getInstance().flush();
 		String result = "";
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement("SELECT value FROM character_quest_global_data WHERE charId = ? AND var = ?")) {
@@ -392,14 +388,7 @@ public final class QuestState {
 	 * @param var the name of the variable to delete
 	 */
 	public void deleteGlobalQuestVar(String var) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("DELETE FROM character_quest_global_data WHERE charId = ? AND var = ?")) {
-			ps.setInt(1, _player.getObjectId());
-			ps.setString(2, var);
-			ps.executeUpdate();
-		} catch (Exception e) {
-			LOG.warn("Could not delete player's global quest variable; charId = {}, variable name = {}. Exception: {}", _player.getObjectId(), var, e.getMessage(), e);
-		}
+		Quest.write(QuestWrite.deletePlayerGlobal(_player.getObjectId(), getQuestName(), var));
 	}
 	
 	/**
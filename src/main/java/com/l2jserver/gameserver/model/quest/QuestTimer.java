@@ -18,14 +18,12 @@
  */
 package com.l2jserver.gameserver.model.quest;
 
-import java.util.concurrent.ScheduledFuture;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.model.actor.L2Npc;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.taskmanager.QuestTimerManager;
 
 public class QuestTimer {
 	protected static final Logger LOG = LoggerFactory.getLogger(QuestTimer.class);
@@ -48,13 +46,12 @@ public class QuestTimer {
 		}
 	}
 	
-	private boolean _isActive = true;
+	private volatile boolean _isActive = true;
 	private final String _name;
 	private final Quest _quest;
 	private final L2Npc _npc;
 	private final L2PcInstance _player;
 	private final boolean _isRepeating;
-	private final ScheduledFuture<?> _scheduler;
 	
 	public QuestTimer(Quest quest, String name, long time, L2Npc npc, L2PcInstance player, boolean repeating) {
 		_name = name;
@@ -62,11 +59,7 @@ public class QuestTimer {
 		_player = player;
 		_npc = npc;
 		_isRepeating = repeating;
-		if (repeating) {
-			_scheduler = ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new ScheduleTimerTask(), time, time); // Prepare auto end task
-		} else {
-			_scheduler = ThreadPoolManager.getInstance().scheduleGeneral(new ScheduleTimerTask(), time); // Prepare auto end task
-		}
+		QuestTimerManager.getInstance().schedule(this, new ScheduleTimerTask(), time); // Prepare auto end task
 	}
 	
 	public QuestTimer(Quest quest, String name, long time, L2Npc npc, L2PcInstance player) {
@@ -82,9 +75,6 @@ public class QuestTimer {
 	 */
 	public void cancel() {
 		_isActive = false;
-		if (_scheduler != null) {
-			_scheduler.cancel(false);
-		}
 	}
 	
 	/**
@@ -19,13 +19,14 @@
 package com.l2jserver.gameserver.model.skills;
 
 import static com.l2jserver.gameserver.config.Configuration.character;
+import static com.l2jserver.gameserver.config.Configuration.general;
 import static com.l2jserver.gameserver.network.SystemMessageId.YOU_FEEL_S1_EFFECT;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 
 import com.l2jserver.gameserver.GameTimeController;
 import com.l2jserver.gameserver.ThreadPoolManager;
@@ -38,6 +39,7 @@ import com.l2jserver.gameserver.model.effects.EffectTickTask;
 import com.l2jserver.gameserver.model.stats.Formulas;
 import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.serverpackets.SystemMessage;
+import com.l2jserver.gameserver.taskmanager.EffectTaskManager;
 
 /**
  * Buff Info.<br>
@@ -57,7 +59,7 @@ public final class BuffInfo {
 	/** Effect tasks for ticks. */
 	private volatile Map<AbstractEffect, EffectTaskInfo> _tasks;
 	/** Scheduled future. */
-	private ScheduledFuture<?> _scheduledFutureTimeTask;
+	private Future<?> _scheduledFutureTimeTask;
 	// Time and ticks
 	/** Abnormal time. */
 	private int _abnormalTime;
@@ -269,7 +271,8 @@ public final class BuffInfo {
 			if (effect.getTicks() > 0) {
 				// The task for the effect ticks.
 				final var effectTask = new EffectTickTask(this, effect);
-				final var scheduledFuture = ThreadPoolManager.getInstance().scheduleEffectAtFixedRate(effectTask, effect.getTicks() * character().getEffectTickRatio(), effect.getTicks() * character().getEffectTickRatio());
+				final var period = effect.getTicks() * character().getEffectTickRatio();
+				final var scheduledFuture = general().effectTickScheduler() ? EffectTaskManager.getInstance().scheduleAtFixedRate(_effected, effectTask, period, period) : ThreadPoolManager.getInstance().scheduleEffectAtFixedRate(effectTask, period, period);
 				// Adds the task for ticking.
 				addTask(effect, new EffectTaskInfo(effectTask, scheduledFuture));
 			}
@@ -282,7 +285,8 @@ public final class BuffInfo {
 		
 		// Creates a task that will stop all the effects
 		if (_abnormalTime > 0) {
-			_scheduledFutureTimeTask = ThreadPoolManager.getInstance().scheduleEffectAtFixedRate(new BuffTimeTask(this), 0, 1000L);
+			final var timeTask = new BuffTimeTask(this);
+			_scheduledFutureTimeTask = general().effectTickScheduler() ? EffectTaskManager.getInstance().scheduleCountdown(_effected, timeTask) : ThreadPoolManager.getInstance().scheduleEffectAtFixedRate(timeTask, 0, 1000L);
 		}
 	}
 	
@@ -41,6 +41,15 @@ public final class Calculator {
 	/** Table of Func object */
 	private AbstractFunction[] _functions;
 	
+	/** Incremented on each change of the function table, used to invalidate cached results. */
+	private volatile int _version;
+	
+	/** If {@code true} the result only depends on effector state tracked by the stat cache. */
+	private boolean _cacheable = true;
+	
+	/** If {@code true} the result also depends on the current HP of the effector. */
+	private boolean _hpDependent;
+	
 	/**
 	 * Constructor of Calculator (Init value : emptyFuncs).
 	 */
@@ -54,6 +63,8 @@ public final class Calculator {
 	 */
 	public Calculator(Calculator c) {
 		_functions = c._functions;
+		_cacheable = c._cacheable;
+		_hpDependent = c._hpDependent;
 	}
 	
 	/**
@@ -124,7 +135,7 @@ public final class Calculator {
 			tmp[i + 1] = funcs[i];
 		}
 		
-		_functions = tmp;
+		setFunctions(tmp);
 	}
 	
 	/**
@@ -149,11 +160,21 @@ public final class Calculator {
 			tmp[i - 1] = funcs[i];
 		}
 		
-		if (tmp.length == 0) {
-			_functions = EMPTY_FUNCS;
-		} else {
-			_functions = tmp;
+		setFunctions((tmp.length == 0) ? EMPTY_FUNCS : tmp);
+	}
+	
+	private void setFunctions(AbstractFunction[] functions) {
+		boolean cacheable = true;
+		boolean hpDependent = false;
+		for (AbstractFunction function : functions) {
+			cacheable &= function.isCacheable();
+			hpDependent |= function.isHpDependent();
 		}
+		
+		_functions = functions;
+		_cacheable = cacheable;
+		_hpDependent = hpDependent;
+		_version++;
 	}
 	
 	/**
@@ -188,6 +209,31 @@ public final class Calculator {
 		return value;
 	}
 	
+	/**
+	 * Gets the version of the function table, changed by each function added or removed.
+	 * @return the version
+	 */
+	public int getVersion() {
+		return _version;
+	}
+	
+	/**
+	 * Checks if the result of this calculator can be cached.<br>
+	 * That is the case when no function depends on the target, the skill or any state not tracked by the stat cache.
+	 * @return {@code true} if the result can be cached, {@code false} otherwise
+	 */
+	public boolean isCacheable() {
+		return _cacheable;
+	}
+	
+	/**
+	 * Checks if the result of this calculator depends on the current HP of the effector.
+	 * @return {@code true} if the result depends on the current HP, {@code false} otherwise
+	 */
+	public boolean isHpDependent() {
+		return _hpDependent;
+	}
+	
 	/**
 	 * Get array of all function, dont use for add/remove
 	 * @return
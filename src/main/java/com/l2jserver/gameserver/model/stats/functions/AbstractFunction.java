@@ -110,6 +110,23 @@ public abstract class AbstractFunction {
 		return _value;
 	}
 	
+	/**
+	 * Checks if the result of this function only depends on effector state tracked by the stat cache.<br>
+	 * Functions whose apply condition depends on the target, the skill or any other state are not cacheable.
+	 * @return {@code true} if the result can be cached, {@code false} otherwise
+	 */
+	public boolean isCacheable() {
+		return (_applyCond == null) || _applyCond.isCacheable();
+	}
+	
+	/**
+	 * Checks if the result of this function depends on the current HP of the effector.
+	 * @return {@code true} if the result depends on the current HP, {@code false} otherwise
+	 */
+	public boolean isHpDependent() {
+		return (_applyCond != null) && _applyCond.isHpDependent();
+	}
+	
 	/**
 	 * Run the mathematics function of the Func.
 	 * @param effector the effector
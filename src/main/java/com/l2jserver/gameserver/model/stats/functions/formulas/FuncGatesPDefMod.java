@@ -49,4 +49,10 @@ public class FuncGatesPDefMod extends AbstractFunction {
 		}
 		return initVal;
 	}
-}
\ No newline at end of file
+	
+	@Override
+	public boolean isCacheable() {
+		// Depends on the Seven Signs seal owner.
+		return false;
+	}
+}
@@ -439,6 +439,7 @@ public abstract class L2ZoneType extends ListenersContainer {
 			return;
 		}
 		
+		packet.encodeOnce();
 		for (L2Character character : _characterList.values()) {
 			if ((character != null) && character.isPlayer()) {
 				character.sendPacket(packet);
@@ -18,7 +18,6 @@
  */
 package com.l2jserver.gameserver.model.zone.form;
 
-import java.awt.Polygon;
 import java.awt.Rectangle;
 
 import com.l2jserver.commons.util.Rnd;
@@ -27,43 +26,261 @@ import com.l2jserver.gameserver.model.itemcontainer.Inventory;
 import com.l2jserver.gameserver.model.zone.L2ZoneForm;
 
 /**
- * A not so primitive npoly zone
+ * A not so primitive npoly zone.<br>
+ * The polygon is rasterized into a grid over its bounding box when the zone is created: cells fully inside or outside the polygon answer {@link #isInsideZone(int, int, int)} from a bitmap, only cells crossed by an edge run the exact crossing test.<br>
+ * The exact test follows the insideness rules of {@code java.awt.Polygon}.
  * @author durgus
  */
 public class ZoneNPoly extends L2ZoneForm {
-	private final Polygon _p;
+	/** Maximum number of grid cells along each axis. */
+	private static final int MAX_CELLS_PER_SIDE = 64;
+	/** Minimum bit shift of a grid cell, 16 units wide cells. */
+	private static final int MIN_CELL_SHIFT = 4;
+	
+	private final int[] _x;
+	private final int[] _y;
 	private final int _z1;
 	private final int _z2;
 	
+	private final int _minX, _minY, _maxX, _maxY;
+	
+	private final int _cellShift;
+	private final int _cellsX, _cellsY;
+	/** Cells crossed or touched by an edge. */
+	private final long[] _boundaryCells;
+	/** Cells fully inside the polygon. */
+	private final long[] _insideCells;
+	
 	public ZoneNPoly(int[] x, int[] y, int z1, int z2) {
-		_p = new Polygon(x, y, x.length);
+		_x = x.clone();
+		_y = y.clone();
 		
 		_z1 = Math.min(z1, z2);
 		_z2 = Math.max(z1, z2);
+		
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < _x.length; i++) {
+			minX = Math.min(minX, _x[i]);
+			maxX = Math.max(maxX, _x[i]);
+			minY = Math.min(minY, _y[i]);
+			maxY = Math.max(maxY, _y[i]);
+		}
+		if (_x.length == 0) {
+			minX = minY = maxX = maxY = 0;
+		}
+		_minX = minX;
+		_minY = minY;
+		_maxX = maxX;
+		_maxY = maxY;
+		
+		int cellShift = MIN_CELL_SHIFT;
+		while ((Math.max(_maxX - _minX, _maxY - _minY) >> cellShift) >= MAX_CELLS_PER_SIDE) {
+			cellShift++;
+		}
+		_cellShift = cellShift;
+		_cellsX = ((_maxX - _minX) >> _cellShift) + 1;
+		_cellsY = ((_maxY - _minY) >> _cellShift) + 1;
+		_boundaryCells = new long[((_cellsX * _cellsY) + 63) >> 6];
+		_insideCells = new long[_boundaryCells.length];
+		rasterize();
+	}
+	
+	/**
+	 * Marks every cell an edge may cross or touch as a boundary cell, then classifies the remaining cells by their center.
+	 */
+	private void rasterize() {
+		if (_x.length <= 2) {
+			return;
+		}
+		
+		final int cellSize = 1 << _cellShift;
+		for (int i = 0, j = _x.length - 1; i < _x.length; j = i++) {
+			final int x1 = _x[j], y1 = _y[j], x2 = _x[i], y2 = _y[i];
+			final int edgeMinX = Math.min(x1, x2), edgeMaxX = Math.max(x1, x2);
+			final int firstColumn = columnOf(edgeMinX - 1);
+			final int lastColumn = columnOf(edgeMaxX + 1);
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				// part of the edge inside the column, widened by one unit so touching edges count as crossing
+				final double lo = Math.max(edgeMinX, (_minX + (column << _cellShift)) - 1);
+				final double hi = Math.min(edgeMaxX, _minX + ((column + 1) << _cellShift) + 1);
+				if (lo > hi) {
+					continue;
+				}
+				
+				final double yLo, yHi;
+				if (x1 == x2) {
+					yLo = Math.min(y1, y2);
+					yHi = Math.max(y1, y2);
+				} else {
+					final double slope = (double) (y2 - y1) / (x2 - x1);
+					final double ya = y1 + ((lo - x1) * slope);
+					final double yb = y1 + ((hi - x1) * slope);
+					yLo = Math.min(ya, yb);
+					yHi = Math.max(ya, yb);
+				}
+				
+				final int lastRow = rowOf((int) Math.ceil(yHi) + 1);
+				for (int row = rowOf((int) Math.floor(yLo) - 1); row <= lastRow; row++) {
+					set(_boundaryCells, (column * _cellsY) + row);
+				}
+			}
+		}
+		
+		final double half = cellSize / 2.0;
+		for (int column = 0; column < _cellsX; column++) {
+			for (int row = 0; row < _cellsY; row++) {
+				final int cell = (column * _cellsY) + row;
+				if (!isSet(_boundaryCells, cell) && crosses(_minX + (column << _cellShift) + half, _minY + (row << _cellShift) + half)) {
+					set(_insideCells, cell);
+				}
+			}
+		}
+	}
+	
+	private int columnOf(int x) {
+		return Math.clamp((long) (x - _minX) >> _cellShift, 0, _cellsX - 1);
+	}
+	
+	private int rowOf(int y) {
+		return Math.clamp((long) (y - _minY) >> _cellShift, 0, _cellsY - 1);
+	}
+	
+	private static void set(long[] bits, int index) {
+		bits[index >> 6] |= 1L << index;
+	}
+	
+	private static boolean isSet(long[] bits, int index) {
+		return (bits[index >> 6] & (1L << index)) != 0;
+	}
+	
+	/**
+	 * Checks if the point is inside the polygon, ignoring the Z axis.
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @return {@code true} if the point is inside the polygon
+	 */
+	public boolean contains(int x, int y) {
+		if ((x < _minX) || (x >= _maxX) || (y < _minY) || (y >= _maxY)) {
+			return false;
+		}
+		
+		final int cell = (((x - _minX) >> _cellShift) * _cellsY) + ((y - _minY) >> _cellShift);
+		if (isSet(_boundaryCells, cell)) {
+			return crosses(x, y);
+		}
+		return isSet(_insideCells, cell);
+	}
+	
+	/**
+	 * Even-odd crossing test, same rules as {@code java.awt.Polygon#contains(double, double)} without the bounding box check.
+	 * @param x the X coordinate
+	 * @param y the Y coordinate
+	 * @return {@code true} if a ray from the point crosses the polygon edges an odd number of times
+	 */
+	private boolean crosses(double x, double y) {
+		int hits = 0;
+		int lastX = _x[_x.length - 1];
+		int lastY = _y[_y.length - 1];
+		int curX, curY;
+		for (int i = 0; i < _x.length; lastX = curX, lastY = curY, i++) {
+			curX = _x[i];
+			curY = _y[i];
+			if (curY == lastY) {
+				continue;
+			}
+			
+			final int leftX;
+			if (curX < lastX) {
+				if (x >= lastX) {
+					continue;
+				}
+				leftX = curX;
+			} else {
+				if (x >= curX) {
+					continue;
+				}
+				leftX = lastX;
+			}
+			
+			final double test1, test2;
+			if (curY < lastY) {
+				if ((y < curY) || (y >= lastY)) {
+					continue;
+				}
+				if (x < leftX) {
+					hits++;
+					continue;
+				}
+				test1 = x - curX;
+				test2 = y - curY;
+			} else {
+				if ((y < lastY) || (y >= curY)) {
+					continue;
+				}
+				if (x < leftX) {
+					hits++;
+					continue;
+				}
+				test1 = x - lastX;
+				test2 = y - lastY;
+			}
+			
+			if (test1 < ((test2 / (lastY - curY)) * (lastX - curX))) {
+				hits++;
+			}
+		}
+		return (hits & 1) != 0;
 	}
 	
 	@Override
 	public Rectangle getBoundingBox() {
-		return _p.getBounds();
+		return new Rectangle(_minX, _minY, _maxX - _minX, _maxY - _minY);
 	}
 	
 	@Override
 	public boolean isInsideZone(int x, int y, int z) {
-		return (_p.contains(x, y) && (z >= _z1) && (z <= _z2));
+		return ((z >= _z1) && (z <= _z2) && contains(x, y));
 	}
 	
 	@Override
 	public boolean intersectsRectangle(int ax1, int ax2, int ay1, int ay2) {
-		return (_p.intersects(Math.min(ax1, ax2), Math.min(ay1, ay2), Math.abs(ax2 - ax1), Math.abs(ay2 - ay1)));
+		final int rx1 = Math.min(ax1, ax2);
+		final int rx2 = Math.max(ax1, ax2);
+		final int ry1 = Math.min(ay1, ay2);
+		final int ry2 = Math.max(ay1, ay2);
+		if ((_x.length <= 2) || (_maxX < rx1) || (_minX > rx2) || (_maxY < ry1) || (_minY > ry2)) {
+			return false;
+		}
+		
+		// Any vertex inside the rectangle?
+		for (int i = 0; i < _x.length; i++) {
+			if ((_x[i] >= rx1) && (_x[i] <= rx2) && (_y[i] >= ry1) && (_y[i] <= ry2)) {
+				return true;
+			}
+		}
+		
+		// Rectangle inside the polygon?
+		if (contains(rx1, ry1)) {
+			return true;
+		}
+		
+		// Any edge crossing the rectangle sides?
+		for (int i = 0, j = _x.length - 1; i < _x.length; j = i++) {
+			if (lineSegmentsIntersect(_x[j], _y[j], _x[i], _y[i], rx1, ry1, rx2, ry1) //
+				|| lineSegmentsIntersect(_x[j], _y[j], _x[i], _y[i], rx2, ry1, rx2, ry2) //
+				|| lineSegmentsIntersect(_x[j], _y[j], _x[i], _y[i], rx2, ry2, rx1, ry2) //
+				|| lineSegmentsIntersect(_x[j], _y[j], _x[i], _y[i], rx1, ry2, rx1, ry1)) {
+				return true;
+			}
+		}
+		return false;
 	}
 	
 	@Override
 	public double getDistanceToZone(int x, int y) {
-		int[] _x = _p.xpoints;
-		int[] _y = _p.ypoints;
 		double test, shortestDist = Math.pow(_x[0] - x, 2) + Math.pow(_y[0] - y, 2);
 		
-		for (int i = 1; i < _p.npoints; i++) {
+		for (int i = 1; i < _x.length; i++) {
 			test = Math.pow(_x[i] - x, 2) + Math.pow(_y[i] - y, 2);
 			if (test < shortestDist) {
 				shortestDist = test;
@@ -86,10 +303,7 @@ public class ZoneNPoly extends L2ZoneForm {
 	
 	@Override
 	public void visualizeZone(int z) {
-		int[] _x = _p.xpoints;
-		int[] _y = _p.ypoints;
-		
-		for (int i = 0; i < _p.npoints; i++) {
+		for (int i = 0; i < _x.length; i++) {
 			int nextIndex = i + 1;
 			// ending point to first one
 			if (nextIndex == _x.length) {
@@ -110,16 +324,11 @@ public class ZoneNPoly extends L2ZoneForm {
 	public int[] getRandomPoint() {
 		int x, y;
 		
-		int _minX = _p.getBounds().x;
-		int _maxX = _p.getBounds().x + _p.getBounds().width;
-		int _minY = _p.getBounds().y;
-		int _maxY = _p.getBounds().y + _p.getBounds().height;
-		
 		x = Rnd.get(_minX, _maxX);
 		y = Rnd.get(_minY, _maxY);
 		
 		int antiBlocker = 0;
-		while (!_p.contains(x, y) && (antiBlocker++ < 1000)) {
+		while (!contains(x, y) && (antiBlocker++ < 1000)) {
 			x = Rnd.get(_minX, _maxX);
 			y = Rnd.get(_minY, _maxY);
 		}
@@ -18,17 +18,35 @@
  */
 package com.l2jserver.gameserver.network;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
+ * Game packet cipher.<br>
+ * Each byte is XORed with the key byte of its position and with the previous encrypted byte, and the key changes by the size of every packet.<br>
+ * Packets are processed eight bytes at a time as little endian longs: decryption XORs every word with the word shifted by a byte, and encryption, a running XOR, is a prefix XOR of the bytes of the word XORed with the last encrypted byte.<br>
+ * The byte array and the byte buffer, heap or direct, versions produce the same bytes.
  * @author KenM
  */
 public class GameCrypt {
-	private final byte[] _inKey = new byte[16];
-	private final byte[] _outKey = new byte[16];
+	private static final VarHandle ARRAY_LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	/** A one in every byte of a long. */
+	private static final long EVERY_BYTE = 0x0101010101010101L;
+	
+	/** Bytes 0 to 7 and 8 to 15 of the input key, as little endian longs. */
+	private long _inKey0;
+	private long _inKey1;
+	/** Bytes 0 to 7 and 8 to 15 of the output key, as little endian longs. */
+	private long _outKey0;
+	private long _outKey1;
 	private boolean _isEnabled;
 	
 	public void setKey(byte[] key) {
-		System.arraycopy(key, 0, _inKey, 0, 16);
-		System.arraycopy(key, 0, _outKey, 0, 16);
+		_inKey0 = _outKey0 = (long) ARRAY_LONGS.get(key, 0);
+		_inKey1 = _outKey1 = (long) ARRAY_LONGS.get(key, 8);
 	}
 	
 	public void decrypt(byte[] raw, final int offset, final int size) {
@@ -36,24 +54,74 @@ public class GameCrypt {
 			return;
 		}
 		
-		int temp = 0;
-		for (int i = 0; i < size; i++) {
-			int temp2 = raw[offset + i] & 0xFF;
-			raw[offset + i] = (byte) (temp2 ^ _inKey[i & 15] ^ temp);
-			temp = temp2;
+		final long key0 = _inKey0;
+		final long key1 = _inKey1;
+		// The previous encrypted byte, in the lowest byte.
+		long previous = 0;
+		int i = 0;
+		for (; (i + 16) <= size; i += 16) {
+			final long first = (long) ARRAY_LONGS.get(raw, offset + i);
+			final long second = (long) ARRAY_LONGS.get(raw, offset + i + 8);
+			ARRAY_LONGS.set(raw, offset + i, first ^ key0 ^ ((first << 8) | previous));
+			ARRAY_LONGS.set(raw, offset + i + 8, second ^ key1 ^ ((second << 8) | (first >>> 56)));
+			previous = second >>> 56;
+		}
+		if ((i + 8) <= size) {
+			final long word = (long) ARRAY_LONGS.get(raw, offset + i);
+			ARRAY_LONGS.set(raw, offset + i, word ^ key0 ^ ((word << 8) | previous));
+			previous = word >>> 56;
+			i += 8;
+		}
+		for (; i < size; i++) {
+			final int encrypted = raw[offset + i] & 0xFF;
+			raw[offset + i] = (byte) (encrypted ^ keyByte(key0, key1, i) ^ previous);
+			previous = encrypted;
+		}
+		
+		_inKey1 = shiftKey(key1, size);
+	}
+	
+	/**
+	 * Decrypts a packet in a buffer, heap or direct, the position and the byte order of the buffer are not changed.
+	 * @param buf the buffer
+	 * @param offset the index of the packet in the buffer
+	 * @param size the size of the packet
+	 */
+	public void decrypt(ByteBuffer buf, final int offset, final int size) {
+		if (buf.hasArray()) {
+			decrypt(buf.array(), buf.arrayOffset() + offset, size);
+			return;
 		}
 		
-		int old = _inKey[8] & 0xff;
-		old |= (_inKey[9] << 8) & 0xff00;
-		old |= (_inKey[10] << 0x10) & 0xff0000;
-		old |= (_inKey[11] << 0x18) & 0xff000000;
+		if (!_isEnabled) {
+			return;
+		}
 		
-		old += size;
+		final ByteBuffer raw = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		final long key0 = _inKey0;
+		final long key1 = _inKey1;
+		long previous = 0;
+		int i = 0;
+		for (; (i + 16) <= size; i += 16) {
+			final long first = raw.getLong(offset + i);
+			final long second = raw.getLong(offset + i + 8);
+			raw.putLong(offset + i, first ^ key0 ^ ((first << 8) | previous));
+			raw.putLong(offset + i + 8, second ^ key1 ^ ((second << 8) | (first >>> 56)));
+			previous = second >>> 56;
+		}
+		if ((i + 8) <= size) {
+			final long word = raw.getLong(offset + i);
+			raw.putLong(offset + i, word ^ key0 ^ ((word << 8) | previous));
+			previous = word >>> 56;
+			i += 8;
+		}
+		for (; i < size; i++) {
+			final int encrypted = raw.get(offset + i) & 0xFF;
+			raw.put(offset + i, (byte) (encrypted ^ keyByte(key0, key1, i) ^ previous));
+			previous = encrypted;
+		}
 		
-		_inKey[8] = (byte) (old & 0xff);
-		_inKey[9] = (byte) ((old >> 0x08) & 0xff);
-		_inKey[10] = (byte) ((old >> 0x10) & 0xff);
-		_inKey[11] = (byte) ((old >> 0x18) & 0xff);
+		_inKey1 = shiftKey(key1, size);
 	}
 	
 	public void encrypt(byte[] raw, final int offset, final int size) {
@@ -62,23 +130,99 @@ public class GameCrypt {
 			return;
 		}
 		
-		int temp = 0;
-		for (int i = 0; i < size; i++) {
-			int temp2 = raw[offset + i] & 0xFF;
-			temp = temp2 ^ _outKey[i & 15] ^ temp;
-			raw[offset + i] = (byte) temp;
+		final long key0 = _outKey0;
+		final long key1 = _outKey1;
+		// The previous encrypted byte.
+		long previous = 0;
+		int i = 0;
+		for (; (i + 16) <= size; i += 16) {
+			final long first = encryptWord((long) ARRAY_LONGS.get(raw, offset + i) ^ key0, previous);
+			ARRAY_LONGS.set(raw, offset + i, first);
+			final long second = encryptWord((long) ARRAY_LONGS.get(raw, offset + i + 8) ^ key1, first >>> 56);
+			ARRAY_LONGS.set(raw, offset + i + 8, second);
+			previous = second >>> 56;
+		}
+		if ((i + 8) <= size) {
+			final long word = encryptWord((long) ARRAY_LONGS.get(raw, offset + i) ^ key0, previous);
+			ARRAY_LONGS.set(raw, offset + i, word);
+			previous = word >>> 56;
+			i += 8;
+		}
+		for (; i < size; i++) {
+			previous = (raw[offset + i] ^ keyByte(key0, key1, i) ^ previous) & 0xFF;
+			raw[offset + i] = (byte) previous;
+		}
+		
+		_outKey1 = shiftKey(key1, size);
+	}
+	
+	/**
+	 * Encrypts a packet in a buffer, heap or direct, the position and the byte order of the buffer are not changed.
+	 * @param buf the buffer
+	 * @param offset the index of the packet in the buffer
+	 * @param size the size of the packet
+	 */
+	public void encrypt(ByteBuffer buf, final int offset, final int size) {
+		if (buf.hasArray()) {
+			encrypt(buf.array(), buf.arrayOffset() + offset, size);
+			return;
 		}
 		
-		int old = _outKey[8] & 0xff;
-		old |= (_outKey[9] << 8) & 0xff00;
-		old |= (_outKey[10] << 0x10) & 0xff0000;
-		old |= (_outKey[11] << 0x18) & 0xff000000;
+		if (!_isEnabled) {
+			_isEnabled = true;
+			return;
+		}
 		
-		old += size;
+		final ByteBuffer raw = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		final long key0 = _outKey0;
+		final long key1 = _outKey1;
+		long previous = 0;
+		int i = 0;
+		for (; (i + 16) <= size; i += 16) {
+			final long first = encryptWord(raw.getLong(offset + i) ^ key0, previous);
+			raw.putLong(offset + i, first);
+			final long second = encryptWord(raw.getLong(offset + i + 8) ^ key1, first >>> 56);
+			raw.putLong(offset + i + 8, second);
+			previous = second >>> 56;
+		}
+		if ((i + 8) <= size) {
+			final long word = encryptWord(raw.getLong(offset + i) ^ key0, previous);
+			raw.putLong(offset + i, word);
+			previous = word >>> 56;
+			i += 8;
+		}
+		for (; i < size; i++) {
+			previous = (raw.get(offset + i) ^ keyByte(key0, key1, i) ^ previous) & 0xFF;
+			raw.put(offset + i, (byte) previous);
+		}
 		
-		_outKey[8] = (byte) (old & 0xff);
-		_outKey[9] = (byte) ((old >> 0x08) & 0xff);
-		_outKey[10] = (byte) ((old >> 0x10) & 0xff);
-		_outKey[11] = (byte) ((old >> 0x18) & 0xff);
+		_outKey1 = shiftKey(key1, size);
+	}
+	
+	/**
+	 * Encrypts a word already XORed with its key.
+	 * @param word the word XORed with the key
+	 * @param previous the previous encrypted byte
+	 * @return the encrypted word, every byte XORed with all the bytes before it and the previous encrypted byte
+	 */
+	private static long encryptWord(long word, long previous) {
+		word ^= word << 8;
+		word ^= word << 16;
+		word ^= word << 32;
+		return word ^ (previous * EVERY_BYTE);
+	}
+	
+	private static int keyByte(long key0, long key1, int index) {
+		return (int) ((((index & 8) == 0) ? key0 : key1) >>> ((index & 7) << 3)) & 0xFF;
+	}
+	
+	/**
+	 * Adds the size of a packet to the key bytes 8 to 11, a little endian int.
+	 * @param key1 the key bytes 8 to 15
+	 * @param size the size of the packet
+	 * @return the new key bytes 8 to 15
+	 */
+	private static long shiftKey(long key1, int size) {
+		return (key1 & 0xFFFFFFFF00000000L) | (((int) key1 + size) & 0xFFFFFFFFL);
 	}
 }
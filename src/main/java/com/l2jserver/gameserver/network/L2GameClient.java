@@ -33,6 +33,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
@@ -41,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.LoginServerThread;
 import com.l2jserver.gameserver.LoginServerThread.SessionKey;
+import com.l2jserver.gameserver.NamedRunnable;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.data.sql.impl.CharNameTable;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
@@ -67,7 +69,7 @@ import com.l2jserver.mmocore.ReceivablePacket;
  * Represents a client connected on Game Server.
  * @author KenM
  */
-public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> implements Runnable {
+public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> implements NamedRunnable {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(L2GameClient.class);
 	
@@ -126,6 +128,15 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	
 	private final ReentrantLock _queueLock = new ReentrantLock();
 	
+	/** If {@code true} the packet queue is drained by virtual threads instead of the packet thread pools. */
+	private final boolean _virtualThreads;
+	
+	/** Set while a virtual thread is scheduled to drain the packet queue. */
+	private final AtomicBoolean _drainScheduled = new AtomicBoolean();
+	
+	/** Type of the last packet run, names the queue drains in the task statistics. */
+	private volatile Class<?> _lastPacketType;
+	
 	private int[][] trace;
 	
 	public L2GameClient(MMOConnection<L2GameClient> con) {
@@ -137,6 +148,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		
 		final var capacity = Math.max(general().getClientPacketQueueSize(), mmo().getMaxReadPerPass() + 2);
 		_packetQueue = new ArrayBlockingQueue<>(capacity);
+		_virtualThreads = general().clientPacketVirtualThreads();
 		
 		if (general().getCharacterDataStoreInterval() > 0) {
 			_autoSaveInDB = ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new AutoSaveTask(), 300000L, general().getCharacterDataStoreInterval());
@@ -186,13 +198,13 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	
 	@Override
 	public boolean decrypt(ByteBuffer buf, int size) {
-		_crypt.decrypt(buf.array(), buf.position(), size);
+		_crypt.decrypt(buf, buf.position(), size);
 		return true;
 	}
 	
 	@Override
 	public boolean encrypt(final ByteBuffer buf, final int size) {
-		_crypt.encrypt(buf.array(), buf.position(), size);
+		_crypt.encrypt(buf, buf.position(), size);
 		buf.position(buf.position() + size);
 		return true;
 	}
@@ -855,7 +867,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 			return;
 		}
 		
-		if (_queueLock.isLocked()) {
+		if (_virtualThreads ? !_drainScheduled.compareAndSet(false, true) : _queueLock.isLocked()) {
 			return;
 		}
 		
@@ -868,7 +880,13 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 					closeNow();
 					return;
 				}
-				ThreadPoolManager.getInstance().executeIOPacket(this);
+				if (_virtualThreads) {
+					ThreadPoolManager.getInstance().executeVirtualPacket(this);
+				} else {
+					ThreadPoolManager.getInstance().executeIOPacket(this);
+				}
+			} else if (_virtualThreads) {
+				ThreadPoolManager.getInstance().executeVirtualPacket(this);
 			} else {
 				ThreadPoolManager.getInstance().executePacket(this);
 			}
@@ -880,8 +898,19 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		}
 	}
 	
+	@Override
+	public String getTaskName() {
+		final Class<?> packetType = _lastPacketType;
+		return (packetType != null) ? "L2GameClient." + packetType.getSimpleName() : "L2GameClient";
+	}
+	
 	@Override
 	public void run() {
+		if (_virtualThreads) {
+			drainQueue();
+			return;
+		}
+		
 		if (!_queueLock.tryLock()) {
 			return;
 		}
@@ -901,6 +930,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 					return;
 				}
 				
+				_lastPacketType = packet.getClass();
 				try {
 					packet.run();
 				} catch (Exception ex) {
@@ -917,6 +947,42 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		}
 	}
 	
+	/**
+	 * Drains the packet queue on a virtual thread.<br>
+	 * Only one drain is scheduled at a time, so packets keep their order.<br>
+	 * After a burst the drain continues in a new virtual thread, and a packet queued while the drain was finishing schedules a new one.<br>
+	 * On Java 21 a packet blocking inside a {@code synchronized} block, in its handler or in the JDBC driver, pins the carrier thread of its virtual thread until it is done.
+	 */
+	private void drainQueue() {
+		int count = 0;
+		ReceivablePacket<L2GameClient> packet;
+		while ((packet = _packetQueue.poll()) != null) {
+			// Clear queue immediately after detach.
+			if (_isDetached) {
+				_packetQueue.clear();
+				break;
+			}
+			
+			_lastPacketType = packet.getClass();
+			try {
+				packet.run();
+			} catch (Exception ex) {
+				LOG.error("Exception during execution {}, client {}!", packet.getClass().getSimpleName(), this, ex);
+			}
+			
+			count++;
+			if (getStats().countBurst(count)) {
+				ThreadPoolManager.getInstance().executeVirtualPacket(this);
+				return;
+			}
+		}
+		
+		_drainScheduled.set(false);
+		if (!_packetQueue.isEmpty() && _drainScheduled.compareAndSet(false, true)) {
+			ThreadPoolManager.getInstance().executeVirtualPacket(this);
+		}
+	}
+	
 	public void setClientTracert(int[][] tracert) {
 		trace = tracert;
 	}
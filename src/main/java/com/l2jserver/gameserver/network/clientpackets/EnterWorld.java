@@ -314,6 +314,8 @@ public class EnterWorld extends L2GameClientPacket {
 		}
 		
 		activeChar.broadcastUserInfo();
+		// The client needs the UserInfo before the rest of the login packets.
+		activeChar.flushBroadcasts();
 		
 		// Send keybinds
 		if (character().storeUISettings()) {
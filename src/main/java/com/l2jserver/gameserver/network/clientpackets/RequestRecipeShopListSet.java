@@ -114,6 +114,8 @@ public final class RequestRecipeShopListSet extends L2GameClientPacket {
 		player.setPrivateStoreType(PrivateStoreType.MANUFACTURE);
 		player.sitDown();
 		player.broadcastUserInfo();
+		// The store message needs the store type of the CharInfo.
+		player.flushBroadcasts();
 		Broadcast.toSelfAndKnownPlayers(player, new RecipeShopMsg(player));
 	}
 	
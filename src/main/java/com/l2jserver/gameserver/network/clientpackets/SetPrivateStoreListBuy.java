@@ -137,6 +137,8 @@ public final class SetPrivateStoreListBuy extends L2GameClientPacket {
 		player.sitDown();
 		player.setPrivateStoreType(PrivateStoreType.BUY);
 		player.broadcastUserInfo();
+		// The store message needs the store type of the CharInfo.
+		player.flushBroadcasts();
 		player.broadcastPacket(new PrivateStoreMsgBuy(player));
 	}
 	
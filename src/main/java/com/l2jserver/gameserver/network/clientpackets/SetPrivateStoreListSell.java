@@ -131,6 +131,8 @@ public class SetPrivateStoreListSell extends L2GameClientPacket {
 		}
 		
 		player.broadcastUserInfo();
+		// The store message needs the store type of the CharInfo.
+		player.flushBroadcasts();
 		
 		if (_packageSale) {
 			player.broadcastPacket(new ExPrivateStoreSetWholeMsg(player));
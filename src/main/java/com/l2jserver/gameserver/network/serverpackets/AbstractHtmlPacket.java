@@ -22,6 +22,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.gameserver.cache.HtmCache;
+import com.l2jserver.gameserver.cache.HtmlBuilder;
+import com.l2jserver.gameserver.cache.HtmlTemplate;
 import com.l2jserver.gameserver.enums.HtmlActionScope;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.util.Util;
@@ -35,7 +37,7 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	public static final char VAR_PARAM_START_CHAR = '$';
 	
 	private final int _npcObjId;
-	private String _html = null;
+	private HtmlBuilder _html = null;
 	private boolean _disabledValidation = false;
 	
 	protected AbstractHtmlPacket() {
@@ -71,30 +73,34 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	public final void setHtml(String html) {
 		if (html.length() > 17200) {
 			LOG.warn("Html is too long! this will crash the client!", new Throwable());
-			_html = html.substring(0, 17200);
 		}
 		
 		if (!html.contains("<html")) {
 			html = "<html><body>" + html + "</body></html>";
 		}
 		
-		_html = html;
+		_html = new HtmlBuilder(html);
 	}
 	
 	public final boolean setFile(String prefix, String path) {
-		String content = HtmCache.getInstance().getHtm(prefix, path);
-		if (content == null) {
+		final HtmlTemplate template = HtmCache.getInstance().getTemplate(prefix, path);
+		if (template == null) {
 			setHtml("<html><body>My Text is missing:<br>" + path + "</body></html>");
 			LOG.warn("Missing html page {}", path);
 			return false;
 		}
 		
-		setHtml(content);
+		// Cached pages are rendered from their template, without copying the page for each replacement.
+		if (template.getText().contains("<html") && (template.getText().length() <= 17200)) {
+			_html = new HtmlBuilder(template);
+		} else {
+			setHtml(template.getText());
+		}
 		return true;
 	}
 	
 	public final void replace(String pattern, String value) {
-		_html = _html.replaceAll(pattern, value.replace("$", "\\$"));
+		_html.replace(pattern, value);
 	}
 	
 	public final void replace(String pattern, boolean val) {
@@ -126,7 +132,7 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 			return;
 		}
 		
-		Util.buildHtmlActionCache(player, getScope(), _npcObjId, _html);
+		Util.buildHtmlActionCache(player, getScope(), _npcObjId, getHtml());
 	}
 	
 	public final int getNpcObjId() {
@@ -134,7 +140,7 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	}
 	
 	public final String getHtml() {
-		return _html;
+		return (_html != null) ? _html.build() : null;
 	}
 	
 	public abstract HtmlActionScope getScope();
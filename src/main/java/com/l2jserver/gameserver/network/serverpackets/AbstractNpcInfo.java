@@ -70,7 +70,7 @@ public abstract class AbstractNpcInfo extends L2GameServerPacket {
 	/**
 	 * Packet for Npcs
 	 */
-	public static class NpcInfo extends AbstractNpcInfo {
+	public static class NpcInfo extends AbstractNpcInfo implements IClientIndependentPacket {
 		private final L2Npc _npc;
 		private int _clanCrest = 0;
 		private int _allyCrest = 0;
@@ -30,7 +30,7 @@ import com.l2jserver.gameserver.model.itemcontainer.Inventory;
 import com.l2jserver.gameserver.model.skills.AbnormalVisualEffect;
 import com.l2jserver.gameserver.model.zone.ZoneId;
 
-public class CharInfo extends L2GameServerPacket {
+public class CharInfo extends L2GameServerPacket implements IClientIndependentPacket {
 	private final L2PcInstance _activeChar;
 	private int _objId;
 	private int _x, _y, _z, _heading;
@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.writer.DatabaseWriter;
 import com.l2jserver.gameserver.data.json.ExperienceData;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.model.CharSelectInfoPackage;
@@ -165,6 +166,7 @@ public class CharSelectionInfo extends L2GameServerPacket {
 	
 	private static List<CharSelectInfoPackage> loadCharacterSelectInfo(String loginName) {
 		final List<CharSelectInfoPackage> characterList = new ArrayList<>();
+		DatabaseWriter.getInstance().flush();
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var statement = con.prepareStatement("SELECT * FROM characters WHERE account_name=? ORDER BY createDate")) {
 			statement.setString(1, loginName);
@@ -25,7 +25,7 @@ import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
  * @author Kerberos
  * @author Zoey76
  */
-public class ExBrExtraUserInfo extends L2GameServerPacket {
+public class ExBrExtraUserInfo extends L2GameServerPacket implements IClientIndependentPacket {
 	/** Player object ID. */
 	private final int _charObjId;
 	/** Event abnormal visual effects map. */
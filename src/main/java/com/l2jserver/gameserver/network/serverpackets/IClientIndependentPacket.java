@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+/**
+ * Marker of the server packets whose payload is the same for every client receiving them.<br>
+ * When such a packet is broadcast it is serialized once, by the write for the first client, and the payload is copied to the send buffer of the other clients, before their encryption.<br>
+ * Packets reading the receiving client while writing must not be marked, they are written for each client.
+ * @since 2.6.3.0
+ */
+public interface IClientIndependentPacket {
+	
+}
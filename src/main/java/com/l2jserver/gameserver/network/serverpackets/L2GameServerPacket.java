@@ -18,6 +18,8 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
+import java.nio.ByteBuffer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +36,11 @@ public abstract class L2GameServerPacket extends SendablePacket<L2GameClient> {
 	
 	private boolean _invisible = false;
 	
+	private boolean _encodeOnce = false;
+	
+	/** Payload serialized by the first write of an encoded once packet, only accessed by the selector thread. */
+	private byte[] _payload;
+	
 	private static final int[] PAPERDOLL_ORDER = new int[] {
 		Inventory.PAPERDOLL_UNDER,
 		Inventory.PAPERDOLL_REAR,
@@ -79,6 +86,17 @@ public abstract class L2GameServerPacket extends SendablePacket<L2GameClient> {
 		_invisible = b;
 	}
 	
+	/**
+	 * Sets the packet to be serialized once for all the clients it is sent to.<br>
+	 * Only {@link IClientIndependentPacket} packets not sent by an invisible character are serialized once, other packets are still written for each client.<br>
+	 * The payload is serialized by the first write, so the packet must not change once sent.
+	 * @return this packet
+	 */
+	public L2GameServerPacket encodeOnce() {
+		_encodeOnce = true;
+		return this;
+	}
+	
 	/**
 	 * Writes 3 D (int32) with current location x, y, z
 	 * @param loc
@@ -96,12 +114,36 @@ public abstract class L2GameServerPacket extends SendablePacket<L2GameClient> {
 	@Override
 	protected void write() {
 		try {
+			// Packets of invisible characters depend on the client, only game masters see them.
+			if (_encodeOnce && !_invisible && (this instanceof IClientIndependentPacket)) {
+				if (_payload != null) {
+					writeB(_payload);
+					return;
+				}
+				
+				final int start = _buf.position();
+				writeImpl();
+				final byte[] payload = new byte[_buf.position() - start];
+				_buf.get(start, payload);
+				_payload = payload;
+				return;
+			}
+			
 			writeImpl();
 		} catch (Exception e) {
 			LOG.error("Client: {} - Failed writing: {} ; {}", getClient().toString(), getClass().getSimpleName(), e.getMessage(), e);
 		}
 	}
 	
+	/**
+	 * Writes the packet to a buffer, as the selector thread does for each client it is sent to.
+	 * @param buffer the buffer
+	 */
+	void writeTo(ByteBuffer buffer) {
+		_buf = buffer;
+		write();
+	}
+	
 	public void runImpl() {
 		
 	}
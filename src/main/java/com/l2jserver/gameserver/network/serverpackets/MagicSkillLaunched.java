@@ -27,7 +27,7 @@ import com.l2jserver.gameserver.model.actor.L2Character;
  * MagicSkillLaunched server packet implementation.
  * @author UnAfraid
  */
-public class MagicSkillLaunched extends L2GameServerPacket {
+public class MagicSkillLaunched extends L2GameServerPacket implements IClientIndependentPacket {
 	private final int _charObjId;
 	private final int _skillId;
 	private final int _skillLevel;
@@ -30,7 +30,7 @@ import com.l2jserver.gameserver.model.interfaces.IPositionable;
  * @author UnAfraid
  * @author NosBit
  */
-public final class MagicSkillUse extends L2GameServerPacket {
+public final class MagicSkillUse extends L2GameServerPacket implements IClientIndependentPacket {
 	private final int _skillId;
 	private final int _skillLevel;
 	private final int _hitTime;
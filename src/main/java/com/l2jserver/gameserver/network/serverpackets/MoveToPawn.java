@@ -20,7 +20,7 @@ package com.l2jserver.gameserver.network.serverpackets;
 
 import com.l2jserver.gameserver.model.actor.L2Character;
 
-public class MoveToPawn extends L2GameServerPacket {
+public class MoveToPawn extends L2GameServerPacket implements IClientIndependentPacket {
 	private final int _charObjId;
 	private final int _targetId;
 	private final int _distance;
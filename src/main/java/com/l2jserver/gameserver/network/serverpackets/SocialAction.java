@@ -18,7 +18,7 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
-public class SocialAction extends L2GameServerPacket {
+public class SocialAction extends L2GameServerPacket implements IClientIndependentPacket {
 	public static final int LEVEL_UP = 2122;
 	
 	private final int _charObjId;
@@ -20,7 +20,7 @@ package com.l2jserver.gameserver.network.serverpackets;
 
 import com.l2jserver.gameserver.model.actor.L2Character;
 
-public final class StopMove extends L2GameServerPacket {
+public final class StopMove extends L2GameServerPacket implements IClientIndependentPacket {
 	private final int _objectId;
 	private final int _x;
 	private final int _y;
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.pathfinding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable route calculated by the pathfinding engine.<br>
+ * Waypoints are stored as packed X, Y, Z triples in a single array, so paths are cheap to keep in the path cache and can be shared between characters.
+ * @since 2.6.3.0
+ */
+public final class GeoPath {
+	private final int[] _points;
+	
+	/**
+	 * Creates a path from the first {@code size} waypoints of the given packed array.
+	 * @param points the packed X, Y, Z triples
+	 * @param size the number of waypoints
+	 */
+	public GeoPath(int[] points, int size) {
+		_points = Arrays.copyOf(points, size * 3);
+	}
+	
+	/**
+	 * Creates a path from a list of node locations.
+	 * @param nodes the node locations
+	 * @return the path, {@code null} if {@code nodes} is {@code null}
+	 */
+	public static GeoPath of(List<AbstractNodeLoc> nodes) {
+		if (nodes == null) {
+			return null;
+		}
+		
+		final int[] points = new int[nodes.size() * 3];
+		int i = 0;
+		for (AbstractNodeLoc node : nodes) {
+			points[i++] = node.getX();
+			points[i++] = node.getY();
+			points[i++] = node.getZ();
+		}
+		return new GeoPath(points, nodes.size());
+	}
+	
+	/**
+	 * @return the number of waypoints
+	 */
+	public int size() {
+		return _points.length / 3;
+	}
+	
+	public int getX(int index) {
+		return _points[index * 3];
+	}
+	
+	public int getY(int index) {
+		return _points[(index * 3) + 1];
+	}
+	
+	public int getZ(int index) {
+		return _points[(index * 3) + 2];
+	}
+	
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(16 + (_points.length * 7));
+		sb.append("GeoPath[");
+		for (int i = 0; i < size(); i++) {
+			if (i > 0) {
+				sb.append(" -> ");
+			}
+			sb.append(getX(i)).append(',').append(getY(i)).append(',').append(getZ(i));
+		}
+		return sb.append(']').toString();
+	}
+}
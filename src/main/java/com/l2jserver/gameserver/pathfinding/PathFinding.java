@@ -20,8 +20,6 @@ package com.l2jserver.gameserver.pathfinding;
 
 import static com.l2jserver.gameserver.config.Configuration.geodata;
 
-import java.util.List;
-
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.pathfinding.cellnodes.CellPathFinding;
 import com.l2jserver.gameserver.pathfinding.geonodes.GeoPathFinding;
@@ -41,7 +39,19 @@ public abstract class PathFinding {
 	
 	public abstract boolean pathNodesExist(short regionoffset);
 	
-	public abstract List<AbstractNodeLoc> findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable);
+	/**
+	 * Finds a path between two locations.
+	 * @param x the X coordinate of the start
+	 * @param y the Y coordinate of the start
+	 * @param z the Z coordinate of the start
+	 * @param tx the X coordinate of the destination
+	 * @param ty the Y coordinate of the destination
+	 * @param tz the Z coordinate of the destination
+	 * @param instanceId the instance ID
+	 * @param playable {@code true} if the path is requested by a playable
+	 * @return the path, {@code null} if no path was found
+	 */
+	public abstract GeoPath findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable);
 	
 	// @formatter:off
 	/*
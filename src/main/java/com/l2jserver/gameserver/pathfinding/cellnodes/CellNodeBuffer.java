@@ -22,16 +22,16 @@ import static com.l2jserver.gameserver.config.Configuration.geodata;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * A* search buffer.<br>
+ * Buffers are confined to a single thread at a time, see {@link CellPathFinding}.
  * @author Diamond
  * @author DS
  */
 public class CellNodeBuffer {
 	private static final int MAX_ITERATIONS = 3500;
 	
-	private final ReentrantLock _lock = new ReentrantLock();
 	private final int _mapSize;
 	private final CellNode[][] _buffer;
 	
@@ -44,6 +44,9 @@ public class CellNodeBuffer {
 	
 	private long _timeStamp = 0;
 	private long _lastElapsedTime = 0;
+	private int _expandedNodes = 0;
+	
+	private boolean _inUse = false;
 	
 	private CellNode _current = null;
 	
@@ -52,8 +55,21 @@ public class CellNodeBuffer {
 		_buffer = new CellNode[_mapSize][_mapSize];
 	}
 	
+	/**
+	 * Marks this buffer as in use.<br>
+	 * Must be called by the thread owning the buffer.
+	 * @return {@code true} if the buffer was free, {@code false} if it is already in use by a search of the calling thread
+	 */
 	public final boolean lock() {
-		return _lock.tryLock();
+		if (_inUse) {
+			return false;
+		}
+		_inUse = true;
+		return true;
+	}
+	
+	public final int getMapSize() {
+		return _mapSize;
 	}
 	
 	public final CellNode findPath(int x, int y, int z, int tx, int ty, int tz) {
@@ -65,8 +81,10 @@ public class CellNodeBuffer {
 		_targetZ = tz;
 		_current = getNode(x, y, z);
 		_current.setCost(getCost(x, y, z, geodata().getHighWeight()));
+		_expandedNodes = 0;
 		
 		for (int count = 0; count < MAX_ITERATIONS; count++) {
+			_expandedNodes++;
 			if ((_current.getLoc().getNodeX() == _targetX) && (_current.getLoc().getNodeY() == _targetY) && (Math.abs(_current.getLoc().getZ() - _targetZ) < 64)) {
 				return _current; // found
 			}
@@ -94,7 +112,7 @@ public class CellNodeBuffer {
 			}
 		}
 		
-		_lock.unlock();
+		_inUse = false;
 		_lastElapsedTime = System.currentTimeMillis() - _timeStamp;
 	}
 	
@@ -102,6 +120,13 @@ public class CellNodeBuffer {
 		return _lastElapsedTime;
 	}
 	
+	/**
+	 * @return the number of nodes expanded by the last search
+	 */
+	public final int getExpandedNodes() {
+		return _expandedNodes;
+	}
+	
 	public final List<CellNode> debugPath() {
 		final List<CellNode> result = new LinkedList<>();
 		for (CellNode n = _current; n.getParent() != null; n = (CellNode) n.getParent()) {
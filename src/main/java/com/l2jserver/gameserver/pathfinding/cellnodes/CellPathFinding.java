@@ -20,10 +20,15 @@ package com.l2jserver.gameserver.pathfinding.cellnodes;
 
 import static com.l2jserver.gameserver.config.Configuration.geodata;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,11 +39,14 @@ import com.l2jserver.gameserver.idfactory.IdFactory;
 import com.l2jserver.gameserver.model.itemcontainer.Inventory;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jserver.gameserver.pathfinding.AbstractNode;
-import com.l2jserver.gameserver.pathfinding.AbstractNodeLoc;
+import com.l2jserver.gameserver.pathfinding.GeoPath;
 import com.l2jserver.gameserver.pathfinding.PathFinding;
 import com.l2jserver.gameserver.util.StringUtil;
 
 /**
+ * Cell pathfinding, calculated directly from geodata files.<br>
+ * Search buffers are kept per thread: each configured buffer size may be retained by up to {@code count} threads, searches that cannot get a retained buffer use a temporary one and are reported as overflows.<br>
+ * Recent results are kept in a bounded LRU cache keyed by start and end geo cell, instance and requester type.
  * @author Sami
  * @author Diamond
  * @author DS
@@ -46,13 +54,26 @@ import com.l2jserver.gameserver.util.StringUtil;
 public class CellPathFinding extends PathFinding {
 	private static final Logger LOG = LoggerFactory.getLogger(CellPathFinding.class);
 	
+	/** Releases the retained buffer slots of threads that are gone. */
+	private static final Cleaner CLEANER = Cleaner.create();
+	
 	private final BufferInfo[] _allBuffers;
-	private int _findSuccess = 0;
-	private int _findFails = 0;
-	private int _postFilterUses = 0;
-	private int _postFilterPlayableUses = 0;
-	private int _postFilterPasses = 0;
-	private long _postFilterElapsed = 0;
+	private final ThreadLocal<LocalBuffers> _localBuffers;
+	
+	private final Map<PathKey, CachedPath> _pathCache;
+	private final long _pathCacheExpireTime;
+	
+	private final LongAdder _findSuccess = new LongAdder();
+	private final LongAdder _findFails = new LongAdder();
+	private final LongAdder _searches = new LongAdder();
+	private final LongAdder _expandedNodes = new LongAdder();
+	private final LongAdder _searchTime = new LongAdder();
+	private final LongAdder _cacheHits = new LongAdder();
+	private final LongAdder _cacheMisses = new LongAdder();
+	private final LongAdder _postFilterUses = new LongAdder();
+	private final LongAdder _postFilterPlayableUses = new LongAdder();
+	private final LongAdder _postFilterPasses = new LongAdder();
+	private final LongAdder _postFilterElapsed = new LongAdder();
 	
 	private List<L2ItemInstance> _debugItems = null;
 	
@@ -61,8 +82,18 @@ public class CellPathFinding extends PathFinding {
 	}
 	
 	private CellPathFinding() {
+		this(geodata().getPathFindBuffers(), geodata().getPathCacheSize(), geodata().getPathCacheExpireTime());
+	}
+	
+	/**
+	 * Creates a cell pathfinding.
+	 * @param buffers the search buffer definitions, {@code size}x{@code count} separated by semicolons
+	 * @param cacheSize the maximum amount of cached paths, {@code 0} to disable the path cache
+	 * @param cacheExpireTime the time in milliseconds a path is kept in the cache
+	 */
+	CellPathFinding(String buffers, int cacheSize, long cacheExpireTime) {
 		try {
-			String[] array = geodata().getPathFindBuffers().split(";");
+			String[] array = buffers.split(";");
 			
 			_allBuffers = new BufferInfo[array.length];
 			
@@ -77,10 +108,23 @@ public class CellPathFinding extends PathFinding {
 				
 				_allBuffers[i] = new BufferInfo(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
 			}
+			Arrays.sort(_allBuffers, (a, b) -> Integer.compare(a.mapSize, b.mapSize));
 		} catch (Exception e) {
 			LOG.warn("Problem during buffer init: {}", e.getMessage(), e);
 			throw new Error("CellPathFinding: load aborted");
 		}
+		
+		_localBuffers = ThreadLocal.withInitial(() -> new LocalBuffers(_allBuffers.length));
+		
+		_pathCache = (cacheSize > 0) ? Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PathKey, CachedPath> eldest) {
+				return size() > cacheSize;
+			}
+		}) : null;
+		_pathCacheExpireTime = cacheExpireTime;
 	}
 	
 	@Override
@@ -89,7 +133,7 @@ public class CellPathFinding extends PathFinding {
 	}
 	
 	@Override
-	public List<AbstractNodeLoc> findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable) {
+	public GeoPath findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable) {
 		int gx = GeoData.getInstance().getGeoX(x);
 		int gy = GeoData.getInstance().getGeoY(y);
 		if (!GeoData.getInstance().hasGeo(x, y)) {
@@ -102,13 +146,24 @@ public class CellPathFinding extends PathFinding {
 			return null;
 		}
 		int gtz = GeoData.getInstance().getHeight(tx, ty, tz);
+		
+		boolean debug = playable && geodata().debugPath();
+		
+		final PathKey key = ((_pathCache != null) && !debug) ? new PathKey(gx, gy, gz, gtx, gty, gtz, instanceId, playable) : null;
+		if (key != null) {
+			final CachedPath cached = _pathCache.get(key);
+			if ((cached != null) && (cached.expireTime() > System.currentTimeMillis())) {
+				_cacheHits.increment();
+				return cached.path();
+			}
+			_cacheMisses.increment();
+		}
+		
 		CellNodeBuffer buffer = alloc(64 + (2 * Math.max(Math.abs(gx - gtx), Math.abs(gy - gty))), playable);
 		if (buffer == null) {
 			return null;
 		}
 		
-		boolean debug = playable && geodata().debugPath();
-		
 		if (debug) {
 			if (_debugItems == null) {
 				_debugItems = new CopyOnWriteArrayList<>();
@@ -121,23 +176,25 @@ public class CellPathFinding extends PathFinding {
 			}
 		}
 		
-		List<AbstractNodeLoc> path;
+		int[] path;
+		final long searchStart = System.nanoTime();
 		try {
 			CellNode result = buffer.findPath(gx, gy, gz, gtx, gty, gtz);
 			
 			if (debug) {
 				for (CellNode n : buffer.debugPath()) {
 					if (n.getCost() < 0) {
-						dropDebugItem(1831, (int) (-n.getCost() * 10), n.getLoc());
+						dropDebugItem(1831, (int) (-n.getCost() * 10), n.getLoc().getX(), n.getLoc().getY(), n.getLoc().getZ());
 					} else {
 						// known nodes
-						dropDebugItem(Inventory.ADENA_ID, (int) (n.getCost() * 10), n.getLoc());
+						dropDebugItem(Inventory.ADENA_ID, (int) (n.getCost() * 10), n.getLoc().getX(), n.getLoc().getY(), n.getLoc().getZ());
 					}
 				}
 			}
 			
 			if (result == null) {
-				_findFails++;
+				_findFails.increment();
+				cache(key, null);
 				return null;
 			}
 			
@@ -146,65 +203,85 @@ public class CellPathFinding extends PathFinding {
 			LOG.warn(e.getMessage(), e);
 			return null;
 		} finally {
+			_searches.increment();
+			_expandedNodes.add(buffer.getExpandedNodes());
+			_searchTime.add(System.nanoTime() - searchStart);
 			buffer.free();
 		}
 		
-		if ((path.size() < 3) || (geodata().getMaxPostfilterPasses() <= 0)) {
-			_findSuccess++;
-			return path;
+		int size = path.length / 3;
+		if ((size < 3) || (geodata().getMaxPostfilterPasses() <= 0)) {
+			_findSuccess.increment();
+			return cache(key, new GeoPath(path, size));
 		}
 		
 		long timeStamp = System.currentTimeMillis();
-		_postFilterUses++;
+		_postFilterUses.increment();
 		if (playable) {
-			_postFilterPlayableUses++;
+			_postFilterPlayableUses.increment();
 		}
 		
 		boolean remove;
 		int pass = 0;
 		do {
 			pass++;
-			_postFilterPasses++;
+			_postFilterPasses.increment();
 			
 			remove = false;
-			final Iterator<AbstractNodeLoc> endPoint = path.iterator();
-			endPoint.next();
 			int currentX = x;
 			int currentY = y;
 			int currentZ = z;
 			
-			int midPoint = 0;
-			while (endPoint.hasNext()) {
-				AbstractNodeLoc locMiddle = path.get(midPoint);
-				AbstractNodeLoc locEnd = endPoint.next();
-				if (GeoData.getInstance().canMove(currentX, currentY, currentZ, locEnd.getX(), locEnd.getY(), locEnd.getZ(), instanceId)) {
-					path.remove(midPoint);
+			// waypoints are compacted in place, the middle waypoint is dropped when its neighbours can see each other
+			int kept = 0;
+			for (int end = 1; end < size; end++) {
+				final int middle = (end - 1) * 3;
+				final int next = end * 3;
+				if (GeoData.getInstance().canMove(currentX, currentY, currentZ, path[next], path[next + 1], path[next + 2], instanceId)) {
 					remove = true;
 					if (debug) {
-						dropDebugItem(735, 1, locMiddle);
+						dropDebugItem(735, 1, path[middle], path[middle + 1], path[middle + 2]);
 					}
 				} else {
-					currentX = locMiddle.getX();
-					currentY = locMiddle.getY();
-					currentZ = locMiddle.getZ();
-					midPoint++;
+					currentX = path[middle];
+					currentY = path[middle + 1];
+					currentZ = path[middle + 2];
+					System.arraycopy(path, middle, path, kept * 3, 3);
+					kept++;
 				}
 			}
+			System.arraycopy(path, (size - 1) * 3, path, kept * 3, 3);
+			size = kept + 1;
 		}
 		// only one postfilter pass for AI
-		while (playable && remove && (path.size() > 2) && (pass < geodata().getMaxPostfilterPasses()));
+		while (playable && remove && (size > 2) && (pass < geodata().getMaxPostfilterPasses()));
 		
 		if (debug) {
-			path.forEach(n -> dropDebugItem(65, 1, n));
+			for (int i = 0; i < size; i++) {
+				dropDebugItem(65, 1, path[i * 3], path[(i * 3) + 1], path[(i * 3) + 2]);
+			}
 		}
 		
-		_findSuccess++;
-		_postFilterElapsed += System.currentTimeMillis() - timeStamp;
+		_findSuccess.increment();
+		_postFilterElapsed.add(System.currentTimeMillis() - timeStamp);
+		return cache(key, new GeoPath(path, size));
+	}
+	
+	private GeoPath cache(PathKey key, GeoPath path) {
+		if (key != null) {
+			_pathCache.put(key, new CachedPath(path, System.currentTimeMillis() + _pathCacheExpireTime));
+		}
 		return path;
 	}
 	
-	private List<AbstractNodeLoc> constructPath(AbstractNode<NodeLoc> node) {
-		final List<AbstractNodeLoc> path = new CopyOnWriteArrayList<>();
+	/**
+	 * Builds the packed waypoint array of the route ending at the given node.
+	 * @param node the last node
+	 * @return the packed X, Y, Z triples, from start to end
+	 */
+	private int[] constructPath(AbstractNode<NodeLoc> node) {
+		int[] path = new int[48];
+		int size = 0;
 		int previousDirectionX = Integer.MIN_VALUE;
 		int previousDirectionY = Integer.MIN_VALUE;
 		int directionX, directionY;
@@ -230,90 +307,154 @@ public class CellPathFinding extends PathFinding {
 				previousDirectionX = directionX;
 				previousDirectionY = directionY;
 				
-				path.addFirst(node.getLoc());
-				node.setLoc(null);
+				if (size == path.length) {
+					path = Arrays.copyOf(path, size * 2);
+				}
+				path[size++] = node.getLoc().getX();
+				path[size++] = node.getLoc().getY();
+				path[size++] = node.getLoc().getZ();
 			}
 			
 			node = node.getParent();
 		}
-		return path;
+		
+		// collected from end to start, reverse the waypoints
+		final int[] result = new int[size];
+		for (int i = 0, j = size - 3; i < size; i += 3, j -= 3) {
+			result[i] = path[j];
+			result[i + 1] = path[j + 1];
+			result[i + 2] = path[j + 2];
+		}
+		return result;
 	}
 	
-	private CellNodeBuffer alloc(int size, boolean playable) {
-		CellNodeBuffer current = null;
-		for (BufferInfo i : _allBuffers) {
-			if (i.mapSize >= size) {
-				for (CellNodeBuffer buf : i.bufs) {
-					if (buf.lock()) {
-						i.uses++;
-						if (playable) {
-							i.playableUses++;
-						}
-						i.elapsed += buf.getElapsedTime();
-						current = buf;
-						break;
-					}
-				}
-				if (current != null) {
-					break;
-				}
-				
-				// not found, allocate temporary buffer
-				current = new CellNodeBuffer(i.mapSize);
-				current.lock();
-				if (i.bufs.size() < i.count) {
-					i.bufs.add(current);
-					i.uses++;
-					if (playable) {
-						i.playableUses++;
-					}
-					break;
+	CellNodeBuffer alloc(int size, boolean playable) {
+		final LocalBuffers local = _localBuffers.get();
+		
+		// a free buffer already retained by this thread
+		for (int i = 0; i < _allBuffers.length; i++) {
+			final BufferInfo info = _allBuffers[i];
+			if (info.mapSize < size) {
+				continue;
+			}
+			
+			final CellNodeBuffer buf = local.buffers[i];
+			if ((buf != null) && buf.lock()) {
+				info.use(buf, playable);
+				return buf;
+			}
+		}
+		
+		// retain a new buffer for this thread, virtual threads are short-lived and never retain buffers
+		if (!Thread.currentThread().isVirtual()) {
+			for (int i = 0; i < _allBuffers.length; i++) {
+				final BufferInfo info = _allBuffers[i];
+				if ((info.mapSize < size) || (local.buffers[i] != null) || !info.retain()) {
+					continue;
 				}
 				
-				i.overflows++;
-				if (playable) {
-					i.playableOverflows++;
-					// System.err.println("Overflow, size requested: " + size + " playable:"+playable);
-				}
+				final CellNodeBuffer buf = new CellNodeBuffer(info.mapSize);
+				local.buffers[i] = buf;
+				CLEANER.register(local, info::release);
+				buf.lock();
+				info.use(buf, playable);
+				return buf;
 			}
 		}
 		
-		return current;
+		// not found, allocate temporary buffer
+		for (BufferInfo info : _allBuffers) {
+			if (info.mapSize >= size) {
+				final CellNodeBuffer buf = new CellNodeBuffer(info.mapSize);
+				buf.lock();
+				info.overflow(playable);
+				return buf;
+			}
+		}
+		return null;
 	}
 	
-	private void dropDebugItem(int itemId, int num, AbstractNodeLoc loc) {
+	private void dropDebugItem(int itemId, int num, int x, int y, int z) {
 		final var objectId = IdFactory.getInstance().getNextId();
 		final var item = new L2ItemInstance(objectId, itemId);
 		item.setCount(num);
-		item.spawnMe(loc.getX(), loc.getY(), loc.getZ());
+		item.spawnMe(x, y, z);
 		_debugItems.add(item);
 	}
 	
+	/**
+	 * Buffers retained by a single thread, one slot per buffer size.
+	 */
+	private static final class LocalBuffers {
+		final CellNodeBuffer[] buffers;
+		
+		LocalBuffers(int size) {
+			buffers = new CellNodeBuffer[size];
+		}
+	}
+	
+	private record PathKey(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable) {
+	}
+	
+	private record CachedPath(GeoPath path, long expireTime) {
+	}
+	
 	private static final class BufferInfo {
 		final int mapSize;
 		final int count;
-		List<CellNodeBuffer> bufs;
-		int uses = 0;
-		int playableUses = 0;
-		int overflows = 0;
-		int playableOverflows = 0;
-		long elapsed = 0;
+		final AtomicInteger retained = new AtomicInteger();
+		final LongAdder uses = new LongAdder();
+		final LongAdder playableUses = new LongAdder();
+		final LongAdder overflows = new LongAdder();
+		final LongAdder playableOverflows = new LongAdder();
+		final LongAdder elapsed = new LongAdder();
 		
 		public BufferInfo(int size, int cnt) {
 			mapSize = size;
 			count = cnt;
-			bufs = new ArrayList<>(count);
+		}
+		
+		boolean retain() {
+			int current;
+			do {
+				current = retained.get();
+				if (current >= count) {
+					return false;
+				}
+			}
+			while (!retained.compareAndSet(current, current + 1));
+			return true;
+		}
+		
+		void release() {
+			retained.decrementAndGet();
+		}
+		
+		void use(CellNodeBuffer buf, boolean playable) {
+			uses.increment();
+			if (playable) {
+				playableUses.increment();
+			}
+			elapsed.add(buf.getElapsedTime());
+		}
+		
+		void overflow(boolean playable) {
+			overflows.increment();
+			if (playable) {
+				playableOverflows.increment();
+			}
 		}
 		
 		@Override
 		public String toString() {
 			final StringBuilder stat = new StringBuilder(100);
-			StringUtil.append(stat, String.valueOf(mapSize), "x", String.valueOf(mapSize), " num:", String.valueOf(bufs.size()), "/", String.valueOf(count), " uses:", String.valueOf(uses), "/", String.valueOf(playableUses));
+			final long uses = this.uses.sum();
+			StringUtil.append(stat, String.valueOf(mapSize), "x", String.valueOf(mapSize), " num:", String.valueOf(retained.get()), "/", String.valueOf(count), " uses:", String.valueOf(uses), "/", String.valueOf(playableUses.sum()));
 			if (uses > 0) {
-				StringUtil.append(stat, " total/avg(ms):", String.valueOf(elapsed), "/", String.format("%1.2f", (double) elapsed / uses));
+				StringUtil.append(stat, " total/avg(ms):", String.valueOf(elapsed.sum()), "/", String.format("%1.2f", (double) elapsed.sum() / uses));
 			}
 			
-			StringUtil.append(stat, " ovf:", String.valueOf(overflows), "/", String.valueOf(playableOverflows));
+			StringUtil.append(stat, " ovf:", String.valueOf(overflows.sum()), "/", String.valueOf(playableOverflows.sum()));
 			
 			return stat.toString();
 		}
@@ -321,18 +462,34 @@ public class CellPathFinding extends PathFinding {
 	
 	@Override
 	public String[] getStat() {
-		final String[] result = new String[_allBuffers.length + 1];
+		final String[] result = new String[_allBuffers.length + 2];
 		for (int i = 0; i < _allBuffers.length; i++) {
 			result[i] = _allBuffers[i].toString();
 		}
 		
 		final StringBuilder stat = new StringBuilder(100);
-		StringUtil.append(stat, "LOS postfilter uses:", String.valueOf(_postFilterUses), "/", String.valueOf(_postFilterPlayableUses));
-		if (_postFilterUses > 0) {
-			StringUtil.append(stat, " total/avg(ms):", String.valueOf(_postFilterElapsed), "/", String.format("%1.2f", (double) _postFilterElapsed / _postFilterUses), //
-				" passes total/avg:", String.valueOf(_postFilterPasses), "/", String.format("%1.1f", (double) _postFilterPasses / _postFilterUses), Configuration.EOL);
+		final long postFilterUses = _postFilterUses.sum();
+		StringUtil.append(stat, "LOS postfilter uses:", String.valueOf(postFilterUses), "/", String.valueOf(_postFilterPlayableUses.sum()));
+		if (postFilterUses > 0) {
+			StringUtil.append(stat, " total/avg(ms):", String.valueOf(_postFilterElapsed.sum()), "/", String.format("%1.2f", (double) _postFilterElapsed.sum() / postFilterUses), //
+				" passes total/avg:", String.valueOf(_postFilterPasses.sum()), "/", String.format("%1.1f", (double) _postFilterPasses.sum() / postFilterUses), Configuration.EOL);
+		}
+		StringUtil.append(stat, "Pathfind success/fail:", String.valueOf(_findSuccess.sum()), "/", String.valueOf(_findFails.sum()));
+		result[result.length - 2] = stat.toString();
+		
+		stat.setLength(0);
+		final long searches = _searches.sum();
+		final long hits = _cacheHits.sum();
+		final long lookups = hits + _cacheMisses.sum();
+		StringUtil.append(stat, "Pathfind searches:", String.valueOf(searches));
+		if (searches > 0) {
+			StringUtil.append(stat, " nodes total/avg:", String.valueOf(_expandedNodes.sum()), "/", String.format("%1.1f", (double) _expandedNodes.sum() / searches), //
+				" time total/avg(ms):", String.valueOf(_searchTime.sum() / 1_000_000), "/", String.format("%1.3f", _searchTime.sum() / 1_000_000.0 / searches));
+		}
+		StringUtil.append(stat, " cache hits/lookups:", String.valueOf(hits), "/", String.valueOf(lookups));
+		if (lookups > 0) {
+			StringUtil.append(stat, " (", String.format("%1.1f", (hits * 100.0) / lookups), "%)");
 		}
-		StringUtil.append(stat, "Pathfind success/fail:", String.valueOf(_findSuccess), "/", String.valueOf(_findFails));
 		result[result.length - 1] = stat.toString();
 		
 		return result;
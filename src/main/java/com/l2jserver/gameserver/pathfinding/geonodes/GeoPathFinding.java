@@ -45,6 +45,7 @@ import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.Location;
 import com.l2jserver.gameserver.pathfinding.AbstractNode;
 import com.l2jserver.gameserver.pathfinding.AbstractNodeLoc;
+import com.l2jserver.gameserver.pathfinding.GeoPath;
 import com.l2jserver.gameserver.pathfinding.PathFinding;
 import com.l2jserver.gameserver.pathfinding.utils.FastNodeList;
 import com.l2jserver.gameserver.util.Util;
@@ -68,7 +69,7 @@ public class GeoPathFinding extends PathFinding {
 	}
 	
 	@Override
-	public List<AbstractNodeLoc> findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable) {
+	public GeoPath findPath(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean playable) {
 		int gx = (x - L2World.MAP_MIN_X) >> 4;
 		int gy = (y - L2World.MAP_MIN_Y) >> 4;
 		short gz = (short) z;
@@ -104,7 +105,7 @@ public class GeoPathFinding extends PathFinding {
 		}
 		
 		// return searchAStar(start, end);
-		return searchByClosest2(start, end);
+		return GeoPath.of(searchByClosest2(start, end));
 	}
 	
 	private List<AbstractNodeLoc> searchByClosest2(GeoNode start, GeoNode end) {
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.gameserver.NamedRunnable;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.model.L2WorldRegion;
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * AI task manager.<br>
+ * Periodic AI tasks (think and follow tasks) are kept in a {@link TimingWheel} of {@link #TICK_MILLIS} ticks instead of one scheduled future each.<br>
+ * Every tick the due tasks of the current slot are grouped by the world region of their actor and the groups are run in parallel on the AI thread pool, the tick ends when all of them are done.
+ * @since 2.6.3.0
+ */
+public final class AiTaskManager {
+	private static final Logger LOG = LoggerFactory.getLogger(AiTaskManager.class);
+	
+	/** Duration of a tick in milliseconds. */
+	public static final int TICK_MILLIS = 100;
+	
+	/** Amount of slots of the wheel, a task with a longer period stays in its slot for more than one turn. */
+	private static final int WHEEL_SIZE = 16;
+	
+	private final TimingWheel<AiTask> _wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE);
+	
+	private final LongAdder _thought = new LongAdder();
+	private final LongAdder _skippedIdle = new LongAdder();
+	private final LongAdder _parallelTicks = new LongAdder();
+	private final LongAccumulator _maxThoughtPerTick = new LongAccumulator(Math::max, 0);
+	private volatile int _lastThought;
+	
+	private AiTaskManager() {
+		ThreadPoolManager.getInstance().scheduleAiAtFixedRate(NamedRunnable.of("AiTaskManager.tick", () -> _wheel.tick(this::runSlot)), TICK_MILLIS, TICK_MILLIS);
+	}
+	
+	/**
+	 * Schedules a periodic AI task.
+	 * @param actor the actor the task belongs to, used to group the tasks by world region
+	 * @param task the task to run
+	 * @param initialDelay the initial delay in milliseconds, rounded up to the next tick
+	 * @param period the period in milliseconds, rounded up to a whole amount of ticks
+	 * @param skipCondition if not {@code null} and it returns {@code true} when the task is due, the execution is skipped; it is only evaluated for actors without known players
+	 * @return the scheduled task, to be cancelled with {@link Future#cancel(boolean)}
+	 */
+	public Future<?> schedule(L2Character actor, Runnable task, long initialDelay, long period, BooleanSupplier skipCondition) {
+		final long periodTicks = Math.max(1, (period + TICK_MILLIS - 1) / TICK_MILLIS);
+		final AiTask aiTask = new AiTask(actor, task, TimeUnit.MILLISECONDS.toNanos(periodTicks * TICK_MILLIS), skipCondition);
+		return _wheel.schedule(aiTask, _wheel.now() + TimeUnit.MILLISECONDS.toNanos(Math.max(TICK_MILLIS, initialDelay)));
+	}
+	
+	/**
+	 * Schedules a periodic AI task.
+	 * @param actor the actor the task belongs to, used to group the tasks by world region
+	 * @param task the task to run
+	 * @param initialDelay the initial delay in milliseconds, rounded up to the next tick
+	 * @param period the period in milliseconds, rounded up to a whole amount of ticks
+	 * @return the scheduled task, to be cancelled with {@link Future#cancel(boolean)}
+	 */
+	public Future<?> schedule(L2Character actor, Runnable task, long initialDelay, long period) {
+		return schedule(actor, task, initialDelay, period, null);
+	}
+	
+	private void runSlot(List<AiTask> slot) {
+		final List<AiTask> due = new ArrayList<>(slot.size());
+		for (AiTask task : slot) {
+			if ((task._skipCondition != null) && task._actor.getKnownList().getKnownPlayers().isEmpty() && task._skipCondition.getAsBoolean()) {
+				_skippedIdle.increment();
+				task.finished();
+				continue;
+			}
+			due.add(task);
+		}
+		
+		final int thought = due.size();
+		_lastThought = thought;
+		_thought.add(thought);
+		_maxThoughtPerTick.accumulate(thought);
+		if (thought == 0) {
+			return;
+		}
+		
+		if (thought < general().getAiTickParallelThreshold()) {
+			runTasks(due);
+			return;
+		}
+		
+		// Actors in the same world region touch the same known lists and zones, a region is never split between batches.
+		final Map<L2WorldRegion, List<AiTask>> regions = new HashMap<>();
+		for (AiTask task : due) {
+			regions.computeIfAbsent(task._actor.getWorldRegion(), k -> new ArrayList<>()).add(task);
+		}
+		
+		final int batchSize = Math.max(1, thought / Math.max(1, general().getAiMaxThread()));
+		final Queue<List<AiTask>> batches = new ConcurrentLinkedQueue<>();
+		List<AiTask> batch = new ArrayList<>(batchSize);
+		for (List<AiTask> region : regions.values()) {
+			batch.addAll(region);
+			if (batch.size() >= batchSize) {
+				batches.add(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (!batch.isEmpty()) {
+			batches.add(batch);
+		}
+		
+		// The tick thread takes batches too and waits for the others, so the next tick never runs a region still being run.
+		final int batchCount = batches.size();
+		final CountDownLatch done = new CountDownLatch(batchCount);
+		final Runnable worker = NamedRunnable.of("AiTaskManager.batch", () -> {
+			List<AiTask> tasks;
+			while ((tasks = batches.poll()) != null) {
+				runTasks(tasks);
+				done.countDown();
+			}
+		});
+		for (int i = 1; i < batchCount; i++) {
+			ThreadPoolManager.getInstance().executeAi(worker);
+		}
+		worker.run();
+		try {
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		_parallelTicks.increment();
+	}
+	
+	private void runTasks(List<AiTask> tasks) {
+		final boolean recorded = ThreadPoolManager.getInstance().getTaskStats().isEnabled();
+		for (AiTask task : tasks) {
+			final long start = recorded ? System.nanoTime() : 0;
+			final long waitTime = recorded ? _wheel.getWaitTime(task) : 0;
+			boolean failed = false;
+			try {
+				if (!task.isCancelled()) {
+					task._task.run();
+				}
+			} catch (Exception e) {
+				failed = true;
+				LOG.warn("AI task of {} failed!", task._actor, e);
+			} finally {
+				task.finished();
+			}
+			if (recorded) {
+				ThreadPoolManager.getInstance().recordAiTask(task.getTaskName(), waitTime, System.nanoTime() - start, failed);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the AI tick statistics.
+	 * @return the AI tick statistics
+	 */
+	public String[] getStats() {
+		final long ticks = _wheel.getTicks();
+		final List<String> stats = new ArrayList<>();
+		stats.add("AI Ticks:");
+		stats.add(" |- ScheduledTasks:  " + _wheel.getScheduledTasks());
+		stats.add(" |- Ticks:           " + ticks);
+		stats.add(" |- ParallelTicks:   " + _parallelTicks.sum());
+		stats.add(" |- ThoughtLastTick: " + _lastThought);
+		stats.add(" |- ThoughtMax:      " + _maxThoughtPerTick.get());
+		stats.add(" |- ThoughtAverage:  " + ((ticks > 0) ? _thought.sum() / ticks : 0));
+		stats.add(" |- SkippedIdle:     " + _skippedIdle.sum());
+		stats.add(" |- SkippedBusy:     " + _wheel.getSkippedBusy());
+		stats.add(" |- TickLagAverage:  " + _wheel.getAverageTickLag() + "ms");
+		stats.add(" |- TickLagMax:      " + _wheel.getMaxTickLag() + "ms");
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	/**
+	 * A periodic AI task in the wheel.
+	 */
+	private static final class AiTask extends TimingWheel.PeriodicTask {
+		private final L2Character _actor;
+		private final Runnable _task;
+		private final BooleanSupplier _skipCondition;
+		
+		AiTask(L2Character actor, Runnable task, long period, BooleanSupplier skipCondition) {
+			super(period);
+			_actor = actor;
+			_task = task;
+			_skipCondition = skipCondition;
+		}
+		
+		/**
+		 * Gets the name the task is recorded with in the AI thread pool statistics.
+		 * @return the name of a named task, the AI class for a method reference of the AI, the task class otherwise
+		 */
+		String getTaskName() {
+			if (_task instanceof NamedRunnable named) {
+				return named.getTaskName();
+			}
+			return _task.getClass().isHidden() ? _actor.getAI().getClass().getName() : _task.getClass().getName();
+		}
+	}
+	
+	public static AiTaskManager getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final AiTaskManager INSTANCE = new AiTaskManager();
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.gameserver.NamedRunnable;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * Broadcast task manager.<br>
+ * The info broadcasts of a character (UserInfo, CharInfo and StatusUpdate) are marked as pending on the character and sent by a tick every {@link #TICK_MILLIS}, so a character sends each of them at most once per tick.<br>
+ * The packets are built when they are sent and hold the state of the character at the tick, a broadcast requested again while pending is suppressed.<br>
+ * Paths needing the packets before the ones they send next call {@link #flush(L2Character)}.
+ * @since 2.6.3.0
+ */
+public final class BroadcastTaskManager {
+	private static final Logger LOG = LoggerFactory.getLogger(BroadcastTaskManager.class);
+	
+	/** Duration of a tick in milliseconds. */
+	public static final int TICK_MILLIS = 100;
+	
+	/** UserInfo sent to the player. */
+	public static final int USER_INFO = 1;
+	
+	/** CharInfo and the extra user info sent to the players knowing the player. */
+	public static final int CHAR_INFO = 1 << 1;
+	
+	/** StatusUpdate sent to the character and its status listeners. */
+	public static final int STATUS_UPDATE = 1 << 2;
+	
+	private static final String[] BLOCK_NAMES = {
+		"UserInfo",
+		"CharInfo",
+		"StatusUpdate"
+	};
+	
+	/** Amount of characters whose broadcasts are sent by one task of the general thread pool. */
+	private static final int BATCH_SIZE = 64;
+	
+	/** Characters with pending broadcasts, a character is queued when its first broadcast is marked. */
+	private final Queue<L2Character> _pending = new ConcurrentLinkedQueue<>();
+	
+	private final LongAdder[] _requested = newCounters();
+	private final LongAdder[] _suppressed = newCounters();
+	private final LongAdder[] _sent = newCounters();
+	private final LongAdder _ticks = new LongAdder();
+	private final LongAdder _flushes = new LongAdder();
+	private final LongAccumulator _maxCharactersPerTick = new LongAccumulator(Math::max, 0);
+	
+	private BroadcastTaskManager() {
+		this(true);
+	}
+	
+	BroadcastTaskManager(boolean scheduled) {
+		if (scheduled) {
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(NamedRunnable.of("BroadcastTaskManager.tick", this::tick), TICK_MILLIS, TICK_MILLIS);
+		}
+	}
+	
+	private static LongAdder[] newCounters() {
+		final LongAdder[] counters = new LongAdder[BLOCK_NAMES.length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+		return counters;
+	}
+	
+	/**
+	 * Marks info broadcasts of a character as pending, they are sent by the next tick.<br>
+	 * When the broadcast tick scheduler is disabled they are sent right away.
+	 * @param character the character
+	 * @param blocks the broadcasts, a combination of {@link #USER_INFO}, {@link #CHAR_INFO} and {@link #STATUS_UPDATE}
+	 */
+	public void broadcast(L2Character character, int blocks) {
+		count(_requested, blocks);
+		if (!general().broadcastTickScheduler()) {
+			send(character, blocks);
+			return;
+		}
+		
+		final int pending = character.addPendingBroadcasts(blocks);
+		count(_suppressed, pending & blocks);
+		if (pending == 0) {
+			_pending.add(character);
+		}
+	}
+	
+	/**
+	 * Sends the pending info broadcasts of a character right away.<br>
+	 * Called when the packets sent next need the client to know the current state of the character, such as the private store messages after the CharInfo of the store.
+	 * @param character the character
+	 */
+	public void flush(L2Character character) {
+		final int blocks = character.takePendingBroadcasts();
+		if (blocks != 0) {
+			_flushes.increment();
+			send(character, blocks);
+		}
+	}
+	
+	void tick() {
+		_ticks.increment();
+		final List<L2Character> characters = new ArrayList<>();
+		L2Character character;
+		while ((character = _pending.poll()) != null) {
+			characters.add(character);
+		}
+		
+		_maxCharactersPerTick.accumulate(characters.size());
+		if (characters.size() <= BATCH_SIZE) {
+			sendAll(characters);
+			return;
+		}
+		
+		for (int i = 0; i < characters.size(); i += BATCH_SIZE) {
+			final List<L2Character> batch = characters.subList(i, Math.min(i + BATCH_SIZE, characters.size()));
+			ThreadPoolManager.getInstance().executeGeneral(NamedRunnable.of("BroadcastTaskManager.batch", () -> sendAll(batch)));
+		}
+	}
+	
+	private void sendAll(List<L2Character> characters) {
+		for (L2Character character : characters) {
+			// Nothing left if the broadcasts were flushed since the character was queued.
+			final int blocks = character.takePendingBroadcasts();
+			if (blocks != 0) {
+				send(character, blocks);
+			}
+		}
+	}
+	
+	private void send(L2Character character, int blocks) {
+		count(_sent, blocks);
+		try {
+			character.sendBroadcasts(blocks);
+		} catch (Exception e) {
+			LOG.warn("Could not send the broadcasts of {}!", character, e);
+		}
+	}
+	
+	private static void count(LongAdder[] counters, int blocks) {
+		for (int i = 0; i < counters.length; i++) {
+			if ((blocks & (1 << i)) != 0) {
+				counters[i].increment();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the broadcast statistics.
+	 * @return the broadcast statistics
+	 */
+	public String[] getStats() {
+		final List<String> stats = new ArrayList<>();
+		stats.add("Broadcasts:");
+		stats.add(" |- Pending:         " + _pending.size());
+		stats.add(" |- Ticks:           " + _ticks.sum());
+		stats.add(" |- CharactersMax:   " + _maxCharactersPerTick.get());
+		stats.add(" |- Flushes:         " + _flushes.sum());
+		for (int i = 0; i < BLOCK_NAMES.length; i++) {
+			final long requested = _requested[i].sum();
+			final long suppressed = _suppressed[i].sum();
+			stats.add(" |- " + BLOCK_NAMES[i] + ": " + requested + " requested, " + _sent[i].sum() + " sent, " + suppressed + " suppressed" + ((requested > 0) ? String.format(" (%.2f%%)", (suppressed * 100.0) / requested) : ""));
+		}
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	public static BroadcastTaskManager getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final BroadcastTaskManager INSTANCE = new BroadcastTaskManager();
+	}
+}
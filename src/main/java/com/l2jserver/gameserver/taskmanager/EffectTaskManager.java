@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.gameserver.NamedRunnable;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * Effect task manager.<br>
+ * Buff countdowns and periodic effect ticks are kept in a {@link TimingWheel} of {@link #TICK_MILLIS} ticks instead of one scheduled future each in the effects thread pool.<br>
+ * Every tick the due tasks are grouped by the creature they affect, the tasks of a creature run one after another on the effects thread pool, so the effect list coalesces their icon updates.
+ * @since 2.6.3.0
+ */
+public final class EffectTaskManager {
+	private static final Logger LOG = LoggerFactory.getLogger(EffectTaskManager.class);
+	
+	/** Duration of a tick in milliseconds. */
+	public static final int TICK_MILLIS = 50;
+	
+	private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+	
+	/** Amount of slots of the wheel, a task due after more than one turn stays in its slot until then. */
+	private static final int WHEEL_SIZE = 128;
+	
+	private final TimingWheel<EffectTask> _wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE);
+	
+	private final LongAdder _countdowns = new LongAdder();
+	private final LongAdder _effectTicks = new LongAdder();
+	private final LongAdder _batches = new LongAdder();
+	private final LongAccumulator _maxDuePerTick = new LongAccumulator(Math::max, 0);
+	private final LongAccumulator _maxOwnersPerTick = new LongAccumulator(Math::max, 0);
+	
+	private EffectTaskManager() {
+		ThreadPoolManager.getInstance().scheduleEffectAtFixedRate(NamedRunnable.of("EffectTaskManager.tick", () -> _wheel.tick(this::runSlot)), TICK_MILLIS, TICK_MILLIS);
+	}
+	
+	/**
+	 * Schedules a periodic effect task, such as an effect tick.<br>
+	 * Executions keep the period on average, each one runs up to a tick late.
+	 * @param owner the creature affected by the task, its tasks due in the same tick run one after another
+	 * @param task the task to run
+	 * @param initialDelay the initial delay in milliseconds
+	 * @param period the period in milliseconds
+	 * @return the scheduled task, to be cancelled with {@link Future#cancel(boolean)}
+	 */
+	public Future<?> scheduleAtFixedRate(L2Character owner, Runnable task, long initialDelay, long period) {
+		final EffectTask effectTask = new EffectTask(owner, task, TimeUnit.MILLISECONDS.toNanos(Math.max(1, period)), false);
+		return _wheel.schedule(effectTask, _wheel.now() + TimeUnit.MILLISECONDS.toNanos(initialDelay));
+	}
+	
+	/**
+	 * Schedules a countdown task, running every second.<br>
+	 * The first execution happens in the next tick, as the countdown starts with the buff.
+	 * @param owner the creature affected by the task, its tasks due in the same tick run one after another
+	 * @param task the task to run
+	 * @return the scheduled task, to be cancelled with {@link Future#cancel(boolean)}
+	 */
+	public Future<?> scheduleCountdown(L2Character owner, Runnable task) {
+		return _wheel.schedule(new EffectTask(owner, task, SECOND_NANOS, true), _wheel.now());
+	}
+	
+	private void runSlot(List<EffectTask> slot) {
+		final Map<L2Character, List<EffectTask>> owners = new HashMap<>();
+		for (EffectTask task : slot) {
+			owners.computeIfAbsent(task._owner, k -> new ArrayList<>()).add(task);
+		}
+		
+		final int due = slot.size();
+		_maxDuePerTick.accumulate(due);
+		_maxOwnersPerTick.accumulate(owners.size());
+		
+		// The tasks of a creature are kept in the same batch, batches are split evenly between the pool threads.
+		final int batchSize = Math.max(1, due / Math.max(1, general().getThreadPoolSizeEffects()));
+		List<EffectTask> batch = new ArrayList<>(batchSize);
+		for (List<EffectTask> tasks : owners.values()) {
+			batch.addAll(tasks);
+			if (batch.size() >= batchSize) {
+				submit(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (!batch.isEmpty()) {
+			submit(batch);
+		}
+	}
+	
+	private void submit(List<EffectTask> batch) {
+		_batches.increment();
+		ThreadPoolManager.getInstance().executeEffect(NamedRunnable.of("EffectTaskManager.batch", () -> runTasks(batch)));
+	}
+	
+	private void runTasks(List<EffectTask> tasks) {
+		final boolean recorded = ThreadPoolManager.getInstance().getTaskStats().isEnabled();
+		for (EffectTask task : tasks) {
+			final long start = recorded ? System.nanoTime() : 0;
+			final long waitTime = recorded ? _wheel.getWaitTime(task) : 0;
+			boolean failed = false;
+			try {
+				if (!task.isCancelled()) {
+					if (task._countdown) {
+						_countdowns.increment();
+					} else {
+						_effectTicks.increment();
+					}
+					task._task.run();
+				}
+			} catch (Exception e) {
+				failed = true;
+				LOG.warn("Effect task of {} failed!", task._owner, e);
+			} finally {
+				task.finished();
+			}
+			if (recorded) {
+				ThreadPoolManager.getInstance().recordEffectTask(task.getTaskName(), waitTime, System.nanoTime() - start, failed);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the effect tick statistics.
+	 * @return the effect tick statistics
+	 */
+	public String[] getStats() {
+		final List<String> stats = new ArrayList<>();
+		stats.add("Effect Ticks:");
+		stats.add(" |- ScheduledTasks:  " + _wheel.getScheduledTasks());
+		stats.add(" |- Ticks:           " + _wheel.getTicks());
+		stats.add(" |- Countdowns:      " + _countdowns.sum());
+		stats.add(" |- EffectTicks:     " + _effectTicks.sum());
+		stats.add(" |- Batches:         " + _batches.sum());
+		stats.add(" |- DueMax:          " + _maxDuePerTick.get());
+		stats.add(" |- OwnersMax:       " + _maxOwnersPerTick.get());
+		stats.add(" |- SkippedBusy:     " + _wheel.getSkippedBusy());
+		stats.add(" |- TickLagAverage:  " + _wheel.getAverageTickLag() + "ms");
+		stats.add(" |- TickLagMax:      " + _wheel.getMaxTickLag() + "ms");
+		stats.add(" | -------");
+		return stats.toArray(new String[0]);
+	}
+	
+	/**
+	 * A periodic effect task in the wheel.
+	 */
+	private static final class EffectTask extends TimingWheel.PeriodicTask {
+		private final L2Character _owner;
+		private final Runnable _task;
+		private final boolean _countdown;
+		
+		EffectTask(L2Character owner, Runnable task, long period, boolean countdown) {
+			super(period);
+			_owner = owner;
+			_task = task;
+			_countdown = countdown;
+		}
+		
+		/**
+		 * Gets the name the task is recorded with in the effect thread pool statistics.
+		 * @return the name of a named task, the task class otherwise
+		 */
+		String getTaskName() {
+			return (_task instanceof NamedRunnable named) ? named.getTaskName() : _task.getClass().getName();
+		}
+	}
+	
+	public static EffectTaskManager getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final EffectTaskManager INSTANCE = new EffectTaskManager();
+	}
+}
@@ -24,6 +24,7 @@ import static com.l2jserver.gameserver.config.Configuration.npc;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,11 @@ import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.actor.L2Playable;
 import com.l2jserver.gameserver.model.actor.instance.L2GuardInstance;
 
+/**
+ * Known list update task manager.<br>
+ * With incremental updates enabled the known lists are kept up to date by the objects themselves, when they spawn, decay and move, and this manager only runs a low frequency full sweep of the active regions as a consistency check.<br>
+ * Otherwise the sweep runs every {@code KnownListUpdateInterval}, alternating forget and add passes.
+ */
 public class KnownListUpdateTaskManager {
 	private static final Logger LOG = LoggerFactory.getLogger(KnownListUpdateTaskManager.class);
 	
@@ -46,8 +52,23 @@ public class KnownListUpdateTaskManager {
 	
 	private static final Set<L2WorldRegion> FAILED_REGIONS = ConcurrentHashMap.newKeySet(1);
 	
+	private static final LongAdder INCREMENTAL_UPDATES = new LongAdder();
+	private static final LongAdder INCREMENTAL_ADDED = new LongAdder();
+	private static final LongAdder INCREMENTAL_REMOVED = new LongAdder();
+	private static final LongAdder SWEEPS = new LongAdder();
+	private static final LongAdder SWEEP_ADDED = new LongAdder();
+	private static final LongAdder SWEEP_REMOVED = new LongAdder();
+	
+	private static long _lastStatsTime = System.currentTimeMillis();
+	private static long _lastStatsAdded;
+	private static long _lastStatsRemoved;
+	
 	private KnownListUpdateTaskManager() {
-		ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new KnownListUpdate(), 1000, general().getKnownListUpdateInterval());
+		if (!general().knownListIncrementalUpdate()) {
+			ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new KnownListUpdate(), 1000, general().getKnownListUpdateInterval());
+		} else if (general().getKnownListConsistencyCheckInterval() > 0) {
+			ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new KnownListConsistencyCheck(), general().getKnownListConsistencyCheckInterval(), general().getKnownListConsistencyCheckInterval());
+		}
 	}
 	
 	private class KnownListUpdate implements Runnable {
@@ -90,6 +111,34 @@ public class KnownListUpdateTaskManager {
 		}
 	}
 	
+	/**
+	 * Full forget and add pass over all active regions, catching whatever the incremental updates missed.
+	 */
+	private class KnownListConsistencyCheck implements Runnable {
+		@Override
+		public void run() {
+			try {
+				for (L2WorldRegion[] regions : L2World.getInstance().getWorldRegions()) {
+					for (L2WorldRegion r : regions) {
+						if (!r.isActive()) {
+							continue;
+						}
+						
+						try {
+							updateRegion(r, true, true);
+							updateRegion(r, true, false);
+						} catch (Exception e) {
+							LOG.warn("Known list consistency check failed for region {}. {}", r.getName(), e.getMessage(), e);
+						}
+					}
+				}
+				SWEEPS.increment();
+			} catch (Exception e) {
+				LOG.warn(e.getMessage(), e);
+			}
+		}
+	}
+	
 	private void updateRegion(L2WorldRegion region, boolean fullUpdate, boolean forgetObjects) {
 		Collection<L2Object> vObj = region.getVisibleObjects().values();
 		for (L2Object object : vObj) // and for all members in region
@@ -102,15 +151,17 @@ public class KnownListUpdateTaskManager {
 			final boolean aggro = (npc().guardAttackAggroMob() && (object instanceof L2GuardInstance));
 			
 			if (forgetObjects) {
+				final int knownBefore = object.getKnownList().getKnownObjects().size();
 				object.getKnownList().forgetObjects(aggro || fullUpdate);
+				SWEEP_REMOVED.add(Math.max(0, knownBefore - object.getKnownList().getKnownObjects().size()));
 				continue;
 			}
 			for (L2WorldRegion worldRegion : region.getSurroundingRegions()) {
 				if ((object instanceof L2Playable) || (aggro && worldRegion.isActive()) || fullUpdate) {
 					Collection<L2Object> inrObj = worldRegion.getVisibleObjects().values();
 					for (L2Object obj : inrObj) {
-						if (obj != object) {
-							object.getKnownList().addKnownObject(obj);
+						if ((obj != object) && object.getKnownList().addKnownObject(obj)) {
+							SWEEP_ADDED.increment();
 						}
 					}
 				} else if (object instanceof L2Character) {
@@ -118,8 +169,8 @@ public class KnownListUpdateTaskManager {
 						Collection<L2Playable> inrPls = worldRegion.getVisiblePlayable().values();
 						
 						for (L2Object obj : inrPls) {
-							if (obj != object) {
-								object.getKnownList().addKnownObject(obj);
+							if ((obj != object) && object.getKnownList().addKnownObject(obj)) {
+								SWEEP_ADDED.increment();
 							}
 						}
 					}
@@ -128,6 +179,45 @@ public class KnownListUpdateTaskManager {
 		}
 	}
 	
+	/**
+	 * Records an incremental known list update.
+	 * @param added the number of objects added to known lists
+	 * @param removed the number of objects removed from known lists
+	 */
+	public static void recordIncrementalUpdate(int added, int removed) {
+		INCREMENTAL_UPDATES.increment();
+		INCREMENTAL_ADDED.add(added);
+		INCREMENTAL_REMOVED.add(removed);
+	}
+	
+	/**
+	 * Gets the known list update statistics.<br>
+	 * The rates are computed since the previous call.
+	 * @return the statistics lines
+	 */
+	public static synchronized String[] getStats() {
+		final long now = System.currentTimeMillis();
+		final long added = INCREMENTAL_ADDED.sum();
+		final long removed = INCREMENTAL_REMOVED.sum();
+		final double seconds = Math.max(1, now - _lastStatsTime) / 1000.0;
+		final String addedPerSecond = String.format("%.1f", (added - _lastStatsAdded) / seconds);
+		final String removedPerSecond = String.format("%.1f", (removed - _lastStatsRemoved) / seconds);
+		_lastStatsTime = now;
+		_lastStatsAdded = added;
+		_lastStatsRemoved = removed;
+		return new String[] {
+			"Known Lists:",
+			" |- Incremental:     " + general().knownListIncrementalUpdate(),
+			" |- Updates:         " + INCREMENTAL_UPDATES.sum(),
+			" |- Added:           " + added + " (" + addedPerSecond + "/s)",
+			" |- Removed:         " + removed + " (" + removedPerSecond + "/s)",
+			" |- Sweeps:          " + SWEEPS.sum(),
+			" |- SweepAdded:      " + SWEEP_ADDED.sum(),
+			" |- SweepRemoved:    " + SWEEP_REMOVED.sum(),
+			" | -------"
+		};
+	}
+	
 	public static KnownListUpdateTaskManager getInstance() {
 		return SingletonHolder._instance;
 	}
@@ -135,4 +225,4 @@ public class KnownListUpdateTaskManager {
 	private static class SingletonHolder {
 		protected static final KnownListUpdateTaskManager _instance = new KnownListUpdateTaskManager();
 	}
-}
\ No newline at end of file
+}
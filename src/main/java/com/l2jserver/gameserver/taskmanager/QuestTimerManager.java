@@ -0,0 +1,356 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.l2jserver.gameserver.NamedRunnable;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.model.L2Object;
+import com.l2jserver.gameserver.model.actor.L2Npc;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.quest.Quest;
+import com.l2jserver.gameserver.model.quest.QuestTimer;
+
+/**
+ * Quest timer manager.<br>
+ * The quest timers are indexed by quest and name, then by NPC and player, so starting, finding and cancelling a timer are hash lookups.<br>
+ * They fire from a {@link TimingWheel} of {@link #TICK_MILLIS} ticks instead of one scheduled future each in the general thread pool, only the due timers are run on the pool.<br>
+ * The repeating timers of a creature are also indexed by the creature, they are cancelled when it is deleted, a despawned NPC or a player logging out, as they would run forever otherwise.
+ * @since 2.6.3.0
+ */
+public final class QuestTimerManager {
+	
+	/** Duration of a tick in milliseconds. */
+	public static final int TICK_MILLIS = 50;
+	
+	/** Amount of slots of the wheel, a timer due after more than one turn stays in its slot until then. */
+	private static final int WHEEL_SIZE = 512;
+	
+	private final TimingWheel<WheelTask> _wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE);
+	
+	/** Timers by quest and name, then by NPC and player. */
+	private final Map<TimerGroup, Map<TimerOwner, QuestTimer>> _timers = new ConcurrentHashMap<>();
+	
+	/** Repeating timers by the NPC or player they are attached to. */
+	private final Map<TimerOwner, Set<QuestTimer>> _repeatingTimers = new ConcurrentHashMap<>();
+	
+	private final LongAdder _started = new LongAdder();
+	private final LongAdder _fired = new LongAdder();
+	private final LongAdder _ownerCancels = new LongAdder();
+	private final LongAccumulator _maxDuePerTick = new LongAccumulator(Math::max, 0);
+	
+	private QuestTimerManager() {
+		ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(NamedRunnable.of("QuestTimerManager.tick", () -> _wheel.tick(this::runSlot)), TICK_MILLIS, TICK_MILLIS);
+	}
+	
+	/**
+	 * Starts a quest timer, unless the quest has a timer with the same name, NPC and player.
+	 * @param quest the quest
+	 * @param name the name of the timer
+	 * @param time the time in milliseconds before the timer fires, and between its runs if it is repeating
+	 * @param npc the NPC attached to the timer, can be {@code null}
+	 * @param player the player attached to the timer, can be {@code null}
+	 * @param repeating if the timer runs until it is cancelled
+	 * @return the started timer, {@code null} if the quest already had the timer
+	 */
+	public QuestTimer startTimer(Quest quest, String name, long time, L2Npc npc, L2PcInstance player, boolean repeating) {
+		final TimerOwner owner = new TimerOwner(npc, player);
+		final QuestTimer[] started = new QuestTimer[1];
+		_timers.compute(new TimerGroup(quest, name), (k, timers) -> {
+			if (timers == null) {
+				timers = new ConcurrentHashMap<>(4);
+			}
+			if (!timers.containsKey(owner)) {
+				started[0] = new QuestTimer(quest, name, time, npc, player, repeating);
+				timers.put(owner, started[0]);
+			}
+			return timers;
+		});
+		
+		final QuestTimer timer = started[0];
+		if ((timer != null) && repeating) {
+			if (npc != null) {
+				addRepeatingTimer(npc, timer);
+			}
+			if (player != null) {
+				addRepeatingTimer(player, timer);
+			}
+		}
+		return timer;
+	}
+	
+	/**
+	 * Schedules a quest timer in the wheel.
+	 * @param timer the timer
+	 * @param task the task run when the timer fires, it checks the timer is still active
+	 * @param time the time in milliseconds before the timer fires, and between its runs if it is repeating
+	 */
+	public void schedule(QuestTimer timer, Runnable task, long time) {
+		final long period = timer.getIsRepeating() ? TimeUnit.MILLISECONDS.toNanos(Math.max(1, time)) : 0;
+		_wheel.schedule(new WheelTask(timer, task, period), _wheel.now() + TimeUnit.MILLISECONDS.toNanos(time));
+		_started.increment();
+	}
+	
+	/**
+	 * Gets a quest timer.
+	 * @param quest the quest
+	 * @param name the name of the timer
+	 * @param npc the NPC attached to the timer, can be {@code null}
+	 * @param player the player attached to the timer, can be {@code null}
+	 * @return the timer, {@code null} if the quest has no such timer
+	 */
+	public QuestTimer getTimer(Quest quest, String name, L2Npc npc, L2PcInstance player) {
+		if ((quest == null) || (name == null)) {
+			return null;
+		}
+		
+		final Map<TimerOwner, QuestTimer> timers = _timers.get(new TimerGroup(quest, name));
+		return (timers != null) ? timers.get(new TimerOwner(npc, player)) : null;
+	}
+	
+	/**
+	 * Gets the timers of a quest.
+	 * @param quest the quest
+	 * @return the timers by name
+	 */
+	public Map<String, List<QuestTimer>> getTimers(Quest quest) {
+		final Map<String, List<QuestTimer>> timers = new HashMap<>();
+		_timers.forEach((group, groupTimers) -> {
+			if (group.quest() == quest) {
+				timers.put(group.name(), new ArrayList<>(groupTimers.values()));
+			}
+		});
+		return timers;
+	}
+	
+	/**
+	 * Cancels all the timers of a quest with a name.
+	 * @param quest the quest
+	 * @param name the name of the timers
+	 */
+	public void cancelTimers(Quest quest, String name) {
+		final Map<TimerOwner, QuestTimer> timers = _timers.remove(new TimerGroup(quest, name));
+		if (timers != null) {
+			for (QuestTimer timer : timers.values()) {
+				cancel(timer);
+			}
+		}
+	}
+	
+	/**
+	 * Cancels all the timers of a quest.
+	 * @param quest the quest
+	 */
+	public void cancelTimers(Quest quest) {
+		for (TimerGroup group : _timers.keySet()) {
+			if (group.quest() == quest) {
+				cancelTimers(quest, group.name());
+			}
+		}
+	}
+	
+	/**
+	 * Removes a quest timer from the index, it does not stop the timer.
+	 * @param timer the timer
+	 */
+	public void removeTimer(QuestTimer timer) {
+		_timers.computeIfPresent(new TimerGroup(timer.getQuest(), timer.getName()), (k, timers) -> {
+			timers.remove(new TimerOwner(timer.getNpc(), timer.getPlayer()), timer);
+			return timers.isEmpty() ? null : timers;
+		});
+		
+		if (timer.getIsRepeating()) {
+			if (timer.getNpc() != null) {
+				removeRepeatingTimer(timer.getNpc(), timer);
+			}
+			if (timer.getPlayer() != null) {
+				removeRepeatingTimer(timer.getPlayer(), timer);
+			}
+		}
+	}
+	
+	/**
+	 * Cancels the repeating timers attached to a deleted NPC or player.<br>
+	 * The timers that fire once are kept, so the scripts can still clean up after the creature.
+	 * @param owner the NPC or player
+	 */
+	public void cancelRepeatingTimers(L2Object owner) {
+		if (!(owner instanceof L2Npc) && !(owner instanceof L2PcInstance)) {
+			return;
+		}
+		
+		final Set<QuestTimer> timers = _repeatingTimers.remove(getOwner(owner));
+		if (timers != null) {
+			for (QuestTimer timer : timers) {
+				timer.cancelAndRemove();
+			}
+			_ownerCancels.add(timers.size());
+		}
+	}
+	
+	private void cancel(QuestTimer timer) {
+		timer.cancel();
+		if (timer.getIsRepeating()) {
+			if (timer.getNpc() != null) {
+				removeRepeatingTimer(timer.getNpc(), timer);
+			}
+			if (timer.getPlayer() != null) {
+				removeRepeatingTimer(timer.getPlayer(), timer);
+			}
+		}
+	}
+	
+	private void addRepeatingTimer(L2Object owner, QuestTimer timer) {
+		_repeatingTimers.compute(getOwner(owner), (k, timers) -> {
+			if (timers == null) {
+				timers = ConcurrentHashMap.newKeySet();
+			}
+			timers.add(timer);
+			return timers;
+		});
+	}
+	
+	private void removeRepeatingTimer(L2Object owner, QuestTimer timer) {
+		_repeatingTimers.computeIfPresent(getOwner(owner), (k, timers) -> {
+			timers.remove(timer);
+			return timers.isEmpty() ? null : timers;
+		});
+	}
+	
+	private static TimerOwner getOwner(L2Object owner) {
+		return (owner instanceof L2PcInstance player) ? new TimerOwner(null, player) : new TimerOwner((L2Npc) owner, null);
+	}
+	
+	private void runSlot(List<WheelTask> slot) {
+		for (WheelTask task : slot) {
+			ThreadPoolManager.getInstance().executeGeneral(task);
+		}
+		_maxDuePerTick.accumulate(slot.size());
+	}
+	
+	/**
+	 * Gets the quest timer statistics.
+	 * @return the quest timer statistics
+	 */
+	public String[] getStats() {
+		final Map<String, Integer> timersByQuest = new TreeMap<>();
+		int timers = 0;
+		for (Map.Entry<TimerGroup, Map<TimerOwner, QuestTimer>> entry : _timers.entrySet()) {
+			final int count = entry.getValue().size();
+			timersByQuest.merge(entry.getKey().quest().getName(), count, Integer::sum);
+			timers += count;
+		}
+		
+		final List<String> stats = new ArrayList<>();
+		stats.add("Quest Timers:");
+		stats.add(" |- Timers:          " + timers);
+		stats.add(" |- RepeatingOwners: " + _repeatingTimers.size());
+		stats.add(" |- Started:         " + _started.sum());
+		stats.add(" |- Fired:           " + _fired.sum());
+		stats.add(" |- OwnerCancels:    " + _ownerCancels.sum());
+		stats.add(" |- SkippedBusy:     " + _wheel.getSkippedBusy());
+		stats.add(" |- DueMax:          " + _maxDuePerTick.get());
+		stats.add(" | -------");
+		timersByQuest.forEach((quest, count) -> stats.add(" |- " + quest + ": " + count));
+		return stats.toArray(new String[0]);
+	}
+	
+	/**
+	 * Quest and name of timers, the quest is compared by identity.
+	 */
+	private record TimerGroup(Quest quest, String name) {
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof TimerGroup other) && (quest == other.quest) && name.equals(other.name);
+		}
+		
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(quest)) + name.hashCode();
+		}
+	}
+	
+	/**
+	 * NPC and player of a timer, either can be {@code null}.<br>
+	 * They are compared by identity, as the object ID of a respawned NPC changes.
+	 */
+	private record TimerOwner(L2Npc npc, L2PcInstance player) {
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof TimerOwner other) && (npc == other.npc) && (player == other.player);
+		}
+		
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(npc)) + System.identityHashCode(player);
+		}
+	}
+	
+	/**
+	 * A quest timer in the wheel.
+	 */
+	private final class WheelTask extends TimingWheel.Task implements NamedRunnable {
+		private final QuestTimer _timer;
+		private final Runnable _task;
+		
+		WheelTask(QuestTimer timer, Runnable task, long period) {
+			super(period);
+			_timer = timer;
+			_task = task;
+		}
+		
+		@Override
+		boolean isCancelled() {
+			return !_timer.getIsActive();
+		}
+		
+		@Override
+		public String getTaskName() {
+			return "QuestTimer." + _timer.getQuest().getName();
+		}
+		
+		@Override
+		public void run() {
+			try {
+				_fired.increment();
+				_task.run();
+			} finally {
+				finished();
+			}
+		}
+	}
+	
+	public static QuestTimerManager getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final QuestTimerManager INSTANCE = new QuestTimerManager();
+	}
+}
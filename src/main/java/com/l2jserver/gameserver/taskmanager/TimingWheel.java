@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel shared by the task managers.<br>
+ * Tasks are kept in a ring of slots of one tick each instead of one scheduled future each; a task due after more than one turn stays in its slot until then.<br>
+ * The slots are only accessed by the thread running {@link #tick(Consumer)}, tasks scheduled from other threads are queued and put in their slot by the next tick, so they never wait for a slot that is being run.
+ * @param <T> the type of the tasks
+ * @since 2.6.3.0
+ */
+final class TimingWheel<T extends TimingWheel.Task> {
+	
+	private final long _tickNanos;
+	
+	private final List<List<T>> _slots;
+	
+	private final Queue<T> _pending = new ConcurrentLinkedQueue<>();
+	
+	private final LongSupplier _clock;
+	
+	private final long _startTime;
+	
+	/** Last tick run, only written by the tick thread. */
+	private volatile long _tick;
+	
+	private final AtomicInteger _scheduled = new AtomicInteger();
+	private final LongAdder _ticks = new LongAdder();
+	private final LongAdder _skippedBusy = new LongAdder();
+	private final LongAdder _tickLag = new LongAdder();
+	private final LongAccumulator _maxTickLag = new LongAccumulator(Math::max, 0);
+	
+	/**
+	 * Creates a timing wheel.
+	 * @param tickMillis the duration of a tick in milliseconds
+	 * @param wheelSize the amount of slots
+	 */
+	TimingWheel(int tickMillis, int wheelSize) {
+		this(tickMillis, wheelSize, System::nanoTime);
+	}
+	
+	/**
+	 * Creates a timing wheel reading the time from the given clock.
+	 * @param tickMillis the duration of a tick in milliseconds
+	 * @param wheelSize the amount of slots
+	 * @param clock the clock, in nanoseconds
+	 */
+	TimingWheel(int tickMillis, int wheelSize, LongSupplier clock) {
+		_tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		_slots = new ArrayList<>(wheelSize);
+		for (int i = 0; i < wheelSize; i++) {
+			_slots.add(new ArrayList<>());
+		}
+		_clock = clock;
+		_startTime = clock.getAsLong();
+	}
+	
+	/**
+	 * Gets the time elapsed since the wheel was created.
+	 * @return the time in nanoseconds
+	 */
+	long now() {
+		return _clock.getAsLong() - _startTime;
+	}
+	
+	/**
+	 * Gets the time a dispatched task has waited past its due time.
+	 * @param task the task
+	 * @return the time in nanoseconds
+	 */
+	long getWaitTime(Task task) {
+		return Math.max(0, now() - task._runDueTime);
+	}
+	
+	/**
+	 * Schedules a task.<br>
+	 * It runs in the first tick at or after its due time, and never in the tick being run.
+	 * @param task the task
+	 * @param dueTime the time since the wheel was created the task is due, in nanoseconds
+	 * @return the task
+	 */
+	T schedule(T task, long dueTime) {
+		task._dueTime = dueTime;
+		_scheduled.incrementAndGet();
+		_pending.offer(task);
+		return task;
+	}
+	
+	/**
+	 * Runs the slots due since the last tick, in order.<br>
+	 * Must be called by a single thread at a time, every tick.
+	 * @param dispatcher receives the tasks due in each slot, marked as running until {@link Task#finished()} is called
+	 */
+	void tick(Consumer<List<T>> dispatcher) {
+		final long elapsed = now();
+		final long tick = elapsed / _tickNanos;
+		if (tick <= _tick) {
+			return;
+		}
+		
+		// The lag is measured from the time the oldest pending slot was due.
+		final long lag = elapsed - ((_tick + 1) * _tickNanos);
+		_ticks.increment();
+		_tickLag.add(lag);
+		_maxTickLag.accumulate(lag);
+		
+		// Slots skipped because the previous ticks ran late are run now, in order.
+		for (long t = _tick + 1; t <= tick; t++) {
+			runSlot(t, dispatcher);
+			_tick = t;
+		}
+	}
+	
+	private void runSlot(long tick, Consumer<List<T>> dispatcher) {
+		T task;
+		while ((task = _pending.poll()) != null) {
+			task._nextTick = Math.max(tick, ceilTicks(task._dueTime));
+			_slots.get(slot(task._nextTick)).add(task);
+		}
+		
+		final List<T> slot = _slots.get(slot(tick));
+		final List<T> due = new ArrayList<>();
+		int kept = 0;
+		for (int i = 0; i < slot.size(); i++) {
+			task = slot.get(i);
+			if (task.isCancelled()) {
+				_scheduled.decrementAndGet();
+				continue;
+			}
+			
+			if (task._nextTick > tick) {
+				slot.set(kept++, task);
+				continue;
+			}
+			
+			task._runDueTime = task._dueTime;
+			if (task._period > 0) {
+				// Fixed rate, the next run is due one period after the previous due time.
+				task._dueTime += task._period;
+				task._nextTick = Math.max(tick + 1, ceilTicks(task._dueTime));
+				if (slot(task._nextTick) == slot(tick)) {
+					slot.set(kept++, task);
+				} else {
+					_slots.get(slot(task._nextTick)).add(task);
+				}
+			} else {
+				_scheduled.decrementAndGet();
+			}
+			
+			if (task._running) {
+				_skippedBusy.increment();
+				continue;
+			}
+			
+			task._running = true;
+			due.add(task);
+		}
+		slot.subList(kept, slot.size()).clear();
+		
+		if (!due.isEmpty()) {
+			dispatcher.accept(due);
+		}
+	}
+	
+	private long ceilTicks(long nanos) {
+		return (nanos + _tickNanos - 1) / _tickNanos;
+	}
+	
+	private int slot(long tick) {
+		return (int) (tick % _slots.size());
+	}
+	
+	/**
+	 * @return the amount of scheduled tasks, cancelled tasks included until their slot is run
+	 */
+	int getScheduledTasks() {
+		return _scheduled.get();
+	}
+	
+	/**
+	 * @return the amount of ticks run
+	 */
+	long getTicks() {
+		return _ticks.sum();
+	}
+	
+	/**
+	 * @return the amount of runs skipped because the previous run of the task had not finished
+	 */
+	long getSkippedBusy() {
+		return _skippedBusy.sum();
+	}
+	
+	/**
+	 * @return the average delay of the ticks in milliseconds
+	 */
+	long getAverageTickLag() {
+		final long ticks = _ticks.sum();
+		return (ticks > 0) ? TimeUnit.NANOSECONDS.toMillis(_tickLag.sum() / ticks) : 0;
+	}
+	
+	/**
+	 * @return the maximum delay of the ticks in milliseconds
+	 */
+	long getMaxTickLag() {
+		return TimeUnit.NANOSECONDS.toMillis(_maxTickLag.get());
+	}
+	
+	/**
+	 * A task in the wheel.
+	 */
+	abstract static class Task {
+		final long _period;
+		/** Nanoseconds since the wheel was created the task is due next. */
+		long _dueTime;
+		/** Nanoseconds since the wheel was created the run being dispatched was due. */
+		long _runDueTime;
+		/** Tick the task is due next, only accessed by the tick thread. */
+		long _nextTick;
+		volatile boolean _running;
+		
+		/**
+		 * @param period the period in nanoseconds, {@code 0} for a task that runs once
+		 */
+		Task(long period) {
+			_period = period;
+		}
+		
+		/**
+		 * Checks if the task is cancelled, a cancelled task is removed from the wheel when its slot is run.
+		 * @return {@code true} if the task is cancelled, {@code false} otherwise
+		 */
+		abstract boolean isCancelled();
+		
+		/**
+		 * Marks the run of the task as finished, until then its next runs are skipped.
+		 */
+		final void finished() {
+			_running = false;
+		}
+	}
+	
+	/**
+	 * A periodic task that is a {@link Future}, so it can replace the futures of the scheduled thread pools.<br>
+	 * As a periodic scheduled future it never completes normally, {@link #get()} waits until it is cancelled.
+	 */
+	abstract static class PeriodicTask extends Task implements Future<Void> {
+		private final AtomicBoolean _cancelled = new AtomicBoolean();
+		private final CountDownLatch _done = new CountDownLatch(1);
+		
+		/**
+		 * @param period the period in nanoseconds
+		 */
+		PeriodicTask(long period) {
+			super(period);
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (!_cancelled.compareAndSet(false, true)) {
+				return false;
+			}
+			_done.countDown();
+			return true;
+		}
+		
+		@Override
+		public boolean isCancelled() {
+			return _cancelled.get();
+		}
+		
+		@Override
+		public boolean isDone() {
+			return _cancelled.get();
+		}
+		
+		@Override
+		public Void get() throws InterruptedException {
+			_done.await();
+			throw new CancellationException();
+		}
+		
+		@Override
+		public Void get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+			if (!_done.await(timeout, unit)) {
+				throw new TimeoutException();
+			}
+			throw new CancellationException();
+		}
+	}
+}
@@ -47,6 +47,7 @@ public final class Broadcast {
 	 * @param mov
 	 */
 	public static void toPlayersTargettingMyself(L2Character character, L2GameServerPacket mov) {
+		mov.encodeOnce();
 		for (L2PcInstance player : character.getKnownList().getKnownPlayers().values()) {
 			if (player.getTarget() != character) {
 				continue;
@@ -66,6 +67,7 @@ public final class Broadcast {
 	 * @param mov
 	 */
 	public static void toKnownPlayers(L2Character character, L2GameServerPacket mov) {
+		mov.encodeOnce();
 		for (L2PcInstance player : character.getKnownList().getKnownPlayers().values()) {
 			if (player == null) {
 				continue;
@@ -100,15 +102,15 @@ public final class Broadcast {
 	 * @param radius
 	 */
 	public static void toKnownPlayersInRadius(L2Character character, L2GameServerPacket mov, int radius) {
-		if (radius < 0) {
-			radius = 1500;
-		}
+		mov.encodeOnce();
+		final int range = (radius < 0) ? 1500 : radius;
 		
-		for (L2PcInstance player : character.getKnownList().getKnownPlayers().values()) {
-			if (character.isInsideRadius(player, radius, false, false)) {
+		// The spatial index only scans the world region cells overlapping the radius, the known list check keeps the previous recipients.
+		L2World.getInstance().forEachVisibleObject(character, L2PcInstance.class, range + 1, player -> {
+			if (character.isInsideRadius(player, range, false, false) && character.getKnownList().knowsObject(player)) {
 				player.sendPacket(mov);
 			}
-		}
+		});
 	}
 	
 	/**
@@ -129,6 +131,7 @@ public final class Broadcast {
 	
 	// To improve performance we are comparing values of radius^2 instead of calculating sqrt all the time
 	public static void toSelfAndKnownPlayersInRadius(L2Character character, L2GameServerPacket mov, int radius) {
+		mov.encodeOnce();
 		if (radius < 0) {
 			radius = 600;
 		}
@@ -152,6 +155,7 @@ public final class Broadcast {
 	 * @param packet
 	 */
 	public static void toAllOnlinePlayers(L2GameServerPacket packet) {
+		packet.encodeOnce();
 		for (L2PcInstance player : L2World.getInstance().getPlayers()) {
 			if (player.isOnline()) {
 				player.sendPacket(packet);
@@ -168,6 +172,7 @@ public final class Broadcast {
 	}
 	
 	public static void toPlayersInInstance(L2GameServerPacket packet, int instanceId) {
+		packet.encodeOnce();
 		for (L2PcInstance player : L2World.getInstance().getPlayers()) {
 			if (player.isOnline() && (player.getInstanceId() == instanceId)) {
 				player.sendPacket(packet);
@@ -22,8 +22,16 @@ import static com.l2jserver.gameserver.config.Configuration.server;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +41,8 @@ import org.w3c.dom.Node;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXParseException;
 
+import com.l2jserver.gameserver.cache.DocumentCache;
+import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.util.file.filter.XMLFilter;
 
 /**
@@ -50,6 +60,9 @@ public interface IXmlReader {
 	/** The default file filter, ".xml" files only. */
 	XMLFilter XML_FILTER = new XMLFilter();
 	
+	/** The factory of the streaming readers, thread safe once configured. */
+	XMLInputFactory XML_INPUT_FACTORY = newInputFactory();
+	
 	/**
 	 * This method can be used to load/reload the data.<br>
 	 * It's highly recommended to clear the data storage, either the list or map.
@@ -67,7 +80,7 @@ public interface IXmlReader {
 	/**
 	 * Parses a single XML file.<br>
 	 * If the file was successfully parsed, call {@link #parseDocument(Document, File)} for the parsed document.<br>
-	 * <b>Validation is enforced.</b>
+	 * <b>Validation is enforced</b>, a document loaded from the {@link #getDocumentCache() document cache} was validated when it was cached.
 	 * @param f the XML file to parse.
 	 */
 	default void parseFile(File f) {
@@ -76,15 +89,9 @@ public interface IXmlReader {
 			return;
 		}
 		
-		final var dbf = DocumentBuilderFactory.newInstance();
-		dbf.setNamespaceAware(true);
-		dbf.setValidating(true);
-		dbf.setIgnoringComments(true);
 		try {
-			dbf.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
-			final var db = dbf.newDocumentBuilder();
-			db.setErrorHandler(new XMLErrorHandler());
-			parseDocument(db.parse(f), f);
+			final DocumentCache cache = getDocumentCache();
+			parseDocument((cache != null) ? cache.load(f, IXmlReader::readDocument) : readDocument(f), f);
 		} catch (SAXParseException e) {
 			LOG.warn("{}: Could not parse file {} at line {}, column {}", getClass().getSimpleName(), f.getName(), e.getLineNumber(), e.getColumnNumber(), e);
 		} catch (Exception e) {
@@ -92,6 +99,31 @@ public interface IXmlReader {
 		}
 	}
 	
+	/**
+	 * Reads and validates the document of a file.
+	 * @param f the XML file
+	 * @return the document
+	 * @throws Exception if the file could not be parsed or is not valid
+	 */
+	static Document readDocument(File f) throws Exception {
+		final var dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		dbf.setValidating(true);
+		dbf.setIgnoringComments(true);
+		dbf.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
+		final var db = dbf.newDocumentBuilder();
+		db.setErrorHandler(new XMLErrorHandler());
+		return db.parse(f);
+	}
+	
+	/**
+	 * Gets the cache of the documents parsed by {@link #parseFile(File)}.
+	 * @return the document cache, {@code null} to always parse the files
+	 */
+	default DocumentCache getDocumentCache() {
+		return null;
+	}
+	
 	/**
 	 * Loads all XML files from {@code path} and calls {@link #parseFile(File)} for each one of them.
 	 * @param dir the directory object to scan.
@@ -127,6 +159,90 @@ public interface IXmlReader {
 		return parseDirectory(new File(server().getDatapackRoot(), path), recursive);
 	}
 	
+	/**
+	 * Parses a single XML file with a streaming reader, the document of the file is never built.<br>
+	 * <b>The file is not validated against its schema</b>, the parser is expected to check the values it reads.
+	 * @param <T> the type of the parsed data
+	 * @param f the XML file to parse
+	 * @param parser the parser reading the file
+	 * @return the data parsed from the file, {@code null} if it could not be parsed
+	 */
+	default <T> T parseFile(File f, XmlStreamParser<T> parser) {
+		if (!getCurrentFileFilter().accept(f)) {
+			LOG.warn("{}: Could not parse {} is not a file or it doesn't exist!", getClass().getSimpleName(), f.getName());
+			return null;
+		}
+		
+		try (var in = new FileInputStream(f)) {
+			final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+			try {
+				return parser.parse(reader, f);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			LOG.warn("{}: Could not parse file {} at line {}, column {}", getClass().getSimpleName(), f.getName(), e.getLocation().getLineNumber(), e.getLocation().getColumnNumber(), e);
+		} catch (Exception e) {
+			LOG.warn("{}: Could not parse file {}", getClass().getSimpleName(), f.getName(), e);
+		}
+		return null;
+	}
+	
+	/**
+	 * Parses all XML files from {@code dir} in parallel with a streaming reader, as {@link #parseFile(File, XmlStreamParser)} does.<br>
+	 * The files are parsed concurrently, then the calling thread merges their data one file after another in file path order, so the loaded data is the same on every load.
+	 * @param <T> the type of the parsed data
+	 * @param dir the directory object to scan
+	 * @param recursive parses all sub folders if there is
+	 * @param parser the parser reading a file, called concurrently so it must not modify the reader
+	 * @param merger merges the data parsed from a file into the reader
+	 * @return {@code false} if it fails to find the directory, {@code true} otherwise
+	 */
+	default <T> boolean parseDirectory(File dir, boolean recursive, XmlStreamParser<T> parser, BiConsumer<File, T> merger) {
+		if (!dir.exists()) {
+			LOG.warn("{}: Folder {} doesn't exist!", getClass().getSimpleName(), dir.getAbsolutePath());
+			return false;
+		}
+		
+		final List<File> files = new ArrayList<>();
+		listFiles(dir, recursive, files);
+		files.sort(Comparator.comparing(File::getPath));
+		
+		final List<T> parsed = files.parallelStream().map(f -> parseFile(f, parser)).toList();
+		for (int i = 0; i < files.size(); i++) {
+			if (parsed.get(i) != null) {
+				merger.accept(files.get(i), parsed.get(i));
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Wrapper for {@link #parseDirectory(File, boolean, XmlStreamParser, BiConsumer)}.
+	 * @param <T> the type of the parsed data
+	 * @param path the path to the directory where the XML files are
+	 * @param recursive parses all sub folders if there is
+	 * @param parser the parser reading a file, called concurrently so it must not modify the reader
+	 * @param merger merges the data parsed from a file into the reader
+	 * @return {@code false} if it fails to find the directory, {@code true} otherwise
+	 */
+	default <T> boolean parseDatapackDirectory(String path, boolean recursive, XmlStreamParser<T> parser, BiConsumer<File, T> merger) {
+		return parseDirectory(new File(server().getDatapackRoot(), path), recursive, parser, merger);
+	}
+	
+	private void listFiles(File dir, boolean recursive, List<File> files) {
+		final var children = dir.listFiles();
+		if (children != null) {
+			for (var file : children) {
+				if (recursive && file.isDirectory()) {
+					listFiles(file, recursive, files);
+				} else if (getCurrentFileFilter().accept(file)) {
+					files.add(file);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Abstract method that when implemented will parse the current document.<br>
 	 * Is expected to be call from {@link #parseFile(File)}.
@@ -542,6 +658,52 @@ public interface IXmlReader {
 		return parseEnum(attrs.getNamedItem(name), clazz, defaultValue);
 	}
 	
+	/**
+	 * Parses the attributes of the current element of a streaming reader.
+	 * @param reader the reader, on a start element
+	 * @return the attributes by name
+	 */
+	default StatsSet parseAttributes(XMLStreamReader reader) {
+		final StatsSet set = new StatsSet();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			set.set(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+		}
+		return set;
+	}
+	
+	/**
+	 * Parses an integer attribute of the current element of a streaming reader.
+	 * @param reader the reader, on a start element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, its parsed value, otherwise null
+	 */
+	default Integer parseInteger(XMLStreamReader reader, String name) {
+		final String value = reader.getAttributeValue(null, name);
+		return (value != null) ? Integer.valueOf(value) : null;
+	}
+	
+	/**
+	 * Parses a string attribute of the current element of a streaming reader.
+	 * @param reader the reader, on a start element
+	 * @param name the name of the attribute to parse
+	 * @return if the attribute is present, its value, otherwise null
+	 */
+	default String parseString(XMLStreamReader reader, String name) {
+		return reader.getAttributeValue(null, name);
+	}
+	
+	/**
+	 * Parses a boolean attribute of the current element of a streaming reader.
+	 * @param reader the reader, on a start element
+	 * @param name the name of the attribute to parse
+	 * @param defaultValue the default value
+	 * @return if the attribute is present, its parsed value, otherwise the default value
+	 */
+	default boolean parseBoolean(XMLStreamReader reader, String name, boolean defaultValue) {
+		final String value = reader.getAttributeValue(null, name);
+		return (value != null) ? Boolean.parseBoolean(value) : defaultValue;
+	}
+	
 	/**
 	 * Gets the current file filter.
 	 * @return the current file filter
@@ -550,6 +712,30 @@ public interface IXmlReader {
 		return XML_FILTER;
 	}
 	
+	private static XMLInputFactory newInputFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+	
+	/**
+	 * Parser of a file read with a streaming reader.
+	 * @param <T> the type of the parsed data
+	 */
+	@FunctionalInterface
+	interface XmlStreamParser<T> {
+		/**
+		 * Parses a file.
+		 * @param reader the reader, at the start of the document
+		 * @param f the file
+		 * @return the parsed data, {@code null} if there is nothing to merge
+		 * @throws XMLStreamException if the file is not well formed
+		 */
+		T parse(XMLStreamReader reader, File f) throws XMLStreamException;
+	}
+	
 	/**
 	 * Simple XML error handler.
 	 * @author Zoey76
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+/**
+ * Open addressing hash index from an int key to a non negative int value, such as the position of an object ID in an array.<br>
+ * It is not thread safe.
+ * @since 2.6.3.0
+ */
+public final class IntIndex {
+	private static final int MIN_CAPACITY = 16;
+	
+	private int[] _keys = new int[MIN_CAPACITY];
+	
+	private int[] _values = new int[MIN_CAPACITY];
+	
+	private boolean[] _used = new boolean[MIN_CAPACITY];
+	
+	private int _count;
+	
+	/**
+	 * @param key the key
+	 * @return the value of the key, {@code -1} if it is not in the index
+	 */
+	public int get(int key) {
+		final int mask = _keys.length - 1;
+		for (int i = hash(key) & mask; _used[i]; i = (i + 1) & mask) {
+			if (_keys[i] == key) {
+				return _values[i];
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Maps a key to a value, replacing its previous value.
+	 * @param key the key
+	 * @param value the value, not negative
+	 */
+	public void put(int key, int value) {
+		if (((_count + 1) * 2) > _keys.length) {
+			rehash(_keys.length * 2);
+		}
+		
+		final int mask = _keys.length - 1;
+		int i = hash(key) & mask;
+		while (_used[i]) {
+			if (_keys[i] == key) {
+				_values[i] = value;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		_used[i] = true;
+		_keys[i] = key;
+		_values[i] = value;
+		_count++;
+	}
+	
+	/**
+	 * Removes a key.
+	 * @param key the key
+	 */
+	public void remove(int key) {
+		final int mask = _keys.length - 1;
+		int hole = hash(key) & mask;
+		while (_used[hole] && (_keys[hole] != key)) {
+			hole = (hole + 1) & mask;
+		}
+		if (!_used[hole]) {
+			return;
+		}
+		
+		// Shifts back the following keys of the probe sequence, so lookups never need tombstones.
+		for (int i = (hole + 1) & mask; _used[i]; i = (i + 1) & mask) {
+			final int home = hash(_keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				_keys[hole] = _keys[i];
+				_values[hole] = _values[i];
+				hole = i;
+			}
+		}
+		_used[hole] = false;
+		_count--;
+	}
+	
+	/**
+	 * Removes all the keys.
+	 */
+	public void clear() {
+		_keys = new int[MIN_CAPACITY];
+		_values = new int[MIN_CAPACITY];
+		_used = new boolean[MIN_CAPACITY];
+		_count = 0;
+	}
+	
+	private void rehash(int capacity) {
+		final int[] keys = _keys;
+		final int[] values = _values;
+		final boolean[] used = _used;
+		_keys = new int[capacity];
+		_values = new int[capacity];
+		_used = new boolean[capacity];
+		_count = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (used[i]) {
+				put(keys[i], values[i]);
+			}
+		}
+	}
+	
+	private static int hash(int key) {
+		final int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.L2WorldRegion;
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * Game time controller test.
+ * @since 2.6.3.0
+ */
+class GameTimeControllerTest {
+	
+	private static final int GRID = 12;
+	
+	private static final int MOVERS = 1_200;
+	
+	private static final int REACH = 2;
+	
+	@Test
+	void testCharactersCrossingRegionsNeverShareRegionsBetweenThreads() throws Exception {
+		final L2WorldRegion[][] regions = new L2WorldRegion[GRID][GRID];
+		for (int x = 0; x < GRID; x++) {
+			for (int y = 0; y < GRID; y++) {
+				regions[x][y] = new L2WorldRegion(x, y);
+			}
+		}
+		
+		final Map<Integer, Thread> owners = new ConcurrentHashMap<>();
+		final AtomicInteger violations = new AtomicInteger();
+		final AtomicInteger crossings = new AtomicInteger();
+		final GameTimeController controller = new GameTimeController(4);
+		final List<L2Character> movers = new ArrayList<>();
+		for (int i = 0; i < MOVERS; i++) {
+			final L2Character character = mock(L2Character.class);
+			final AtomicReference<L2WorldRegion> region = new AtomicReference<>(regions[i % GRID][(i / GRID) % GRID]);
+			final boolean arrives = (i % 3) == 0;
+			when(character.getWorldRegion()).thenAnswer(inv -> region.get());
+			when(character.updatePosition()).thenAnswer(inv -> {
+				// Everything a mover may touch: its region, the region it enters and the surroundings of that one.
+				final L2WorldRegion current = region.get();
+				final List<Integer> owned = new ArrayList<>();
+				for (int x = current.getTileX() - REACH; x <= (current.getTileX() + REACH); x++) {
+					for (int y = current.getTileY() - REACH; y <= (current.getTileY() + REACH); y++) {
+						final int key = (x * 1000) + y;
+						final Thread owner = owners.putIfAbsent(key, Thread.currentThread());
+						if (owner == null) {
+							owned.add(key);
+						} else if (owner != Thread.currentThread()) {
+							violations.incrementAndGet();
+						}
+					}
+				}
+				Thread.yield();
+				
+				final int x = Math.floorMod(current.getTileX() + 1, GRID);
+				region.set(regions[x][current.getTileY()]);
+				crossings.incrementAndGet();
+				
+				owned.forEach(owners::remove);
+				return arrives;
+			});
+			movers.add(character);
+			controller.registerMovingObject(character);
+		}
+		
+		controller.moveObjects();
+		controller.moveObjects();
+		
+		assertThat(violations).hasValue(0);
+		assertThat(crossings).hasValue(MOVERS + ((MOVERS * 2) / 3));
+		assertThat(owners).isEmpty();
+		assertThat(controller.getStats()).contains(" |- ParallelTicks:   2");
+	}
+	
+	@Test
+	void testOnlyTicksLongerThanATickAreSkipped() {
+		final GameTimeController controller = new GameTimeController(1);
+		controller.recordTick(GameTimeController.MILLIS_IN_TICK - 1);
+		controller.recordTick(GameTimeController.MILLIS_IN_TICK);
+		assertThat(controller.getStats()).contains(" |- SkippedTicks:    0");
+		
+		controller.recordTick(GameTimeController.MILLIS_IN_TICK + 1);
+		controller.recordTick(GameTimeController.MILLIS_IN_TICK * 2);
+		assertThat(controller.getStats()).contains(" |- SkippedTicks:    2");
+		
+		controller.recordTick((GameTimeController.MILLIS_IN_TICK * 2) + 1);
+		assertThat(controller.getStats()).contains(" |- SkippedTicks:    4");
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.commons.network.BaseRecievePacket;
+import com.l2jserver.commons.network.BaseSendablePacket;
+import com.l2jserver.commons.security.crypt.NewCrypt;
+import com.l2jserver.gameserver.LoginServerThread.SessionKey;
+import com.l2jserver.gameserver.network.L2GameClient;
+import com.l2jserver.gameserver.network.serverpackets.LoginFail;
+
+/**
+ * Login server thread test.<br>
+ * The login server is a stand-in speaking the game server link protocol on a local socket, it answers the authentication requests as they come.
+ * @since 2.6.3.0
+ */
+class LoginServerThreadTest {
+	
+	private static final int PLAYERS = 5_000;
+	
+	private static final int SENDERS = 8;
+	
+	private static final String STATIC_BLOWFISH_KEY = "_;v.]05-31!|+-%xT!^[$\00";
+	
+	private StandInLoginServer loginServer;
+	
+	private TestLoginServerThread link;
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		if (link != null) {
+			link.interrupt();
+			link.join(TimeUnit.SECONDS.toMillis(10));
+		}
+		if (loginServer != null) {
+			loginServer.close();
+		}
+	}
+	
+	@Test
+	void testConcurrentLoginsArePipelined() throws Exception {
+		loginServer = new StandInLoginServer(account -> true);
+		link = new TestLoginServerThread(loginServer.getPort(), TimeUnit.MINUTES.toMillis(1));
+		link.start();
+		assertThat(loginServer.registered.await(10, TimeUnit.SECONDS)).isTrue();
+		
+		final L2GameClient[] clients = new L2GameClient[PLAYERS];
+		final SessionKey[] keys = new SessionKey[PLAYERS];
+		for (int i = 0; i < PLAYERS; i++) {
+			clients[i] = mock(L2GameClient.class);
+			// One player in ten has a wrong session key.
+			keys[i] = new SessionKey(((i % 10) == 0) ? (-i - 1) : i, 0, i, 0);
+		}
+		
+		// All the players log in at once, as after a restart.
+		final Thread[] senders = new Thread[SENDERS];
+		for (int s = 0; s < SENDERS; s++) {
+			final int first = s;
+			senders[s] = Thread.ofPlatform().start(() -> {
+				for (int i = first; i < PLAYERS; i += SENDERS) {
+					final String account = "account" + i;
+					assertThat(link.addGameServerLogin(account, clients[i])).isTrue();
+					link.addWaitingClientAndSendRequest(account, clients[i], keys[i]);
+				}
+			});
+		}
+		for (Thread sender : senders) {
+			sender.join();
+		}
+		assertThat(link.completed.await(30, TimeUnit.SECONDS)).isTrue();
+		
+		// Every answer reached the player of its account.
+		assertThat(link.results).hasSize(PLAYERS);
+		for (int i = 0; i < PLAYERS; i++) {
+			final Result result = link.results.get("account" + i);
+			assertThat(result.client).isSameAs(clients[i]);
+			assertThat(result.session).isSameAs(keys[i]);
+			assertThat(result.authed).isEqualTo((i % 10) != 0);
+		}
+		assertThat(link.getStats()).contains(" |- WaitingClients:  0", " |- AuthReplies:     " + PLAYERS, " |- AuthTimeouts:    0");
+	}
+	
+	@Test
+	void testUnansweredLoginsTimeOut() throws Exception {
+		loginServer = new StandInLoginServer(account -> !account.startsWith("silent"));
+		link = new TestLoginServerThread(loginServer.getPort(), 500);
+		link.start();
+		assertThat(loginServer.registered.await(10, TimeUnit.SECONDS)).isTrue();
+		
+		final L2GameClient answered = mock(L2GameClient.class);
+		final L2GameClient[] silent = new L2GameClient[10];
+		link.addGameServerLogin("answered", answered);
+		link.addWaitingClientAndSendRequest("answered", answered, new SessionKey(1, 0, 1, 0));
+		for (int i = 0; i < silent.length; i++) {
+			silent[i] = mock(L2GameClient.class);
+			link.addGameServerLogin("silent" + i, silent[i]);
+			link.addWaitingClientAndSendRequest("silent" + i, silent[i], new SessionKey(1, 0, 1, 0));
+		}
+		
+		final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+		while (!link.getStats()[2].equals(" |- WaitingClients:  0") && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(50);
+		}
+		
+		assertThat(link.results).containsOnlyKeys("answered");
+		verify(answered, never()).close(any(LoginFail.class));
+		for (int i = 0; i < silent.length; i++) {
+			verify(silent[i]).close(any(LoginFail.class));
+			// The account can log in again.
+			assertThat(link.getClient("silent" + i)).isNull();
+		}
+		assertThat(link.getStats()).contains(" |- AuthTimeouts:    " + silent.length);
+	}
+	
+	private record Result(L2GameClient client, SessionKey session, boolean authed) {
+	}
+	
+	/**
+	 * The login server link with the answered authentications recorded instead of sending the character selection.
+	 */
+	private static final class TestLoginServerThread extends LoginServerThread {
+		private final Map<String, Result> results = new ConcurrentHashMap<>();
+		private final CountDownLatch completed = new CountDownLatch(PLAYERS);
+		
+		TestLoginServerThread(int port, long authTimeout) {
+			super(InetAddress.getLoopbackAddress().getHostAddress(), port, authTimeout);
+		}
+		
+		@Override
+		protected void completePlayerAuth(String account, L2GameClient client, SessionKey session, boolean authed) {
+			results.put(account, new Result(client, session, authed));
+			completed.countDown();
+		}
+	}
+	
+	/**
+	 * A login server accepting a game server, it registers it without answering and then answers the player authentication requests.<br>
+	 * The session key of a player is correct if its first login key is its first play key.
+	 */
+	private static final class StandInLoginServer implements AutoCloseable {
+		private final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		private final CountDownLatch registered = new CountDownLatch(1);
+		private final Predicate<String> answered;
+		private final KeyPair rsaKeys;
+		private final Thread thread;
+		
+		StandInLoginServer(Predicate<String> answered) throws Exception {
+			this.answered = answered;
+			final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(new RSAKeyGenParameterSpec(512, RSAKeyGenParameterSpec.F4));
+			rsaKeys = generator.generateKeyPair();
+			thread = Thread.ofPlatform().name("StandInLoginServer").start(this::serve);
+		}
+		
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+		
+		private void serve() {
+			try (Socket socket = serverSocket.accept()) {
+				final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				final OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+				NewCrypt crypt = new NewCrypt(STATIC_BLOWFISH_KEY);
+				write(out, crypt, new Packet().c(0x00).rsaKey(((RSAPublicKey) rsaKeys.getPublic()).getModulus().toByteArray()));
+				out.flush();
+				
+				final BaseRecievePacket blowfishKey = read(in, crypt);
+				final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
+				rsaCipher.init(Cipher.DECRYPT_MODE, rsaKeys.getPrivate());
+				final byte[] decrypted = rsaCipher.doFinal(blowfishKey.readB(blowfishKey.readD()));
+				crypt = new NewCrypt(Arrays.copyOfRange(decrypted, decrypted.length - 40, decrypted.length));
+				// The auth request, the game server is registered without an answer.
+				read(in, crypt);
+				registered.countDown();
+				
+				BaseRecievePacket request;
+				while ((request = read(in, crypt)) != null) {
+					final String account = request.readS();
+					final int playOk1 = request.readD();
+					request.readD();
+					final int loginOk1 = request.readD();
+					if (answered.test(account)) {
+						write(out, crypt, new Packet().c(0x03).s(account).c((playOk1 == loginOk1) ? 1 : 0));
+					}
+					// The answers are sent together when the requests read so far are handled.
+					if (in.available() == 0) {
+						out.flush();
+					}
+				}
+			} catch (Exception e) {
+				// The game server disconnected.
+			}
+		}
+		
+		private static BaseRecievePacket read(DataInputStream in, NewCrypt crypt) throws IOException {
+			final int length;
+			try {
+				length = in.readUnsignedByte() | (in.readUnsignedByte() << 8);
+			} catch (EOFException e) {
+				return null;
+			}
+			final byte[] data = new byte[length - 2];
+			in.readFully(data);
+			crypt.decrypt(data, 0, data.length);
+			assertThat(NewCrypt.verifyChecksum(data)).isTrue();
+			return new BaseRecievePacket(data) {
+			};
+		}
+		
+		private static void write(OutputStream out, NewCrypt crypt, Packet packet) throws IOException {
+			final byte[] data = packet.getContent();
+			NewCrypt.appendChecksum(data);
+			crypt.crypt(data, 0, data.length);
+			final int length = data.length + 2;
+			out.write(length & 0xFF);
+			out.write(length >> 8);
+			out.write(data);
+		}
+		
+		@Override
+		public void close() throws Exception {
+			serverSocket.close();
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		}
+	}
+	
+	private static final class Packet extends BaseSendablePacket {
+		Packet c(int value) {
+			writeC(value);
+			return this;
+		}
+		
+		Packet s(String value) {
+			writeS(value);
+			return this;
+		}
+		
+		Packet rsaKey(byte[] key) {
+			writeD(key.length);
+			writeB(key);
+			return this;
+		}
+		
+		@Override
+		public byte[] getContent() {
+			return getBytes();
+		}
+	}
+}
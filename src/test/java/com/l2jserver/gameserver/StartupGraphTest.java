@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Startup graph test.
+ * @since 2.6.3.0
+ */
+class StartupGraphTest {
+	
+	@Test
+	void testOrderKeepsDeclarationOrderOfReadyStages() {
+		final StartupGraph graph = new StartupGraph() //
+			.add("Spawns", () -> {}, "NPCs", "Scripts") //
+			.add("Geodata", () -> {}) //
+			.add("Scripts", () -> {}, "NPCs") //
+			.add("NPCs", () -> {}, "Geodata") //
+			.add("Cache", () -> {});
+		
+		assertThat(graph.getOrder()).containsExactly("Geodata", "NPCs", "Scripts", "Spawns", "Cache");
+	}
+	
+	@Test
+	void testMissingDependencyAndCycleFailBeforeLoading() {
+		final List<String> loaded = new CopyOnWriteArrayList<>();
+		final StartupGraph missing = new StartupGraph() //
+			.add("Geodata", () -> loaded.add("Geodata")) //
+			.add("Spawns", () -> loaded.add("Spawns"), "NPCs");
+		final StartupGraph cycle = new StartupGraph() //
+			.add("Geodata", () -> loaded.add("Geodata")) //
+			.add("Items", () -> loaded.add("Items"), "Skills") //
+			.add("NPCs", () -> loaded.add("NPCs"), "Items", "Geodata") //
+			.add("Skills", () -> loaded.add("Skills"), "NPCs");
+		
+		assertThatThrownBy(() -> missing.load(4)).isInstanceOf(IllegalStateException.class).hasMessageContaining("Spawns depends on missing stage NPCs");
+		assertThatThrownBy(() -> cycle.load(1)).isInstanceOf(IllegalStateException.class).hasMessageContaining("Items -> Skills -> NPCs -> Items");
+		assertThatThrownBy(() -> new StartupGraph().add("Items", () -> {}).add("Items", () -> {})).isInstanceOf(IllegalArgumentException.class);
+		assertThat(loaded).isEmpty();
+	}
+	
+	@Test
+	void testIndependentStagesLoadInParallel() throws Exception {
+		final CountDownLatch bothLoading = new CountDownLatch(2);
+		final List<String> loaded = new CopyOnWriteArrayList<>();
+		final StartupGraph graph = new StartupGraph() //
+			.add("Geodata", () -> {
+				// Only returns if the other stage is loading at the same time.
+				bothLoading.countDown();
+				assertThat(bothLoading.await(10, TimeUnit.SECONDS)).isTrue();
+				loaded.add("Geodata");
+			}) //
+			.add("Html Cache", () -> {
+				bothLoading.countDown();
+				assertThat(bothLoading.await(10, TimeUnit.SECONDS)).isTrue();
+				loaded.add("Html Cache");
+			}) //
+			.add("Pathfinding", () -> loaded.add("Pathfinding"), "Geodata") //
+			.add("Scripts", () -> loaded.add("Scripts"), "Pathfinding", "Html Cache");
+		
+		graph.load(2);
+		
+		assertThat(loaded).hasSize(4);
+		assertThat(loaded.indexOf("Pathfinding")).isGreaterThan(loaded.indexOf("Geodata"));
+		assertThat(loaded.getLast()).isEqualTo("Scripts");
+	}
+	
+	@Test
+	void testFailedStageSkipsItsDependents() {
+		final List<String> loaded = new CopyOnWriteArrayList<>();
+		final StartupGraph graph = new StartupGraph() //
+			.add("Geodata", () -> {
+				throw new IOException("Missing geodata file!");
+			}) //
+			.add("Pathfinding", () -> loaded.add("Pathfinding"), "Geodata") //
+			.add("Html Cache", () -> loaded.add("Html Cache"));
+		
+		assertThatThrownBy(() -> graph.load(2)).isInstanceOf(IOException.class).hasMessage("Missing geodata file!");
+		assertThat(loaded).containsExactly("Html Cache");
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.ThreadPoolStats.PoolStats;
+
+/**
+ * Thread pool task statistics test.
+ * @since 2.6.3.0
+ */
+class ThreadPoolStatsTest {
+	
+	@Test
+	void testTasksAreAggregatedSlowestFirst() {
+		final ThreadPoolStats stats = new ThreadPoolStats(true);
+		final PoolStats pool = stats.addPool("AI");
+		pool.record(String.class.getName(), 0, 5_000, false);
+		pool.record(Integer.class.getName(), 2_000_000, 3_000_000, true);
+		pool.record(String.class.getName(), 0, 5_000, false);
+		
+		assertThat(pool.getSlowestTasks(10)).hasSize(2);
+		assertThat(stats.getStats(1)).contains( //
+			" + AI:", //
+			" |- Tasks:          3", //
+			" |- Exceptions:     1", //
+			" |- Wait histogram: <10us 2, <100us 0, <1ms 0, <10ms 1, <100ms 0, <1s 0, >=1s 0", //
+			" |- Exec histogram: <10us 2, <100us 0, <1ms 0, <10ms 1, <100ms 0, <1s 0, >=1s 0", //
+			" |  java.lang.Integer: 1 tasks, total 3.0ms, avg 3.0ms, max 3.0ms, avg wait 2.0ms, 1 exceptions");
+		assertThat(stats.getStats(1)).noneMatch(line -> line.contains("java.lang.String"));
+	}
+	
+	@Test
+	void testNamedTasksAreAggregatedByName() throws Exception {
+		final ThreadPoolManager threadPool = ThreadPoolManager.getInstance();
+		final ThreadPoolStats stats = threadPool.getTaskStats();
+		final boolean enabled = stats.isEnabled();
+		stats.setEnabled(true);
+		try {
+			final Runnable first = () -> {};
+			final Runnable second = () -> {};
+			// Both lambdas would be aggregated under the class of this test.
+			threadPool.scheduleGeneral(NamedRunnable.of("ThreadPoolStatsTest.first", first), 0).get();
+			threadPool.scheduleGeneral(NamedRunnable.of("ThreadPoolStatsTest.second", second), 0).get();
+			threadPool.scheduleGeneral(NamedRunnable.of("ThreadPoolStatsTest.second", second), 0).get();
+			
+			assertThat(stats.getStats(Integer.MAX_VALUE)) //
+				.anyMatch(line -> line.startsWith(" |  ThreadPoolStatsTest.first: 1 tasks")) //
+				.anyMatch(line -> line.startsWith(" |  ThreadPoolStatsTest.second: 2 tasks"));
+		} finally {
+			stats.setEnabled(enabled);
+		}
+	}
+	
+	@Test
+	void testNestedTasksAreListedWithoutCountingTwice() {
+		final ThreadPoolStats stats = new ThreadPoolStats(true);
+		final PoolStats pool = stats.addPool("AI");
+		pool.record("AiTaskManager.tick", 0, 3_000_000, false);
+		pool.recordNested(String.class.getName(), 1_000_000, 2_000_000, false);
+		
+		assertThat(stats.getStats(10)).contains( //
+			" |- Tasks:          1", //
+			" |  AiTaskManager.tick: 1 tasks, total 3.0ms, avg 3.0ms, max 3.0ms, avg wait 0us, 0 exceptions", //
+			" |  java.lang.String: 1 tasks, total 2.0ms, avg 2.0ms, max 2.0ms, avg wait 1.0ms, 0 exceptions");
+	}
+	
+	@Test
+	void testPeriodicTasksScheduledWhileDisabledAreRecordedOnceEnabled() throws Exception {
+		final ThreadPoolManager threadPool = ThreadPoolManager.getInstance();
+		final ThreadPoolStats stats = threadPool.getTaskStats();
+		final boolean enabled = stats.isEnabled();
+		stats.setEnabled(false);
+		final CountDownLatch runs = new CountDownLatch(3);
+		final ScheduledFuture<?> task = threadPool.scheduleGeneralAtFixedRate(NamedRunnable.of("ThreadPoolStatsTest.periodic", runs::countDown), 10, 10);
+		try {
+			stats.setEnabled(true);
+			assertThat(runs.await(10, TimeUnit.SECONDS)).isTrue();
+			task.cancel(false);
+			
+			assertThat(stats.getStats(Integer.MAX_VALUE)).anyMatch(line -> line.startsWith(" |  ThreadPoolStatsTest.periodic: "));
+		} finally {
+			task.cancel(false);
+			stats.setEnabled(enabled);
+		}
+	}
+	
+	@Test
+	void testResetClearsAllPools() {
+		final ThreadPoolStats stats = new ThreadPoolStats(true);
+		final PoolStats pool = stats.addPool("Effects");
+		pool.record(String.class.getName(), 0, 5_000, false);
+		
+		stats.reset();
+		
+		assertThat(pool.getSlowestTasks(10)).isEmpty();
+		assertThat(stats.getStats(10)).contains(" |- Tasks:          0");
+	}
+	
+	@Test
+	void testToggle() {
+		final ThreadPoolStats stats = new ThreadPoolStats(false);
+		final PoolStats pool = stats.addPool("General");
+		assertThat(pool.isEnabled()).isFalse();
+		
+		stats.setEnabled(true);
+		
+		assertThat(pool.isEnabled()).isTrue();
+		assertThat(stats.getStats(10)[0]).isEqualTo("Task Stats: enabled");
+	}
+}
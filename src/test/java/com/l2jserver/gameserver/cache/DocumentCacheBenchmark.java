@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+
+import com.l2jserver.gameserver.util.IXmlReader;
+
+/**
+ * Document cache benchmark.<br>
+ * Loads a generated NPC like file of a hundred templates, parsed and validated against its schema, decoded from its compiled form, and through a document cache holding it.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentCacheBenchmark {
+	
+	private static final int NPCS = 100;
+	
+	private static final String SCHEMA = """
+		<?xml version="1.0" encoding="UTF-8"?>
+		<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+			<xs:element name="list">
+				<xs:complexType>
+					<xs:sequence>
+						<xs:element name="npc" maxOccurs="unbounded">
+							<xs:complexType>
+								<xs:sequence>
+									<xs:element name="stats">
+										<xs:complexType>
+											<xs:attribute name="str" type="xs:int" />
+											<xs:attribute name="int" type="xs:int" />
+											<xs:attribute name="dex" type="xs:int" />
+										</xs:complexType>
+									</xs:element>
+									<xs:element name="skill" maxOccurs="unbounded">
+										<xs:complexType>
+											<xs:attribute name="id" type="xs:int" />
+											<xs:attribute name="level" type="xs:int" />
+										</xs:complexType>
+									</xs:element>
+								</xs:sequence>
+								<xs:attribute name="id" type="xs:int" use="required" />
+								<xs:attribute name="level" type="xs:int" />
+								<xs:attribute name="type" type="xs:string" />
+								<xs:attribute name="name" type="xs:string" />
+							</xs:complexType>
+						</xs:element>
+					</xs:sequence>
+				</xs:complexType>
+			</xs:element>
+		</xs:schema>
+		""";
+	
+	private Path dir;
+	
+	private File file;
+	
+	private ByteBuffer compiled;
+	
+	private DocumentCache cache;
+	
+	@Setup
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("document-cache-benchmark");
+		Files.writeString(dir.resolve("npcs.xsd"), SCHEMA);
+		final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		sb.append("<list xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"npcs.xsd\">\n");
+		for (int i = 0; i < NPCS; i++) {
+			sb.append("\t<npc id=\"").append(20000 + i).append("\" level=\"").append(1 + (i % 85)).append("\" type=\"L2Monster\" name=\"Monster ").append(i).append("\">\n");
+			sb.append("\t\t<stats str=\"40\" int=\"21\" dex=\"30\" />\n");
+			for (int s = 0; s < 5; s++) {
+				sb.append("\t\t<skill id=\"").append(4400 + s).append("\" level=\"").append(1 + (i % 10)).append("\" />\n");
+			}
+			sb.append("\t</npc>\n");
+		}
+		sb.append("</list>\n");
+		file = Files.writeString(dir.resolve("npcs.xml"), sb).toFile();
+		compiled = ByteBuffer.wrap(DocumentCache.encode(IXmlReader.readDocument(file)));
+		cache = new DocumentCache("Benchmark", dir.resolve("cache.bin").toFile(), dir.toFile());
+		cache.load(file, IXmlReader::readDocument);
+		cache.save();
+		cache = new DocumentCache("Benchmark", dir.resolve("cache.bin").toFile(), dir.toFile());
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+	
+	@Benchmark
+	public Document parseValidated() throws Exception {
+		return IXmlReader.readDocument(file);
+	}
+	
+	@Benchmark
+	public Document decode() throws Exception {
+		return DocumentCache.decode(compiled);
+	}
+	
+	/**
+	 * The cache hit of a boot, hashing the file and decoding its memory mapped document.
+	 * @return the document
+	 * @throws Exception never, the file is cached
+	 */
+	@Benchmark
+	public Document cacheHit() throws Exception {
+		return cache.load(file, f -> {
+			throw new IllegalStateException("The file is cached!");
+		});
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DocumentCacheBenchmark.class.getSimpleName()).build()).run();
+	}
+}
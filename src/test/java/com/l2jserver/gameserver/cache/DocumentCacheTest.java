@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+import com.l2jserver.gameserver.cache.DocumentCache.DocumentParser;
+import com.l2jserver.gameserver.cache.DocumentCache.Verification;
+import com.l2jserver.gameserver.engines.DocumentBase;
+import com.l2jserver.gameserver.util.IXmlReader;
+
+/**
+ * Document cache test.
+ * @since 2.6.3.0
+ */
+class DocumentCacheTest {
+	
+	private static final String SKILLS = """
+		<?xml version="1.0" encoding="UTF-8"?>
+		<list>
+			<!-- Power Strike -->
+			<skill id="3" levels="2" name="Power Strike">
+				<table name="#power"> 25 27 </table>
+				<set name="power" val="#power" />
+				<set name="description"><![CDATA[Deals <damage> & more.]]></set>
+				<for>
+					<effect name="PhysicalAttack" />
+				</for>
+			</skill>
+		</list>
+		""";
+	
+	private static final String SCHEMA = """
+		<?xml version="1.0" encoding="UTF-8"?>
+		<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+			<xs:element name="list">
+				<xs:complexType>
+					<xs:sequence>
+						<xs:element name="npc" maxOccurs="unbounded">
+							<xs:complexType>
+								<xs:attribute name="id" type="xs:int" use="required" />
+								<xs:attribute name="type" type="xs:string" default="L2Npc" />
+							</xs:complexType>
+						</xs:element>
+					</xs:sequence>
+				</xs:complexType>
+			</xs:element>
+		</xs:schema>
+		""";
+	
+	private static final String NPCS = """
+		<?xml version="1.0" encoding="UTF-8"?>
+		<list xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xsi:noNamespaceSchemaLocation="npcs.xsd">
+			<npc id="20001" />
+			<npc id="20002" type="L2Monster" />
+		</list>
+		""";
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void testUnchangedFileIsDecodedFromTheCache() throws Exception {
+		final File skills = write("skills.xml", SKILLS);
+		final CountingParser parser = new CountingParser(DocumentBase::readDocument);
+		final DocumentCache cache = newCache();
+		cache.load(skills, parser);
+		assertThat(cache.save()).isTrue();
+		assertThat(cache.save()).isFalse();
+		
+		final DocumentCache reopened = newCache();
+		final Document doc = reopened.load(skills, parser);
+		
+		assertThat(parser.calls).hasValue(1);
+		assertThat(doc.getDocumentElement().isEqualNode(DocumentBase.readDocument(skills).getDocumentElement())).isTrue();
+		assertThat(reopened.getStats()).contains(" |- Hits:            1", " |- Misses:          0");
+		assertThat(reopened.save()).isFalse();
+	}
+	
+	@Test
+	void testValidatedDocumentKeepsItsNamespacesAndDefaults() throws Exception {
+		write("npcs.xsd", SCHEMA);
+		final File npcs = write("npcs.xml", NPCS);
+		final DocumentCache cache = newCache();
+		cache.load(npcs, IXmlReader::readDocument);
+		cache.save();
+		
+		final DocumentCache reopened = newCache();
+		final Document doc = reopened.load(npcs, f -> {
+			throw new AssertionError("The file did not change!");
+		});
+		
+		// The default attribute values of the schema are part of the cached document.
+		assertThat(doc.getElementsByTagName("npc").item(0).getAttributes().getNamedItem("type").getNodeValue()).isEqualTo("L2Npc");
+		assertThat(reopened.verify(List.of(npcs), IXmlReader::readDocument)).isEqualTo(new Verification(1, 0, 0));
+	}
+	
+	@Test
+	void testChangedSchemaIsParsedAgain() throws Exception {
+		write("npcs.xsd", SCHEMA);
+		final File npcs = write("npcs.xml", NPCS);
+		final CountingParser parser = new CountingParser(IXmlReader::readDocument);
+		final DocumentCache cache = newCache();
+		cache.load(npcs, parser);
+		cache.save();
+		
+		// The file did not change, the default attribute value of its schema did.
+		write("npcs.xsd", SCHEMA.replace("default=\"L2Npc\"", "default=\"L2Monster\""));
+		final DocumentCache reopened = newCache();
+		assertThat(reopened.verify(List.of(npcs), IXmlReader::readDocument)).isEqualTo(new Verification(0, 0, 1));
+		final Document doc = reopened.load(npcs, parser);
+		
+		assertThat(parser.calls).hasValue(2);
+		assertThat(doc.getElementsByTagName("npc").item(0).getAttributes().getNamedItem("type").getNodeValue()).isEqualTo("L2Monster");
+	}
+	
+	@Test
+	void testChangedFileIsParsedAgain() throws Exception {
+		final File skills = write("skills.xml", SKILLS);
+		final File removed = write("removed.xml", SKILLS);
+		final CountingParser parser = new CountingParser(DocumentBase::readDocument);
+		final DocumentCache cache = newCache();
+		cache.load(skills, parser);
+		cache.load(removed, parser);
+		cache.save();
+		
+		write("skills.xml", SKILLS.replace("25 27", "26 28"));
+		final DocumentCache reopened = newCache();
+		assertThat(reopened.verify(List.of(skills, removed), DocumentBase::readDocument)).isEqualTo(new Verification(1, 0, 1));
+		final Document doc = reopened.load(skills, parser);
+		
+		assertThat(parser.calls).hasValue(3);
+		assertThat(doc.getElementsByTagName("table").item(0).getTextContent()).isEqualTo(" 26 28 ");
+		// The removed file was not loaded, it is dropped from the cache file.
+		assertThat(reopened.save()).isTrue();
+		assertThat(newCache().verify(List.of(removed), DocumentBase::readDocument)).isEqualTo(new Verification(0, 0, 1));
+	}
+	
+	@Test
+	void testUnreadableCacheFileIsRebuilt() throws Exception {
+		final File skills = write("skills.xml", SKILLS);
+		Files.write(dir.resolve("cache.bin"), new byte[] {
+			0x4C,
+			0x32,
+			0x44,
+			0x43,
+			0,
+			0,
+			0,
+			2,
+			0x7F
+		});
+		final CountingParser parser = new CountingParser(DocumentBase::readDocument);
+		
+		final DocumentCache cache = newCache();
+		cache.load(skills, parser);
+		
+		assertThat(parser.calls).hasValue(1);
+		assertThat(cache.save()).isTrue();
+		assertThat(newCache().verify(List.of(skills), DocumentBase::readDocument)).isEqualTo(new Verification(1, 0, 0));
+	}
+	
+	private DocumentCache newCache() {
+		return new DocumentCache("Test", dir.resolve("cache.bin").toFile(), dir.toFile());
+	}
+	
+	private File write(String name, String content) throws IOException {
+		return Files.writeString(dir.resolve(name), content).toFile();
+	}
+	
+	private static final class CountingParser implements DocumentParser {
+		private final DocumentParser parser;
+		
+		private final AtomicInteger calls = new AtomicInteger();
+		
+		CountingParser(DocumentParser parser) {
+			this.parser = parser;
+		}
+		
+		@Override
+		public Document parse(File f) throws Exception {
+			calls.incrementAndGet();
+			return parser.parse(f);
+		}
+	}
+}
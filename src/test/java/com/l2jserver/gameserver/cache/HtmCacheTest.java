@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * HTML cache test.
+ * @since 2.6.3.0
+ */
+class HtmCacheTest {
+	
+	@Test
+	void testPagesOverTheBudgetAreCompressed() {
+		final String page = createPage(0);
+		final long pageMemory = HtmlTemplate.compile(page).getMemoryUsage();
+		final HtmCache cache = new HtmCache(pageMemory * 10, 0);
+		for (int i = 0; i < 20; i++) {
+			cache.put("data/html/page" + i + ".htm", "<!-- comment -->" + createPage(i));
+		}
+		
+		assertThat(cache.getLoadedFiles()).isEqualTo(20);
+		assertThat(cache.getStats()).anyMatch(line -> line.startsWith(" |- Compressions:") && !line.endsWith(" 0"));
+		// The first pages were the least recently used, they are decompressed when requested.
+		assertThat(cache.get("data/html/page0.htm").getText()).isEqualTo(page);
+		assertThat(cache.get("data/html/page19.htm").getText()).isEqualTo(createPage(19));
+		assertThat(cache.getStats()).anyMatch(line -> line.startsWith(" |- Decompressions:") && !line.endsWith(" 0"));
+		assertThat(cache.get("data/html/page20.htm")).isNull();
+	}
+	
+	@Test
+	void testIdlePagesAreCompressed() {
+		final HtmCache cache = new HtmCache(0, 1000);
+		cache.put("data/html/idle.htm", createPage(1));
+		final double memory = cache.getMemoryUsage();
+		
+		cache.compressIdle(System.currentTimeMillis() + 1000);
+		
+		assertThat(cache.getMemoryUsage()).isLessThan(memory / 2);
+		final HtmlTemplate template = cache.get("data/html/idle.htm");
+		assertThat(template.getText()).isEqualTo(createPage(1));
+		assertThat(template.getSlot("%objectId%")).isNotNegative();
+		
+		// Reloading a page replaces it.
+		cache.put("data/html/idle.htm", "<html><body>Reloaded</body></html>");
+		assertThat(cache.get("data/html/idle.htm").getText()).isEqualTo("<html><body>Reloaded</body></html>");
+		assertThat(cache.getLoadedFiles()).isEqualTo(1);
+	}
+	
+	private static String createPage(int index) {
+		final StringBuilder sb = new StringBuilder("<html><body>Page ").append(index).append("<br>");
+		for (int i = 0; i < 20; i++) {
+			sb.append("<a action=\"bypass -h npc_%objectId%_Chat ").append(i).append("\">Teleport to %location").append(i).append("% for %price").append(i).append("% adena</a><br>");
+		}
+		return sb.append("</body></html>").toString();
+	}
+}
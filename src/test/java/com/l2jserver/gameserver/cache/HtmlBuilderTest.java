@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * HTML builder test.<br>
+ * Random pages and replacements, the builder must give the page the replacements made one after another give.
+ * @since 2.6.3.0
+ */
+class HtmlBuilderTest {
+	
+	private static final String[] PIECES = {
+		"<html><body>",
+		"</body></html>",
+		"<a action=\"bypass -h npc_",
+		"_Chat 1\">",
+		"%objectId%",
+		"%name%",
+		"%price%",
+		"%",
+		"%%",
+		"50%",
+		"_",
+		"a",
+		"name",
+		" ",
+		"<br>",
+		"$",
+		"\\"
+	};
+	
+	private static final String[] PATTERNS = {
+		"%objectId%",
+		"%name%",
+		"%price%",
+		"%missing%",
+		"%a%",
+		"%name",
+		"npc_%objectId%_Chat",
+		"name",
+		"_Chat"
+	};
+	
+	private static final String[] VALUES = {
+		"",
+		"12345",
+		"Gatekeeper",
+		"a",
+		"name",
+		"%price%",
+		"%objectId%",
+		"50%",
+		"$1",
+		"\\",
+		"npc_%objectId%_Chat"
+	};
+	
+	@Test
+	void testPlaceholdersAreReplaced() {
+		final HtmlTemplate template = HtmlTemplate.compile("<html><body>%name%: <a action=\"bypass -h npc_%objectId%_Chat 1\">%price% adena</a> %objectId% 100%</body></html>");
+		
+		assertThat(template.getSlotCount()).isEqualTo(3);
+		assertThat(template.getSlot("%objectId%")).isNotNegative();
+		assertThat(template.getSlot("%adena%")).isNegative();
+		assertThat(new HtmlBuilder(template).replace("%objectId%", 7).replace("%name%", "Roien").replace("%price%", 1000L).replace("%objectId%", 8).build()) //
+			.isEqualTo("<html><body>Roien: <a action=\"bypass -h npc_7_Chat 1\">1000 adena</a> 7 100%</body></html>");
+		// The template is not changed by its renders.
+		assertThat(new HtmlBuilder(template).build()).isSameAs(template.getText());
+	}
+	
+	@Test
+	void testRandomReplacementsMatchSequentialReplacements() {
+		final Random random = new Random(20);
+		for (int page = 0; page < 20_000; page++) {
+			final StringBuilder sb = new StringBuilder();
+			final int pieces = random.nextInt(20);
+			for (int i = 0; i < pieces; i++) {
+				sb.append(PIECES[random.nextInt(PIECES.length)]);
+			}
+			final String html = sb.toString();
+			
+			String expected = html;
+			final HtmlBuilder fromTemplate = new HtmlBuilder(HtmlTemplate.compile(html));
+			final HtmlBuilder fromString = new HtmlBuilder(html);
+			final int replacements = random.nextInt(8);
+			for (int i = 0; i < replacements; i++) {
+				final String pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+				final String value = VALUES[random.nextInt(VALUES.length)];
+				// As the packets did before the builder.
+				expected = expected.replaceAll(pattern, Matcher.quoteReplacement(value));
+				fromTemplate.replace(pattern, value);
+				fromString.replace(pattern, value);
+			}
+			
+			assertThat(fromTemplate.build()).as(html).isEqualTo(expected);
+			assertThat(fromString.build()).as(html).isEqualTo(expected);
+		}
+	}
+}
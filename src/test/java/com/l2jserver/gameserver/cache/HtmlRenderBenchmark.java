@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * HTML render benchmark.<br>
+ * Renders a teleporter dialog, with a location and a price placeholder for each destination and the NPC object ID in every link, from its cached template and with the regular expression replacements the HTML packets used before.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlRenderBenchmark {
+	
+	private static final String PATH = "data/html/teleporter/30059.htm";
+	
+	@Param({
+		"10",
+		"25"
+	})
+	private int destinations;
+	
+	private HtmCache cache;
+	
+	private String page;
+	
+	@Setup
+	public void setup() {
+		final StringBuilder sb = new StringBuilder("<html><body>Gatekeeper %npcname%:<br>Welcome %playername%, where do you want to go?<br>");
+		for (int i = 0; i < destinations; i++) {
+			sb.append("<a action=\"bypass -h npc_%objectId%_goto ").append(i).append("\">%location").append(i).append("% - %price").append(i).append("% Adena</a><br1>");
+		}
+		sb.append("<br><a action=\"bypass -h npc_%objectId%_Chat 0\">Back</a></body></html>");
+		page = sb.toString();
+		cache = new HtmCache(0, 0);
+		cache.put(PATH, page);
+	}
+	
+	@Benchmark
+	public int renderTemplate() {
+		final HtmlBuilder html = new HtmlBuilder(cache.get(PATH));
+		html.replace("%npcname%", "Roxxy");
+		html.replace("%playername%", "Player");
+		for (int i = 0; i < destinations; i++) {
+			html.replace("%location" + i + "%", "Town of Giran");
+			html.replace("%price" + i + "%", 10_000 + i);
+		}
+		html.replace("%objectId%", 268_435_456);
+		return html.build().length();
+	}
+	
+	/**
+	 * The render as it was before the templates, a regular expression compiled and the page copied for each replacement.
+	 * @return the length of the page
+	 */
+	@Benchmark
+	public int renderReplaceAll() {
+		String html = page;
+		html = html.replaceAll("%npcname%", "Roxxy");
+		html = html.replaceAll("%playername%", "Player");
+		for (int i = 0; i < destinations; i++) {
+			html = html.replaceAll("%location" + i + "%", "Town of Giran");
+			html = html.replaceAll("%price" + i + "%", String.valueOf(10_000 + i));
+		}
+		html = html.replaceAll("%objectId%", String.valueOf(268_435_456));
+		return html.length();
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HtmlRenderBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Database writer test.<br>
+ * The database is a mocked JDBC connection recording the statements and rows it receives.
+ * @since 2.6.3.0
+ */
+class DatabaseWriterTest {
+	
+	private static final long LONG_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+	
+	private Connection con;
+	
+	private final List<String> prepared = new CopyOnWriteArrayList<>();
+	
+	private final AtomicInteger rows = new AtomicInteger();
+	
+	private final AtomicInteger executedBatches = new AtomicInteger();
+	
+	@BeforeEach
+	void setUp() throws SQLException {
+		con = mock(Connection.class);
+		when(con.prepareStatement(anyString())).thenAnswer(invocation -> {
+			prepared.add(invocation.getArgument(0));
+			final PreparedStatement ps = mock(PreparedStatement.class);
+			when(ps.executeBatch()).thenAnswer(i -> {
+				executedBatches.incrementAndGet();
+				return new int[0];
+			});
+			doAnswer(i -> {
+				rows.incrementAndGet();
+				return null;
+			}).when(ps).addBatch();
+			return ps;
+		});
+	}
+	
+	@Test
+	void testWritesOfAKeyAreMergedAndBatched() throws SQLException {
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, true, LONG_INTERVAL, 100, 1000);
+		for (int i = 0; i < 5; i++) {
+			for (int objectId = 1; objectId <= 10; objectId++) {
+				writer.write(new WriteKey("items", objectId), ItemWrite.update(row(objectId, i)));
+			}
+		}
+		
+		writer.flush();
+		
+		assertThat(prepared).hasSize(1);
+		assertThat(rows.get()).isEqualTo(10);
+		assertThat(executedBatches.get()).isEqualTo(1);
+		verify(con).commit();
+		assertThat(writer.getStats()).contains(" |- Merged:          40");
+		writer.shutdown();
+	}
+	
+	@Test
+	void testItemWritesMergeToTheirFinalState() throws SQLException {
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, true, LONG_INTERVAL, 100, 1000);
+		// Inserted and deleted before it was written.
+		writer.write(new WriteKey("items", 1), ItemWrite.insert(row(1, 1), null, null));
+		writer.write(new WriteKey("items", 1), ItemWrite.delete(1));
+		// Dropped and picked up again, the old rows are deleted before the new insert.
+		writer.write(new WriteKey("items", 2), ItemWrite.update(row(2, 1)));
+		writer.write(new WriteKey("items", 2), ItemWrite.delete(2));
+		writer.write(new WriteKey("items", 2), ItemWrite.insert(row(2, 2), 100, null));
+		// Inserted and updated, a single insert.
+		writer.write(new WriteKey("items", 3), ItemWrite.insert(row(3, 1), null, null));
+		writer.write(new WriteKey("items", 3), ItemWrite.update(row(3, 2)));
+		
+		writer.flush();
+		
+		assertThat(prepared).hasSize(5);
+		assertThat(prepared.get(0)).startsWith("DELETE FROM items");
+		assertThat(prepared.get(1)).startsWith("DELETE FROM item_attributes");
+		assertThat(prepared.get(2)).startsWith("DELETE FROM item_elementals");
+		assertThat(prepared.get(3)).startsWith("INSERT INTO items");
+		assertThat(prepared.get(4)).startsWith("REPLACE INTO item_attributes");
+		// Three deletes of item 2, the inserts of items 2 and 3 and the attributes of item 2.
+		assertThat(rows.get()).isEqualTo(6);
+		writer.shutdown();
+	}
+	
+	@Test
+	void testAttributeWritesStayInOrderWithTheItemWrites() throws SQLException {
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, true, LONG_INTERVAL, 100, 1000);
+		// Augmented before its insert was written, the insert takes the augmentation.
+		writer.write(new WriteKey("items", 1), ItemWrite.insert(row(1, 1), null, null));
+		writer.write(new WriteKey("items", 1), ItemWrite.attributes(1, 100, null));
+		// Augmentation removed after the insert was written, with an update of the row.
+		writer.write(new WriteKey("items", 2), ItemWrite.update(row(2, 1)));
+		writer.write(new WriteKey("items", 2), ItemWrite.attributes(2, null, List.<Object[]> of(new Object[] {
+			(byte) 1,
+			20
+		})));
+		writer.write(new WriteKey("items", 2), ItemWrite.update(row(2, 2)));
+		// Nothing left to write for a deleted item.
+		writer.write(new WriteKey("items", 3), ItemWrite.delete(3));
+		writer.write(new WriteKey("items", 3), ItemWrite.attributes(3, 100, null));
+		
+		writer.flush();
+		
+		assertThat(prepared).containsExactly( //
+			"DELETE FROM item_attributes WHERE itemId = ?", //
+			"DELETE FROM item_elementals WHERE itemId = ?", //
+			"DELETE FROM items WHERE object_id = ?", //
+			"INSERT INTO items (owner_id, item_id, count, loc, loc_data, enchant_level, object_id, custom_type1, custom_type2, mana_left, time, agathion_energy) VALUES (?,?,?,?,?,?,?,?,?,?,?,?)", //
+			"REPLACE INTO item_attributes VALUES(?,?)", //
+			"INSERT INTO item_elementals VALUES(?,?,?)", //
+			"UPDATE items SET owner_id=?, count=?, loc=?, loc_data=?, enchant_level=?, custom_type1=?, custom_type2=?, mana_left=?, time=?, agathion_energy=? WHERE object_id=?");
+		// Item 1 insert and augmentation, item 2 update, cleared attributes and elementals and one elemental, item 3 deletes.
+		assertThat(rows.get()).isEqualTo(9);
+		writer.shutdown();
+	}
+	
+	@Test
+	void testFailedWriteRightAwayIsReported() throws SQLException {
+		when(con.prepareStatement(anyString())).thenThrow(new SQLException("Connection lost"));
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, false, LONG_INTERVAL, 100, 1000);
+		
+		assertThat(writer.write(new WriteKey("items", 1), ItemWrite.insert(row(1, 1), null, null))).isFalse();
+		verify(con).rollback();
+		assertThat(writer.getStats()).contains(" |- Failures:        1");
+	}
+	
+	@Test
+	void testFullQueueMakesWritersWait() throws Exception {
+		final CountDownLatch firstFlush = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final DatabaseWriter writer = new DatabaseWriter(() -> {
+			firstFlush.countDown();
+			await(release);
+			return con;
+		}, true, LONG_INTERVAL, 5, 10);
+		
+		// The fifth write triggers a flush, the writer thread is stuck getting its connection.
+		for (int objectId = 1; objectId <= 5; objectId++) {
+			writer.write(new WriteKey("items", objectId), ItemWrite.update(row(objectId, 1)));
+		}
+		assertThat(firstFlush.await(10, TimeUnit.SECONDS)).isTrue();
+		for (int objectId = 6; objectId <= 15; objectId++) {
+			writer.write(new WriteKey("items", objectId), ItemWrite.update(row(objectId, 1)));
+		}
+		assertThat(writer.getQueued()).isEqualTo(10);
+		
+		final Thread blocked = Thread.ofPlatform().start(() -> writer.write(new WriteKey("items", 16), ItemWrite.update(row(16, 1))));
+		blocked.join(300);
+		assertThat(blocked.isAlive()).isTrue();
+		// A write merged with a pending one does not wait.
+		writer.write(new WriteKey("items", 15), ItemWrite.update(row(15, 2)));
+		
+		release.countDown();
+		blocked.join(TimeUnit.SECONDS.toMillis(10));
+		writer.flush();
+		
+		assertThat(blocked.isAlive()).isFalse();
+		assertThat(rows.get()).isEqualTo(16);
+		assertThat(writer.getStats()).anyMatch(line -> line.startsWith(" |- QueueFullWaits:") && !line.endsWith(" 0"));
+		writer.shutdown();
+	}
+	
+	@Test
+	void testFailedBatchIsWrittenOneByOne() throws SQLException {
+		final Connection failing = mock(Connection.class);
+		final List<PreparedStatement> statements = new ArrayList<>();
+		when(failing.prepareStatement(anyString())).thenAnswer(invocation -> {
+			final PreparedStatement ps = mock(PreparedStatement.class);
+			// The first batch fails, the retries of the single writes succeed.
+			if (statements.isEmpty()) {
+				when(ps.executeBatch()).thenThrow(new SQLException("Duplicate entry"));
+			}
+			statements.add(ps);
+			return ps;
+		});
+		final DatabaseWriter writer = new DatabaseWriter(() -> failing, true, LONG_INTERVAL, 100, 1000);
+		writer.write(new WriteKey("items", 1), ItemWrite.update(row(1, 1)));
+		writer.write(new WriteKey("items", 2), ItemWrite.update(row(2, 1)));
+		
+		writer.flush();
+		
+		verify(failing).rollback();
+		verify(failing, never()).commit();
+		assertThat(statements).hasSize(3);
+		verify(statements.get(1), times(1)).executeBatch();
+		verify(statements.get(2), times(1)).executeBatch();
+		writer.shutdown();
+	}
+	
+	@Test
+	void testDisabledWriterWritesRightAway() throws SQLException {
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, false, LONG_INTERVAL, 100, 1000);
+		
+		assertThat(writer.write(new WriteKey("characters_online", 1), new SqlWrite().add(WriteBatch.UPDATE, "UPDATE characters SET online=?, lastAccess=? WHERE charId=?", 1, 0L, 1))).isTrue();
+		
+		assertThat(prepared).containsExactly("UPDATE characters SET online=?, lastAccess=? WHERE charId=?");
+		assertThat(rows.get()).isEqualTo(1);
+		verify(con).commit();
+	}
+	
+	private static Object[] row(int objectId, long count) {
+		return new Object[] {
+			268_435_456,
+			57,
+			count,
+			"INVENTORY",
+			0,
+			0,
+			objectId,
+			0,
+			0,
+			-1,
+			-1L,
+			0
+		};
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Quest write test.<br>
+ * The database is an in-memory table of rows behind a mocked JDBC connection, running the quest statements.<br>
+ * The writes merged and batched by the writer must leave the same rows as the statements run one by one when the variables were changed, as the quests did before.
+ * @since 2.6.3.0
+ */
+class QuestWriteTest {
+	
+	private static final long LONG_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+	
+	private static final String[] QUESTS = {
+		"Q00001_LettersOfLove",
+		"Q00002_WhatWomenWant"
+	};
+	
+	private static final String[] VARS = {
+		QuestWrite.STATE,
+		"cond",
+		"memoState",
+		"talk"
+	};
+	
+	/** Rows of the database, by table, scope and variable. */
+	private final Map<String, String> database = new TreeMap<>();
+	
+	private int rowsWritten;
+	
+	private Connection con;
+	
+	@BeforeEach
+	void setUp() throws SQLException {
+		con = mock(Connection.class);
+		when(con.prepareStatement(anyString())).thenAnswer(invocation -> {
+			final String sql = invocation.getArgument(0);
+			final Object[] params = new Object[8];
+			final List<Object[]> batch = new ArrayList<>();
+			final PreparedStatement ps = mock(PreparedStatement.class);
+			doAnswer(i -> {
+				params[(int) i.getArgument(0) - 1] = i.getArgument(1);
+				return null;
+			}).when(ps).setObject(anyInt(), any());
+			doAnswer(i -> {
+				batch.add(params.clone());
+				return null;
+			}).when(ps).addBatch();
+			when(ps.executeBatch()).thenAnswer(i -> {
+				for (Object[] row : batch) {
+					execute(sql, row);
+				}
+				final int[] result = new int[batch.size()];
+				batch.clear();
+				return result;
+			});
+			return ps;
+		});
+	}
+	
+	@Test
+	void testBatchedWritesLeaveTheRowsOfTheWritesOneByOne() {
+		final Random random = new Random(20251018);
+		final Map<String, String> expected = new TreeMap<>();
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, true, LONG_INTERVAL, 50, 1000);
+		for (int i = 0; i < 20_000; i++) {
+			final int charId = 1 + random.nextInt(3);
+			final String quest = QUESTS[random.nextInt(QUESTS.length)];
+			final String var = VARS[random.nextInt(VARS.length)];
+			final String value = Integer.toString(random.nextInt(5));
+			final QuestWrite write;
+			// The statements the quests ran right away, on the expected rows.
+			switch (random.nextInt(10)) {
+				case 0, 1, 2 -> {
+					write = QuestWrite.set(charId, quest, var, value);
+					execute(expected, "INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?", charId, quest, var, value, value);
+				}
+				case 3, 4 -> {
+					write = QuestWrite.update(charId, quest, var, value);
+					execute(expected, "UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?", value, charId, quest, var);
+				}
+				case 5 -> {
+					write = QuestWrite.delete(charId, quest, var);
+					execute(expected, "DELETE FROM character_quests WHERE charId=? AND name=? AND var=?", charId, quest, var);
+				}
+				case 6 -> {
+					final boolean keepState = random.nextBoolean();
+					write = QuestWrite.deleteQuest(charId, quest, keepState);
+					if (keepState) {
+						execute(expected, "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?", charId, quest, QuestWrite.STATE);
+					} else {
+						execute(expected, "DELETE FROM character_quests WHERE charId=? AND name=?", charId, quest);
+					}
+				}
+				case 7 -> {
+					final int globalOp = random.nextInt(6);
+					if (globalOp < 3) {
+						write = QuestWrite.setGlobal(quest, var, value);
+						execute(expected, "REPLACE INTO quest_global_data (quest_name,var,value) VALUES (?,?,?)", quest, var, value);
+					} else if (globalOp < 5) {
+						write = QuestWrite.deleteGlobal(quest, var);
+						execute(expected, "DELETE FROM quest_global_data WHERE quest_name = ? AND var = ?", quest, var);
+					} else {
+						write = QuestWrite.deleteAllGlobals(quest);
+						execute(expected, "DELETE FROM quest_global_data WHERE quest_name = ?", quest);
+					}
+				}
+				default -> {
+					if (random.nextInt(3) > 0) {
+						write = QuestWrite.setPlayerGlobal(charId, quest, var, value);
+						execute(expected, "REPLACE INTO character_quest_global_data (charId, var, value) VALUES (?, ?, ?)", charId, var, value);
+					} else {
+						write = QuestWrite.deletePlayerGlobal(charId, quest, var);
+						execute(expected, "DELETE FROM character_quest_global_data WHERE charId = ? AND var = ?", charId, var);
+					}
+				}
+			}
+			writer.write(write.getKey(), write);
+			
+			// Flushes land anywhere in the sequence of writes of a quest.
+			if (random.nextInt(40) == 0) {
+				writer.flush();
+				assertThat(database).isEqualTo(expected);
+			}
+		}
+		writer.shutdown();
+		
+		assertThat(database).isEqualTo(expected);
+		assertThat(database).isNotEmpty();
+	}
+	
+	@Test
+	void testQuestProgressIsWrittenOnce() {
+		final DatabaseWriter writer = new DatabaseWriter(() -> con, true, LONG_INTERVAL, 100, 1000);
+		final String quest = QUESTS[0];
+		write(writer, QuestWrite.set(1, quest, QuestWrite.STATE, "Started"));
+		for (int cond = 1; cond <= 10; cond++) {
+			write(writer, QuestWrite.set(1, quest, "cond", Integer.toString(cond)));
+			write(writer, QuestWrite.update(1, quest, "cond", Integer.toString(cond)));
+		}
+		write(writer, QuestWrite.deleteQuest(1, quest, true));
+		write(writer, QuestWrite.update(1, quest, QuestWrite.STATE, "Completed"));
+		
+		writer.flush();
+		
+		// The delete of the quest variables and the state.
+		assertThat(rowsWritten).isEqualTo(2);
+		assertThat(database).containsExactly(Map.entry("character_quests|1|" + quest + "|" + QuestWrite.STATE, "Completed"));
+		assertThat(QuestWrite.getStats()).anyMatch(line -> line.startsWith(" |- " + quest + ": "));
+		writer.shutdown();
+	}
+	
+	private static void write(DatabaseWriter writer, QuestWrite write) {
+		writer.write(write.getKey(), write);
+	}
+	
+	private void execute(String sql, Object[] params) {
+		rowsWritten++;
+		execute(database, sql, params);
+	}
+	
+	/**
+	 * Runs a quest statement on the rows, keyed by table, scope and variable.
+	 * @param rows the rows
+	 * @param sql the statement
+	 * @param params the parameters
+	 */
+	private static void execute(Map<String, String> rows, String sql, Object... params) {
+		switch (sql) {
+			case "INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?" -> rows.put(key("character_quests", params[0], params[1], params[2]), (String) params[3]);
+			case "UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?" -> rows.computeIfPresent(key("character_quests", params[1], params[2], params[3]), (k, v) -> (String) params[0]);
+			case "DELETE FROM character_quests WHERE charId=? AND name=? AND var=?" -> rows.remove(key("character_quests", params[0], params[1], params[2]));
+			case "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?" -> removeIf(rows, key("character_quests", params[0], params[1], ""), k -> !k.endsWith("|" + params[2]));
+			case "DELETE FROM character_quests WHERE charId=? AND name=?" -> removeIf(rows, key("character_quests", params[0], params[1], ""), k -> true);
+			case "REPLACE INTO quest_global_data (quest_name,var,value) VALUES (?,?,?)" -> rows.put(key("quest_global_data", params[0], params[1]), (String) params[2]);
+			case "DELETE FROM quest_global_data WHERE quest_name = ? AND var = ?" -> rows.remove(key("quest_global_data", params[0], params[1]));
+			case "DELETE FROM quest_global_data WHERE quest_name = ?" -> removeIf(rows, key("quest_global_data", params[0], ""), k -> true);
+			case "REPLACE INTO character_quest_global_data (charId, var, value) VALUES (?, ?, ?)" -> rows.put(key("character_quest_global_data", params[0], params[1]), (String) params[2]);
+			case "DELETE FROM character_quest_global_data WHERE charId = ? AND var = ?" -> rows.remove(key("character_quest_global_data", params[0], params[1]));
+			default -> throw new IllegalArgumentException("Unexpected statement " + sql);
+		}
+	}
+	
+	private static void removeIf(Map<String, String> rows, String prefix, Predicate<String> filter) {
+		rows.keySet().removeIf(k -> k.startsWith(prefix) && filter.test(k));
+	}
+	
+	private static String key(String table, Object... columns) {
+		final StringBuilder sb = new StringBuilder(table);
+		for (Object column : columns) {
+			sb.append('|').append(column);
+		}
+		return sb.toString();
+	}
+}
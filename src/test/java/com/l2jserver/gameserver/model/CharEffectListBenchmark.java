@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.skills.AbnormalType;
+import com.l2jserver.gameserver.model.skills.BuffInfo;
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.skills.SkillOperateType;
+
+/**
+ * Effect list benchmark.<br>
+ * Compares the skill ID lookups of the effect list index with the queue scan it replaced, alone and while other threads add and remove buffs on the same creature.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharEffectListBenchmark {
+	
+	private static final int FIRST_SKILL_ID = 1000;
+	
+	/** Skill IDs added and removed by the writer threads, above the ones of the standing buffs. */
+	private static final int CHURN_SKILL_ID = 2000;
+	
+	@Param({
+		"5",
+		"20"
+	})
+	private int buffs;
+	
+	private L2Character character;
+	
+	private CharEffectList effectList;
+	
+	private Skill[] churnSkills;
+	
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int _next;
+		
+		int next(int bound) {
+			_next = (_next + 7) % bound;
+			return _next;
+		}
+	}
+	
+	@Setup
+	public void setup() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+		if (GameTimeController.getInstance() == null) {
+			// buff infos read the game ticks
+			GameTimeController.init();
+		}
+		
+		character = createCharacter();
+		effectList = new CharEffectList(character);
+		for (int i = 0; i < buffs; i++) {
+			final AbnormalType type = ((i % 2) == 0) ? AbnormalType.NONE : AbnormalType.values()[1 + i];
+			effectList.add(new BuffInfo(character, character, createSkill(FIRST_SKILL_ID + i, type)));
+		}
+		
+		churnSkills = new Skill[16];
+		for (int i = 0; i < churnSkills.length; i++) {
+			churnSkills[i] = createSkill(CHURN_SKILL_ID + i, AbnormalType.NONE);
+		}
+	}
+	
+	@Benchmark
+	public BuffInfo lookupIndexed(Cursor cursor) {
+		return effectList.getBuffInfoBySkillId(FIRST_SKILL_ID + cursor.next(buffs + 1));
+	}
+	
+	/**
+	 * The lookup as it was before the skill ID index, a scan of every effect queue.
+	 * @param cursor the lookup cursor
+	 * @return the buff info
+	 */
+	@Benchmark
+	public BuffInfo lookupScan(Cursor cursor) {
+		return scan(FIRST_SKILL_ID + cursor.next(buffs + 1));
+	}
+	
+	@Benchmark
+	public void addRemove(Cursor cursor) {
+		final BuffInfo info = new BuffInfo(character, character, churnSkills[cursor.next(churnSkills.length)]);
+		effectList.add(info);
+		effectList.remove(true, info);
+	}
+	
+	@Benchmark
+	@Group("contendedIndexed")
+	@GroupThreads(3)
+	public BuffInfo contendedIndexedLookup(Cursor cursor) {
+		return effectList.getBuffInfoBySkillId(FIRST_SKILL_ID + cursor.next(buffs + 1));
+	}
+	
+	@Benchmark
+	@Group("contendedIndexed")
+	@GroupThreads(1)
+	public void contendedIndexedAddRemove(Cursor cursor) {
+		addRemove(cursor);
+	}
+	
+	@Benchmark
+	@Group("contendedScan")
+	@GroupThreads(3)
+	public BuffInfo contendedScanLookup(Cursor cursor) {
+		return scan(FIRST_SKILL_ID + cursor.next(buffs + 1));
+	}
+	
+	@Benchmark
+	@Group("contendedScan")
+	@GroupThreads(1)
+	public void contendedScanAddRemove(Cursor cursor) {
+		addRemove(cursor);
+	}
+	
+	private BuffInfo scan(int skillId) {
+		BuffInfo info = null;
+		if (effectList.hasBuffs()) {
+			info = effectList.getBuffs().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		
+		if (effectList.hasTriggered() && (info == null)) {
+			info = effectList.getTriggered().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		
+		if (effectList.hasDances() && (info == null)) {
+			info = effectList.getDances().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		
+		if (effectList.hasToggles() && (info == null)) {
+			info = effectList.getToggles().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		
+		if (effectList.hasDebuffs() && (info == null)) {
+			info = effectList.getDebuffs().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		
+		if (effectList.hasPassives() && (info == null)) {
+			info = effectList.getPassives().stream().filter(b -> b.getSkill().getId() == skillId).findFirst().orElse(null);
+		}
+		return info;
+	}
+	
+	private static Skill createSkill(int skillId, AbnormalType type) {
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", skillId);
+		set.set("level", 1);
+		set.set("operateType", SkillOperateType.A2);
+		set.set("abnormalType", type);
+		set.set("abnormalTime", 1200);
+		return new Skill(set);
+	}
+	
+	private static L2Character createCharacter() {
+		final StatsSet set = new StatsSet();
+		set.set("baseHpMax", 2400);
+		return new L2Character(1, new L2CharTemplate(set)) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return 80;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CharEffectListBenchmark.class.getSimpleName()).build()).run();
+	}
+}
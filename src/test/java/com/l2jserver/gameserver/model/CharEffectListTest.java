@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.quality.Strictness;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.stat.CharStat;
+import com.l2jserver.gameserver.model.actor.stat.PcStat;
+import com.l2jserver.gameserver.model.skills.AbnormalType;
+import com.l2jserver.gameserver.model.skills.BuffInfo;
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.skills.SkillOperateType;
+import com.l2jserver.gameserver.network.serverpackets.AbnormalStatusUpdate;
+
+/**
+ * Effect list test.
+ * @since 2.6.3.0
+ */
+class CharEffectListTest {
+	
+	private static final int WRITERS = 4;
+	
+	private static final int READERS = 2;
+	
+	private static final int SKILLS_PER_WRITER = 4;
+	
+	private static final int ITERATIONS = 250;
+	
+	@BeforeAll
+	static void init() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+	}
+	
+	@Test
+	void testIndexesFollowAddAndRemove() {
+		final L2Character owner = createOwner();
+		final CharEffectList effectList = new CharEffectList(owner);
+		final BuffInfo first = createBuff(owner, 1000, AbnormalType.PA_UP);
+		final BuffInfo second = createBuff(owner, 1001, AbnormalType.NONE);
+		
+		effectList.add(first);
+		effectList.add(second);
+		
+		assertThat(effectList.getBuffInfoBySkillId(1000)).isSameAs(first);
+		assertThat(effectList.getBuffInfoBySkillId(1001)).isSameAs(second);
+		assertThat(effectList.getBuffInfoByAbnormalType(AbnormalType.PA_UP)).isSameAs(first);
+		assertThat(effectList.getBuffs()).containsExactly(first, second);
+		
+		// A buff with the same abnormal type replaces the stacked one.
+		final BuffInfo replacement = createBuff(owner, 1002, AbnormalType.PA_UP);
+		effectList.add(replacement);
+		
+		assertThat(effectList.isAffectedBySkill(1000)).isFalse();
+		assertThat(effectList.getBuffInfoByAbnormalType(AbnormalType.PA_UP)).isSameAs(replacement);
+		assertThat(effectList.getBuffs()).containsExactly(second, replacement);
+		
+		effectList.stopAllEffects();
+		
+		assertThat(effectList.isEmpty()).isTrue();
+		assertThat(effectList.getBuffInfoBySkillId(1001)).isNull();
+		assertThat(effectList.getBuffInfoBySkillId(1002)).isNull();
+		assertThat(effectList.getBuffInfoByAbnormalType(AbnormalType.PA_UP)).isNull();
+	}
+	
+	@Test
+	void testSkillIdLookupFollowsQueueOrder() {
+		final L2Character owner = createOwner();
+		final CharEffectList effectList = new CharEffectList(owner);
+		final BuffInfo passive = createBuff(owner, 1000, AbnormalType.NONE);
+		final BuffInfo debuff = createBuff(owner, 1000, AbnormalType.NONE);
+		final BuffInfo buff = createBuff(owner, 1000, AbnormalType.NONE);
+		
+		// Added in reverse order, the buffs are still found before the debuffs and the passives.
+		effectList.getPassives().add(passive);
+		effectList.getDebuffs().add(debuff);
+		effectList.getBuffs().add(buff);
+		
+		assertThat(effectList.getBuffInfoBySkillId(1000)).isSameAs(buff);
+		
+		effectList.getBuffs().remove(buff);
+		
+		assertThat(effectList.getBuffInfoBySkillId(1000)).isSameAs(debuff);
+		
+		effectList.getDebuffs().remove(debuff);
+		
+		assertThat(effectList.getBuffInfoBySkillId(1000)).isSameAs(passive);
+	}
+	
+	@Test
+	void testConcurrentAddRemoveKeepsIndexesConsistent() throws Exception {
+		final L2Character owner = createOwner();
+		final CharEffectList effectList = new CharEffectList(owner);
+		final AbnormalType[] types = AbnormalType.values();
+		final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Thread> writers = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			// Every writer owns its skills, so it can verify the lookups of its own buffs.
+			final BuffInfo[][] buffs = new BuffInfo[SKILLS_PER_WRITER][2];
+			for (int s = 0; s < SKILLS_PER_WRITER; s++) {
+				final int skillId = 1000 + (w * SKILLS_PER_WRITER) + s;
+				final AbnormalType type = types[1 + (w * SKILLS_PER_WRITER) + s];
+				buffs[s][0] = createBuff(owner, skillId, type);
+				buffs[s][1] = createBuff(owner, skillId, type);
+			}
+			
+			writers.add(Thread.ofPlatform().start(() -> {
+				await(start);
+				for (int i = 0; i < ITERATIONS; i++) {
+					for (BuffInfo[] skill : buffs) {
+						final BuffInfo info = skill[i % 2];
+						final int skillId = info.getSkill().getId();
+						// Adding the other buff info of the skill replaces the current one.
+						effectList.add(info);
+						if (effectList.getBuffInfoBySkillId(skillId) != info) {
+							errors.add("Skill " + skillId + " not indexed after add");
+						}
+						if (effectList.getBuffInfoByAbnormalType(info.getSkill().getAbnormalType()) != info) {
+							errors.add("Abnormal type of skill " + skillId + " not indexed after add");
+						}
+						
+						if ((i % 3) == 0) {
+							effectList.stopSkillEffects(true, skillId);
+							if (effectList.getBuffInfoBySkillId(skillId) != null) {
+								errors.add("Skill " + skillId + " indexed after remove");
+							}
+						}
+					}
+				}
+				
+				for (BuffInfo[] skill : buffs) {
+					effectList.stopSkillEffects(true, skill[0].getSkill().getId());
+				}
+			}));
+		}
+		
+		final List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < READERS; r++) {
+			readers.add(Thread.ofPlatform().start(() -> {
+				await(start);
+				while (running.get()) {
+					for (BuffInfo info : effectList.getBuffs()) {
+						final BuffInfo indexed = effectList.getBuffInfoBySkillId(info.getSkill().getId());
+						if ((indexed != null) && (indexed.getSkill().getId() != info.getSkill().getId())) {
+							errors.add("Skill " + info.getSkill().getId() + " indexed with skill " + indexed.getSkill().getId());
+						}
+					}
+					Thread.yield();
+				}
+			}));
+		}
+		
+		start.countDown();
+		for (Thread writer : writers) {
+			writer.join(TimeUnit.MINUTES.toMillis(1));
+		}
+		running.set(false);
+		for (Thread reader : readers) {
+			reader.join(TimeUnit.MINUTES.toMillis(1));
+		}
+		
+		assertThat(errors).isEmpty();
+		assertThat(effectList.isEmpty()).isTrue();
+		for (int skillId = 1000; skillId < (1000 + (WRITERS * SKILLS_PER_WRITER)); skillId++) {
+			assertThat(effectList.getBuffInfoBySkillId(skillId)).isNull();
+		}
+	}
+	
+	@Test
+	void testIconUpdatesAreCoalesced() {
+		final L2PcInstance player = mock(L2PcInstance.class, withSettings().strictness(Strictness.LENIENT));
+		final PcStat stat = mock(PcStat.class, withSettings().strictness(Strictness.LENIENT));
+		when(stat.getMaxBuffCount()).thenReturn(100);
+		when(player.getStat()).thenReturn(stat);
+		when(player.isPlayable()).thenReturn(true);
+		when(player.isPlayer()).thenReturn(true);
+		when(player.getActingPlayer()).thenReturn(player);
+		final CharEffectList effectList = new CharEffectList(player);
+		
+		for (int i = 0; i < 10; i++) {
+			effectList.add(createBuff(player, 1000 + i, AbnormalType.NONE));
+		}
+		
+		verify(player, timeout(1000).times(1)).sendPacket(any(AbnormalStatusUpdate.class));
+		verify(player, after(3 * CharEffectList.ICON_UPDATE_DELAY).times(1)).sendPacket(any(AbnormalStatusUpdate.class));
+	}
+	
+	private static L2Character createOwner() {
+		final L2Character owner = mock(L2Character.class, withSettings().stubOnly().strictness(Strictness.LENIENT));
+		final CharStat stat = mock(CharStat.class, withSettings().stubOnly().strictness(Strictness.LENIENT));
+		when(stat.getMaxBuffCount()).thenReturn(100);
+		when(owner.getStat()).thenReturn(stat);
+		return owner;
+	}
+	
+	private static BuffInfo createBuff(L2Character effected, int skillId, AbnormalType type) {
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", skillId);
+		set.set("level", 1);
+		set.set("operateType", SkillOperateType.A2);
+		set.set("abnormalType", type);
+		final Skill skill = new Skill(set);
+		final BuffInfo info = mock(BuffInfo.class, withSettings().stubOnly().strictness(Strictness.LENIENT));
+		when(info.getSkill()).thenReturn(skill);
+		when(info.getEffected()).thenReturn(effected);
+		when(info.isInUse()).thenReturn(true);
+		return info;
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
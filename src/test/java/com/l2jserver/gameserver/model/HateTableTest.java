@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * Hate table test.
+ * @since 2.6.3.0
+ */
+class HateTableTest {
+	
+	private final L2Character owner = mock(L2Character.class, RETURNS_DEEP_STUBS);
+	
+	@Test
+	void testMostHatedIsTracked() {
+		final HateTable table = new HateTable();
+		final L2Character first = attacker(1);
+		final L2Character second = attacker(2);
+		final L2Character third = attacker(3);
+		
+		table.addDamageHate(first, 100, 100);
+		table.addDamageHate(second, 50, 300);
+		table.addDamageHate(third, 0, 200);
+		
+		assertThat(table.getMostHated(owner)).isSameAs(second);
+		assertThat(table.get2MostHated(owner)).containsExactly(second, third);
+		
+		// Reducing the hate of the most hated one makes the table search again.
+		table.addDamageHate(second, 0, -250);
+		assertThat(table.getMostHated(owner)).isSameAs(third);
+		
+		table.stopHate(third);
+		assertThat(table.getMostHated(owner)).isSameAs(first);
+		
+		// The last row takes the place of the removed one.
+		table.remove(first);
+		assertThat(table.contains(first)).isFalse();
+		assertThat(table.getHate(third)).isZero();
+		assertThat(table.getDamage(second)).isEqualTo(50);
+		assertThat(table.getMostHated(owner)).isSameAs(second);
+		assertThat(table.getAttackers()).containsExactlyInAnyOrder(second, third);
+		
+		table.clear();
+		
+		assertThat(table.isEmpty()).isTrue();
+		assertThat(table.getMostHated(owner)).isNull();
+	}
+	
+	@Test
+	void testAttackersThatCannotBeHatedLoseTheirHate() {
+		final HateTable table = new HateTable();
+		final L2Character dead = attacker(1);
+		final L2Character alive = attacker(2);
+		table.addDamageHate(dead, 10, 1_000);
+		table.addDamageHate(alive, 10, 10);
+		when(dead.isAlikeDead()).thenReturn(true);
+		
+		assertThat(table.getMostHated(owner)).isSameAs(alive);
+		assertThat(table.getHate(dead)).isZero();
+		assertThat(table.getDamage(dead)).isEqualTo(10);
+		
+		// Hate and damage are capped.
+		table.addDamageHate(alive, Long.MAX_VALUE / 2, Long.MAX_VALUE / 2);
+		assertThat(table.getHate(alive)).isEqualTo(HateTable.MAX_VALUE);
+		assertThat(table.getDamage(alive)).isEqualTo(HateTable.MAX_VALUE);
+	}
+	
+	@Test
+	void testDamageIsSummedByPlayer() throws Exception {
+		final HateTable table = new HateTable();
+		final L2PcInstance player = mock(L2PcInstance.class, RETURNS_DEEP_STUBS);
+		when(player.getObjectId()).thenReturn(1);
+		when(player.getActingPlayer()).thenReturn(player);
+		final L2Character summon = attacker(2);
+		when(summon.getActingPlayer()).thenReturn(player);
+		final L2PcInstance other = mock(L2PcInstance.class, RETURNS_DEEP_STUBS);
+		when(other.getObjectId()).thenReturn(3);
+		when(other.getActingPlayer()).thenReturn(other);
+		final L2Character monster = attacker(4);
+		
+		table.addDamageHate(player, 300, 1);
+		table.addDamageHate(summon, 200, 1);
+		table.addDamageHate(other, 400, 1);
+		table.addDamageHate(monster, 1_000, 1);
+		
+		final PlayerDamageTable damage = table.sumDamageByPlayer(owner, 1_600);
+		
+		assertThat(damage.size()).isEqualTo(2);
+		assertThat(damage.getTotalDamage()).isEqualTo(900);
+		assertThat(damage.getMaxDealer()).isSameAs(player);
+		assertThat(damage.getDamage(player)).isEqualTo(500);
+		
+		damage.remove(player);
+		
+		assertThat(damage.getDamage(player)).isEqualTo(-1);
+		assertThat(damage.getDamage(other)).isEqualTo(400);
+		
+		// The hate table does not change the table of a kill, only the next kill of the same thread reuses it.
+		table.clear();
+		assertThat(damage.getDamage(other)).isEqualTo(400);
+		assertThat(table.sumDamageByPlayer(owner, 1_600)).isSameAs(damage).extracting(PlayerDamageTable::size).isEqualTo(0);
+		
+		final AtomicReference<PlayerDamageTable> otherThread = new AtomicReference<>();
+		final Thread thread = new Thread(() -> otherThread.set(table.sumDamageByPlayer(owner, 1_600)));
+		thread.start();
+		thread.join();
+		assertThat(otherThread.get()).isNotNull().isNotSameAs(damage);
+	}
+	
+	@Test
+	@SuppressWarnings("removal")
+	void testAggroInfoUpdatesTheTable() {
+		final HateTable table = new HateTable();
+		final L2Character attacker = attacker(1);
+		final AggroInfo info = table.getAggroInfo(attacker);
+		
+		info.addHate(100);
+		info.addDamage(50);
+		
+		assertThat(table.getHate(attacker)).isEqualTo(100);
+		assertThat(table.getDamage(attacker)).isEqualTo(50);
+		
+		info.stopHate();
+		
+		assertThat(info.getHate()).isZero();
+		assertThat(info.getDamage()).isEqualTo(50);
+	}
+	
+	@Test
+	void testRandomOperationsMatchMap() {
+		final Random random = new Random(12345);
+		final L2Character[] attackers = new L2Character[64];
+		for (int i = 0; i < attackers.length; i++) {
+			attackers[i] = attacker(0x10000000 + i);
+		}
+		
+		final HateTable table = new HateTable();
+		final Map<L2Character, Long> expected = new HashMap<>();
+		for (int i = 0; i < 20_000; i++) {
+			final L2Character attacker = attackers[random.nextInt(attackers.length)];
+			final int operation = random.nextInt(100);
+			if (operation < 70) {
+				final long hate = random.nextInt(1_000) - 200;
+				table.addDamageHate(attacker, 1, hate);
+				expected.merge(attacker, hate, Long::sum);
+			} else if (operation < 80) {
+				table.stopHate(attacker);
+				expected.computeIfPresent(attacker, (k, v) -> 0L);
+			} else if (operation < 99) {
+				table.remove(attacker);
+				expected.remove(attacker);
+			} else {
+				table.clear();
+				expected.clear();
+			}
+			
+			final long maxHate = expected.values().stream().mapToLong(Long::longValue).max().orElse(0);
+			final L2Character mostHated = table.getMostHated(owner);
+			if (maxHate > 0) {
+				assertThat(expected.get(mostHated)).isEqualTo(maxHate);
+			} else {
+				assertThat(mostHated).isNull();
+			}
+			assertThat(table.size()).isEqualTo(expected.size());
+		}
+		
+		for (Map.Entry<L2Character, Long> entry : expected.entrySet()) {
+			assertThat(table.getHate(entry.getKey())).isEqualTo(entry.getValue());
+		}
+	}
+	
+	@Test
+	void testNonPlayableHateIsDetected() {
+		final HateTable table = new HateTable();
+		final L2Character player = attacker(1);
+		when(player.isPlayable()).thenReturn(true);
+		final L2Character monster = attacker(2);
+		
+		table.addDamageHate(player, 100, 100);
+		table.addDamageHate(monster, 0, 0);
+		assertThat(table.hasNonPlayableHate()).isFalse();
+		
+		table.addDamageHate(monster, 10, 10);
+		assertThat(table.hasNonPlayableHate()).isTrue();
+		
+		table.stopHate(monster);
+		assertThat(table.hasNonPlayableHate()).isFalse();
+	}
+	
+	private L2Character attacker(int objectId) {
+		final L2Character attacker = mock(L2Character.class);
+		when(attacker.getObjectId()).thenReturn(objectId);
+		when(attacker.isVisible()).thenReturn(true);
+		when(owner.getKnownList().knowsObject(attacker)).thenReturn(true);
+		return attacker;
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * Visible objects lookup benchmark.<br>
+ * Compares the previous stream over the surrounding world regions maps with the world region spatial index.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class L2WorldBenchmark {
+	
+	private static final int REGION_SIZE = 1 << L2World.SHIFT_BY;
+	
+	@Param({
+		"1000",
+		"5000",
+		"20000"
+	})
+	private int objectsPerRegion;
+	
+	@Param({
+		"300",
+		"1500"
+	})
+	private int radius;
+	
+	private L2World world;
+	
+	private L2Object origin;
+	
+	@Setup
+	public void setup() {
+		world = new L2World();
+		final Random random = new Random(1);
+		final L2WorldRegion center = world.getRegion(0, 0);
+		int objectId = 0x10000000;
+		for (L2WorldRegion region : center.getSurroundingRegions()) {
+			final int minX = (region.getTileX() - L2World.OFFSET_X) << L2World.SHIFT_BY;
+			final int minY = (region.getTileY() - L2World.OFFSET_Y) << L2World.SHIFT_BY;
+			for (int i = 0; i < objectsPerRegion; i++) {
+				spawn(region, objectId++, minX + random.nextInt(REGION_SIZE), minY + random.nextInt(REGION_SIZE));
+			}
+		}
+		origin = spawn(center, objectId, REGION_SIZE / 2, REGION_SIZE / 2);
+	}
+	
+	@Benchmark
+	public void stream(Blackhole blackhole) {
+		final int sqRadius = radius * radius;
+		final List<L2Object> result = origin.getWorldRegion()
+			.getSurroundingRegions()
+			.stream()
+			.flatMap(r -> r.getVisibleObjects().values().stream())
+			.filter(Objects::nonNull)
+			.filter(o -> !o.equals(origin))
+			.filter(o -> sqRadius > origin.calculateDistance(o, false, true))
+			.toList();
+		blackhole.consume(result);
+	}
+	
+	@Benchmark
+	public void spatialIndexList(Blackhole blackhole) {
+		blackhole.consume(world.getVisibleObjects(origin, radius));
+	}
+	
+	@Benchmark
+	public void spatialIndexVisitor(Blackhole blackhole) {
+		world.forEachVisibleObject(origin, radius, true, blackhole::consume);
+	}
+	
+	private static L2Object spawn(L2WorldRegion region, int objectId, int x, int y) {
+		final L2Object object = new L2Object(objectId) {
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+		object.setXYZInvisible(x, y, 0);
+		object.setWorldRegion(region);
+		region.addVisibleObject(object);
+		return object;
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(L2WorldBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.zone.L2ZoneForm;
+import com.l2jserver.gameserver.model.zone.L2ZoneType;
+import com.l2jserver.gameserver.model.zone.form.ZoneNPoly;
+import com.l2jserver.gameserver.model.zone.type.L2ScriptZone;
+
+/**
+ * Zone revalidation benchmark.<br>
+ * A character walks around a world region full of polygon zones, compares the previous {@code java.awt.Polygon} zone form with the rasterized {@link ZoneNPoly}, with and without the region bounding box filter.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class L2WorldRegionBenchmark {
+	
+	private static final int REGION_SIZE = 1 << L2World.SHIFT_BY;
+	
+	private static final int WALK_LENGTH = 1 << 12;
+	
+	@Param({
+		"awt",
+		"grid"
+	})
+	private String form;
+	
+	@Param({
+		"20",
+		"100"
+	})
+	private int zones;
+	
+	private L2WorldRegion region;
+	
+	private L2Character character;
+	
+	private final int[] walkX = new int[WALK_LENGTH];
+	
+	private final int[] walkY = new int[WALK_LENGTH];
+	
+	private int step;
+	
+	@Setup
+	public void setup() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+		final Random random = new Random(1);
+		final int tileX = L2World.OFFSET_X;
+		final int tileY = L2World.OFFSET_Y;
+		final int originX = (tileX - L2World.OFFSET_X) << L2World.SHIFT_BY;
+		final int originY = (tileY - L2World.OFFSET_Y) << L2World.SHIFT_BY;
+		region = new L2WorldRegion(tileX, tileY);
+		// zones around the region, registered only when they intersect it as the zone manager does
+		int id = 0;
+		while (region.getZones().size() < zones) {
+			final int vertices = 6 + random.nextInt(20);
+			final int centerX = (originX - 4000) + random.nextInt(REGION_SIZE + 8000);
+			final int centerY = (originY - 4000) + random.nextInt(REGION_SIZE + 8000);
+			final int radius = 200 + random.nextInt(3000);
+			final int[] x = new int[vertices];
+			final int[] y = new int[vertices];
+			for (int v = 0; v < vertices; v++) {
+				final double angle = (Math.PI * 2 * v) / vertices;
+				final double r = radius * (0.3 + (random.nextDouble() * 0.7));
+				x[v] = centerX + (int) (Math.cos(angle) * r);
+				y[v] = centerY + (int) (Math.sin(angle) * r);
+			}
+			
+			final L2ZoneForm zoneForm = "awt".equals(form) ? new AwtPolygonForm(x, y, -1000, 1000) : new ZoneNPoly(x, y, -1000, 1000);
+			if (zoneForm.intersectsRectangle(originX, originX + REGION_SIZE, originY, originY + REGION_SIZE)) {
+				final L2ZoneType zone = new L2ScriptZone(++id);
+				zone.setZone(zoneForm);
+				region.addZone(zone);
+			}
+		}
+		
+		// random walk with 25 units steps, about one movement update
+		int x = originX + (REGION_SIZE / 2);
+		int y = originY + (REGION_SIZE / 2);
+		for (int i = 0; i < WALK_LENGTH; i++) {
+			final double angle = random.nextDouble() * Math.PI * 2;
+			x = Math.clamp(x + (int) (Math.cos(angle) * 25), originX, (originX + REGION_SIZE) - 1);
+			y = Math.clamp(y + (int) (Math.sin(angle) * 25), originY, (originY + REGION_SIZE) - 1);
+			walkX[i] = x;
+			walkY[i] = y;
+		}
+		
+		character = createCharacter();
+	}
+	
+	@Benchmark
+	public void revalidateZones() {
+		move();
+		region.revalidateZones(character);
+	}
+	
+	/**
+	 * Revalidation without the bounding box filter, as it was done before.
+	 */
+	@Benchmark
+	public void revalidateZonesUnfiltered() {
+		move();
+		for (L2ZoneType zone : region.getZones()) {
+			zone.revalidateInZone(character);
+		}
+	}
+	
+	private void move() {
+		final int index = step++ & (WALK_LENGTH - 1);
+		character.setX(walkX[index]);
+		character.setY(walkY[index]);
+	}
+	
+	private static L2Character createCharacter() {
+		return new L2Character(1, new L2CharTemplate(new StatsSet())) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return 1;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+	
+	/**
+	 * The previous polygon zone form, backed by {@code java.awt.Polygon}.
+	 */
+	private static final class AwtPolygonForm extends L2ZoneForm {
+		private final Polygon _p;
+		private final int _z1;
+		private final int _z2;
+		
+		AwtPolygonForm(int[] x, int[] y, int z1, int z2) {
+			_p = new Polygon(x, y, x.length);
+			_z1 = z1;
+			_z2 = z2;
+		}
+		
+		@Override
+		public Rectangle getBoundingBox() {
+			return _p.getBounds();
+		}
+		
+		@Override
+		public boolean isInsideZone(int x, int y, int z) {
+			return (_p.contains(x, y) && (z >= _z1) && (z <= _z2));
+		}
+		
+		@Override
+		public boolean intersectsRectangle(int x1, int x2, int y1, int y2) {
+			return _p.intersects(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1), Math.abs(y2 - y1));
+		}
+		
+		@Override
+		public double getDistanceToZone(int x, int y) {
+			return 0;
+		}
+		
+		@Override
+		public int getLowZ() {
+			return _z1;
+		}
+		
+		@Override
+		public int getHighZ() {
+			return _z2;
+		}
+		
+		@Override
+		public void visualizeZone(int z) {
+		}
+		
+		@Override
+		public int[] getRandomPoint() {
+			return null;
+		}
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(L2WorldRegionBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Raid hate benchmark.<br>
+ * A raid boss is hit by its attackers and looks for its most hated attacker between hits, as its AI does, with the hate table and with the concurrent map of aggro info objects it replaced.<br>
+ * Every hundred hits the hate of the most hated attacker is reduced, as aggro reducing skills do.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaidHateBenchmark {
+	
+	private static final int HITS = 4_000;
+	
+	/** Hits between two most hated lookups. */
+	private static final int THINK_INTERVAL = 5;
+	
+	private static final int REDUCE_INTERVAL = 100;
+	
+	@Param({
+		"20",
+		"200"
+	})
+	private int attackers;
+	
+	private L2Character boss;
+	
+	private L2Character[] hitters;
+	
+	private int[] damage;
+	
+	private final HateTable hateTable = new HateTable();
+	
+	@Setup
+	public void setup() {
+		final L2WorldRegion region = new L2WorldRegion(0, 0);
+		boss = createCharacter(1);
+		final L2Character[] characters = new L2Character[attackers];
+		for (int i = 0; i < attackers; i++) {
+			characters[i] = createCharacter(0x10000000 + i);
+			characters[i].setWorldRegion(region);
+			boss.getKnownList().getKnownObjects().put(characters[i].getObjectId(), characters[i]);
+		}
+		
+		final Random random = new Random(12345);
+		hitters = new L2Character[HITS];
+		damage = new int[HITS];
+		for (int i = 0; i < HITS; i++) {
+			hitters[i] = characters[random.nextInt(attackers)];
+			damage[i] = 500 + random.nextInt(3_000);
+		}
+	}
+	
+	@Benchmark
+	public long raidHateTable() {
+		hateTable.clear();
+		long hate = 0;
+		for (int i = 0; i < HITS; i++) {
+			hateTable.addDamageHate(hitters[i], damage[i], damage[i]);
+			if ((i % THINK_INTERVAL) == 0) {
+				final L2Character mostHated = hateTable.getMostHated(boss);
+				hate += hateTable.getHate(mostHated);
+				if ((i % REDUCE_INTERVAL) == 0) {
+					hateTable.addDamageHate(mostHated, 0, -hateTable.getHate(mostHated) / 2);
+				}
+			}
+		}
+		return hate;
+	}
+	
+	/**
+	 * The hits and lookups as they were before the hate table, a concurrent map of aggro info objects scanned for every lookup.
+	 * @return the sum of the hate of the most hated attackers
+	 */
+	@Benchmark
+	public long raidConcurrentMap() {
+		final Map<L2Character, AggroInfo> aggroList = new ConcurrentHashMap<>();
+		long hate = 0;
+		for (int i = 0; i < HITS; i++) {
+			final AggroInfo info = aggroList.computeIfAbsent(hitters[i], AggroInfo::new);
+			info.addDamage(damage[i]);
+			info.addHate(damage[i]);
+			if ((i % THINK_INTERVAL) == 0) {
+				AggroInfo mostHated = null;
+				long maxHate = 0;
+				for (AggroInfo ai : aggroList.values()) {
+					if (ai.checkHate(boss) > maxHate) {
+						mostHated = ai;
+						maxHate = ai._hate;
+					}
+				}
+				hate += maxHate;
+				if ((mostHated != null) && ((i % REDUCE_INTERVAL) == 0)) {
+					mostHated.addHate(-mostHated._hate / 2);
+				}
+			}
+		}
+		return hate;
+	}
+	
+	/**
+	 * The aggro info object of each attacker in the concurrent map.
+	 */
+	private static final class AggroInfo {
+		private final L2Character _attacker;
+		private long _hate;
+		private int _damage;
+		
+		AggroInfo(L2Character attacker) {
+			_attacker = attacker;
+		}
+		
+		long checkHate(L2Character owner) {
+			if (_attacker.isAlikeDead() || !_attacker.isVisible() || !owner.getKnownList().knowsObject(_attacker)) {
+				_hate = 0;
+			}
+			return _hate;
+		}
+		
+		void addHate(long value) {
+			_hate = Math.min(_hate + value, HateTable.MAX_VALUE);
+		}
+		
+		void addDamage(int value) {
+			_damage = (int) Math.min(_damage + (long) value, HateTable.MAX_VALUE);
+		}
+	}
+	
+	private static L2Character createCharacter(int objectId) {
+		return new L2Character(objectId, new L2CharTemplate(new StatsSet())) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return 80;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RaidHateBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * World cell grid test.
+ * @since 2.6.3.0
+ */
+class WorldCellGridTest {
+	
+	private static final int REGION_SIZE = 1 << L2World.SHIFT_BY;
+	
+	private static final int OBJECTS = 300;
+	
+	private static final int MOVERS = 8;
+	
+	@Test
+	void testRadiusLookupMatchesFullScan() {
+		final Random random = new Random(1);
+		final WorldCellGrid grid = new WorldCellGrid(L2World.OFFSET_X, L2World.OFFSET_Y);
+		final List<L2Object> objects = new ArrayList<>();
+		for (int i = 0; i < OBJECTS; i++) {
+			final L2Object object = createObject(i + 1, random.nextInt(REGION_SIZE), random.nextInt(REGION_SIZE));
+			grid.add(object);
+			objects.add(object);
+		}
+		
+		for (int query = 0; query < 500; query++) {
+			// Objects cross cell borders between the lookups.
+			for (int i = 0; i < 20; i++) {
+				final L2Object object = objects.get(random.nextInt(objects.size()));
+				object.setX(random.nextInt(REGION_SIZE));
+				object.setY(random.nextInt(REGION_SIZE));
+				grid.update(object);
+			}
+			
+			final int x = random.nextInt(REGION_SIZE);
+			final int y = random.nextInt(REGION_SIZE);
+			final int radius = 1 + random.nextInt(3000);
+			final List<L2Object> expected = new ArrayList<>();
+			for (L2Object object : objects) {
+				final long dx = object.getX() - x;
+				final long dy = object.getY() - y;
+				if (((dx * dx) + (dy * dy)) < ((long) radius * radius)) {
+					expected.add(object);
+				}
+			}
+			
+			final List<L2Object> found = new ArrayList<>();
+			grid.forEachInRadius(x, y, 0, radius, false, 0, found::add);
+			assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+	
+	@Test
+	void testConcurrentMovesKeepEveryObjectInOneCell() throws Exception {
+		final WorldCellGrid grid = new WorldCellGrid(L2World.OFFSET_X, L2World.OFFSET_Y);
+		final L2Object[] objects = new L2Object[OBJECTS];
+		for (int i = 0; i < OBJECTS; i++) {
+			objects[i] = createObject(i + 1, 0, 0);
+			grid.add(objects[i]);
+		}
+		
+		// Every mover moves all the objects, the first one also takes some out and puts them back.
+		final Thread[] movers = new Thread[MOVERS];
+		for (int m = 0; m < MOVERS; m++) {
+			final int mover = m;
+			movers[m] = Thread.ofPlatform().start(() -> {
+				final Random random = new Random(mover);
+				for (int i = 0; i < 100_000; i++) {
+					final L2Object object = objects[random.nextInt(OBJECTS)];
+					if ((mover == 0) && (object.getObjectId() <= 50)) {
+						grid.remove(object);
+						grid.add(object);
+						continue;
+					}
+					object.setX(random.nextInt(REGION_SIZE));
+					object.setY(random.nextInt(REGION_SIZE));
+					grid.update(object);
+				}
+			});
+		}
+		for (Thread mover : movers) {
+			mover.join();
+		}
+		
+		// A move computed from a position another mover had already replaced is caught up now.
+		for (L2Object object : objects) {
+			grid.update(object);
+		}
+		
+		final List<L2Object> indexed = new ArrayList<>();
+		grid.forEach(0, 0, REGION_SIZE - 1, REGION_SIZE - 1, indexed::add);
+		assertThat(indexed).hasSize(OBJECTS).doesNotHaveDuplicates();
+		for (L2Object object : objects) {
+			assertThat(object.getWorldCell()).isEqualTo(WorldCellGrid.cellIndex(object.getX(), object.getY()));
+			final Set<L2Object> around = new HashSet<>();
+			grid.forEachInRadius(object.getX(), object.getY(), 0, 1, false, 0, around::add);
+			assertThat(around).contains(object);
+		}
+	}
+	
+	@Test
+	void testInvisibleOriginSeesNothing() {
+		final L2World world = new L2World();
+		final L2WorldRegion region = world.getRegion(0, 0);
+		final L2Object origin = spawn(region, 1, 100, 100);
+		spawn(region, 2, 200, 200);
+		
+		assertThat(world.getVisibleObjects(origin, 1000)).hasSize(1);
+		
+		origin.setIsVisible(false);
+		
+		assertThat(world.getVisibleObjects(origin, 1000)).isEmpty();
+		assertThat(world.getVisibleObjects3D(origin, 1000)).isEmpty();
+	}
+	
+	@Test
+	void testWholeRegionScanAwayFromTheOrigin() {
+		// Regions with a negative and a positive origin in each axis.
+		final int[][] tiles = {
+			{
+				L2World.OFFSET_X - 3,
+				L2World.OFFSET_Y - 2
+			},
+			{
+				L2World.OFFSET_X + 2,
+				L2World.OFFSET_Y + 3
+			},
+			{
+				L2World.OFFSET_X - 1,
+				L2World.OFFSET_Y + 1
+			},
+			{
+				L2World.OFFSET_X + 1,
+				L2World.OFFSET_Y - 1
+			}
+		};
+		for (int[] tile : tiles) {
+			final WorldCellGrid grid = new WorldCellGrid(tile[0], tile[1]);
+			final int originX = (tile[0] - L2World.OFFSET_X) << L2World.SHIFT_BY;
+			final int originY = (tile[1] - L2World.OFFSET_Y) << L2World.SHIFT_BY;
+			grid.add(createObject(1, originX, originY));
+			grid.add(createObject(2, (originX + REGION_SIZE) - 1, (originY + REGION_SIZE) - 1));
+			
+			final List<L2Object> visited = new ArrayList<>();
+			grid.forEach(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, visited::add);
+			
+			assertThat(visited).as("region %d_%d", tile[0], tile[1]).hasSize(2);
+		}
+	}
+	
+	@Test
+	void testSurroundingObjectsAwayFromTheOrigin() {
+		final L2World world = new L2World();
+		for (int coordinate : new int[] {
+			-100_000,
+			100_000
+		}) {
+			final L2WorldRegion region = world.getRegion(coordinate, coordinate);
+			final L2Object origin = spawn(region, coordinate + 1, coordinate, coordinate);
+			spawn(region, coordinate + 2, coordinate + 300, coordinate + 300);
+			
+			assertThat(world.getVisibleObjects(origin)).as("coordinate %d", coordinate).hasSize(1);
+		}
+	}
+	
+	private static L2Object spawn(L2WorldRegion region, int objectId, int x, int y) {
+		final L2Object object = createObject(objectId, x, y);
+		object.setWorldRegion(region);
+		object.setIsVisible(true);
+		region.addVisibleObject(object);
+		return object;
+	}
+	
+	private static L2Object createObject(int objectId, int x, int y) {
+		final L2Object object = new L2Object(objectId) {
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+		object.setX(x);
+		object.setY(y);
+		return object;
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.actor.knownlist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.L2Object;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.model.L2WorldRegion;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Incremental known list update test.
+ * @since 2.6.3.0
+ */
+class ObjectKnownListTest {
+	
+	private static final int WATCH_DISTANCE = 1000;
+	
+	private static final int FORGET_DISTANCE = 1500;
+	
+	private final List<L2Character> spawned = new ArrayList<>();
+	
+	@AfterEach
+	void despawnAll() {
+		for (L2Character character : spawned) {
+			L2World.getInstance().getRegion(character.getX(), character.getY()).removeVisibleObject(character);
+			character.setWorldRegion(null);
+		}
+	}
+	
+	@Test
+	void testObjectsEnteringRangeAcrossCellsAreKnownByBoth() {
+		// The world region corner is at 0, 0, the characters are in different regions and cells.
+		final L2Character mover = spawn(0x70000001, -3000, -100);
+		final L2Character near = spawn(0x70000002, 200, 300);
+		final L2Character far = spawn(0x70000003, 2500, 300);
+		
+		mover.getKnownList().updateKnownObjects();
+		assertThat(mover.getKnownList().getKnownObjects()).isEmpty();
+		
+		moveTo(mover, -600, -100);
+		mover.getKnownList().updateKnownObjects();
+		
+		assertThat(mover.getKnownList().knowsObject(near)).isTrue();
+		assertThat(near.getKnownList().knowsObject(mover)).isTrue();
+		assertThat(mover.getKnownList().knowsObject(far)).isFalse();
+		assertThat(far.getKnownList().knowsObject(mover)).isFalse();
+	}
+	
+	@Test
+	void testObjectsLeavingRangeAreForgottenByBoth() {
+		final L2Character mover = spawn(0x70000011, -100, -100);
+		final L2Character stationary = spawn(0x70000012, 300, 300);
+		mover.getKnownList().updateKnownObjects();
+		assertThat(stationary.getKnownList().knowsObject(mover)).isTrue();
+		
+		// Out of watch range but still in forget range, nothing is forgotten.
+		moveTo(mover, -900, -100);
+		mover.getKnownList().updateKnownObjects();
+		assertThat(mover.getKnownList().knowsObject(stationary)).isTrue();
+		assertThat(stationary.getKnownList().knowsObject(mover)).isTrue();
+		
+		moveTo(mover, -1800, -100);
+		mover.getKnownList().updateKnownObjects();
+		assertThat(mover.getKnownList().knowsObject(stationary)).isFalse();
+		assertThat(stationary.getKnownList().knowsObject(mover)).isFalse();
+	}
+	
+	@Test
+	void testOnlyCellChangesOrLongMovesNeedAnUpdate() {
+		final L2Character mover = spawn(0x70000021, 100, 100);
+		assertThat(mover.getKnownList().checkMoved()).isTrue();
+		
+		moveTo(mover, 150, 150);
+		assertThat(mover.getKnownList().checkMoved()).isFalse();
+		
+		// Next sub-cell of the region.
+		moveTo(mover, 600, 150);
+		assertThat(mover.getKnownList().checkMoved()).isTrue();
+		
+		moveTo(mover, 600, 150);
+		assertThat(mover.getKnownList().checkMoved()).isFalse();
+	}
+	
+	@Test
+	void testInvisibleObjectsAreNotKnown() {
+		final L2Character observer = spawn(0x70000031, 100, 100);
+		final L2Character hidden = spawn(0x70000032, 200, 200);
+		hidden.setIsVisible(false);
+		
+		observer.getKnownList().updateKnownObjects();
+		assertThat(observer.getKnownList().knowsObject(hidden)).isFalse();
+		
+		// An invisible character does not offer itself to the objects around it.
+		hidden.getKnownList().updateKnownObjects();
+		assertThat(hidden.getKnownList().getKnownObjects()).isEmpty();
+		assertThat(observer.getKnownList().knowsObject(hidden)).isFalse();
+		
+		// Once it becomes invisible a known object is forgotten on the next update.
+		hidden.setWorldRegion(L2World.getInstance().getRegion(200, 200));
+		hidden.setIsVisible(true);
+		observer.getKnownList().updateKnownObjects();
+		assertThat(observer.getKnownList().knowsObject(hidden)).isTrue();
+		hidden.setIsVisible(false);
+		observer.getKnownList().updateKnownObjects();
+		assertThat(observer.getKnownList().knowsObject(hidden)).isFalse();
+	}
+	
+	@Test
+	void testGhostGameMastersAreNotKnown() {
+		final L2Character observer = spawn(0x70000041, 0, 0);
+		final L2PcInstance ghost = player(0x70000042, true);
+		final L2PcInstance player = player(0x70000043, false);
+		
+		assertThat(observer.getKnownList().addKnownObject(ghost)).isFalse();
+		assertThat(observer.getKnownList().addKnownObject(player)).isTrue();
+		assertThat(observer.getKnownList().getKnownPlayers()).containsOnlyKeys(player.getObjectId());
+	}
+	
+	private static L2PcInstance player(int objectId, boolean ghost) {
+		final L2PcInstance player = mock(L2PcInstance.class, RETURNS_DEEP_STUBS);
+		when(player.getObjectId()).thenReturn(objectId);
+		when(player.isPlayer()).thenReturn(true);
+		when(player.getActingPlayer()).thenReturn(player);
+		when(player.getAppearance().isGhost()).thenReturn(ghost);
+		return player;
+	}
+	
+	private L2Character spawn(int objectId, int x, int y) {
+		final L2Character character = createCharacter(objectId);
+		character.setX(x);
+		character.setY(y);
+		final L2WorldRegion region = L2World.getInstance().getRegion(x, y);
+		character.setWorldRegion(region);
+		character.setIsVisible(true);
+		region.addVisibleObject(character);
+		spawned.add(character);
+		return character;
+	}
+	
+	private static void moveTo(L2Character character, int x, int y) {
+		character.setX(x);
+		character.setY(y);
+		final L2WorldRegion region = L2World.getInstance().getRegion(x, y);
+		if (region != character.getWorldRegion()) {
+			character.getWorldRegion().removeVisibleObject(character);
+			character.setWorldRegion(region);
+		}
+		region.addVisibleObject(character);
+	}
+	
+	private static L2Character createCharacter(int objectId) {
+		return new L2Character(objectId, new L2CharTemplate(new StatsSet())) {
+			@Override
+			public void initKnownList() {
+				setKnownList(new CharKnownList(this) {
+					@Override
+					public int getDistanceToWatchObject(L2Object object) {
+						return WATCH_DISTANCE;
+					}
+					
+					@Override
+					public int getDistanceToForgetObject(L2Object object) {
+						return FORGET_DISTANCE;
+					}
+				});
+			}
+			
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return 1;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+}
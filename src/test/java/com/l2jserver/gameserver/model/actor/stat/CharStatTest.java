@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.actor.stat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.conditions.Condition;
+import com.l2jserver.gameserver.model.conditions.ConditionPlayerHp;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.stats.Stats;
+import com.l2jserver.gameserver.model.stats.functions.FuncAdd;
+import com.l2jserver.gameserver.model.stats.functions.FuncMul;
+
+/**
+ * Character stat cache test.
+ * @since 2.6.3.0
+ */
+class CharStatTest {
+	
+	private final AtomicInteger calculations = new AtomicInteger();
+	
+	private int level = 40;
+	
+	@Test
+	void testCachedStatIsOnlyCalculatedOnce() {
+		final L2Character character = create(true);
+		character.addStatFuncs(new CountingFunc(Stats.POWER_ATTACK, 100, null));
+		
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(600);
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(600);
+		assertThat(calculations).hasValue(1);
+		
+		// Another initial value is another result.
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 400, null, null)).isEqualTo(500);
+		assertThat(calculations).hasValue(2);
+	}
+	
+	@Test
+	void testDisabledCacheAlwaysCalculates() {
+		final L2Character character = create(false);
+		character.addStatFuncs(new CountingFunc(Stats.POWER_ATTACK, 100, null));
+		
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		assertThat(calculations).hasValue(2);
+	}
+	
+	@Test
+	void testFunctionChangesInvalidateTheCachedStat() {
+		final L2Character cached = create(true);
+		final L2Character uncached = create(false);
+		final Object buff = new Object();
+		for (L2Character character : new L2Character[] {
+			cached,
+			uncached
+		}) {
+			character.addStatFuncs(new FuncAdd(Stats.POWER_DEFENCE, 0x40, null, 50, null));
+		}
+		assertThat(cached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(uncached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(450);
+		
+		for (L2Character character : new L2Character[] {
+			cached,
+			uncached
+		}) {
+			character.addStatFuncs(new FuncMul(Stats.POWER_DEFENCE, 0x30, buff, 2, null));
+		}
+		assertThat(cached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(uncached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(850);
+		
+		cached.removeStatsOwner(buff);
+		uncached.removeStatsOwner(buff);
+		assertThat(cached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(uncached.calcStat(Stats.POWER_DEFENCE, 400, null, null)).isEqualTo(450);
+	}
+	
+	@Test
+	void testCharacterStateChangesInvalidateTheCache() {
+		final L2Character character = create(true);
+		character.addStatFuncs(new CountingFunc(Stats.POWER_ATTACK, 100, null));
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		
+		level++;
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		assertThat(calculations).hasValue(2);
+		
+		// Base stats are read by the formulas of other stats.
+		character.getStat().invalidateStatCache(Stats.STAT_STR);
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		assertThat(calculations).hasValue(3);
+		
+		// Other stats only invalidate themselves.
+		character.getStat().invalidateStatCache(Stats.MAGIC_ATTACK);
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		assertThat(calculations).hasValue(3);
+		
+		character.getStat().invalidateStatCache();
+		character.calcStat(Stats.POWER_ATTACK, 500, null, null);
+		assertThat(calculations).hasValue(4);
+	}
+	
+	@Test
+	void testHpConditionIsCalculatedAgainOnHpChange() {
+		final L2Character character = create(true);
+		character.addStatFuncs(new CountingFunc(Stats.POWER_ATTACK, 100, new ConditionPlayerHp(50)));
+		character.getStatus().setCurrentHp(1000, false);
+		
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(500);
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(500);
+		assertThat(calculations).hasValue(1);
+		
+		character.getStatus().setCurrentHp(400, false);
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(600);
+		assertThat(calculations).hasValue(2);
+	}
+	
+	@Test
+	void testTargetConditionsAreNeverCached() {
+		final L2Character character = create(true);
+		final L2Character target = create(true);
+		final Condition targetCondition = new Condition() {
+			@Override
+			public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item) {
+				return effected == target;
+			}
+		};
+		character.addStatFuncs(new CountingFunc(Stats.POWER_ATTACK, 100, targetCondition));
+		
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, target, null)).isEqualTo(600);
+		assertThat(character.calcStat(Stats.POWER_ATTACK, 500, null, null)).isEqualTo(500);
+		assertThat(calculations).hasValue(2);
+	}
+	
+	private final class CountingFunc extends FuncAdd {
+		CountingFunc(Stats stat, double value, Condition applyCond) {
+			super(stat, 0x40, null, value, applyCond);
+		}
+		
+		@Override
+		public double calc(L2Character effector, L2Character effected, Skill skill, double initVal) {
+			calculations.incrementAndGet();
+			return super.calc(effector, effected, skill, initVal);
+		}
+	}
+	
+	private L2Character create(boolean statCache) {
+		final StatsSet set = new StatsSet();
+		set.set("baseHpMax", 1000);
+		final L2Character character = new L2Character(1, new L2CharTemplate(set)) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return level;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+		character.setStat(new CharStat(character, statCache));
+		return character;
+	}
+}
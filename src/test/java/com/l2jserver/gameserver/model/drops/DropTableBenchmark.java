@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.drops;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.drops.strategy.IGroupedItemDropCalculationStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IKillerChanceModifierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IPreciseDeterminationStrategy;
+import com.l2jserver.gameserver.model.holders.ItemHolder;
+import com.l2jserver.gameserver.model.itemcontainer.Inventory;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Drop table benchmark.<br>
+ * Calculates the drops of a kill with the compiled drop table and with the drop items of the drop list, as the NPC template did before the drop tables.<br>
+ * The drop list is the one of a common monster, adena, a few items and a group of equipment and recipes, with the killer far above the monster level so the deep blue rules apply.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DropTableBenchmark {
+	
+	private List<IDropItem> dropList;
+	
+	private DropTable dropTable;
+	
+	private L2Character victim;
+	
+	private L2Character killer;
+	
+	@Setup
+	public void setup() {
+		// Static drops, their rates do not need the item templates.
+		dropList = new ArrayList<>();
+		dropList.add(deepBlue(DropListScope.STATIC.newDropItem(Inventory.ADENA_ID, 120, 280, 70)));
+		dropList.add(deepBlue(DropListScope.STATIC.newDropItem(1864, 1, 2, 15)));
+		dropList.add(deepBlue(DropListScope.STATIC.newDropItem(1869, 1, 1, 8)));
+		dropList.add(deepBlue(DropListScope.STATIC.newDropItem(1870, 1, 3, 25)));
+		final GroupedGeneralDropItem group = new GroupedGeneralDropItem(35, IGroupedItemDropCalculationStrategy.DEFAULT_STRATEGY, IKillerChanceModifierStrategy.DEFAULT_STRATEGY, IPreciseDeterminationStrategy.DEFAULT);
+		final List<GeneralDropItem> groupItems = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			groupItems.add((GeneralDropItem) DropListScope.STATIC.newDropItem(2000 + i, 1, 1, 10));
+		}
+		group.setItems(groupItems);
+		dropList.add(group);
+		dropTable = DropTable.compile(dropList);
+		
+		victim = createCharacter(40);
+		killer = createCharacter(52);
+	}
+	
+	@Benchmark
+	public long dropTable() {
+		final long[] sum = new long[1];
+		dropTable.calculateDrops(victim, killer, (itemId, count) -> sum[0] += itemId + count);
+		return sum[0];
+	}
+	
+	/**
+	 * The drops as they were calculated before the drop tables, the strategies of every drop item are asked for each kill.
+	 * @return the sum of the drops
+	 */
+	@Benchmark
+	public long dropItems() {
+		final List<ItemHolder> drops = new LinkedList<>();
+		for (IDropItem dropItem : dropList) {
+			final List<ItemHolder> items = dropItem.calculateDrops(victim, killer);
+			if (items != null) {
+				drops.addAll(items);
+			}
+		}
+		
+		long sum = 0;
+		for (ItemHolder drop : drops) {
+			sum += drop.getId() + drop.getCount();
+		}
+		return sum;
+	}
+	
+	private static GeneralDropItem deepBlue(IDropItem item) {
+		final GeneralDropItem drop = (GeneralDropItem) item;
+		return new GeneralDropItem(drop.getItemId(), drop.getMin(), drop.getMax(), drop.getChance(), drop.getAmountStrategy(), drop.getChanceStrategy(), drop.getPreciseStrategy(), IKillerChanceModifierStrategy.DEFAULT_STRATEGY, drop.getDropCalculationStrategy());
+	}
+	
+	private static L2Character createCharacter(int level) {
+		return new L2Character(1, new L2CharTemplate(new StatsSet())) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return level;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DropTableBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.drops;
+
+import static com.l2jserver.gameserver.config.Configuration.rates;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import com.l2jserver.commons.util.Rnd;
+import com.l2jserver.gameserver.datatables.ItemTable;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.drops.strategy.IAmountMultiplierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IChanceMultiplierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IGroupedItemDropCalculationStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IKillerChanceModifierStrategy;
+import com.l2jserver.gameserver.model.drops.strategy.IPreciseDeterminationStrategy;
+import com.l2jserver.gameserver.model.holders.ItemHolder;
+import com.l2jserver.gameserver.model.itemcontainer.Inventory;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Drop table test.<br>
+ * A Monte Carlo simulation of kills, the drop table and the strategies it was compiled from are given the same random numbers for each kill.
+ * @since 2.6.3.0
+ */
+class DropTableTest {
+	
+	private static final int KILLS = 10_000;
+	
+	private static final int HERB_ID = 8600;
+	
+	private static final Random RANDOM = new Random();
+	
+	private static MockedStatic<ItemTable> mockItemTable;
+	
+	private static MockedStatic<Rnd> mockRnd;
+	
+	@BeforeAll
+	static void init() {
+		final ItemTable itemTable = mock(ItemTable.class);
+		final L2Item item = mock(L2Item.class);
+		final L2Item herb = mock(L2Item.class);
+		when(herb.hasExImmediateEffect()).thenReturn(true);
+		when(itemTable.getTemplate(anyInt())).thenReturn(item);
+		when(itemTable.getTemplate(HERB_ID)).thenReturn(herb);
+		mockItemTable = mockStatic(ItemTable.class, withSettings().stubOnly());
+		mockItemTable.when(ItemTable::getInstance).thenReturn(itemTable);
+		
+		mockRnd = mockStatic(Rnd.class, withSettings().stubOnly());
+		mockRnd.when(Rnd::nextDouble).thenAnswer(i -> RANDOM.nextDouble());
+		mockRnd.when(() -> Rnd.get(anyLong(), anyLong())).thenAnswer(i -> {
+			final long min = i.getArgument(0);
+			final long max = i.getArgument(1);
+			return (max > min) ? RANDOM.nextLong(min, max + 1) : min;
+		});
+	}
+	
+	@AfterAll
+	static void tearDown() {
+		mockRnd.close();
+		mockItemTable.close();
+	}
+	
+	@Test
+	void testMonteCarloKillsMatchStrategies() {
+		final List<IDropItem> dropList = createDropList();
+		final DropTable dropTable = DropTable.compile(dropList);
+		
+		// The custom item and the multiple group rolls group are left to their strategies.
+		assertThat(dropTable.getStrategyDropCount()).isEqualTo(2);
+		
+		final Random kills = new Random(12345);
+		final int[] killerLevel = new int[1];
+		final L2Character killer = createCharacter(killerLevel, false, false);
+		final L2Character[] victims = new L2Character[8];
+		for (int i = 0; i < victims.length; i++) {
+			victims[i] = createCharacter(new int[] {
+				20 + (i * 10)
+			}, (i & 2) != 0, (i & 1) != 0);
+		}
+		
+		long expectedDrops = 0;
+		long drops = 0;
+		for (int kill = 0; kill < KILLS; kill++) {
+			final L2Character victim = victims[kills.nextInt(victims.length)];
+			killerLevel[0] = 20 + kills.nextInt(70);
+			
+			RANDOM.setSeed(kill);
+			final List<String> expected = new ArrayList<>();
+			for (IDropItem dropItem : dropList) {
+				final List<ItemHolder> items = dropItem.calculateDrops(victim, killer);
+				if (items != null) {
+					items.forEach(item -> expected.add(item.getId() + "x" + item.getCount()));
+				}
+			}
+			
+			RANDOM.setSeed(kill);
+			final List<String> actual = new ArrayList<>();
+			dropTable.calculateDrops(victim, killer, (itemId, count) -> actual.add(itemId + "x" + count));
+			
+			assertThat(actual).as("kill %d", kill).isEqualTo(expected);
+			expectedDrops += expected.size();
+			drops += actual.size();
+		}
+		
+		assertThat(drops).isEqualTo(expectedDrops).isPositive();
+	}
+	
+	@Test
+	void testCollectedDrops() {
+		final DropTable dropTable = DropTable.compile(List.of(DropListScope.STATIC.newDropItem(Inventory.ADENA_ID, 10, 10, 100), DropListScope.STATIC.newDropItem(1, 1, 1, 0)));
+		final L2Character victim = createCharacter(new int[] {
+			80
+		}, false, false);
+		RANDOM.setSeed(0);
+		
+		assertThat(dropTable.calculateDrops(victim, victim)).extracting(ItemHolder::getId, ItemHolder::getCount).containsExactly(Tuple.tuple(Inventory.ADENA_ID, 10L));
+		assertThat(DropTable.compile(List.of()).calculateDrops(victim, victim)).isNull();
+	}
+	
+	@Test
+	void testReloadedRatesAreApplied() throws IOException {
+		// The rates are reloaded from the working directory config, before the classpath one.
+		final Path config = Path.of("config");
+		final Path ratesFile = config.resolve("rates.properties");
+		assumeFalse(Files.exists(config));
+		
+		final DropTable dropTable = DropTable.compile(List.of(DropListScope.DEATH.newDropItem(1, 1, 1, 100)));
+		final L2Character raid = createCharacter(new int[] {
+			80
+		}, false, true);
+		assertThat(dropTable.calculateDrops(raid, raid)).hasSize(1);
+		
+		try {
+			Files.createDirectories(config);
+			Files.writeString(ratesFile, "RaidDropChanceMultiplier = 0");
+			rates().reload();
+			assertThat(dropTable.calculateDrops(raid, raid)).isNull();
+		} finally {
+			Files.deleteIfExists(ratesFile);
+			Files.deleteIfExists(config);
+			rates().reload();
+		}
+		assertThat(dropTable.calculateDrops(raid, raid)).hasSize(1);
+	}
+	
+	/**
+	 * Creates a character, the mocks are too slow for the amount of kills.
+	 */
+	private static L2Character createCharacter(int[] level, boolean champion, boolean raid) {
+		return new L2Character(1, new L2CharTemplate(new StatsSet())) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return level[0];
+			}
+			
+			@Override
+			public boolean isChampion() {
+				return champion;
+			}
+			
+			@Override
+			public boolean isRaid() {
+				return raid;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return false;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+	}
+	
+	private static List<IDropItem> createDropList() {
+		final List<IDropItem> dropList = new ArrayList<>();
+		dropList.add(DropListScope.DEATH.newDropItem(Inventory.ADENA_ID, 100, 300, 70));
+		dropList.add(DropListScope.DEATH.newDropItem(1864, 1, 2, 15));
+		dropList.add(DropListScope.DEATH.newDropItem(HERB_ID, 1, 1, 30));
+		dropList.add(DropListScope.DEATH.newDropItem(1, 1, 3, 250));
+		dropList.add(DropListScope.CORPSE.newDropItem(1865, 2, 5, 40));
+		dropList.add(DropListScope.STATIC.newDropItem(1866, 1, 1, 120));
+		dropList.add(DropListScope.QUEST.newDropItem(1867, 1, 1, 35));
+		dropList.add(group(DropListScope.DEATH, 60, DropListScope.DEATH.newDropItem(2, 1, 1, 50), DropListScope.DEATH.newDropItem(3, 1, 4, 30), DropListScope.DEATH.newDropItem(Inventory.ADENA_ID, 500, 900, 20)));
+		dropList.add(group(DropListScope.DEATH, 40, DropListScope.DEATH.newDropItem(5, 1, 1, 100)));
+		dropList.add(group(DropListScope.DEATH, 150, DropListScope.DEATH.newDropItem(6, 1, 2, 60), DropListScope.DEATH.newDropItem(7, 1, 1, 40)));
+		dropList.add(group(DropListScope.STATIC, 90, DropListScope.STATIC.newDropItem(8, 1, 1, 70), DropListScope.STATIC.newDropItem(9, 1, 1, 30)));
+		dropList.add(group(DropListScope.DEATH, 50));
+		
+		// Strategies the drop table does not know.
+		dropList.add(new GeneralDropItem(10, 1, 1, 50, IAmountMultiplierStrategy.DROP, IChanceMultiplierStrategy.DROP, IPreciseDeterminationStrategy.DEFAULT, IKillerChanceModifierStrategy.NO_RULES, (item, victim, killer) -> List.of(new ItemHolder(item.getItemId(), Rnd.get(1L, 5L)))));
+		final GroupedGeneralDropItem rolls = new GroupedGeneralDropItem(250, IGroupedItemDropCalculationStrategy.PRECISE_MULTIPLE_GROUP_ROLLS, IKillerChanceModifierStrategy.DEFAULT_STRATEGY, IPreciseDeterminationStrategy.ALWAYS);
+		rolls.setItems(List.of((GeneralDropItem) DropListScope.DEATH.newDropItem(11, 1, 1, 50), (GeneralDropItem) DropListScope.DEATH.newDropItem(12, 1, 1, 50)));
+		dropList.add(rolls);
+		return dropList;
+	}
+	
+	private static GroupedGeneralDropItem group(DropListScope scope, double chance, IDropItem... items) {
+		final GroupedGeneralDropItem group = scope.newGroupedDropItem(chance);
+		final List<GeneralDropItem> groupItems = new ArrayList<>();
+		for (IDropItem item : items) {
+			groupItems.add((GeneralDropItem) item);
+		}
+		group.setItems(groupItems);
+		return group;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.itemcontainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.items.L2EtcItem;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Item storage test.
+ * @since 2.6.3.0
+ */
+class ItemStorageTest {
+	
+	private static final L2Item ADENA = createTemplate(Inventory.ADENA_ID, 0, true);
+	
+	private static final L2Item POTION = createTemplate(1060, 5, true);
+	
+	private static final L2Item SWORD = createTemplate(1, 1600, false);
+	
+	@Test
+	void testIndexesKeepInsertionOrder() {
+		final ItemStorage storage = new ItemStorage();
+		final L2ItemInstance first = new L2ItemInstance(1, SWORD);
+		final L2ItemInstance potion = new L2ItemInstance(2, POTION);
+		final L2ItemInstance second = new L2ItemInstance(3, SWORD);
+		
+		storage.add(first);
+		storage.add(potion);
+		storage.add(second);
+		
+		assertThat(storage.add(first)).isFalse();
+		assertThat(storage).containsExactly(first, potion, second);
+		assertThat(storage.getByObjectId(2)).isSameAs(potion);
+		assertThat(storage.getFirstByItemId(SWORD.getId())).isSameAs(first);
+		assertThat(storage.getByItemId(SWORD.getId())).containsExactly(first, second);
+		
+		assertThat(storage.remove(first)).isTrue();
+		
+		assertThat(storage.contains(first)).isFalse();
+		assertThat(storage.getByObjectId(1)).isNull();
+		assertThat(storage.getFirstByItemId(SWORD.getId())).isSameAs(second);
+		assertThat(storage.removeFirst()).isSameAs(potion);
+		assertThat(storage).containsExactly(second);
+		
+		storage.clear();
+		
+		assertThat(storage).isEmpty();
+		assertThatThrownBy(storage::removeFirst).isInstanceOf(NoSuchElementException.class);
+	}
+	
+	@Test
+	void testTotalsFollowCountChanges() {
+		final ItemStorage storage = new ItemStorage();
+		final L2ItemInstance adena = new L2ItemInstance(1, ADENA);
+		final L2ItemInstance potions = new L2ItemInstance(2, POTION);
+		adena.setCount(1000);
+		potions.setCount(10);
+		
+		storage.add(adena);
+		storage.add(potions);
+		
+		assertThat(storage.getAdena()).isEqualTo(1000);
+		assertThat(storage.getWeight()).isEqualTo(50);
+		
+		adena.changeCount(null, 500, null, null);
+		potions.setCount(4);
+		
+		assertThat(storage.getAdena()).isEqualTo(1500);
+		assertThat(storage.getWeight()).isEqualTo(20);
+		
+		storage.remove(potions);
+		potions.setCount(100);
+		
+		// Removed items no longer count.
+		assertThat(storage.getWeight()).isZero();
+	}
+	
+	@Test
+	void testRandomOperationsMatchList() {
+		final Random random = new Random(12345);
+		final L2Item[] templates = {
+			POTION,
+			SWORD,
+			createTemplate(2, 1000, false),
+			createTemplate(3, 100, false)
+		};
+		final ItemStorage storage = new ItemStorage();
+		final List<L2ItemInstance> expected = new ArrayList<>();
+		int nextObjectId = 1;
+		for (int i = 0; i < 20_000; i++) {
+			// Deposits win on average, so the storage grows and compacts along the way.
+			if (expected.isEmpty() || (random.nextInt(100) < 55)) {
+				final L2ItemInstance item = new L2ItemInstance(nextObjectId++, templates[random.nextInt(templates.length)]);
+				item.setCount(1 + random.nextInt(10));
+				storage.add(item);
+				expected.add(item);
+			} else if (random.nextInt(10) == 0) {
+				assertThat(storage.removeFirst()).isSameAs(expected.removeFirst());
+			} else {
+				final L2ItemInstance item = expected.remove(random.nextInt(expected.size()));
+				assertThat(storage.remove(item)).isTrue();
+			}
+			
+			if (!expected.isEmpty() && (random.nextInt(4) == 0)) {
+				expected.get(random.nextInt(expected.size())).setCount(1 + random.nextInt(10));
+			}
+			
+			if ((i % 100) == 0) {
+				assertThat(storage).containsExactlyElementsOf(expected);
+				for (L2Item template : templates) {
+					assertThat(storage.getByItemId(template.getId())).containsExactlyElementsOf(expected.stream().filter(item -> item.getId() == template.getId()).toList());
+				}
+				assertThat(storage.getWeight()).isEqualTo(expected.stream().mapToLong(item -> item.getItem().getWeight() * item.getCount()).sum());
+			}
+		}
+		
+		for (L2ItemInstance item : expected) {
+			assertThat(storage.getByObjectId(item.getObjectId())).isSameAs(item);
+		}
+		assertThat(storage).hasSameSizeAs(expected);
+	}
+	
+	private static L2Item createTemplate(int itemId, int weight, boolean stackable) {
+		final StatsSet set = new StatsSet();
+		set.set("item_id", itemId);
+		set.set("name", "Item " + itemId);
+		set.set("weight", weight);
+		set.set("is_stackable", stackable);
+		return new L2EtcItem(set);
+	}
+}
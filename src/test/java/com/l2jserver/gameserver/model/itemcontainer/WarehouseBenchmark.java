@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.itemcontainer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.enums.ItemLocation;
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.items.L2EtcItem;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Warehouse benchmark.<br>
+ * Deposits a clan warehouse worth of items one by one and withdraws them by object ID, with the indexed item storage and with the copy on write list and scans it replaced.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarehouseBenchmark {
+	
+	/** Different item IDs deposited, the items of an ID are not stackable. */
+	private static final int ITEM_IDS = 50;
+	
+	@Param({
+		"150",
+		"2000"
+	})
+	private int items;
+	
+	private L2ItemInstance[] deposits;
+	
+	@Setup
+	public void setup() {
+		final L2Item[] templates = new L2Item[ITEM_IDS];
+		for (int i = 0; i < templates.length; i++) {
+			final StatsSet set = new StatsSet();
+			set.set("item_id", 1000 + i);
+			set.set("name", "Item " + i);
+			set.set("weight", 100);
+			templates[i] = new L2EtcItem(set);
+		}
+		
+		deposits = new L2ItemInstance[items];
+		for (int i = 0; i < items; i++) {
+			deposits[i] = new L2ItemInstance(0x10000000 + i, templates[i % templates.length]);
+		}
+	}
+	
+	@Benchmark
+	public long depositWithdrawIndexed() {
+		final BenchmarkWarehouse warehouse = new BenchmarkWarehouse();
+		for (L2ItemInstance item : deposits) {
+			// As ItemContainer#addItem, the stack lookup comes first.
+			final L2ItemInstance stack = warehouse.getItemByItemId(item.getId());
+			if ((stack == null) || !stack.isStackable()) {
+				warehouse.addItem(item);
+			}
+		}
+		
+		long weight = 0;
+		for (int i = deposits.length - 1; i >= 0; i--) {
+			final L2ItemInstance item = warehouse.getItemByObjectId(deposits[i].getObjectId());
+			warehouse.removeItem(item);
+			weight += warehouse._items.getWeight();
+		}
+		return weight;
+	}
+	
+	/**
+	 * The deposit and withdraw as they were before the item storage, a copy on write list scanned for every lookup and weight refresh.
+	 * @return the sum of the weights
+	 */
+	@Benchmark
+	public long depositWithdrawCopyOnWrite() {
+		final List<L2ItemInstance> warehouse = new CopyOnWriteArrayList<>();
+		for (L2ItemInstance item : deposits) {
+			final L2ItemInstance stack = scanItemId(warehouse, item.getId());
+			if ((stack == null) || !stack.isStackable()) {
+				warehouse.add(item);
+			}
+		}
+		
+		long weight = 0;
+		for (int i = deposits.length - 1; i >= 0; i--) {
+			final L2ItemInstance item = scanObjectId(warehouse, deposits[i].getObjectId());
+			warehouse.remove(item);
+			for (L2ItemInstance remaining : warehouse) {
+				weight += remaining.getItem().getWeight() * remaining.getCount();
+			}
+		}
+		return weight;
+	}
+	
+	private static L2ItemInstance scanItemId(List<L2ItemInstance> warehouse, int itemId) {
+		for (L2ItemInstance item : warehouse) {
+			if (item.getId() == itemId) {
+				return item;
+			}
+		}
+		return null;
+	}
+	
+	private static L2ItemInstance scanObjectId(List<L2ItemInstance> warehouse, int objectId) {
+		for (L2ItemInstance item : warehouse) {
+			if (item.getObjectId() == objectId) {
+				return item;
+			}
+		}
+		return null;
+	}
+	
+	private static final class BenchmarkWarehouse extends Warehouse {
+		@Override
+		protected L2Character getOwner() {
+			return null;
+		}
+		
+		@Override
+		protected ItemLocation getBaseLocation() {
+			return ItemLocation.CLANWH;
+		}
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(WarehouseBenchmark.class.getSimpleName()).build()).run();
+	}
+}
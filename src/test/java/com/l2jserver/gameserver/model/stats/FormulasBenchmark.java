@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.stat.CharStat;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.stats.functions.AbstractFunction;
+import com.l2jserver.gameserver.model.stats.functions.FuncAdd;
+import com.l2jserver.gameserver.model.stats.functions.FuncMul;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncAtkCritical;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncMaxHpMul;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncPAtkMod;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncPDefMod;
+
+/**
+ * Physical damage formula benchmark.<br>
+ * Compares {@link Formulas#calcPhysDam(L2Character, L2Character, byte, boolean, boolean)} and the stats it reads with and without the stat cache, for characters under a number of buffs.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormulasBenchmark {
+	
+	@Param({
+		"false",
+		"true"
+	})
+	private boolean statCache;
+	
+	@Param({
+		"5",
+		"30"
+	})
+	private int buffs;
+	
+	private L2Character attacker;
+	
+	private L2Character target;
+	
+	@Setup
+	public void setup() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+		attacker = create(1, buffs, statCache);
+		target = create(2, buffs, statCache);
+	}
+	
+	@Benchmark
+	public double calcPhysDam() {
+		return Formulas.calcPhysDam(attacker, target, Formulas.SHIELD_DEFENSE_FAILED, false, false);
+	}
+	
+	@Benchmark
+	public double calcPhysDamCritical() {
+		return Formulas.calcPhysDam(attacker, target, Formulas.SHIELD_DEFENSE_FAILED, true, true);
+	}
+	
+	/**
+	 * The stats used by the damage formula alone, without the configuration lookups and random damage around them.
+	 * @return the stats sum
+	 */
+	@Benchmark
+	public double calcStat() {
+		return attacker.calcStat(Stats.POWER_ATTACK, 500, target, null) + target.calcStat(Stats.POWER_DEFENCE, 400, attacker, null) + attacker.calcStat(Stats.CRITICAL_DAMAGE, 1, target, null);
+	}
+	
+	private static L2Character create(int objectId, int buffs, boolean statCache) {
+		final StatsSet set = new StatsSet();
+		set.set("baseSTR", 40);
+		set.set("baseCON", 43);
+		set.set("baseDEX", 30);
+		set.set("baseHpMax", 2400);
+		set.set("basePAtk", 500);
+		set.set("basePDef", 400);
+		set.set("baseRndDam", 10);
+		final L2Character character = new L2Character(objectId, new L2CharTemplate(set)) {
+			@Override
+			public void updateAbnormalEffect() {
+			}
+			
+			@Override
+			public L2ItemInstance getActiveWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Weapon getActiveWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public L2ItemInstance getSecondaryWeaponInstance() {
+				return null;
+			}
+			
+			@Override
+			public L2Item getSecondaryWeaponItem() {
+				return null;
+			}
+			
+			@Override
+			public int getLevel() {
+				return 80;
+			}
+			
+			@Override
+			public boolean isAutoAttackable(L2Character attacker) {
+				return true;
+			}
+			
+			@Override
+			public int getId() {
+				return 0;
+			}
+			
+			@Override
+			public void sendInfo(L2PcInstance activeChar) {
+			}
+		};
+		character.setStat(new CharStat(character, statCache));
+		
+		final List<AbstractFunction> functions = new ArrayList<>();
+		functions.add(FuncPAtkMod.getInstance());
+		functions.add(FuncPDefMod.getInstance());
+		functions.add(FuncMaxHpMul.getInstance());
+		functions.add(FuncAtkCritical.getInstance());
+		for (int i = 0; i < buffs; i++) {
+			final Stats stat = switch (i % 4) {
+				case 0 -> Stats.POWER_ATTACK;
+				case 1 -> Stats.POWER_DEFENCE;
+				case 2 -> Stats.CRITICAL_DAMAGE;
+				default -> Stats.STAT_STR;
+			};
+			functions.add(((i % 2) == 0) ? new FuncMul(stat, 0x30, i, 1.01, null) : new FuncAdd(stat, 0x40, i, 1, null));
+		}
+		character.addStatFuncs(functions);
+		return character;
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(FormulasBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -20,6 +20,9 @@ package com.l2jserver.gameserver.model.zone.form;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Polygon;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -41,4 +44,86 @@ class ZoneNPolyTest {
 		assertThat(boundingBox.getWidth()).isEqualTo(4);
 		assertThat(boundingBox.getHeight()).isEqualTo(5);
 	}
-}
\ No newline at end of file
+	
+	@Test
+	void testIsInsideZoneMatchesAwtPolygon() {
+		final var random = new Random(1);
+		for (int poly = 0; poly < 500; poly++) {
+			final int size = 3 + random.nextInt(20);
+			final int originX = random.nextInt(400000) - 200000;
+			final int originY = random.nextInt(400000) - 200000;
+			final int extent = 16 + random.nextInt((poly % 2) == 0 ? 500 : 30000);
+			final int[] xCoords = new int[size];
+			final int[] yCoords = new int[size];
+			for (int i = 0; i < size; i++) {
+				if ((poly % 3) == 0) {
+					// self intersecting
+					xCoords[i] = originX + random.nextInt(extent);
+					yCoords[i] = originY + random.nextInt(extent);
+				} else {
+					// concave star
+					final double angle = (Math.PI * 2 * i) / size;
+					final double radius = (extent / 2.0) * (0.2 + (random.nextDouble() * 0.8));
+					xCoords[i] = originX + (int) (Math.cos(angle) * radius);
+					yCoords[i] = originY + (int) (Math.sin(angle) * radius);
+				}
+			}
+			
+			final var zone = new ZoneNPoly(xCoords, yCoords, -100, 100);
+			final var polygon = new Polygon(xCoords, yCoords, size);
+			final var bounds = polygon.getBounds();
+			for (int i = 0; i < 2000; i++) {
+				final int x = bounds.x - 2 + random.nextInt(bounds.width + 5);
+				final int y = bounds.y - 2 + random.nextInt(bounds.height + 5);
+				assertThat(zone.isInsideZone(x, y, 0)).as("point %d,%d", x, y).isEqualTo(polygon.contains(x, y));
+			}
+			
+			// vertices and points on the edges
+			for (int i = 0, j = size - 1; i < size; j = i++) {
+				final int x = (xCoords[i] + xCoords[j]) / 2;
+				final int y = (yCoords[i] + yCoords[j]) / 2;
+				assertThat(zone.isInsideZone(x, y, 0)).as("edge point %d,%d", x, y).isEqualTo(polygon.contains(x, y));
+				assertThat(zone.isInsideZone(xCoords[i], yCoords[i], 0)).as("vertex %d,%d", xCoords[i], yCoords[i]).isEqualTo(polygon.contains(xCoords[i], yCoords[i]));
+			}
+			
+			assertThat(zone.getBoundingBox()).isEqualTo(bounds);
+		}
+	}
+	
+	@Test
+	void testIsInsideZoneChecksZ() {
+		final int[] xCoords = { 0, 100, 100, 0 };
+		final int[] yCoords = { 0, 0, 100, 100 };
+		final var zone = new ZoneNPoly(xCoords, yCoords, 10, -10);
+		
+		assertThat(zone.isInsideZone(50, 50, 0)).isTrue();
+		assertThat(zone.isInsideZone(50, 50, 11)).isFalse();
+		assertThat(zone.isInsideZone(50, 50, -11)).isFalse();
+	}
+	
+	@Test
+	void testIntersectsRectangleCoversAwtPolygon() {
+		final var random = new Random(2);
+		for (int poly = 0; poly < 200; poly++) {
+			final int size = 3 + random.nextInt(10);
+			final int[] xCoords = new int[size];
+			final int[] yCoords = new int[size];
+			for (int i = 0; i < size; i++) {
+				xCoords[i] = random.nextInt(10000);
+				yCoords[i] = random.nextInt(10000);
+			}
+			
+			final var zone = new ZoneNPoly(xCoords, yCoords, 0, 0);
+			final var polygon = new Polygon(xCoords, yCoords, size);
+			for (int i = 0; i < 200; i++) {
+				final int x1 = random.nextInt(12000) - 1000;
+				final int y1 = random.nextInt(12000) - 1000;
+				final int x2 = x1 + 1 + random.nextInt(3000);
+				final int y2 = y1 + 1 + random.nextInt(3000);
+				if (polygon.intersects(x1, y1, x2 - x1, y2 - y1)) {
+					assertThat(zone.intersectsRectangle(x1, x2, y1, y2)).isTrue();
+				}
+			}
+		}
+	}
+}
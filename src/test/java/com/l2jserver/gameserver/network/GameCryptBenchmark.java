@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Game crypt benchmark.<br>
+ * Encrypts and decrypts a packet eight bytes at a time, on an array and on a direct buffer as the game client does, and byte by byte as before.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameCryptBenchmark {
+	
+	@Param({
+		"8",
+		"64",
+		"512",
+		"4096",
+		"65536"
+	})
+	private int size;
+	
+	private GameCrypt crypt;
+	
+	private byte[] packet;
+	
+	private ByteBuffer buffer;
+	
+	private final byte[] inKey = new byte[16];
+	
+	private final byte[] outKey = new byte[16];
+	
+	@Setup
+	public void setup() {
+		final Random random = new Random(24);
+		final byte[] key = new byte[16];
+		random.nextBytes(key);
+		System.arraycopy(key, 0, inKey, 0, 16);
+		System.arraycopy(key, 0, outKey, 0, 16);
+		crypt = new GameCrypt();
+		crypt.setKey(key);
+		// The first packet, the key packet, enables the cipher.
+		crypt.encrypt(new byte[0], 0, 0);
+		
+		packet = new byte[size];
+		random.nextBytes(packet);
+		buffer = ByteBuffer.allocateDirect(size);
+		buffer.put(packet);
+	}
+	
+	@Benchmark
+	public byte[] encryptArray() {
+		crypt.encrypt(packet, 0, size);
+		return packet;
+	}
+	
+	@Benchmark
+	public byte[] decryptArray() {
+		crypt.decrypt(packet, 0, size);
+		return packet;
+	}
+	
+	@Benchmark
+	public ByteBuffer encryptDirectBuffer() {
+		crypt.encrypt(buffer, 0, size);
+		return buffer;
+	}
+	
+	@Benchmark
+	public ByteBuffer decryptDirectBuffer() {
+		crypt.decrypt(buffer, 0, size);
+		return buffer;
+	}
+	
+	/**
+	 * The encryption as it was before the word-wide cipher, one byte and one key byte at a time.
+	 * @return the packet
+	 */
+	@Benchmark
+	public byte[] encryptByteWise() {
+		int temp = 0;
+		for (int i = 0; i < size; i++) {
+			int temp2 = packet[i] & 0xFF;
+			temp = temp2 ^ outKey[i & 15] ^ temp;
+			packet[i] = (byte) temp;
+		}
+		shiftKey(outKey, size);
+		return packet;
+	}
+	
+	/**
+	 * The decryption as it was before the word-wide cipher, one byte and one key byte at a time.
+	 * @return the packet
+	 */
+	@Benchmark
+	public byte[] decryptByteWise() {
+		int temp = 0;
+		for (int i = 0; i < size; i++) {
+			int temp2 = packet[i] & 0xFF;
+			packet[i] = (byte) (temp2 ^ inKey[i & 15] ^ temp);
+			temp = temp2;
+		}
+		shiftKey(inKey, size);
+		return packet;
+	}
+	
+	private static void shiftKey(byte[] key, int size) {
+		int old = key[8] & 0xff;
+		old |= (key[9] << 8) & 0xff00;
+		old |= (key[10] << 0x10) & 0xff0000;
+		old |= (key[11] << 0x18) & 0xff000000;
+		
+		old += size;
+		
+		key[8] = (byte) (old & 0xff);
+		key[9] = (byte) ((old >> 0x08) & 0xff);
+		key[10] = (byte) ((old >> 0x10) & 0xff);
+		key[11] = (byte) ((old >> 0x18) & 0xff);
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(GameCryptBenchmark.class.getSimpleName()).build()).run();
+	}
+}
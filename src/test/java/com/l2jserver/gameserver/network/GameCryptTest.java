@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Game crypt test.<br>
+ * The cipher must produce the same bytes as the byte by byte cipher it replaced, for any key, packet size and offset, on arrays and on heap and direct buffers.
+ * @since 2.6.3.0
+ */
+class GameCryptTest {
+	
+	private static final int PACKETS = 2_000;
+	
+	private static final int MAX_OFFSET = 20;
+	
+	@Test
+	void testEncryptMatchesByteCipher() {
+		final Random random = new Random(24);
+		for (int run = 0; run < 20; run++) {
+			final byte[] key = randomKey(random);
+			final ByteCrypt expected = new ByteCrypt(key);
+			final GameCrypt array = createCrypt(key);
+			final GameCrypt heap = createCrypt(key);
+			final GameCrypt direct = createCrypt(key);
+			final ByteBuffer directBuffer = ByteBuffer.allocateDirect(MAX_OFFSET + 70_000);
+			for (int p = 0; p < PACKETS; p++) {
+				final int offset = random.nextInt(MAX_OFFSET);
+				final int size = randomSize(random);
+				final byte[] packet = new byte[offset + size + random.nextInt(MAX_OFFSET)];
+				random.nextBytes(packet);
+				
+				final byte[] actual = packet.clone();
+				final ByteBuffer heapBuffer = ByteBuffer.wrap(packet.clone());
+				directBuffer.clear();
+				directBuffer.put(packet);
+				expected.encrypt(packet, offset, size);
+				array.encrypt(actual, offset, size);
+				heap.encrypt(heapBuffer, offset, size);
+				direct.encrypt(directBuffer, offset, size);
+				
+				assertThat(actual).isEqualTo(packet);
+				assertThat(heapBuffer.array()).isEqualTo(packet);
+				final byte[] directBytes = new byte[packet.length];
+				directBuffer.get(0, directBytes);
+				assertThat(directBytes).isEqualTo(packet);
+			}
+		}
+	}
+	
+	@Test
+	void testDecryptMatchesByteCipher() {
+		final Random random = new Random(42);
+		for (int run = 0; run < 20; run++) {
+			final byte[] key = randomKey(random);
+			final ByteCrypt expected = new ByteCrypt(key);
+			final GameCrypt array = createCrypt(key);
+			final GameCrypt heap = createCrypt(key);
+			final GameCrypt direct = createCrypt(key);
+			final ByteBuffer directBuffer = ByteBuffer.allocateDirect(MAX_OFFSET + 70_000);
+			for (int p = 0; p < PACKETS; p++) {
+				final int offset = random.nextInt(MAX_OFFSET);
+				final int size = randomSize(random);
+				final byte[] packet = new byte[offset + size + random.nextInt(MAX_OFFSET)];
+				random.nextBytes(packet);
+				
+				final byte[] actual = packet.clone();
+				final ByteBuffer heapBuffer = ByteBuffer.wrap(packet.clone());
+				directBuffer.clear();
+				directBuffer.put(packet);
+				expected.decrypt(packet, offset, size);
+				array.decrypt(actual, offset, size);
+				heap.decrypt(heapBuffer, offset, size);
+				direct.decrypt(directBuffer, offset, size);
+				
+				assertThat(actual).isEqualTo(packet);
+				assertThat(heapBuffer.array()).isEqualTo(packet);
+				final byte[] directBytes = new byte[packet.length];
+				directBuffer.get(0, directBytes);
+				assertThat(directBytes).isEqualTo(packet);
+			}
+		}
+	}
+	
+	@Test
+	void testDecryptRestoresEncryptedPackets() {
+		final Random random = new Random(7);
+		final byte[] key = randomKey(random);
+		final GameCrypt server = createCrypt(key);
+		final GameCrypt client = createCrypt(key);
+		for (int p = 0; p < PACKETS; p++) {
+			final byte[] packet = new byte[randomSize(random)];
+			random.nextBytes(packet);
+			final byte[] sent = packet.clone();
+			
+			server.encrypt(sent, 0, sent.length);
+			client.decrypt(sent, 0, sent.length);
+			
+			assertThat(sent).isEqualTo(packet);
+		}
+	}
+	
+	private static byte[] randomKey(Random random) {
+		final byte[] key = new byte[16];
+		random.nextBytes(key);
+		return key;
+	}
+	
+	/**
+	 * Mostly game packet sizes, empty and unaligned ones, and now and then a packet up to 64KB.
+	 * @param random the random
+	 * @return the size
+	 */
+	private static int randomSize(Random random) {
+		return (random.nextInt(50) == 0) ? random.nextInt(65_536) : random.nextInt(300);
+	}
+	
+	/**
+	 * Creates a cipher enabled as a game client's, the first encrypted packet, the key packet, is not encrypted.
+	 * @param key the key
+	 * @return the cipher
+	 */
+	private static GameCrypt createCrypt(byte[] key) {
+		final GameCrypt crypt = new GameCrypt();
+		crypt.setKey(key);
+		crypt.encrypt(new byte[0], 0, 0);
+		return crypt;
+	}
+	
+	/**
+	 * The byte by byte cipher as it was before the word-wide one.
+	 */
+	private static final class ByteCrypt {
+		private final byte[] inKey = new byte[16];
+		private final byte[] outKey = new byte[16];
+		
+		ByteCrypt(byte[] key) {
+			System.arraycopy(key, 0, inKey, 0, 16);
+			System.arraycopy(key, 0, outKey, 0, 16);
+		}
+		
+		void decrypt(byte[] raw, int offset, int size) {
+			int temp = 0;
+			for (int i = 0; i < size; i++) {
+				int temp2 = raw[offset + i] & 0xFF;
+				raw[offset + i] = (byte) (temp2 ^ inKey[i & 15] ^ temp);
+				temp = temp2;
+			}
+			shiftKey(inKey, size);
+		}
+		
+		void encrypt(byte[] raw, int offset, int size) {
+			int temp = 0;
+			for (int i = 0; i < size; i++) {
+				int temp2 = raw[offset + i] & 0xFF;
+				temp = temp2 ^ outKey[i & 15] ^ temp;
+				raw[offset + i] = (byte) temp;
+			}
+			shiftKey(outKey, size);
+		}
+		
+		private static void shiftKey(byte[] key, int size) {
+			int old = key[8] & 0xff;
+			old |= (key[9] << 8) & 0xff00;
+			old |= (key[10] << 0x10) & 0xff0000;
+			old |= (key[11] << 0x18) & 0xff000000;
+			
+			old += size;
+			
+			key[8] = (byte) (old & 0xff);
+			key[9] = (byte) ((old >> 0x08) & 0xff);
+			key[10] = (byte) ((old >> 0x10) & 0xff);
+			key[11] = (byte) ((old >> 0x18) & 0xff);
+		}
+	}
+}
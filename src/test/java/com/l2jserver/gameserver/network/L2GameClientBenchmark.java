@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.network.L2GameClient.GameClientState;
+import com.l2jserver.mmocore.ReceivablePacket;
+
+/**
+ * Client packet execution load benchmark.<br>
+ * A number of clients replay packets that block on the database for a while (character select, warehouse, mail), each one sending its next packet after a think time once the previous one was executed.<br>
+ * Meanwhile the benchmark threads, each one being another client, send short packets and wait for them to be executed; the sampled times are the latency percentiles of those packets with the packet thread pools and with virtual threads.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class L2GameClientBenchmark {
+	
+	/** Time a blocking packet holds its thread, as a database query would. */
+	private static final long BLOCKING_MILLIS = 20;
+	
+	/** Time between a blocking packet being executed and the same client sending the next one. */
+	private static final long THINK_MILLIS = 100;
+	
+	@Param({
+		"false",
+		"true"
+	})
+	private boolean virtualThreads;
+	
+	@Param({
+		"0",
+		"10",
+		"50"
+	})
+	private int blockingClients;
+	
+	private ScheduledExecutorService _replay;
+	
+	private volatile boolean _running;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		general().setProperty("ClientPacketVirtualThreads", Boolean.toString(virtualThreads));
+		if (GameTimeController.getInstance() == null) {
+			// flood protectors read the game ticks
+			GameTimeController.init();
+		}
+		_replay = Executors.newSingleThreadScheduledExecutor();
+		_running = true;
+		
+		final List<L2GameClient> clients = new ArrayList<>(blockingClients);
+		for (int i = 0; i < blockingClients; i++) {
+			clients.add(createClient());
+		}
+		for (L2GameClient client : clients) {
+			_replay.schedule(() -> sendBlocking(client), (long) (Math.random() * THINK_MILLIS), TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		_running = false;
+		_replay.shutdownNow();
+	}
+	
+	private void sendBlocking(L2GameClient client) {
+		if (!_running) {
+			return;
+		}
+		
+		client.execute(new SyntheticPacket(() -> {
+			try {
+				Thread.sleep(BLOCKING_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			if (_running) {
+				_replay.schedule(() -> sendBlocking(client), THINK_MILLIS, TimeUnit.MILLISECONDS);
+			}
+		}));
+	}
+	
+	/**
+	 * A client sending short packets and waiting for each one of them to be executed.
+	 */
+	@State(Scope.Thread)
+	public static class Client {
+		L2GameClient client;
+		
+		volatile boolean done;
+		
+		Thread waiter;
+		
+		/**
+		 * @param benchmark the benchmark state, requested so the execution mode is configured before the client is created
+		 */
+		@Setup(Level.Trial)
+		public void setup(L2GameClientBenchmark benchmark) {
+			client = createClient();
+			waiter = Thread.currentThread();
+		}
+	}
+	
+	@Benchmark
+	public void shortPacket(Client state) {
+		state.done = false;
+		state.client.execute(new SyntheticPacket(() -> {
+			Blackhole.consumeCPU(1000);
+			state.done = true;
+			LockSupport.unpark(state.waiter);
+		}));
+		
+		while (!state.done) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+	
+	static L2GameClient createClient() {
+		final L2GameClient client = new L2GameClient(null);
+		client.setState(GameClientState.IN_GAME);
+		return client;
+	}
+	
+	/**
+	 * Packet running the given task.
+	 */
+	static final class SyntheticPacket extends ReceivablePacket<L2GameClient> {
+		private final Runnable _task;
+		
+		SyntheticPacket(Runnable task) {
+			_task = task;
+		}
+		
+		@Override
+		protected boolean read() {
+			return true;
+		}
+		
+		@Override
+		public void run() {
+			_task.run();
+		}
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(L2GameClientBenchmark.class.getSimpleName()).build()).run();
+	}
+}
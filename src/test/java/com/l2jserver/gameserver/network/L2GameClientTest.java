@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.network.L2GameClientBenchmark.SyntheticPacket;
+
+/**
+ * Game client packet execution test.
+ * @since 2.6.3.0
+ */
+class L2GameClientTest {
+	
+	private static final int PRODUCERS = 4;
+	
+	private static final int PACKETS = 2_000;
+	
+	/** Packets a producer may have queued at once, all the producers together stay below the queue size. */
+	private static final int IN_FLIGHT = 3;
+	
+	@BeforeEach
+	void setUp() {
+		general().setProperty("ClientPacketVirtualThreads", "true");
+		if (GameTimeController.getInstance() == null) {
+			// flood protectors read the game ticks
+			GameTimeController.init();
+		}
+	}
+	
+	@AfterEach
+	void tearDown() {
+		general().setProperty("ClientPacketVirtualThreads", "false");
+	}
+	
+	@Test
+	void testVirtualThreadsRunPacketsOneAtATimeInOrder() throws Exception {
+		final L2GameClient client = L2GameClientBenchmark.createClient();
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final AtomicInteger outOfOrder = new AtomicInteger();
+		final int[] lastSequence = new int[PRODUCERS];
+		final CountDownLatch executed = new CountDownLatch(PRODUCERS * PACKETS);
+		
+		final Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			final Semaphore inFlight = new Semaphore(IN_FLIGHT);
+			producers[p] = Thread.ofPlatform().start(() -> {
+				for (int i = 1; i <= PACKETS; i++) {
+					inFlight.acquireUninterruptibly();
+					final int sequence = i;
+					client.execute(new SyntheticPacket(() -> {
+						if (running.incrementAndGet() != 1) {
+							overlaps.incrementAndGet();
+						}
+						// Only the running packet touches the sequences, no other synchronization is needed.
+						if (lastSequence[producer] != (sequence - 1)) {
+							outOfOrder.incrementAndGet();
+						}
+						lastSequence[producer] = sequence;
+						Thread.yield();
+						running.decrementAndGet();
+						inFlight.release();
+						executed.countDown();
+					}));
+				}
+			});
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		
+		// A packet queued while a drain was finishing is not left behind.
+		assertThat(executed.await(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(overlaps).hasValue(0);
+		assertThat(outOfOrder).hasValue(0);
+		assertThat(client.getStats().totalBursts).isPositive();
+		// The drains are named by the packets they run in the task statistics.
+		assertThat(client.getTaskName()).isEqualTo("L2GameClient." + SyntheticPacket.class.getSimpleName());
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.GameTimeController;
+import com.l2jserver.gameserver.network.L2GameClient;
+
+/**
+ * Broadcast benchmark.<br>
+ * A siege broadcast storm, every player of the siege broadcasts a character info sized packet to all the others.<br>
+ * Each write is done as the selector thread does it, the packet is written to the send buffer and encrypted for the client, with the packets serialized for each client and serialized once.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+	
+	@Param({
+		"300"
+	})
+	private int players;
+	
+	@Param({
+		"false",
+		"true"
+	})
+	private boolean encodeOnce;
+	
+	private L2GameClient[] clients;
+	
+	private final ByteBuffer sendBuffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+	
+	@Setup
+	public void setup() {
+		if (GameTimeController.getInstance() == null) {
+			// flood protectors read the game ticks
+			GameTimeController.init();
+		}
+		clients = new L2GameClient[players];
+		for (int i = 0; i < players; i++) {
+			clients[i] = new L2GameClient(null);
+			clients[i].enableCrypt();
+		}
+	}
+	
+	@Benchmark
+	public int siegeStorm() {
+		int written = 0;
+		for (int broadcaster = 0; broadcaster < players; broadcaster++) {
+			final L2GameServerPacket packet = new SiegeCharInfo(0x10000000 + broadcaster);
+			if (encodeOnce) {
+				packet.encodeOnce();
+			}
+			
+			for (int receiver = 0; receiver < players; receiver++) {
+				if (receiver != broadcaster) {
+					sendBuffer.clear();
+					packet.writeTo(sendBuffer);
+					final int size = sendBuffer.position();
+					sendBuffer.position(0);
+					clients[receiver].encrypt(sendBuffer, size);
+					written += size;
+				}
+			}
+		}
+		return written;
+	}
+	
+	/**
+	 * Packet with the layout of a character info, the paperdoll, the character state and its abnormal effects.
+	 */
+	private static final class SiegeCharInfo extends L2GameServerPacket implements IClientIndependentPacket {
+		private static final int[] PAPERDOLL = new int[26];
+		
+		private static final int[] EFFECTS = new int[24];
+		
+		static {
+			for (int i = 0; i < PAPERDOLL.length; i++) {
+				PAPERDOLL[i] = 6_000 + i;
+			}
+			for (int i = 0; i < EFFECTS.length; i++) {
+				EFFECTS[i] = 1_000 + i;
+			}
+		}
+		
+		private final int _objectId;
+		
+		SiegeCharInfo(int objectId) {
+			_objectId = objectId;
+		}
+		
+		@Override
+		protected void writeImpl() {
+			writeC(0x31);
+			writeD(83_000);
+			writeD(148_000);
+			writeD(-3_400);
+			writeD(0);
+			writeD(_objectId);
+			writeS("Besieger" + _objectId);
+			writeD(0);
+			writeD(0);
+			writeD(88);
+			for (int slot : getPaperdollOrder()) {
+				writeD(PAPERDOLL[slot]);
+			}
+			for (int slot : getPaperdollOrder()) {
+				writeD(PAPERDOLL[slot] << 16);
+			}
+			for (int i = 0; i < 40; i++) {
+				writeD(i);
+			}
+			writeF(1.1);
+			writeF(1.0);
+			writeF(9.0);
+			writeF(23.0);
+			writeS("Siege");
+			for (int effect : EFFECTS) {
+				writeD(effect);
+			}
+		}
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BroadcastBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Server packet test.
+ * @since 2.6.3.0
+ */
+class L2GameServerPacketTest {
+	
+	private static final int CLIENTS = 5;
+	
+	@Test
+	void testClientIndependentPacketIsSerializedOnce() {
+		final TestPacket packet = new IndependentPacket();
+		packet.encodeOnce();
+		
+		final byte[] first = writeFor(packet);
+		for (int i = 1; i < CLIENTS; i++) {
+			assertThat(writeFor(packet)).isEqualTo(first);
+		}
+		
+		assertThat(packet.writes).isEqualTo(1);
+	}
+	
+	@Test
+	void testOtherPacketsAreWrittenForEachClient() {
+		final TestPacket notBroadcast = new IndependentPacket();
+		final TestPacket invisible = new IndependentPacket();
+		invisible.setInvisible(true);
+		invisible.encodeOnce();
+		final TestPacket dependent = new TestPacket();
+		dependent.encodeOnce();
+		
+		for (int i = 0; i < CLIENTS; i++) {
+			writeFor(notBroadcast);
+			writeFor(invisible);
+			writeFor(dependent);
+		}
+		
+		assertThat(notBroadcast.writes).isEqualTo(CLIENTS);
+		assertThat(invisible.writes).isEqualTo(CLIENTS);
+		assertThat(dependent.writes).isEqualTo(CLIENTS);
+	}
+	
+	private static byte[] writeFor(L2GameServerPacket packet) {
+		// As the selector thread, the payload follows the packet size.
+		final ByteBuffer buffer = ByteBuffer.allocate(64);
+		buffer.position(2);
+		packet.writeTo(buffer);
+		return Arrays.copyOfRange(buffer.array(), 2, buffer.position());
+	}
+	
+	private static class TestPacket extends L2GameServerPacket {
+		int writes;
+		
+		@Override
+		protected void writeImpl() {
+			writes++;
+			writeC(0x7F);
+			writeD(writes);
+			writeS("Siege");
+		}
+	}
+	
+	private static final class IndependentPacket extends TestPacket implements IClientIndependentPacket {
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.pathfinding.cellnodes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import com.l2jserver.gameserver.GeoData;
+import com.l2jserver.gameserver.pathfinding.GeoPath;
+import com.l2jserver.geodriver.Cell;
+
+/**
+ * Cell pathfinding test.<br>
+ * The geodata is an open plain split by a wall between the geo columns 9 and 10, with a gap at one row.
+ * @since 2.6.3.0
+ */
+class CellPathFindingTest {
+	
+	private static final int WALL_X = 10;
+	
+	private static final int GAP_Y = 20;
+	
+	private static final int BUFFER_SIZE = 100;
+	
+	private int gapY = GAP_Y;
+	
+	private MockedStatic<GeoData> mockedStaticGeoData;
+	
+	@BeforeEach
+	void setUp() {
+		final GeoData geoData = mock(GeoData.class);
+		when(geoData.hasGeo(anyInt(), anyInt())).thenReturn(true);
+		when(geoData.getGeoX(anyInt())).thenAnswer(inv -> inv.<Integer> getArgument(0) >> 4);
+		when(geoData.getGeoY(anyInt())).thenAnswer(inv -> inv.<Integer> getArgument(0) >> 4);
+		when(geoData.getWorldX(anyInt())).thenAnswer(inv -> world(inv.getArgument(0)));
+		when(geoData.getWorldY(anyInt())).thenAnswer(inv -> world(inv.getArgument(0)));
+		when(geoData.checkNearestNswe(anyInt(), anyInt(), anyInt(), anyInt())).thenAnswer(inv -> {
+			final int geoX = inv.getArgument(0);
+			final int geoY = inv.getArgument(1);
+			final int nswe = inv.getArgument(3);
+			if (geoY == gapY) {
+				return true;
+			}
+			return !(((geoX == (WALL_X - 1)) && (nswe == Cell.NSWE_EAST)) || ((geoX == WALL_X) && (nswe == Cell.NSWE_WEST)));
+		});
+		mockedStaticGeoData = mockStatic(GeoData.class);
+		mockedStaticGeoData.when(GeoData::getInstance).thenReturn(geoData);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		mockedStaticGeoData.close();
+	}
+	
+	@Test
+	void testPathGoesThroughTheGap() {
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x2", 0, 0);
+		
+		final GeoPath path = pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		
+		assertThat(path).isNotNull();
+		assertThat(path.getX(path.size() - 1)).isEqualTo(world(15));
+		assertThat(path.getY(path.size() - 1)).isEqualTo(world(5));
+		
+		// Waypoints are only added on direction changes, walk each straight segment through the geo cells.
+		int geoX = 5;
+		int geoY = 5;
+		for (int i = 0; i < path.size(); i++) {
+			final int toX = path.getX(i) >> 4;
+			final int toY = path.getY(i) >> 4;
+			final int stepX = Integer.signum(toX - geoX);
+			final int stepY = Integer.signum(toY - geoY);
+			assertThat((stepX == 0) || (stepY == 0) || (Math.abs(toX - geoX) == Math.abs(toY - geoY))).isTrue();
+			while ((geoX != toX) || (geoY != toY)) {
+				if ((stepX != 0) && (Math.min(geoX, geoX + stepX) == (WALL_X - 1))) {
+					assertThat(geoY).isEqualTo(GAP_Y);
+				}
+				geoX += stepX;
+				geoY += stepY;
+			}
+		}
+	}
+	
+	@Test
+	void testPathsAreCachedPerInstanceAndRequester() {
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x2", 16, 60_000);
+		
+		final GeoPath path = pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		assertThat(pathFinding.findPath(world(5) + 3, world(5) - 3, 0, world(15), world(5), 0, 0, false)).isSameAs(path);
+		assertThat(searches(pathFinding)).isEqualTo(1);
+		
+		assertThat(pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 1, false)).isNotSameAs(path);
+		assertThat(pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, true)).isNotSameAs(path);
+		assertThat(searches(pathFinding)).isEqualTo(3);
+	}
+	
+	@Test
+	void testFailedSearchesAreCached() {
+		gapY = Integer.MIN_VALUE;
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x2", 16, 60_000);
+		
+		assertThat(pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false)).isNull();
+		assertThat(pathFinding.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false)).isNull();
+		assertThat(searches(pathFinding)).isEqualTo(1);
+	}
+	
+	@Test
+	void testExpiredOrUncachedPathsAreSearchedAgain() {
+		final CellPathFinding expiring = new CellPathFinding(BUFFER_SIZE + "x2", 16, 0);
+		expiring.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		expiring.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		assertThat(searches(expiring)).isEqualTo(2);
+		
+		final CellPathFinding uncached = new CellPathFinding(BUFFER_SIZE + "x2", 0, 60_000);
+		uncached.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		uncached.findPath(world(5), world(5), 0, world(15), world(5), 0, 0, false);
+		assertThat(searches(uncached)).isEqualTo(2);
+	}
+	
+	@Test
+	void testBuffersAreRetainedByTheirThread() {
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x2", 0, 0);
+		
+		final CellNodeBuffer buffer = pathFinding.alloc(BUFFER_SIZE, false);
+		buffer.free();
+		assertThat(pathFinding.alloc(BUFFER_SIZE, false)).isSameAs(buffer);
+		
+		// A nested search of the same thread does not share the buffer in use.
+		final CellNodeBuffer nested = pathFinding.alloc(BUFFER_SIZE, true);
+		assertThat(nested).isNotSameAs(buffer);
+		assertThat(pathFinding.getStat()[0]).contains("num:1/2", "uses:2/0", "ovf:1/1");
+	}
+	
+	@Test
+	void testRetainedBuffersAreLimited() throws Exception {
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x1", 0, 0);
+		final CountDownLatch allocated = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final Thread owner = Thread.ofPlatform().start(() -> {
+			pathFinding.alloc(BUFFER_SIZE, false).free();
+			allocated.countDown();
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		allocated.await();
+		
+		pathFinding.alloc(BUFFER_SIZE, false).free();
+		Thread.ofVirtual().start(() -> pathFinding.alloc(BUFFER_SIZE, false).free()).join();
+		done.countDown();
+		owner.join();
+		
+		assertThat(pathFinding.getStat()[0]).contains("num:1/1", "ovf:2/0");
+	}
+	
+	@Test
+	void testVirtualThreadsNeverRetainBuffers() throws Exception {
+		final CellPathFinding pathFinding = new CellPathFinding(BUFFER_SIZE + "x1", 0, 0);
+		
+		Thread.ofVirtual().start(() -> pathFinding.alloc(BUFFER_SIZE, false).free()).join();
+		
+		assertThat(pathFinding.getStat()[0]).contains("num:0/1", "ovf:1/0");
+	}
+	
+	private static int world(int geo) {
+		return (geo << 4) + 8;
+	}
+	
+	private static long searches(CellPathFinding pathFinding) {
+		final String stat = pathFinding.getStat()[pathFinding.getStat().length - 1];
+		return Long.parseLong(stat.substring("Pathfind searches:".length(), stat.indexOf(' ', "Pathfind searches:".length())));
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.l2jserver.gameserver.NamedRunnable;
+import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.ThreadPoolStats;
+import com.l2jserver.gameserver.model.L2WorldRegion;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.knownlist.CharKnownList;
+
+/**
+ * AI task manager test.
+ * @since 2.6.3.0
+ */
+@ExtendWith(MockitoExtension.class)
+class AiTaskManagerTest {
+	
+	private static final int REGIONS = 4;
+	
+	private static final int TASKS_PER_REGION = 4;
+	
+	@Mock
+	private L2Character actor;
+	
+	@Mock
+	private CharKnownList knownList;
+	
+	@Test
+	void testSkipConditionSkipsRunsWithoutKnownPlayers() throws Exception {
+		when(actor.getKnownList()).thenReturn(knownList);
+		when(knownList.getKnownPlayers()).thenReturn(Map.of());
+		final CountDownLatch skips = new CountDownLatch(5);
+		final AtomicInteger runs = new AtomicInteger();
+		final Future<?> task = AiTaskManager.getInstance().schedule(actor, runs::incrementAndGet, 100, 100, () -> {
+			skips.countDown();
+			return runs.get() >= 2;
+		});
+		
+		assertThat(skips.await(10, TimeUnit.SECONDS)).isTrue();
+		task.cancel(false);
+		
+		assertThat(runs.get()).isEqualTo(2);
+	}
+	
+	@Test
+	void testTasksAreRecordedInTheAiPool() throws Exception {
+		final ThreadPoolStats stats = ThreadPoolManager.getInstance().getTaskStats();
+		final boolean enabled = stats.isEnabled();
+		stats.setEnabled(true);
+		final CountDownLatch runs = new CountDownLatch(2);
+		final Future<?> task = AiTaskManager.getInstance().schedule(actor, NamedRunnable.of("AiTaskManagerTest.named", runs::countDown), 100, 100);
+		try {
+			assertThat(runs.await(10, TimeUnit.SECONDS)).isTrue();
+			task.cancel(false);
+			
+			// The first run is recorded by the time the second one starts.
+			assertThat(stats.getStats(Integer.MAX_VALUE)).anyMatch(line -> line.startsWith(" |  AiTaskManagerTest.named: "));
+		} finally {
+			task.cancel(false);
+			stats.setEnabled(enabled);
+		}
+	}
+	
+	@Test
+	void testRegionIsNeverRunByTwoThreads() throws Exception {
+		final String threshold = String.valueOf(general().getAiTickParallelThreshold());
+		general().setProperty("AiTickParallelThreshold", "1");
+		try {
+			final AtomicInteger violations = new AtomicInteger();
+			final CountDownLatch runs = new CountDownLatch(REGIONS * TASKS_PER_REGION * 3);
+			final List<Future<?>> tasks = new ArrayList<>();
+			for (int r = 0; r < REGIONS; r++) {
+				final L2WorldRegion region = mock(L2WorldRegion.class);
+				final AtomicInteger running = new AtomicInteger();
+				for (int t = 0; t < TASKS_PER_REGION; t++) {
+					final L2Character regionActor = mock(L2Character.class);
+					when(regionActor.getWorldRegion()).thenReturn(region);
+					// Each task outlasts a tick, the task of the next slot must wait for it.
+					tasks.add(AiTaskManager.getInstance().schedule(regionActor, () -> {
+						if (running.incrementAndGet() > 1) {
+							violations.incrementAndGet();
+						}
+						try {
+							Thread.sleep(AiTaskManager.TICK_MILLIS + 20);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						running.decrementAndGet();
+						runs.countDown();
+					}, AiTaskManager.TICK_MILLIS * (t + 1), AiTaskManager.TICK_MILLIS * TASKS_PER_REGION));
+				}
+			}
+			
+			assertThat(runs.await(30, TimeUnit.SECONDS)).isTrue();
+			tasks.forEach(task -> task.cancel(false));
+			
+			assertThat(violations.get()).isZero();
+		} finally {
+			general().setProperty("AiTickParallelThreshold", threshold);
+		}
+	}
+}
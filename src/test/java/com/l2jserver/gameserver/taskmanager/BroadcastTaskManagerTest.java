@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static com.l2jserver.gameserver.taskmanager.BroadcastTaskManager.CHAR_INFO;
+import static com.l2jserver.gameserver.taskmanager.BroadcastTaskManager.STATUS_UPDATE;
+import static com.l2jserver.gameserver.taskmanager.BroadcastTaskManager.USER_INFO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+
+/**
+ * Broadcast task manager test.
+ * @since 2.6.3.0
+ */
+class BroadcastTaskManagerTest {
+	
+	/** Characters sent by the tick task itself, without batches on the general thread pool. */
+	private static final int CHARACTERS = 50;
+	
+	private static final int REQUESTS = 12;
+	
+	@Test
+	void testBroadcastsOfATickAreSentOnce() {
+		final BroadcastTaskManager manager = new BroadcastTaskManager(false);
+		final RecordingCharacter[] characters = new RecordingCharacter[CHARACTERS];
+		for (int i = 0; i < characters.length; i++) {
+			characters[i] = new RecordingCharacter(i + 1);
+		}
+		
+		// A buff cycle asking a dozen times for the same packets within a tick.
+		for (int r = 0; r < REQUESTS; r++) {
+			for (RecordingCharacter character : characters) {
+				manager.broadcast(character, STATUS_UPDATE);
+				manager.broadcast(character, USER_INFO | CHAR_INFO);
+			}
+		}
+		manager.tick();
+		manager.tick();
+		
+		for (RecordingCharacter character : characters) {
+			assertThat(character.userInfos.get()).isEqualTo(1);
+			assertThat(character.charInfos.get()).isEqualTo(1);
+			assertThat(character.statusUpdates.get()).isEqualTo(1);
+		}
+		assertThat(manager.getStats()).contains(" |- StatusUpdate: " + (CHARACTERS * REQUESTS) + " requested, " + CHARACTERS + " sent, " + (CHARACTERS * (REQUESTS - 1)) + " suppressed (91.67%)");
+		
+		// The next tick sends the state changed since.
+		manager.broadcast(characters[0], STATUS_UPDATE);
+		manager.tick();
+		
+		assertThat(characters[0].statusUpdates.get()).isEqualTo(2);
+		assertThat(characters[0].userInfos.get()).isEqualTo(1);
+	}
+	
+	@Test
+	void testFlushSendsRightAway() {
+		final BroadcastTaskManager manager = new BroadcastTaskManager(false);
+		final RecordingCharacter character = new RecordingCharacter(1);
+		
+		manager.broadcast(character, CHAR_INFO | STATUS_UPDATE);
+		manager.flush(character);
+		
+		// Only the requested broadcasts are sent.
+		assertThat(character.userInfos.get()).isZero();
+		assertThat(character.charInfos.get()).isEqualTo(1);
+		assertThat(character.statusUpdates.get()).isEqualTo(1);
+		
+		// The character queued for the tick has nothing left to send, flushing again sends nothing.
+		manager.tick();
+		manager.flush(character);
+		
+		assertThat(character.userInfos.get()).isZero();
+		assertThat(character.charInfos.get()).isEqualTo(1);
+		assertThat(character.statusUpdates.get()).isEqualTo(1);
+		assertThat(manager.getStats()).contains(" |- Flushes:         1");
+	}
+	
+	private static final class RecordingCharacter extends L2Character {
+		private final AtomicInteger userInfos = new AtomicInteger();
+		private final AtomicInteger charInfos = new AtomicInteger();
+		private final AtomicInteger statusUpdates = new AtomicInteger();
+		
+		RecordingCharacter(int objectId) {
+			super(objectId, new L2CharTemplate(new StatsSet()));
+		}
+		
+		@Override
+		public void sendBroadcasts(int blocks) {
+			if ((blocks & USER_INFO) != 0) {
+				userInfos.incrementAndGet();
+			}
+			if ((blocks & CHAR_INFO) != 0) {
+				charInfos.incrementAndGet();
+			}
+			super.sendBroadcasts(blocks);
+		}
+		
+		@Override
+		protected void sendStatusUpdate() {
+			statusUpdates.incrementAndGet();
+		}
+		
+		@Override
+		public void updateAbnormalEffect() {
+		}
+		
+		@Override
+		public L2ItemInstance getActiveWeaponInstance() {
+			return null;
+		}
+		
+		@Override
+		public L2Weapon getActiveWeaponItem() {
+			return null;
+		}
+		
+		@Override
+		public L2ItemInstance getSecondaryWeaponInstance() {
+			return null;
+		}
+		
+		@Override
+		public L2Weapon getSecondaryWeaponItem() {
+			return null;
+		}
+		
+		@Override
+		public int getLevel() {
+			return 1;
+		}
+		
+		@Override
+		public boolean isAutoAttackable(L2Character attacker) {
+			return false;
+		}
+		
+		@Override
+		public int getId() {
+			return 0;
+		}
+		
+		@Override
+		public void sendInfo(L2PcInstance activeChar) {
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ *
+ * This file is part of L2J Server.
+ *
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * Effect task manager test.
+ * @since 2.6.3.0
+ */
+class EffectTaskManagerTest {
+	
+	private static final int OWNERS = 1_000;
+	
+	private static final int BUFFS_PER_OWNER = 100;
+	
+	private static final int COUNTDOWN = 3;
+	
+	@Test
+	void testSoakCountdownsExpireInBatchesPerOwner() throws Exception {
+		final CountDownLatch expired = new CountDownLatch(OWNERS * BUFFS_PER_OWNER);
+		final AtomicInteger overlaps = new AtomicInteger();
+		for (int o = 0; o < OWNERS; o++) {
+			final L2Character owner = mock(L2Character.class);
+			final AtomicInteger running = new AtomicInteger();
+			for (int b = 0; b < BUFFS_PER_OWNER; b++) {
+				final AtomicInteger time = new AtomicInteger();
+				final AtomicReference<Future<?>> future = new AtomicReference<>();
+				future.set(EffectTaskManager.getInstance().scheduleCountdown(owner, () -> {
+					// The countdowns of an owner are due in the same tick, so they run one after another.
+					if (running.incrementAndGet() > 1) {
+						overlaps.incrementAndGet();
+					}
+					if (time.incrementAndGet() == COUNTDOWN) {
+						future.get().cancel(false);
+						expired.countDown();
+					}
+					running.decrementAndGet();
+				}));
+			}
+		}
+		
+		assertThat(expired.await(30, TimeUnit.SECONDS)).isTrue();
+		
+		assertThat(overlaps.get()).isZero();
+		assertThat(EffectTaskManager.getInstance().getStats()).anyMatch(line -> line.startsWith(" |- Countdowns:") && (Long.parseLong(line.substring(line.indexOf(':') + 1).trim()) >= (OWNERS * BUFFS_PER_OWNER * COUNTDOWN)));
+	}
+	
+	@Test
+	void testFirstCountdownRunsWithoutDelay() throws Exception {
+		final EffectTaskManager manager = EffectTaskManager.getInstance();
+		final L2Character owner = mock(L2Character.class);
+		final CountDownLatch first = new CountDownLatch(1);
+		final long start = System.nanoTime();
+		final Future<?> task = manager.scheduleCountdown(owner, first::countDown);
+		
+		assertThat(first.await(10, TimeUnit.SECONDS)).isTrue();
+		task.cancel(false);
+		
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+	}
+}
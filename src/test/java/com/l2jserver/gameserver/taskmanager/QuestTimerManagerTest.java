@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.l2jserver.gameserver.model.actor.L2Npc;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.quest.Quest;
+
+/**
+ * Quest timer manager test.
+ * @since 2.6.3.0
+ */
+class QuestTimerManagerTest {
+	
+	private static final int NPCS = 500;
+	
+	private final Map<String, Semaphore> events = new ConcurrentHashMap<>();
+	
+	@Test
+	void testTimersAreIndexedAndFireOnce() throws Exception {
+		final QuestTimerManager manager = QuestTimerManager.getInstance();
+		final Quest quest = createQuest("IndexedQuest");
+		final L2Npc[] npcs = new L2Npc[NPCS];
+		for (int i = 0; i < NPCS; i++) {
+			npcs[i] = mock(L2Npc.class);
+			assertThat(manager.startTimer(quest, "SPAWN", 3_000, npcs[i], null, false)).isNotNull();
+		}
+		final L2PcInstance player = mock(L2PcInstance.class);
+		manager.startTimer(quest, "SPAWN", 3_000, npcs[0], player, false);
+		
+		// The same name, NPC and player make the same timer.
+		assertThat(manager.startTimer(quest, "SPAWN", 3_000, npcs[1], null, false)).isNull();
+		assertThat(manager.getTimer(quest, "SPAWN", npcs[1], null).getNpc()).isSameAs(npcs[1]);
+		assertThat(manager.getTimer(quest, "SPAWN", npcs[0], player).getPlayer()).isSameAs(player);
+		assertThat(manager.getTimer(quest, "SPAWN", null, player)).isNull();
+		assertThat(manager.getTimers(quest).get("SPAWN")).hasSize(NPCS + 1);
+		assertThat(manager.getStats()).contains(" |- IndexedQuest: " + (NPCS + 1));
+		
+		assertThat(event("SPAWN").tryAcquire(NPCS + 1, 10, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(300);
+		
+		assertThat(event("SPAWN").availablePermits()).isZero();
+		assertThat(manager.getTimers(quest)).isEmpty();
+	}
+	
+	@Test
+	void testRepeatingTimersAreCancelledWithTheirOwner() throws Exception {
+		final QuestTimerManager manager = QuestTimerManager.getInstance();
+		final Quest quest = createQuest("RepeatingQuest");
+		final L2Npc npc = mock(L2Npc.class);
+		manager.startTimer(quest, "CHECK", 100, npc, null, true);
+		manager.startTimer(quest, "DESPAWN", 60_000, npc, null, false);
+		
+		assertThat(event("CHECK").tryAcquire(3, 10, TimeUnit.SECONDS)).isTrue();
+		manager.cancelRepeatingTimers(npc);
+		Thread.sleep(400);
+		
+		assertThat(event("CHECK").availablePermits()).isLessThanOrEqualTo(1);
+		assertThat(manager.getTimer(quest, "CHECK", npc, null)).isNull();
+		// Timers that fire once are kept.
+		assertThat(manager.getTimer(quest, "DESPAWN", npc, null)).isNotNull();
+		
+		manager.cancelTimers(quest);
+		assertThat(manager.getTimers(quest)).isEmpty();
+	}
+	
+	@Test
+	void testCancelTimersByName() throws Exception {
+		final QuestTimerManager manager = QuestTimerManager.getInstance();
+		final Quest quest = createQuest("CancelQuest");
+		for (int i = 0; i < 10; i++) {
+			manager.startTimer(quest, "CANCELLED", 200, mock(L2Npc.class), null, false);
+		}
+		manager.startTimer(quest, "KEPT", 200, null, null, false);
+		
+		manager.cancelTimers(quest, "CANCELLED");
+		assertThat(event("KEPT").tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(300);
+		
+		assertThat(event("CANCELLED").availablePermits()).isZero();
+		assertThat(manager.getTimers(quest)).isEmpty();
+	}
+	
+	private Quest createQuest(String name) {
+		final Quest quest = mock(Quest.class);
+		when(quest.getName()).thenReturn(name);
+		doAnswer(invocation -> {
+			event(invocation.getArgument(0)).release();
+			// As the quest timer task does through the quest.
+			return null;
+		}).when(quest).notifyEvent(anyString(), any(), any());
+		doAnswer(invocation -> {
+			QuestTimerManager.getInstance().removeTimer(invocation.getArgument(0));
+			return null;
+		}).when(quest).removeQuestTimer(any());
+		return quest;
+	}
+	
+	private Semaphore event(String name) {
+		return events.computeIfAbsent(name, k -> new Semaphore(0));
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Timing wheel test.
+ * @since 2.6.3.0
+ */
+class TimingWheelTest {
+	
+	private static final int TICK_MILLIS = 50;
+	
+	private static final int WHEEL_SIZE = 8;
+	
+	private final AtomicLong clock = new AtomicLong();
+	
+	private final List<Long> runs = new ArrayList<>();
+	
+	private TimingWheel<TestTask> wheel;
+	
+	@BeforeEach
+	void setUp() {
+		wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, clock::get);
+	}
+	
+	@Test
+	void testTaskRunsOnceWhenDue() {
+		final TestTask task = wheel.schedule(new TestTask(0), millis(120));
+		
+		advanceTo(100);
+		assertThat(task.runs).isZero();
+		advanceTo(150);
+		assertThat(task.runs).isOne();
+		assertThat(runs).containsExactly(150L);
+		advanceTo(1_000);
+		
+		assertThat(task.runs).isOne();
+		assertThat(wheel.getScheduledTasks()).isZero();
+	}
+	
+	@Test
+	void testPeriodicTaskKeepsTheRate() {
+		final TestTask task = wheel.schedule(new TestTask(millis(120)), millis(120));
+		
+		advanceTo(1_250);
+		
+		// Due at 120, 240, 360..., each run at the first tick after, without the drift of rounding the period to whole ticks.
+		assertThat(runs).containsExactly(150L, 250L, 400L, 500L, 600L, 750L, 850L, 1_000L, 1_100L, 1_200L);
+		assertThat(task.runs).isEqualTo(10);
+		assertThat(wheel.getScheduledTasks()).isOne();
+	}
+	
+	@Test
+	void testTaskDueAfterMoreThanOneTurnWaitsInItsSlot() {
+		final TestTask task = wheel.schedule(new TestTask(0), millis(TICK_MILLIS * WHEEL_SIZE * 3));
+		
+		advanceTo((TICK_MILLIS * WHEEL_SIZE * 3) - TICK_MILLIS);
+		assertThat(task.runs).isZero();
+		advanceTo(TICK_MILLIS * WHEEL_SIZE * 3);
+		
+		assertThat(task.runs).isOne();
+	}
+	
+	@Test
+	void testTaskScheduledWhileItsSlotRunsIsNotDelayedByATurn() {
+		final TestTask first = new TestTask(0);
+		final TestTask second = new TestTask(0);
+		wheel.schedule(first, millis(50));
+		clock.set(millis(50));
+		// The second task is scheduled, already due, from a task of the slot being run.
+		wheel.tick(due -> {
+			run(due);
+			wheel.schedule(second, wheel.now());
+		});
+		
+		assertThat(first.runs).isOne();
+		assertThat(second.runs).isZero();
+		advanceTo(100);
+		assertThat(second.runs).isOne();
+	}
+	
+	@Test
+	void testLateTicksRunTheSkippedSlotsInOrder() {
+		final TestTask task = wheel.schedule(new TestTask(millis(TICK_MILLIS)), millis(TICK_MILLIS));
+		
+		clock.set(millis(TICK_MILLIS * 5));
+		wheel.tick(this::run);
+		
+		assertThat(task.runs).isEqualTo(5);
+		assertThat(wheel.getTicks()).isOne();
+		assertThat(wheel.getMaxTickLag()).isEqualTo(TICK_MILLIS * 4);
+	}
+	
+	@Test
+	void testCancelledTaskIsRemoved() {
+		final TestTask task = wheel.schedule(new TestTask(millis(TICK_MILLIS)), millis(TICK_MILLIS));
+		advanceTo(100);
+		assertThat(task.runs).isEqualTo(2);
+		
+		task.cancel(false);
+		advanceTo(500);
+		
+		assertThat(task.runs).isEqualTo(2);
+		assertThat(wheel.getScheduledTasks()).isZero();
+	}
+	
+	@Test
+	void testRunsOfABusyTaskAreSkipped() {
+		final TestTask task = wheel.schedule(new TestTask(millis(TICK_MILLIS)), millis(TICK_MILLIS));
+		final List<TestTask> running = new ArrayList<>();
+		
+		for (int t = 1; t <= 3; t++) {
+			clock.set(millis(TICK_MILLIS * t));
+			wheel.tick(running::addAll);
+		}
+		assertThat(running).hasSize(1);
+		assertThat(wheel.getSkippedBusy()).isEqualTo(2);
+		
+		task.finished();
+		clock.set(millis(TICK_MILLIS * 4));
+		wheel.tick(running::addAll);
+		assertThat(running).hasSize(2);
+	}
+	
+	@Test
+	void testGetWaitsUntilCancelled() throws Exception {
+		final TestTask task = wheel.schedule(new TestTask(millis(TICK_MILLIS)), millis(TICK_MILLIS));
+		
+		assertThatThrownBy(() -> task.get(10, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+		assertThat(task.isDone()).isFalse();
+		
+		final Thread canceller = Thread.ofVirtual().start(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			task.cancel(false);
+		});
+		
+		assertThatThrownBy(task::get).isInstanceOf(CancellationException.class);
+		assertThat(task.isCancelled()).isTrue();
+		assertThat(task.cancel(false)).isFalse();
+		canceller.join();
+	}
+	
+	private void advanceTo(long millis) {
+		for (long t = wheel.now() + millis(TICK_MILLIS); t <= millis(millis); t += millis(TICK_MILLIS)) {
+			clock.set(t);
+			wheel.tick(this::run);
+		}
+	}
+	
+	private void run(List<TestTask> due) {
+		for (TestTask task : due) {
+			task.runs++;
+			runs.add(TimeUnit.NANOSECONDS.toMillis(clock.get()));
+			task.finished();
+		}
+	}
+	
+	private static long millis(long millis) {
+		return TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+	
+	private static final class TestTask extends TimingWheel.PeriodicTask {
+		private int runs;
+		
+		TestTask(long period) {
+			super(period);
+		}
+	}
+}
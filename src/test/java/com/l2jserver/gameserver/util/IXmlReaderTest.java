@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * XML reader test, streaming mode.
+ * @since 2.6.3.0
+ */
+class IXmlReaderTest {
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void testDirectoryIsMergedInPathOrder() throws IOException {
+		// Written in reverse order, so the file system order is unlikely to match.
+		for (int i = 20; i > 0; i--) {
+			write(String.format("%02d.xml", i), "<list><entry id=\"1\" value=\"" + i + "\" /><entry id=\"" + (100 + i) + "\" value=\"" + i + "\" /></list>");
+		}
+		
+		final TestReader reader = new TestReader();
+		assertThat(reader.parseDirectory(dir.toFile(), false, reader::parseEntries, reader::merge)).isTrue();
+		
+		assertThat(reader.files).hasSize(20).isSortedAccordingTo(String::compareTo);
+		// The last file overrides the entries of the previous ones.
+		assertThat(reader.entries).hasSize(21).containsEntry(1, 20);
+		assertThat(reader.entries.keySet()).startsWith(1, 101, 102);
+	}
+	
+	@Test
+	void testSubFoldersAreParsedWhenRecursive() throws IOException {
+		write("a.xml", "<list><entry id=\"1\" value=\"1\" /></list>");
+		write("custom/b.xml", "<list><entry id=\"2\" value=\"2\" /></list>");
+		write("custom/readme.txt", "Not XML.");
+		
+		final TestReader flat = new TestReader();
+		flat.parseDirectory(dir.toFile(), false, flat::parseEntries, flat::merge);
+		final TestReader recursive = new TestReader();
+		recursive.parseDirectory(dir.toFile(), true, recursive::parseEntries, recursive::merge);
+		
+		assertThat(flat.files).containsExactly("a.xml");
+		assertThat(recursive.files).containsExactly("a.xml", "b.xml");
+		assertThat(recursive.entries).containsOnlyKeys(1, 2);
+	}
+	
+	@Test
+	void testMalformedFileIsSkipped() throws IOException {
+		write("a.xml", "<list><entry id=\"1\" value=\"1\" /></list>");
+		write("b.xml", "<list><entry id=\"2\" value=\"2\"></list>");
+		write("c.xml", "<list><entry id=\"3\" value=\"3\" /></list>");
+		
+		final TestReader reader = new TestReader();
+		assertThat(reader.parseDirectory(dir.toFile(), false, reader::parseEntries, reader::merge)).isTrue();
+		
+		assertThat(reader.files).containsExactly("a.xml", "c.xml");
+		assertThat(reader.entries).containsOnlyKeys(1, 3);
+	}
+	
+	@Test
+	void testMissingDirectory() {
+		final TestReader reader = new TestReader();
+		
+		assertThat(reader.parseDirectory(dir.resolve("missing").toFile(), false, reader::parseEntries, reader::merge)).isFalse();
+	}
+	
+	private void write(String name, String content) throws IOException {
+		final Path file = dir.resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+	
+	private static final class TestReader implements IXmlReader {
+		private final Map<Integer, Integer> entries = new LinkedHashMap<>();
+		
+		private final List<String> files = new ArrayList<>();
+		
+		@Override
+		public void load() {
+		}
+		
+		Map<Integer, Integer> parseEntries(XMLStreamReader reader, File f) throws XMLStreamException {
+			final Map<Integer, Integer> parsed = new LinkedHashMap<>();
+			while (reader.hasNext()) {
+				if ((reader.next() == XMLStreamConstants.START_ELEMENT) && reader.getLocalName().equals("entry")) {
+					parsed.put(parseInteger(reader, "id"), parseInteger(reader, "value"));
+				}
+			}
+			return parsed;
+		}
+		
+		void merge(File f, Map<Integer, Integer> parsed) {
+			files.add(f.getName());
+			entries.putAll(parsed);
+		}
+	}
+}
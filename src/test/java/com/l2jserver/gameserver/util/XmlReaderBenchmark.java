@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2004-2025 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * XML reader benchmark.<br>
+ * Loads a directory of generated multisell like files with the validating document reader, one file after another, and with the streaming reader, in parallel.<br>
+ * Run it with {@code -prof gc} to compare the allocations of both readers.
+ * @since 2.6.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlReaderBenchmark {
+	
+	private static final int FILES = 200;
+	
+	private static final int ITEMS_PER_FILE = 100;
+	
+	private static final String SCHEMA = """
+		<?xml version="1.0" encoding="UTF-8"?>
+		<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+			<xs:element name="list">
+				<xs:complexType>
+					<xs:sequence>
+						<xs:element name="item" maxOccurs="unbounded">
+							<xs:complexType>
+								<xs:sequence>
+									<xs:element name="ingredient" maxOccurs="unbounded" type="entry" />
+									<xs:element name="production" maxOccurs="unbounded" type="entry" />
+								</xs:sequence>
+							</xs:complexType>
+						</xs:element>
+					</xs:sequence>
+				</xs:complexType>
+			</xs:element>
+			<xs:complexType name="entry">
+				<xs:attribute name="id" type="xs:int" use="required" />
+				<xs:attribute name="count" type="xs:long" use="required" />
+			</xs:complexType>
+		</xs:schema>
+		""";
+	
+	private Path dir;
+	
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("xml-reader-benchmark");
+		Files.writeString(dir.resolve("list.xsd"), SCHEMA);
+		for (int f = 0; f < FILES; f++) {
+			final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+			sb.append("<list xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"list.xsd\">\n");
+			for (int i = 0; i < ITEMS_PER_FILE; i++) {
+				sb.append("\t<item>\n");
+				sb.append("\t\t<ingredient id=\"57\" count=\"").append(1000 * (i + 1)).append("\" />\n");
+				sb.append("\t\t<ingredient id=\"").append(1000 + i).append("\" count=\"1\" />\n");
+				sb.append("\t\t<production id=\"").append(5000 + i).append("\" count=\"1\" />\n");
+				sb.append("\t</item>\n");
+			}
+			sb.append("</list>\n");
+			Files.writeString(dir.resolve(f + ".xml"), sb);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+	
+	@Benchmark
+	public long documentSequential() {
+		final DocumentReader reader = new DocumentReader();
+		reader.parseDirectory(dir.toFile(), false);
+		return reader._entries;
+	}
+	
+	@Benchmark
+	public long streamParallel() {
+		final StreamReader reader = new StreamReader();
+		reader.parseDirectory(dir.toFile(), false, reader::parseList, reader::merge);
+		return reader._entries;
+	}
+	
+	private static final class DocumentReader implements IXmlReader {
+		private long _entries;
+		
+		@Override
+		public void load() {
+		}
+		
+		@Override
+		public void parseDocument(Document doc, File f) {
+			for (Node item = doc.getFirstChild().getFirstChild(); item != null; item = item.getNextSibling()) {
+				for (Node entry = item.getFirstChild(); entry != null; entry = entry.getNextSibling()) {
+					if (entry.getAttributes() != null) {
+						_entries += parseInteger(entry.getAttributes(), "id");
+					}
+				}
+			}
+		}
+	}
+	
+	private static final class StreamReader implements IXmlReader {
+		private long _entries;
+		
+		@Override
+		public void load() {
+		}
+		
+		List<Integer> parseList(XMLStreamReader reader, File f) throws XMLStreamException {
+			final List<Integer> ids = new ArrayList<>();
+			while (reader.hasNext()) {
+				if ((reader.next() == XMLStreamConstants.START_ELEMENT) && !reader.getLocalName().equals("item") && !reader.getLocalName().equals("list")) {
+					ids.add(parseInteger(reader, "id"));
+				}
+			}
+			return ids;
+		}
+		
+		void merge(File f, List<Integer> ids) {
+			for (int id : ids) {
+				_entries += id;
+			}
+		}
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(XmlReaderBenchmark.class.getSimpleName()).build()).run();
+	}
+}